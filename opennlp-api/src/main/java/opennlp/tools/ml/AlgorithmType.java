@@ -27,6 +27,23 @@ public enum AlgorithmType {
       "opennlp.tools.ml.maxent.quasinewton.QNTrainer",
       "opennlp.tools.ml.maxent.io.QNModelReader",
       "opennlp.tools.ml.maxent.io.BinaryQNModelWriter"),
+  /**
+   * Maxent models trained with stochastic gradient descent directly on the event stream,
+   * the trained models are {@link #MAXENT} models.
+   */
+  MAXENT_SGD("MAXENT_SGD", "GIS",
+      "opennlp.tools.ml.maxent.sgd.SGDTrainer",
+      "opennlp.tools.ml.maxent.io.GISModelReader",
+      "opennlp.tools.ml.maxent.io.BinaryGISModelWriter"),
+  /**
+   * Maxent models trained on hashed predicates, see {@link opennlp.tools.ml.model.FeatureHasher}.
+   * There is no dedicated trainer, hashing is enabled via the parameters of the
+   * {@link #MAXENT} and {@link #MAXENT_QN} trainers.
+   */
+  MAXENT_HASHED("MAXENT_HASHED", "HashedMaxent",
+      null,
+      "opennlp.tools.ml.maxent.io.HashedMaxentModelReader",
+      "opennlp.tools.ml.maxent.io.BinaryHashedMaxentModelWriter"),
   PERCEPTRON("PERCEPTRON", "Perceptron",
       "opennlp.tools.ml.perceptron.PerceptronTrainer",
       "opennlp.tools.ml.perceptron.PerceptronModelReader",
@@ -60,6 +77,9 @@ public enum AlgorithmType {
     return algorithmType;
   }
 
+  /**
+   * @return The class name of the trainer, or {@code null} if there is no dedicated trainer.
+   */
   public String getTrainerClazz() {
     return trainerClazz;
   }
@@ -17,24 +17,119 @@
 
 package opennlp.tools.ml;
 
+import java.lang.reflect.Constructor;
 import java.util.List;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import opennlp.tools.ml.model.Context;
 
 /**
  * Utility class for simple vector arithmetic.
+ * <p>
+ * The numeric loops are delegated to a {@link MathKernel}, which can be configured via the
+ * system property {@code opennlp.math.kernel} by specifying an implementation via its fully
+ * qualified classname. If not specified, the SIMD kernel {@code opennlp.tools.ml.VectorMathKernel}
+ * of the {@code opennlp-ml-vector} module is used if it is on the classpath and the JVM was
+ * started with {@code --add-modules jdk.incubator.vector}. Otherwise, the
+ * {@link ScalarMathKernel} is used.
  */
 public class ArrayMath {
 
+  private static final Logger logger = LoggerFactory.getLogger(ArrayMath.class);
+
+  private static final String VECTOR_KERNEL = "opennlp.tools.ml.VectorMathKernel";
+  private static final MathKernel KERNEL = loadKernel();
+
+  private static MathKernel loadKernel() {
+    final String clazzName = System.getProperty("opennlp.math.kernel");
+    if (clazzName != null) {
+      try {
+        MathKernel kernel = newKernel(clazzName);
+        logger.debug("Using '{}' as math kernel implementation.", clazzName);
+        return kernel;
+      } catch (Exception e) {
+        throw new RuntimeException("Could not load specified math kernel implementation: '"
+            + clazzName + "'. Reason: " + e.getLocalizedMessage(), e);
+      }
+    }
+
+    if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+      try {
+        MathKernel kernel = newKernel(VECTOR_KERNEL);
+        logger.debug("Using '{}' as math kernel implementation.", VECTOR_KERNEL);
+        return kernel;
+      } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+        logger.debug("Vector math kernel is not available, falling back to scalar kernel.", e);
+      }
+    }
+    return new ScalarMathKernel();
+  }
+
+  private static MathKernel newKernel(String clazzName) throws ReflectiveOperationException {
+    final Class<?> clazz = Class.forName(clazzName);
+    final Constructor<?> cons = clazz.getDeclaredConstructor();
+    return (MathKernel) cons.newInstance();
+  }
+
+  /**
+   * @return The {@link MathKernel} all computations of this class are delegated to.
+   */
+  public static MathKernel getKernel() {
+    return KERNEL;
+  }
+
   public static double innerProduct(double[] vecA, double[] vecB) {
     if (vecA == null || vecB == null || vecA.length != vecB.length)
       return Double.NaN;
 
-    double product = 0.0;
-    for (int i = 0; i < vecA.length; i++) {
-      product += vecA[i] * vecB[i];
-    }
-    return product;
+    return KERNEL.dot(vecA, 0, vecB, 0, vecA.length);
+  }
+
+  /**
+   * Computes the inner product of a sparse vector and a dense vector {@code x}.
+   *
+   * @param x The dense vector.
+   * @param offset The position in {@code x} the {@code indices} are relative to.
+   * @param indices The positions of the non-zero elements of the sparse vector.
+   * @param values The non-zero elements of the sparse vector, or {@code null} if all are {@code 1}.
+   * @return The sum of {@code values[i] * x[offset + indices[i]]}.
+   */
+  public static double sparseInnerProduct(double[] x, int offset, int[] indices, float[] values) {
+    return KERNEL.sparseDot(x, offset, indices, values, 0, indices.length);
+  }
+
+  /**
+   * Computes the inner product of a sparse vector, stored in a range of {@code indices}
+   * and {@code values}, and a dense vector {@code x}.
+   *
+   * @param x The dense vector.
+   * @param offset The position in {@code x} the {@code indices} are relative to.
+   * @param indices The positions of the non-zero elements of the sparse vector.
+   * @param values The non-zero elements of the sparse vector, or {@code null} if all are {@code 1}.
+   * @param start The index of the first non-zero element in {@code indices} and {@code values}.
+   * @param end The index after the last non-zero element in {@code indices} and {@code values}.
+   * @return The sum of {@code values[i] * x[offset + indices[i]]}.
+   */
+  public static double sparseInnerProduct(double[] x, int offset, int[] indices, float[] values,
+                                          int start, int end) {
+    return KERNEL.sparseDot(x, offset, indices, values, start, end - start);
+  }
+
+  /**
+   * Adds {@code a} times the {@code length} elements of {@code x} starting at {@code xOffset}
+   * to the elements of {@code y} starting at {@code yOffset}.
+   *
+   * @param a The factor.
+   * @param x The vector to add.
+   * @param xOffset The index of the first element of {@code x}.
+   * @param y The vector to add to.
+   * @param yOffset The index of the first element of {@code y}.
+   * @param length The number of elements.
+   */
+  public static void axpy(double a, double[] x, int xOffset, double[] y, int yOffset, int length) {
+    KERNEL.axpy(a, x, xOffset, y, yOffset, length);
   }
 
   /**
@@ -75,15 +170,60 @@ public class ArrayMath {
    *
    * @param x The vector of {@code double} values.
    * @return The log-sum of exponentials of vector elements.
+   * @throws IllegalArgumentException Thrown if {@code x} is {@code null} or empty. Earlier
+   *                                  versions threw the same exception from {@link #max(double[])}.
    */
   public static double logSumOfExps(double[] x) {
-    double max = max(x);
-    double sum = 0.0;
-    for (double v : x) {
-      if (v != Double.NEGATIVE_INFINITY)
-        sum += StrictMath.exp(v - max);
+    if (x == null || x.length == 0) {
+      throw new IllegalArgumentException("Vector x is null or empty");
+    }
+    return logSumOfExps(x, 0, x.length);
+  }
+
+  /**
+   * Computes {@code \log(\sum_{i=1}^n e^{x_i})} over the {@code length} elements of
+   * {@code x} starting at {@code offset}.
+   *
+   * @param x The vector of {@code double} values.
+   * @param offset The index of the first element.
+   * @param length The number of elements.
+   * @return The log-sum of exponentials of the vector elements in the given range.
+   * @throws IllegalArgumentException Thrown if {@code x} is {@code null} or the range is empty.
+   * @see #logSumOfExps(double[])
+   */
+  public static double logSumOfExps(double[] x, int offset, int length) {
+    if (x == null || length <= 0) {
+      throw new IllegalArgumentException("Vector x is null or the range is empty");
     }
-    return max + StrictMath.log(sum);
+    double max = KERNEL.max(x, offset, length);
+    return max + StrictMath.log(KERNEL.sumOfExps(x, offset, length, max));
+  }
+
+  /**
+   * Replaces the {@code length} elements of {@code x} starting at {@code offset}
+   * by their softmax, {@code e^(x_i) / \sum_j e^(x_j)}, computed as
+   * {@code e^(x_i - logSumOfExps(x))}.
+   *
+   * @param x The vector of {@code double} values.
+   * @param offset The index of the first element.
+   * @param length The number of elements.
+   * @see #logSumOfExps(double[], int, int)
+   */
+  public static void softmax(double[] x, int offset, int length) {
+    KERNEL.exp(x, offset, length, logSumOfExps(x, offset, length));
+  }
+
+  /**
+   * Replaces the {@code length} elements of {@code x} starting at {@code offset}
+   * by {@code e^(x_i)}, divided by the sum of these exponentials. Unlike
+   * {@link #softmax(double[], int, int)} the exponentials are not shifted.
+   *
+   * @param x The vector of {@code double} values.
+   * @param offset The index of the first element.
+   * @param length The number of elements.
+   */
+  public static void normalizeExps(double[] x, int offset, int length) {
+    KERNEL.divide(x, offset, length, KERNEL.exp(x, offset, length, 0));
   }
 
   /**
@@ -115,6 +255,58 @@ public class ArrayMath {
     return maxIdx;
   }
 
+  /**
+   * Finds the index of the maximum element within the {@code length} elements
+   * of {@code x} starting at {@code offset}.
+   *
+   * @param x The vector of {@code double} values.
+   * @param offset The index of the first element.
+   * @param length The number of elements.
+   * @return The index of the maximum element, relative to {@code offset}.
+   *     Index of the first maximum element is returned if multiple maximums are found.
+   */
+  public static int argmax(double[] x, int offset, int length) {
+    if (x == null || length <= 0) {
+      throw new IllegalArgumentException("Vector x is null or the range is empty");
+    }
+
+    int maxIdx = offset;
+    for (int i = offset + 1; i < offset + length; i++) {
+      if (x[maxIdx] < x[i])
+        maxIdx = i;
+    }
+    return maxIdx - offset;
+  }
+
+  /**
+   * Adds the parameters of the predicates from {@code start} to {@code end}, weighted by
+   * their values, to the scores of their outcomes.
+   *
+   * @param params The parameters of all predicates, indexed by predicate index.
+   * @param predicates The predicate indexes.
+   * @param values The values of the predicates, or {@code null} if all values are {@code 1}.
+   * @param start The index of the first predicate in {@code predicates} and {@code values}.
+   * @param end The index after the last predicate in {@code predicates} and {@code values}.
+   * @param scores The scores of the outcomes to add to.
+   */
+  public static void sumFeatures(Context[] params, int[] predicates, float[] values,
+                                 int start, int end, double[] scores) {
+    for (int i = start; i < end; i++) {
+      Context predParams = params[predicates[i]];
+      if (predParams != null) {
+        int[] activeOutcomes = predParams.getOutcomes();
+        double[] activeParameters = predParams.getParameters();
+        double value = 1;
+        if (values != null) {
+          value = values[i];
+        }
+        for (int ai = 0; ai < activeOutcomes.length; ai++) {
+          scores[activeOutcomes[ai]] += activeParameters[ai] * value;
+        }
+      }
+    }
+  }
+
   public static void sumFeatures(Context[] context, float[] values, double[] prior) {
     for (int ci = 0; ci < context.length; ci++) {
       if (context[ci] != null) {
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml;
+
+/**
+ * The numeric kernels behind {@link ArrayMath}.
+ * <p>
+ * All methods work on the {@code length} elements of an array which start at
+ * the given offset. Implementations must be stateless and thread-safe.
+ * The implementation used by {@link ArrayMath} is chosen once, at class
+ * initialization, see {@link ArrayMath#getKernel()}.
+ *
+ * @see ScalarMathKernel
+ */
+public interface MathKernel {
+
+  /**
+   * @return The inner product of the vectors {@code a} and {@code b}.
+   */
+  double dot(double[] a, int aOffset, double[] b, int bOffset, int length);
+
+  /**
+   * Computes the inner product of a sparse vector, given by {@code indices} and
+   * {@code values}, and the dense vector {@code x}.
+   *
+   * @param x The dense vector.
+   * @param offset The position in {@code x} the {@code indices} are relative to.
+   * @param indices The positions of the non-zero elements of the sparse vector.
+   * @param values The non-zero elements of the sparse vector, or {@code null} if all are {@code 1}.
+   * @param start The index of the first non-zero element in {@code indices} and {@code values}.
+   * @param length The number of non-zero elements.
+   * @return The sum of {@code values[i] * x[offset + indices[i]]}.
+   */
+  double sparseDot(double[] x, int offset, int[] indices, float[] values, int start, int length);
+
+  /**
+   * Adds {@code a * x} to {@code y}.
+   */
+  void axpy(double a, double[] x, int xOffset, double[] y, int yOffset, int length);
+
+  /**
+   * @return The maximum element. Must not be called with a {@code length} of {@code 0}.
+   */
+  double max(double[] x, int offset, int length);
+
+  /**
+   * @return The sum of {@code e^(x[i] - shift)}, elements which are negative infinity are skipped.
+   */
+  double sumOfExps(double[] x, int offset, int length, double shift);
+
+  /**
+   * Replaces each element {@code x[i]} by {@code e^(x[i] - shift)}.
+   *
+   * @return The sum of the new elements.
+   */
+  double exp(double[] x, int offset, int length, double shift);
+
+  /**
+   * Divides each element by {@code divisor}.
+   */
+  void divide(double[] x, int offset, int length, double divisor);
+}
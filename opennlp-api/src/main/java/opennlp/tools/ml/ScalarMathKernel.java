@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml;
+
+/**
+ * The plain Java {@link MathKernel}, available on every JVM.
+ * <p>
+ * Its results are bit-for-bit identical to the sequential loops {@link ArrayMath}
+ * has always used.
+ */
+public class ScalarMathKernel implements MathKernel {
+
+  @Override
+  public double dot(double[] a, int aOffset, double[] b, int bOffset, int length) {
+    double product = 0.0;
+    for (int i = 0; i < length; i++) {
+      product += a[aOffset + i] * b[bOffset + i];
+    }
+    return product;
+  }
+
+  @Override
+  public double sparseDot(double[] x, int offset, int[] indices, float[] values, int start, int length) {
+    double sum = 0.0;
+    if (values == null) {
+      for (int i = start; i < start + length; i++) {
+        sum += x[offset + indices[i]];
+      }
+    } else {
+      for (int i = start; i < start + length; i++) {
+        sum += values[i] * x[offset + indices[i]];
+      }
+    }
+    return sum;
+  }
+
+  @Override
+  public void axpy(double a, double[] x, int xOffset, double[] y, int yOffset, int length) {
+    for (int i = 0; i < length; i++) {
+      y[yOffset + i] += x[xOffset + i] * a;
+    }
+  }
+
+  @Override
+  public double max(double[] x, int offset, int length) {
+    double max = x[offset];
+    for (int i = offset + 1; i < offset + length; i++) {
+      if (max < x[i])
+        max = x[i];
+    }
+    return max;
+  }
+
+  @Override
+  public double sumOfExps(double[] x, int offset, int length, double shift) {
+    double sum = 0.0;
+    for (int i = offset; i < offset + length; i++) {
+      if (x[i] != Double.NEGATIVE_INFINITY)
+        sum += StrictMath.exp(x[i] - shift);
+    }
+    return sum;
+  }
+
+  @Override
+  public double exp(double[] x, int offset, int length, double shift) {
+    double sum = 0.0;
+    for (int i = offset; i < offset + length; i++) {
+      x[i] = StrictMath.exp(x[i] - shift);
+      sum += x[i];
+    }
+    return sum;
+  }
+
+  @Override
+  public void divide(double[] x, int offset, int length, double divisor) {
+    for (int i = offset; i < offset + length; i++) {
+      x[i] /= divisor;
+    }
+  }
+}
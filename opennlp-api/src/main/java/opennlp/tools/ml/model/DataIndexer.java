@@ -32,6 +32,10 @@ import opennlp.tools.util.Parameters;
 public interface DataIndexer<P extends Parameters> {
   
   /**
+   * Indexers which store the contexts in the {@link #getFlatContexts() flat layout} may
+   * have to copy them into these arrays, which holds the contexts in memory twice.
+   * Trainers should use {@link #getFlatContexts()} instead.
+   *
    * @return Retrieves a 2-dimensional array whose first dimension is the event
    *         index and array this refers to contains the contexts for that event.
    */
@@ -70,11 +74,37 @@ public interface DataIndexer<P extends Parameters> {
    */
   float[][] getValues();
 
+  /**
+   * @return Retrieves the contexts and values of the unique events in a flat layout, which
+   *         trainers should prefer to {@link #getContexts()} and {@link #getValues()}.
+   *         The default implementation converts the arrays of those methods.
+   */
+  default FlatContexts getFlatContexts() {
+    return FlatContexts.of(getContexts(), getValues());
+  }
+
   /**
    * @return Retrieves the number of total events indexed.
    */
   int getNumEvents();
-  
+
+  /**
+   * @return Retrieves the {@link FeatureHasher} which maps the predicates to hash
+   *         buckets, or {@code null} if predicates are indexed by name.
+   */
+  default FeatureHasher getFeatureHasher() {
+    return null;
+  }
+
+  /**
+   * @return Retrieves an array of hash buckets indexed by context index, or {@code null}
+   *         if predicates are indexed by name. In hashing mode each context index stands
+   *         for all predicates of one bucket, see {@link #getFeatureHasher()}.
+   */
+  default int[] getPredicateBuckets() {
+    return null;
+  }
+
   /**
    * Sets parameters used during the data indexing.
    *
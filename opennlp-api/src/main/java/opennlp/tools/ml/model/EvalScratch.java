@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.model;
+
+/**
+ * Reusable working memory for {@link MaxentModel#eval(String[], EvalScratch)}.
+ * <p>
+ * The buffers grow on demand and are retained between calls, so that repeated
+ * evaluations do not allocate once the buffers have reached their final size.
+ * <p>
+ * Instances are <b>not</b> thread-safe: each thread needs its own instance, for example
+ * by holding it in a component which is confined to a single thread.
+ */
+public final class EvalScratch {
+
+  private double[] probs = new double[0];
+  private int[] indices = new int[0];
+
+  /**
+   * @param length The minimum length of the buffer.
+   * @return A {@code double[]} of at least {@code length} elements. Its content is undefined
+   *         and it is overwritten by the next call of this method.
+   */
+  public double[] probs(int length) {
+    if (probs.length < length) {
+      probs = new double[length];
+    }
+    return probs;
+  }
+
+  /**
+   * @param length The minimum length of the buffer.
+   * @return An {@code int[]} of at least {@code length} elements, e.g. to hold predicate
+   *         indices. Its content is undefined and it is overwritten by the next call of this method.
+   */
+  public int[] indices(int length) {
+    if (indices.length < length) {
+      indices = new int[length];
+    }
+    return indices;
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.model;
+
+import opennlp.tools.util.Parameters;
+
+/**
+ * Maps predicate names to a fixed number of hash buckets, also known as the
+ * <i>hashing trick</i>.
+ * <p>
+ * A model trained on hashed predicates does not need to store a predicate
+ * string table: its parameters are addressed by bucket, and at evaluation time
+ * the bucket of a context predicate is computed directly from its characters.
+ * Predicates which fall into the same bucket share their parameters.
+ * <p>
+ * The hash function is a 32-bit MurmurHash3 over the UTF-16 code units of a
+ * predicate. Unlike {@link String#hashCode()} it is well distributed in the low
+ * bits and, being part of the model format, it must never change.
+ * <p>
+ * Instances are immutable and safe for concurrent use.
+ */
+public final class FeatureHasher {
+
+  /**
+   * The number of hash buckets. Hashing is enabled if this training parameter is
+   * set to a positive value.
+   */
+  public static final String HASH_SIZE_PARAM = "FeatureHashSize";
+
+  /**
+   * The seed of the hash function.
+   */
+  public static final String HASH_SEED_PARAM = "FeatureHashSeed";
+
+  public static final int HASH_SEED_DEFAULT = 0;
+
+  private static final int C1 = 0xcc9e2d51;
+  private static final int C2 = 0x1b873593;
+
+  private final int size;
+  private final int seed;
+
+  /**
+   * Initializes a {@link FeatureHasher}.
+   *
+   * @param size The number of buckets. Must be positive.
+   * @param seed The seed of the hash function.
+   * @throws IllegalArgumentException Thrown if {@code size} is not positive.
+   */
+  public FeatureHasher(int size, int seed) {
+    if (size <= 0) {
+      throw new IllegalArgumentException("Feature hash size must be positive, but is " + size);
+    }
+    this.size = size;
+    this.seed = seed;
+  }
+
+  /**
+   * @param parameters The training {@link Parameters}.
+   * @return The {@link FeatureHasher} configured via {@link #HASH_SIZE_PARAM} and
+   *         {@link #HASH_SEED_PARAM}, or {@code null} if hashing is not enabled.
+   */
+  public static FeatureHasher fromParameters(Parameters parameters) {
+    int size = parameters.getIntParameter(HASH_SIZE_PARAM, 0);
+    if (size <= 0) {
+      return null;
+    }
+    return new FeatureHasher(size, parameters.getIntParameter(HASH_SEED_PARAM, HASH_SEED_DEFAULT));
+  }
+
+  /**
+   * @return The number of buckets.
+   */
+  public int getSize() {
+    return size;
+  }
+
+  /**
+   * @return The seed of the hash function.
+   */
+  public int getSeed() {
+    return seed;
+  }
+
+  /**
+   * @param predicate The predicate name. Must not be {@code null}.
+   * @return The bucket of {@code predicate}, in the range {@code [0, getSize())}.
+   */
+  public int bucket(String predicate) {
+    return Math.floorMod(hash(predicate), size);
+  }
+
+  private int hash(String s) {
+    int length = s.length();
+    int h = seed;
+    for (int i = 1; i < length; i += 2) {
+      int k = s.charAt(i - 1) | (s.charAt(i) << 16);
+      h ^= mixK(k);
+      h = Integer.rotateLeft(h, 13) * 5 + 0xe6546b64;
+    }
+    if ((length & 1) == 1) {
+      h ^= mixK(s.charAt(length - 1));
+    }
+
+    h ^= 2 * length;
+    h ^= h >>> 16;
+    h *= 0x85ebca6b;
+    h ^= h >>> 13;
+    h *= 0xc2b2ae35;
+    return h ^ (h >>> 16);
+  }
+
+  private static int mixK(int k) {
+    return Integer.rotateLeft(k * C1, 15) * C2;
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * size + seed;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return obj == this
+        || obj instanceof FeatureHasher other && size == other.size && seed == other.seed;
+  }
+
+  @Override
+  public String toString() {
+    return "FeatureHasher{size=" + size + ", seed=" + seed + "}";
+  }
+}
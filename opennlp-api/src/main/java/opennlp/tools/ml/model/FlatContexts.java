@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.model;
+
+import java.util.Arrays;
+
+/**
+ * The contexts of the unique training events in a flat, compressed sparse row layout.
+ * <p>
+ * The predicate indexes of all contexts are stored one after the other in a single
+ * {@code int[]}, the context {@code ci} spans the positions from {@code offsets[ci]}
+ * (inclusive) to {@code offsets[ci + 1]} (exclusive). The values, if any, are stored
+ * at the same positions in a single {@code float[]}. Compared to an {@code int[][]}
+ * this avoids one array object per event and keeps the data of consecutive events
+ * next to each other in memory.
+ * <p>
+ * Instances are not copied and must not be modified.
+ *
+ * @see DataIndexer#getFlatContexts()
+ */
+public final class FlatContexts {
+
+  private final int[] offsets;
+  private final int[] predicates;
+  private final float[] values;
+
+  /**
+   * Initializes {@link FlatContexts}.
+   *
+   * @param offsets The start of each context in {@code predicates}, followed by the end of
+   *                the last context. Must contain at least one element.
+   * @param predicates The predicate indexes of all contexts.
+   * @param values The values of all predicates, or {@code null} if all values are {@code 1}.
+   * @throws IllegalArgumentException Thrown if the arrays do not fit together.
+   */
+  public FlatContexts(int[] offsets, int[] predicates, float[] values) {
+    if (offsets.length == 0 || offsets[0] != 0 || offsets[offsets.length - 1] != predicates.length) {
+      throw new IllegalArgumentException("The offsets must span all predicates");
+    }
+    if (values != null && values.length != predicates.length) {
+      throw new IllegalArgumentException("There must be one value per predicate, but there are "
+          + values.length + " values for " + predicates.length + " predicates");
+    }
+
+    this.offsets = offsets;
+    this.predicates = predicates;
+    this.values = values;
+  }
+
+  /**
+   * Converts contexts stored as one array per event.
+   *
+   * @param contexts The predicate indexes of each context.
+   * @param values The values of each context, or {@code null} if all values are {@code 1}.
+   *               A {@code null} element stands for a context whose values are all {@code 1},
+   *               only the first values of a longer element are used.
+   * @return The {@link FlatContexts}.
+   */
+  public static FlatContexts of(int[][] contexts, float[][] values) {
+    int[] offsets = new int[contexts.length + 1];
+    for (int ci = 0; ci < contexts.length; ci++) {
+      offsets[ci + 1] = offsets[ci] + contexts[ci].length;
+    }
+
+    int[] predicates = new int[offsets[contexts.length]];
+    float[] flatValues = values != null ? new float[predicates.length] : null;
+    for (int ci = 0; ci < contexts.length; ci++) {
+      System.arraycopy(contexts[ci], 0, predicates, offsets[ci], contexts[ci].length);
+      if (flatValues != null) {
+        if (values[ci] != null) {
+          System.arraycopy(values[ci], 0, flatValues, offsets[ci], contexts[ci].length);
+        } else {
+          Arrays.fill(flatValues, offsets[ci], offsets[ci + 1], 1f);
+        }
+      }
+    }
+    return new FlatContexts(offsets, predicates, flatValues);
+  }
+
+  /**
+   * @return Retrieves the number of contexts.
+   */
+  public int size() {
+    return offsets.length - 1;
+  }
+
+  /**
+   * @return Retrieves the start of each context in {@link #getPredicates()}, followed by the
+   *         end of the last context.
+   */
+  public int[] getOffsets() {
+    return offsets;
+  }
+
+  /**
+   * @return Retrieves the predicate indexes of all contexts.
+   */
+  public int[] getPredicates() {
+    return predicates;
+  }
+
+  /**
+   * @return Retrieves the values of all predicates, or {@code null} if all values are {@code 1}.
+   */
+  public float[] getValues() {
+    return values;
+  }
+
+  /**
+   * @param ci The index of a context.
+   * @return A copy of the predicate indexes of the context.
+   */
+  public int[] getContext(int ci) {
+    return Arrays.copyOfRange(predicates, offsets[ci], offsets[ci + 1]);
+  }
+
+  /**
+   * @return Retrieves a copy of the contexts as one array per context.
+   */
+  public int[][] toArrays() {
+    int[][] contexts = new int[size()][];
+    for (int ci = 0; ci < contexts.length; ci++) {
+      contexts[ci] = getContext(ci);
+    }
+    return contexts;
+  }
+
+  /**
+   * Collects contexts one by one into {@link FlatContexts}.
+   */
+  public static class Builder {
+
+    private int[] offsets;
+    private int[] predicates;
+    private int size;
+
+    /**
+     * @param expectedSize The expected number of contexts.
+     */
+    public Builder(int expectedSize) {
+      offsets = new int[StrictMath.max(expectedSize, 1) + 1];
+      predicates = new int[StrictMath.max(expectedSize, 1) * 4];
+    }
+
+    /**
+     * Appends a context.
+     *
+     * @param context The predicate indexes of the context.
+     * @return This {@link Builder}.
+     */
+    public Builder add(int[] context) {
+      int end = offsets[size] + context.length;
+      if (size + 2 > offsets.length) {
+        offsets = Arrays.copyOf(offsets, offsets.length * 2);
+      }
+      if (end > predicates.length) {
+        predicates = Arrays.copyOf(predicates, StrictMath.max(end, predicates.length * 2));
+      }
+      System.arraycopy(context, 0, predicates, offsets[size], context.length);
+      offsets[++size] = end;
+      return this;
+    }
+
+    /**
+     * @return The {@link FlatContexts} with all contexts added so far, without values.
+     */
+    public FlatContexts build() {
+      return new FlatContexts(Arrays.copyOf(offsets, size + 1),
+          Arrays.copyOf(predicates, offsets[size]), null);
+    }
+  }
+}
@@ -17,6 +17,8 @@
 
 package opennlp.tools.ml.model;
 
+import java.util.Arrays;
+
 /**
  * Interface for maximum entropy models.
  **/
@@ -56,6 +58,108 @@ public interface MaxentModel {
    */
   double[] eval(String[] context, float[] values);
 
+  /**
+   * Evaluates a {@code context} using the buffers of {@code scratch} instead of
+   * allocating new ones.
+   * <p>
+   * The returned array is owned by {@code scratch}: it is only valid until the next
+   * evaluation with the same {@code scratch} and may be longer than {@link #getNumOutcomes()}.
+   *
+   * @param context An array of String names of the contextual predicates
+   *                which are to be evaluated together.
+   * @param scratch The {@link EvalScratch} providing the working memory of the evaluation.
+   * @return An array whose first {@link #getNumOutcomes()} elements are the probabilities
+   *         for each of the different outcomes, all of which sum to {@code 1}.
+   */
+  default double[] eval(String[] context, EvalScratch scratch) {
+    double[] probs = scratch.probs(getNumOutcomes());
+    Arrays.fill(probs, 0, getNumOutcomes(), 0);
+    return eval(context, probs);
+  }
+
+  /**
+   * Evaluates a batch of {@code contexts}.
+   * <p>
+   * Implementations may override this method to share lookups and buffers
+   * across the contexts of the batch. The default implementation evaluates
+   * each context on its own.
+   *
+   * @param contexts The contexts to be evaluated, each one an array of String names
+   *                 of the contextual predicates which are to be evaluated together.
+   * @param probs An array with one row per context, each row with a length of
+   *              {@link #getNumOutcomes()}. Row {@code i} is populated with the probabilities
+   *              for each of the different outcomes given {@code contexts[i]}.
+   * @return The populated {@code probs}.
+   * @throws IllegalArgumentException Thrown if {@code probs} has fewer rows than
+   *                                  there are {@code contexts}.
+   */
+  default double[][] evalBatch(String[][] contexts, double[][] probs) {
+    checkBatchSize(contexts, probs);
+    for (int i = 0; i < contexts.length; i++) {
+      Arrays.fill(probs[i], 0);
+      eval(contexts[i], probs[i]);
+    }
+    return probs;
+  }
+
+  /**
+   * Evaluates a batch of {@code contexts} into a single, flat array.
+   * <p>
+   * Implementations may override this method to share lookups and buffers
+   * across the contexts of the batch. The default implementation evaluates
+   * each context on its own.
+   *
+   * @param contexts The contexts to be evaluated, each one an array of String names
+   *                 of the contextual predicates which are to be evaluated together.
+   * @param probs An array of at least {@code contexts.length * getNumOutcomes()} elements.
+   *              The probabilities of the outcomes given {@code contexts[i]} are written
+   *              to the elements starting at {@code i * getNumOutcomes()}.
+   * @return The populated {@code probs}.
+   * @throws IllegalArgumentException Thrown if {@code probs} is too short to hold
+   *                                  the results of all {@code contexts}.
+   */
+  default double[] evalBatch(String[][] contexts, double[] probs) {
+    int numOutcomes = getNumOutcomes();
+    checkBatchSize(contexts, probs, numOutcomes);
+    double[] row = new double[numOutcomes];
+    for (int i = 0; i < contexts.length; i++) {
+      Arrays.fill(row, 0);
+      System.arraycopy(eval(contexts[i], row), 0, probs, i * numOutcomes, numOutcomes);
+    }
+    return probs;
+  }
+
+  /**
+   * Validates the output rows passed to {@link #evalBatch(String[][], double[][])},
+   * for use by implementations which override it.
+   *
+   * @param contexts The contexts of the batch.
+   * @param probs The output rows.
+   * @throws IllegalArgumentException Thrown if there are fewer rows than contexts.
+   */
+  static void checkBatchSize(String[][] contexts, double[][] probs) {
+    if (probs.length < contexts.length) {
+      throw new IllegalArgumentException("probs must provide a row for each of the " +
+          contexts.length + " contexts, but has " + probs.length);
+    }
+  }
+
+  /**
+   * Validates the flat output array passed to {@link #evalBatch(String[][], double[])},
+   * for use by implementations which override it.
+   *
+   * @param contexts The contexts of the batch.
+   * @param probs The output array.
+   * @param numOutcomes The number of outcomes of the model.
+   * @throws IllegalArgumentException Thrown if {@code probs} is too short.
+   */
+  static void checkBatchSize(String[][] contexts, double[] probs, int numOutcomes) {
+    if (probs.length < contexts.length * numOutcomes) {
+      throw new IllegalArgumentException("probs must provide " + contexts.length * numOutcomes +
+          " elements for " + contexts.length + " contexts, but has " + probs.length);
+    }
+  }
+
   /**
    * Retrieves the outcome associated with the index
    * containing the highest probability in the double[].
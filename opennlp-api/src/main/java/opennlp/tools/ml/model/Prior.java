@@ -17,6 +17,8 @@
 
 package opennlp.tools.ml.model;
 
+import java.util.Arrays;
+
 /**
  * This interface allows one to implement a prior distribution for use in
  * maximum entropy model training.
@@ -49,6 +51,44 @@ public interface Prior {
    */
   void logPrior(double[] dist, Context[] context, float[] values);
 
+  /**
+   * Populates the specified array with the log of the distribution for the first
+   * {@code length} predicates of the specified context. This allows callers to pass
+   * a reused buffer which is longer than the actual context.
+   * <p>
+   * The default implementation copies the used part of {@code context} if needed;
+   * implementations should override it to avoid that allocation.
+   * @param dist An array to be populated with the log of the prior distribution.
+   * @param context The indices of the contextual predicates for an event.
+   * @param length The number of valid elements in {@code context}.
+   * @param values The values associated with the context.
+   */
+  default void logPrior(double[] dist, int[] context, int length, float[] values) {
+    logPrior(dist, length == context.length ? context : Arrays.copyOf(context, length), values);
+  }
+
+  /**
+   * Populates the specified array with the log of the distribution for the context stored
+   * from {@code start} to {@code end} in the flat {@code predicates} and {@code values}
+   * arrays, see {@link FlatContexts}.
+   * <p>
+   * The default implementation copies the context; implementations should override it
+   * to avoid that allocation.
+   * @param dist An array to be populated with the log of the prior distribution.
+   * @param predicates The indices of the contextual predicates of all events.
+   * @param values The values associated with the predicates, or {@code null}.
+   * @param start The index of the first predicate of the context.
+   * @param end The index after the last predicate of the context.
+   */
+  default void logPrior(double[] dist, int[] predicates, float[] values, int start, int end) {
+    int[] context = Arrays.copyOfRange(predicates, start, end);
+    if (values != null) {
+      logPrior(dist, context, Arrays.copyOfRange(values, start, end));
+    } else {
+      logPrior(dist, context);
+    }
+  }
+
   /**
    * Method to specify the label for the outcomes and contexts. This is used to map
    * integer outcomes and contexts to their string values. This method is called prior
@@ -38,4 +38,18 @@ public interface SequenceStream<S> extends ObjectStream<Sequence<S>> {
    */
   Event[] updateContext(Sequence<S> sequence, MaxentModel model);
 
+  /**
+   * Creates a stream for one of several threads which decode sequences in parallel. Only
+   * {@link #updateContext(Sequence, MaxentModel)} is called on the returned stream, it updates
+   * the context with its own state, e.g. its own adaptive feature generators, so the streams
+   * of the threads never share state. Trainers only use one thread for streams which do not
+   * support it.
+   *
+   * @return A new {@link SequenceStream} which is never read, or {@code null} if the context
+   *         can only be updated by this stream.
+   */
+  default SequenceStream<S> createWorkerStream() {
+    return null;
+  }
+
 }
@@ -22,7 +22,8 @@ package opennlp.tools.monitoring;
  */
 public enum TrainingMeasure {
   ACCURACY("Training Accuracy"),
-  LOG_LIKELIHOOD("Log Likelihood");
+  LOG_LIKELIHOOD("Log Likelihood"),
+  THROUGHPUT("Events per Second");
 
   private String measureName;
 
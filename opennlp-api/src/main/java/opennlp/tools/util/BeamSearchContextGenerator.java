@@ -34,4 +34,15 @@ public interface BeamSearchContextGenerator<T> {
    * @return The context for the specified {@code index} in the specified {@code sequence}.
    */
   String[] getContext(int index, T[] sequence, String[] priorDecisions, Object[] additionalContext);
+
+  /**
+   * Declares how many of the most recent {@code priorDecisions} the contexts depend on.
+   * Decoders which search over outcome histories, e.g. a Viterbi decoder, require it.
+   *
+   * @return The number of previous decisions the contexts depend on,
+   *         or {@code -1} if this is not known.
+   */
+  default int getOutcomeHistoryOrder() {
+    return -1;
+  }
 }
@@ -22,6 +22,9 @@ import java.util.Map;
 
 /**
  * Provides fixed size, pre-allocated, least recently used replacement cache.
+ * <p>
+ * <b>Note:</b> Instances are not thread-safe, every hit modifies the access order.
+ * See {@link ConcurrentCache} for a cache which can be shared across threads.
  */
 public class Cache<K,V> extends LinkedHashMap<K,V> {
 
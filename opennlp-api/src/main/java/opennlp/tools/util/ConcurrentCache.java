@@ -0,0 +1,458 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A bounded cache which is safe for concurrent use, so that one instance can be shared
+ * by all threads which work with the same model.
+ * <p>
+ * The entries are split into lock-striped segments. Each segment follows the W-TinyLFU
+ * policy: new entries enter a small LRU window, entries evicted from the window are only
+ * admitted to the main segmented LRU if they were used more frequently than the entry
+ * they would replace. The frequencies are estimated with a count-min sketch which is
+ * periodically halved, so the cache adapts to changes in popularity. Compared to a plain
+ * LRU policy like {@link Cache}, entries which are used only once do not displace
+ * frequently used ones.
+ * <p>
+ * Keys are compared with {@link Object#equals(Object)}, they must not be modified while
+ * they are in the cache. {@code null} keys and values are not supported.
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the values.
+ */
+public class ConcurrentCache<K, V> {
+
+  private static final int MAX_SEGMENTS = 64;
+  /** Each segment should hold at least this many entries. */
+  private static final int MIN_SEGMENT_CAPACITY = 32;
+
+  private final Segment<K, V>[] segments;
+  private final int segmentMask;
+  private final int capacity;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  /**
+   * Initializes a {@link ConcurrentCache} instance.
+   *
+   * @param capacity The maximum number of entries. Must be greater than {@code 0}.
+   * @throws IllegalArgumentException Thrown if {@code capacity} is not positive.
+   */
+  public ConcurrentCache(int capacity) {
+    this(capacity, Runtime.getRuntime().availableProcessors() * 4);
+  }
+
+  /**
+   * Initializes a {@link ConcurrentCache} instance.
+   *
+   * @param capacity The maximum number of entries. Must be greater than {@code 0}.
+   * @param concurrencyLevel The expected number of threads which use the cache concurrently.
+   *                         It determines the number of lock stripes.
+   * @throws IllegalArgumentException Thrown if {@code capacity} or {@code concurrencyLevel}
+   *                                  is not positive.
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public ConcurrentCache(int capacity, int concurrencyLevel) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be greater than 0, but is " + capacity);
+    }
+    if (concurrencyLevel < 1) {
+      throw new IllegalArgumentException("concurrencyLevel must be greater than 0, but is "
+          + concurrencyLevel);
+    }
+    this.capacity = capacity;
+
+    int numSegments = 1;
+    while (numSegments < StrictMath.min(concurrencyLevel, MAX_SEGMENTS)
+        && (numSegments << 1) * MIN_SEGMENT_CAPACITY <= capacity) {
+      numSegments <<= 1;
+    }
+    segments = new Segment[numSegments];
+    segmentMask = numSegments - 1;
+    for (int i = 0; i < numSegments; i++) {
+      // distribute the remainder so that the capacities add up to capacity
+      int segmentCapacity = capacity / numSegments + (i < capacity % numSegments ? 1 : 0);
+      segments[i] = new Segment<>(segmentCapacity);
+    }
+  }
+
+  private static int spread(int h) {
+    h ^= h >>> 16;
+    h *= 0x45D9F3B;
+    return h ^ (h >>> 16);
+  }
+
+  private Segment<K, V> segmentFor(int hash) {
+    return segments[(hash >>> 24) & segmentMask];
+  }
+
+  /**
+   * @param key The key to look up.
+   * @return The value cached for {@code key}, or {@code null} if there is none.
+   */
+  public V get(K key) {
+    int hash = spread(key.hashCode());
+    V value = segmentFor(hash).get(key, hash);
+    if (value != null) {
+      hits.increment();
+    } else {
+      misses.increment();
+    }
+    return value;
+  }
+
+  /**
+   * Adds or replaces the value of {@code key}. The entry might be rejected right away
+   * if the cache is full and the key is used less frequently than the cached entries.
+   *
+   * @param key The key. Must not be {@code null}.
+   * @param value The value. Must not be {@code null}.
+   */
+  public void put(K key, V value) {
+    Objects.requireNonNull(value, "value must not be null");
+    int hash = spread(key.hashCode());
+    evictions.add(segmentFor(hash).put(key, value, hash));
+  }
+
+  /**
+   * Retrieves the value of {@code key}, if there is none it is computed with
+   * {@code mappingFunction} and added to the cache.
+   * <p>
+   * The value is computed without holding a lock, if several threads miss the same key
+   * concurrently it might be computed more than once.
+   *
+   * @param key The key. Must not be {@code null}.
+   * @param mappingFunction Computes the value of {@code key}, must not return {@code null}.
+   * @return The cached or computed value.
+   */
+  public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+    int hash = spread(key.hashCode());
+    Segment<K, V> segment = segmentFor(hash);
+    V value = segment.get(key, hash);
+    if (value != null) {
+      hits.increment();
+      return value;
+    }
+    misses.increment();
+
+    value = Objects.requireNonNull(mappingFunction.apply(key), "mappingFunction must not return null");
+    evictions.add(segment.put(key, value, hash));
+    return value;
+  }
+
+  /**
+   * Removes all entries, the statistics are kept.
+   */
+  public void clear() {
+    for (Segment<K, V> segment : segments) {
+      segment.clear();
+    }
+  }
+
+  /**
+   * @return The number of cached entries.
+   */
+  public int size() {
+    int size = 0;
+    for (Segment<K, V> segment : segments) {
+      size += segment.size();
+    }
+    return size;
+  }
+
+  /**
+   * @return The maximum number of entries.
+   */
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * @return The number of lookups which found a value.
+   */
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * @return The number of lookups which did not find a value.
+   */
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  /**
+   * @return The number of entries which were evicted or not admitted because of the capacity.
+   */
+  public long getEvictionCount() {
+    return evictions.sum();
+  }
+
+  private static final int WINDOW = 0;
+  private static final int PROBATION = 1;
+  private static final int PROTECTED = 2;
+
+  private static final class Node<K, V> {
+    private final K key;
+    private final int hash;
+    private V value;
+    private int queue;
+    private Node<K, V> prev;
+    private Node<K, V> next;
+
+    private Node(K key, int hash, V value) {
+      this.key = key;
+      this.hash = hash;
+      this.value = value;
+    }
+  }
+
+  /**
+   * A doubly linked list in LRU order, the head is the least recently used node.
+   */
+  private static final class AccessQueue<K, V> {
+    private final Node<K, V> sentinel = new Node<>(null, 0, null);
+    private int size;
+
+    private AccessQueue() {
+      sentinel.prev = sentinel;
+      sentinel.next = sentinel;
+    }
+
+    private void addLast(Node<K, V> node) {
+      node.prev = sentinel.prev;
+      node.next = sentinel;
+      sentinel.prev.next = node;
+      sentinel.prev = node;
+      size++;
+    }
+
+    private void remove(Node<K, V> node) {
+      node.prev.next = node.next;
+      node.next.prev = node.prev;
+      node.prev = null;
+      node.next = null;
+      size--;
+    }
+
+    private void moveToLast(Node<K, V> node) {
+      remove(node);
+      addLast(node);
+    }
+
+    private Node<K, V> first() {
+      return size == 0 ? null : sentinel.next;
+    }
+
+    private void clear() {
+      sentinel.prev = sentinel;
+      sentinel.next = sentinel;
+      size = 0;
+    }
+  }
+
+  /**
+   * One lock stripe of the cache with its own W-TinyLFU policy and frequency sketch.
+   */
+  private static final class Segment<K, V> {
+
+    private final Map<K, Node<K, V>> map = new HashMap<>();
+    private final AccessQueue<K, V> window = new AccessQueue<>();
+    private final AccessQueue<K, V> probation = new AccessQueue<>();
+    private final AccessQueue<K, V> protectedQueue = new AccessQueue<>();
+    private final FrequencySketch sketch;
+
+    private final int maxWindow;
+    private final int maxMain;
+    private final int maxProtected;
+
+    private Segment(int capacity) {
+      // 1% window, the main space is split into 20% probation and 80% protected
+      maxWindow = StrictMath.max(1, capacity / 100);
+      maxMain = StrictMath.max(0, capacity - maxWindow);
+      maxProtected = maxMain * 4 / 5;
+      sketch = new FrequencySketch(capacity);
+    }
+
+    /*
+     * Accesses are recorded in the sketch for hits and writes,
+     * so a miss followed by a put counts once.
+     */
+    private synchronized V get(K key, int hash) {
+      Node<K, V> node = map.get(key);
+      if (node == null) {
+        return null;
+      }
+      sketch.increment(hash);
+      onAccess(node);
+      return node.value;
+    }
+
+    /**
+     * @return The number of evicted entries.
+     */
+    private synchronized int put(K key, V value, int hash) {
+      sketch.increment(hash);
+      Node<K, V> node = map.get(key);
+      if (node != null) {
+        node.value = value;
+        onAccess(node);
+        return 0;
+      }
+
+      node = new Node<>(key, hash, value);
+      map.put(key, node);
+      node.queue = WINDOW;
+      window.addLast(node);
+      return evict();
+    }
+
+    private void onAccess(Node<K, V> node) {
+      switch (node.queue) {
+        case WINDOW -> window.moveToLast(node);
+        case PROBATION -> {
+          probation.remove(node);
+          node.queue = PROTECTED;
+          protectedQueue.addLast(node);
+          if (protectedQueue.size > maxProtected) {
+            Node<K, V> demoted = protectedQueue.first();
+            protectedQueue.remove(demoted);
+            demoted.queue = PROBATION;
+            probation.addLast(demoted);
+          }
+        }
+        default -> protectedQueue.moveToLast(node);
+      }
+    }
+
+    /**
+     * Moves the overflow of the window to the main space. If the main space is full, the
+     * candidate from the window and the victim from the main space compete for admission.
+     */
+    private int evict() {
+      int evicted = 0;
+      while (window.size > maxWindow) {
+        Node<K, V> candidate = window.first();
+        window.remove(candidate);
+
+        if (probation.size + protectedQueue.size < maxMain) {
+          candidate.queue = PROBATION;
+          probation.addLast(candidate);
+          continue;
+        }
+
+        Node<K, V> victim = probation.size > 0 ? probation.first() : protectedQueue.first();
+        if (victim != null && sketch.frequency(candidate.hash) > sketch.frequency(victim.hash)) {
+          if (victim.queue == PROBATION) {
+            probation.remove(victim);
+          } else {
+            protectedQueue.remove(victim);
+          }
+          map.remove(victim.key);
+          candidate.queue = PROBATION;
+          probation.addLast(candidate);
+        } else {
+          map.remove(candidate.key);
+        }
+        evicted++;
+      }
+      return evicted;
+    }
+
+    private synchronized void clear() {
+      map.clear();
+      window.clear();
+      probation.clear();
+      protectedQueue.clear();
+    }
+
+    private synchronized int size() {
+      return map.size();
+    }
+  }
+
+  /**
+   * A count-min sketch with four rows of 4-bit counters. All counters are halved after
+   * a number of increments proportional to the capacity, this ages old frequencies.
+   */
+  private static final class FrequencySketch {
+
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int[] SEEDS = {0x97CB3127, 0xB5CF6ED3, 0x8EBC6AF1, 0xC2B2AE35};
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int additions;
+
+    private FrequencySketch(int capacity) {
+      int length = 1;
+      while (length < StrictMath.max(capacity, 4) / 4) {
+        length <<= 1;
+      }
+      table = new long[length];
+      tableMask = length - 1;
+      sampleSize = 10 * StrictMath.max(capacity, 4);
+    }
+
+    private int index(int hash, int row) {
+      int h = (hash + SEEDS[row]) * SEEDS[row];
+      return (h ^ (h >>> 17)) & tableMask;
+    }
+
+    /** The counter of a row is one of the 16 nibbles of the table entry. */
+    private static int offset(int hash, int row) {
+      return ((hash >>> (row * 8)) & 3) * 16 + row * 4;
+    }
+
+    private int frequency(int hash) {
+      int frequency = Integer.MAX_VALUE;
+      for (int row = 0; row < 4; row++) {
+        int count = (int) ((table[index(hash, row)] >>> offset(hash, row)) & 0xF);
+        frequency = StrictMath.min(frequency, count);
+      }
+      return frequency;
+    }
+
+    private void increment(int hash) {
+      boolean added = false;
+      for (int row = 0; row < 4; row++) {
+        int i = index(hash, row);
+        int shift = offset(hash, row);
+        if (((table[i] >>> shift) & 0xF) < 15) {
+          table[i] += 1L << shift;
+          added = true;
+        }
+      }
+      if (added && ++additions == sampleSize) {
+        for (int i = 0; i < table.length; i++) {
+          table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions /= 2;
+      }
+    }
+  }
+}
@@ -31,6 +31,9 @@ public interface ArtifactSerializer<T> {
    * Creates an artifact from the provided {@link InputStream}.
    * <p>
    * <b>Note: The {@link InputStream} remains open.</b>
+   * <p>
+   * If concurrent model loading is enabled, the artifacts of a model package are created
+   * concurrently, so this method may be called by several threads at once for different artifacts.
    *
    * @param in A valid, open {@link InputStream} ready to read from.
    * @return A valid {@link T artifact}.
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the {@link ConcurrentCache} class.
+ */
+public class ConcurrentCacheTest {
+
+  @Test
+  void testGetAndPut() {
+    ConcurrentCache<String, Integer> cache = new ConcurrentCache<>(10);
+    Assertions.assertNull(cache.get("a"));
+
+    cache.put("a", 1);
+    cache.put("b", 2);
+    Assertions.assertEquals(1, cache.get("a"));
+    Assertions.assertEquals(2, cache.get("b"));
+    Assertions.assertEquals(2, cache.size());
+
+    cache.put("a", 3);
+    Assertions.assertEquals(3, cache.get("a"));
+    Assertions.assertEquals(2, cache.size());
+
+    Assertions.assertEquals(3, cache.getHitCount());
+    Assertions.assertEquals(1, cache.getMissCount());
+    Assertions.assertEquals(0, cache.getEvictionCount());
+
+    cache.clear();
+    Assertions.assertEquals(0, cache.size());
+    Assertions.assertNull(cache.get("a"));
+  }
+
+  @Test
+  void testComputeIfAbsent() {
+    ConcurrentCache<Integer, String> cache = new ConcurrentCache<>(10);
+    AtomicInteger computed = new AtomicInteger();
+
+    Assertions.assertEquals("1", cache.computeIfAbsent(1, key -> {
+      computed.incrementAndGet();
+      return key.toString();
+    }));
+    Assertions.assertEquals("1", cache.computeIfAbsent(1, key -> {
+      computed.incrementAndGet();
+      return "other";
+    }));
+
+    Assertions.assertEquals(1, computed.get());
+    Assertions.assertEquals(1, cache.getHitCount());
+    Assertions.assertEquals(1, cache.getMissCount());
+  }
+
+  @Test
+  void testCapacityIsBounded() {
+    for (int capacity : new int[] {1, 7, 100, 1000}) {
+      ConcurrentCache<Integer, Integer> cache = new ConcurrentCache<>(capacity, 8);
+      for (int i = 0; i < capacity * 10; i++) {
+        cache.put(i, i);
+        Assertions.assertTrue(cache.size() <= capacity);
+      }
+      Assertions.assertEquals(capacity, cache.getCapacity());
+      Assertions.assertEquals(capacity * 10L - cache.size(), cache.getEvictionCount());
+    }
+  }
+
+  @Test
+  void testFrequentEntriesSurviveScan() {
+    ConcurrentCache<Integer, Integer> cache = new ConcurrentCache<>(100, 1);
+
+    // a small set of frequently used keys
+    for (int round = 0; round < 10; round++) {
+      for (int key = 0; key < 50; key++) {
+        cache.computeIfAbsent(key, k -> k);
+      }
+    }
+
+    // a scan of keys which are used once must not displace them
+    for (int key = 1000; key < 11000; key++) {
+      cache.computeIfAbsent(key, k -> k);
+    }
+
+    int retained = 0;
+    for (int key = 0; key < 50; key++) {
+      if (cache.get(key) != null) {
+        retained++;
+      }
+    }
+    Assertions.assertTrue(retained >= 45, "Only " + retained + " frequent keys were retained");
+  }
+
+  @Test
+  void testConcurrentAccess() throws Exception {
+    ConcurrentCache<Integer, Integer> cache = new ConcurrentCache<>(256, 8);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < 8; t++) {
+        futures.add(executor.submit(() -> {
+          ThreadLocalRandom random = ThreadLocalRandom.current();
+          for (int i = 0; i < 100000; i++) {
+            int key = random.nextInt(1024);
+            Assertions.assertEquals(key * 2, cache.computeIfAbsent(key, k -> k * 2));
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    Assertions.assertTrue(cache.size() <= 256);
+    Assertions.assertEquals(800000, cache.getHitCount() + cache.getMissCount());
+  }
+
+  @Test
+  void testInvalidArguments() {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new ConcurrentCache<>(0));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new ConcurrentCache<>(10, 0));
+
+    ConcurrentCache<String, String> cache = new ConcurrentCache<>(10);
+    Assertions.assertThrows(NullPointerException.class, () -> cache.put(null, "a"));
+    Assertions.assertThrows(NullPointerException.class, () -> cache.put("a", null));
+    Assertions.assertThrows(NullPointerException.class, () -> cache.computeIfAbsent("a", key -> null));
+  }
+}
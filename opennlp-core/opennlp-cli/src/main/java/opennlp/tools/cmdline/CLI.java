@@ -49,6 +49,8 @@ import opennlp.tools.cmdline.languagemodel.NGramLanguageModelTool;
 import opennlp.tools.cmdline.lemmatizer.LemmatizerEvaluatorTool;
 import opennlp.tools.cmdline.lemmatizer.LemmatizerMETool;
 import opennlp.tools.cmdline.lemmatizer.LemmatizerTrainerTool;
+import opennlp.tools.cmdline.ml.ModelPrunerTool;
+import opennlp.tools.cmdline.ml.ModelQuantizerTool;
 import opennlp.tools.cmdline.namefind.CensusDictionaryCreatorTool;
 import opennlp.tools.cmdline.namefind.TokenNameFinderConverterTool;
 import opennlp.tools.cmdline.namefind.TokenNameFinderCrossValidatorTool;
@@ -169,6 +171,10 @@ public final class CLI {
     // Language Model
     tools.add(new NGramLanguageModelTool());
 
+    // Machine Learning
+    tools.add(new ModelPrunerTool());
+    tools.add(new ModelQuantizerTool());
+
     for (CmdLineTool tool : tools) {
       toolLookupMap.put(tool.getName(), tool);
     }
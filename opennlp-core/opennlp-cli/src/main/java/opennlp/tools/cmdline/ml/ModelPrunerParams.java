@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.cmdline.ml;
+
+import java.io.File;
+
+import opennlp.tools.cmdline.ArgumentParser.OptionalParameter;
+import opennlp.tools.cmdline.ArgumentParser.ParameterDescription;
+import opennlp.tools.cmdline.params.EncodingParameter;
+import opennlp.tools.commons.Internal;
+
+/**
+ * Params for the model pruner tool.
+ * <p>
+ * <b>Note:</b> Do not use this class, internal use only!
+ */
+@Internal
+interface ModelPrunerParams extends EncodingParameter {
+
+  @ParameterDescription(valueName = "modelFile", description = "the maxent model file to prune.")
+  File getModel();
+
+  @ParameterDescription(valueName = "outputFile", description = "the pruned model file.")
+  File getOutput();
+
+  @ParameterDescription(valueName = "num",
+      description = "parameters with a smaller magnitude are dropped, default is 0.")
+  @OptionalParameter(defaultValue = "0")
+  String getThreshold();
+
+  @ParameterDescription(valueName = "num",
+      description = "keeps only the given number of predicates with the largest parameter magnitude.")
+  @OptionalParameter()
+  Integer getMaxPredicates();
+
+  @ParameterDescription(valueName = "eventsFile",
+      description = "held-out events, one event per line, to compare the accuracy of both models.")
+  @OptionalParameter()
+  File getData();
+
+  @ParameterDescription(valueName = "num",
+      description = "the pruned model is not written if it loses more accuracy on the held-out events.")
+  @OptionalParameter()
+  String getMaxAccuracyLoss();
+}
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.cmdline.ml;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import opennlp.tools.cmdline.BasicCmdLineTool;
+import opennlp.tools.cmdline.CmdLineUtil;
+import opennlp.tools.cmdline.TerminateToolException;
+import opennlp.tools.ml.model.AbstractModel;
+import opennlp.tools.ml.model.Event;
+import opennlp.tools.ml.model.FileEventStream;
+import opennlp.tools.ml.model.GenericModelReader;
+import opennlp.tools.ml.model.GenericModelWriter;
+import opennlp.tools.ml.model.ModelPruner;
+import opennlp.tools.util.ObjectStream;
+
+/**
+ * Command line tool for pruning maxent and perceptron model files with {@link ModelPruner}.
+ */
+public class ModelPrunerTool extends BasicCmdLineTool {
+
+  private static final Logger logger = LoggerFactory.getLogger(ModelPrunerTool.class);
+
+  interface Params extends ModelPrunerParams {
+  }
+
+  @Override
+  public String getShortDescription() {
+    return "Drops parameters of small magnitude from a maxent or perceptron model";
+  }
+
+  @Override
+  public String getHelp() {
+    return getBasicHelp(Params.class);
+  }
+
+  @Override
+  public void run(String[] args) {
+    Params params = validateAndParseParams(args, Params.class);
+
+    File modelFile = params.getModel();
+    File outputFile = params.getOutput();
+    CmdLineUtil.checkInputFile("model file", modelFile);
+    CmdLineUtil.checkOutputFile("output file", outputFile);
+    if (params.getData() != null) {
+      CmdLineUtil.checkInputFile("held-out events file", params.getData());
+    }
+
+    ModelPruner pruner;
+    try {
+      pruner = new ModelPruner(parseDouble("threshold", params.getThreshold()),
+          params.getMaxPredicates() != null ? params.getMaxPredicates() : Integer.MAX_VALUE);
+    } catch (IllegalArgumentException e) {
+      throw new TerminateToolException(1, e.getMessage(), e);
+    }
+
+    try {
+      AbstractModel model = new GenericModelReader(modelFile).getModel();
+
+      AbstractModel pruned;
+      try {
+        pruned = pruner.prune(model);
+      } catch (IllegalArgumentException e) {
+        throw new TerminateToolException(-1, e.getMessage(), e);
+      }
+      logger.info("Predicates: {} -> {}", numPredicates(model), numPredicates(pruned));
+
+      if (params.getData() != null) {
+        double accuracy = accuracy(model, params.getData(), params.getEncoding());
+        double prunedAccuracy = accuracy(pruned, params.getData(), params.getEncoding());
+        logger.info("Accuracy: {} -> {}", accuracy, prunedAccuracy);
+
+        if (params.getMaxAccuracyLoss() != null
+            && accuracy - prunedAccuracy > parseDouble("maxAccuracyLoss", params.getMaxAccuracyLoss())) {
+          throw new TerminateToolException(-1, "The pruned model loses more than "
+              + params.getMaxAccuracyLoss() + " accuracy, it is not written");
+        }
+      }
+
+      new GenericModelWriter(pruned, outputFile).persist();
+      logger.info("Pruned model written to: {} ({} bytes -> {} bytes)",
+          outputFile.getPath(), modelFile.length(), outputFile.length());
+    } catch (IOException e) {
+      throw new TerminateToolException(-1, "IO error while pruning the model: " + e.getMessage(), e);
+    }
+  }
+
+  private static double parseDouble(String name, String value) {
+    try {
+      return Double.parseDouble(value);
+    } catch (NumberFormatException e) {
+      throw new TerminateToolException(1, "Invalid number for " + name + ": " + value, e);
+    }
+  }
+
+  private static int numPredicates(AbstractModel model) {
+    return ((Map<?, ?>) model.getDataStructures()[1]).size();
+  }
+
+  /*
+   * Computes the accuracy on the held-out events, terminates the tool if there are none,
+   * as the accuracy could not be compared then.
+   */
+  static double accuracy(AbstractModel model, File data, Charset encoding) throws IOException {
+    double accuracy;
+    try (ObjectStream<Event> events = new FileEventStream(data.getPath(), encoding.name())) {
+      accuracy = ModelPruner.accuracy(model, events);
+    }
+    if (Double.isNaN(accuracy)) {
+      throw new TerminateToolException(1, "The held-out events file contains no events: " + data.getPath());
+    }
+    return accuracy;
+  }
+}
@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.cmdline.ml;
+
+import java.io.File;
+
+import opennlp.tools.cmdline.ArgumentParser.OptionalParameter;
+import opennlp.tools.cmdline.ArgumentParser.ParameterDescription;
+import opennlp.tools.cmdline.params.EncodingParameter;
+import opennlp.tools.commons.Internal;
+
+/**
+ * Params for the model quantizer tool.
+ * <p>
+ * <b>Note:</b> Do not use this class, internal use only!
+ */
+@Internal
+interface ModelQuantizerParams extends EncodingParameter {
+
+  @ParameterDescription(valueName = "modelFile",
+      description = "the maxent model file or model package to convert.")
+  File getModel();
+
+  @ParameterDescription(valueName = "outputFile",
+      description = "the quantized model file or model package.")
+  File getOutput();
+
+  @ParameterDescription(valueName = "FLOAT32|INT8",
+      description = "the precision of the parameters, default is INT8.")
+  @OptionalParameter(defaultValue = "INT8")
+  String getPrecision();
+
+  @ParameterDescription(valueName = "eventsFile",
+      description = "held-out events, one event per line, to compare the accuracy of both models.")
+  @OptionalParameter()
+  File getData();
+}
@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.cmdline.ml;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import opennlp.tools.cmdline.BasicCmdLineTool;
+import opennlp.tools.cmdline.CmdLineUtil;
+import opennlp.tools.cmdline.TerminateToolException;
+import opennlp.tools.ml.model.AbstractModel;
+import opennlp.tools.ml.model.GenericModelReader;
+import opennlp.tools.ml.model.QuantizedModelReader;
+import opennlp.tools.ml.model.QuantizedModelWriter;
+import opennlp.tools.ml.model.QuantizedParameters.Precision;
+import opennlp.tools.util.model.GenericModelSerializer;
+
+/**
+ * Command line tool which converts maxent and perceptron model files into the
+ * reduced precision format of {@link QuantizedModelWriter}.
+ * <p>
+ * Model packages, e.g. of a name finder or a document categorizer, are converted
+ * in place: every {@code .model} artifact of the package is quantized, all other
+ * artifacts are copied unchanged. The quantized package is loaded like the original
+ * one, as {@link GenericModelSerializer} recognizes the quantized format.
+ */
+public class ModelQuantizerTool extends BasicCmdLineTool {
+
+  private static final Logger logger = LoggerFactory.getLogger(ModelQuantizerTool.class);
+
+  /** The signature of a local file header, the first entry of a zip archive. */
+  private static final int ZIP_MAGIC = 0x504B0304;
+
+  interface Params extends ModelQuantizerParams {
+  }
+
+  @Override
+  public String getShortDescription() {
+    return "Converts a maxent or perceptron model to float or 8-bit integer parameters";
+  }
+
+  @Override
+  public String getHelp() {
+    return getBasicHelp(Params.class);
+  }
+
+  @Override
+  public void run(String[] args) {
+    Params params = validateAndParseParams(args, Params.class);
+
+    File modelFile = params.getModel();
+    File outputFile = params.getOutput();
+    CmdLineUtil.checkInputFile("model file", modelFile);
+    CmdLineUtil.checkOutputFile("output file", outputFile);
+    if (params.getData() != null) {
+      CmdLineUtil.checkInputFile("held-out events file", params.getData());
+    }
+
+    Precision precision;
+    try {
+      precision = Precision.valueOf(params.getPrecision().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      throw new TerminateToolException(1, "Unknown precision: " + params.getPrecision(), e);
+    }
+
+    try {
+      AbstractModel model;
+      AbstractModel quantized;
+      if (isModelPackage(modelFile)) {
+        List<AbstractModel[]> models = quantizePackage(modelFile, outputFile, precision);
+        if (params.getData() != null && models.size() != 1) {
+          throw new TerminateToolException(1, "The held-out events can only be evaluated for a " +
+              "package with a single model, the package contains " + models.size() + " models");
+        }
+        model = models.isEmpty() ? null : models.get(0)[0];
+        quantized = models.isEmpty() ? null : models.get(0)[1];
+      } else {
+        model = new GenericModelReader(modelFile).getModel();
+        try {
+          new QuantizedModelWriter(model, precision, outputFile.toPath()).persist();
+        } catch (IllegalArgumentException e) {
+          throw new TerminateToolException(-1, e.getMessage(), e);
+        }
+        quantized = params.getData() != null
+            ? new QuantizedModelReader(outputFile.toPath()).getModel() : null;
+      }
+      logger.info("Quantized model written to: {} ({} bytes -> {} bytes)",
+          outputFile.getPath(), modelFile.length(), outputFile.length());
+
+      if (params.getData() != null) {
+        double accuracy = ModelPrunerTool.accuracy(model, params.getData(), params.getEncoding());
+        double quantizedAccuracy =
+            ModelPrunerTool.accuracy(quantized, params.getData(), params.getEncoding());
+        logger.info("Accuracy: {} -> {} (difference {})", accuracy, quantizedAccuracy,
+            quantizedAccuracy - accuracy);
+      }
+    } catch (IOException e) {
+      throw new TerminateToolException(-1, "IO error while converting the model: " + e.getMessage(), e);
+    }
+  }
+
+  private static boolean isModelPackage(File modelFile) throws IOException {
+    try (InputStream in = Files.newInputStream(modelFile.toPath())) {
+      byte[] magic = in.readNBytes(Integer.BYTES);
+      return magic.length == Integer.BYTES && ByteBuffer.wrap(magic).getInt() == ZIP_MAGIC;
+    }
+  }
+
+  /*
+   * Copies the model package and quantizes its model artifacts, returns the original
+   * and the quantized model of each artifact.
+   */
+  private static List<AbstractModel[]> quantizePackage(File modelFile, File outputFile,
+                                                       Precision precision) throws IOException {
+    GenericModelSerializer serializer = new GenericModelSerializer();
+    List<AbstractModel[]> models = new ArrayList<>();
+    try (ZipInputStream in = new ZipInputStream(
+             new BufferedInputStream(Files.newInputStream(modelFile.toPath())));
+         ZipOutputStream out = new ZipOutputStream(
+             new BufferedOutputStream(Files.newOutputStream(outputFile.toPath())))) {
+      ZipEntry entry;
+      while ((entry = in.getNextEntry()) != null) {
+        out.putNextEntry(new ZipEntry(entry.getName()));
+        if (entry.getName().endsWith(".model")) {
+          AbstractModel model = serializer.create(in);
+          AbstractModel quantized;
+          try {
+            quantized = QuantizedModelWriter.quantize(model, precision);
+          } catch (IllegalArgumentException e) {
+            throw new TerminateToolException(-1, entry.getName() + ": " + e.getMessage(), e);
+          }
+          serializer.serialize(quantized, out);
+          models.add(new AbstractModel[] {model, quantized});
+        } else {
+          in.transferTo(out);
+        }
+        out.closeEntry();
+      }
+    }
+    return models;
+  }
+}
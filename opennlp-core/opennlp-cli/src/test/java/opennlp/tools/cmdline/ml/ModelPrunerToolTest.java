@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.cmdline.ml;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import opennlp.tools.cmdline.TerminateToolException;
+import opennlp.tools.ml.maxent.GISModel;
+import opennlp.tools.ml.model.AbstractModel;
+import opennlp.tools.ml.model.Context;
+import opennlp.tools.ml.model.GenericModelReader;
+import opennlp.tools.ml.model.GenericModelWriter;
+
+/**
+ * Tests for the {@link ModelPrunerTool} class.
+ */
+public class ModelPrunerToolTest {
+
+  @TempDir
+  private File tempDir;
+
+  private File writeModel() throws IOException {
+    Context[] params = {
+        new Context(new int[] {0, 1}, new double[] {2.0, -2.0}),
+        new Context(new int[] {0, 1}, new double[] {0.01, -0.01}),
+        new Context(new int[] {0, 1}, new double[] {-1.0, 1.0})
+    };
+    File modelFile = new File(tempDir, "model.bin");
+    new GenericModelWriter(new GISModel(params, new String[] {"a", "b", "c"},
+        new String[] {"x", "y"}), modelFile).persist();
+
+    Files.writeString(new File(tempDir, "events.txt").toPath(), "x a\ny c\nx a b\n",
+        StandardCharsets.UTF_8);
+    return modelFile;
+  }
+
+  @Test
+  void testPrune() throws IOException {
+    File modelFile = writeModel();
+    File outputFile = new File(tempDir, "pruned.bin");
+
+    new ModelPrunerTool().run(new String[] {"-model", modelFile.getPath(),
+        "-output", outputFile.getPath(), "-threshold", "0.1",
+        "-data", new File(tempDir, "events.txt").getPath(), "-maxAccuracyLoss", "0"});
+
+    AbstractModel pruned = new GenericModelReader(outputFile).getModel();
+    Assertions.assertEquals(Set.of("a", "c"), ((Map<?, ?>) pruned.getDataStructures()[1]).keySet());
+  }
+
+  @Test
+  void testMaxAccuracyLoss() throws IOException {
+    File modelFile = writeModel();
+    File outputFile = new File(tempDir, "pruned.bin");
+
+    TerminateToolException e = Assertions.assertThrows(TerminateToolException.class,
+        () -> new ModelPrunerTool().run(new String[] {"-model", modelFile.getPath(),
+            "-output", outputFile.getPath(), "-maxPredicates", "1",
+            "-data", new File(tempDir, "events.txt").getPath(), "-maxAccuracyLoss", "0.1"}));
+    Assertions.assertEquals(-1, e.getCode());
+    Assertions.assertFalse(outputFile.exists());
+  }
+
+  @Test
+  void testEmptyHeldOutEvents() throws IOException {
+    File modelFile = writeModel();
+    File outputFile = new File(tempDir, "pruned.bin");
+    File emptyEvents = new File(tempDir, "empty.txt");
+    Files.writeString(emptyEvents.toPath(), "", StandardCharsets.UTF_8);
+
+    TerminateToolException e = Assertions.assertThrows(TerminateToolException.class,
+        () -> new ModelPrunerTool().run(new String[] {"-model", modelFile.getPath(),
+            "-output", outputFile.getPath(), "-threshold", "0.1",
+            "-data", emptyEvents.getPath(), "-maxAccuracyLoss", "0"}));
+    Assertions.assertEquals(1, e.getCode());
+    Assertions.assertFalse(outputFile.exists());
+  }
+}
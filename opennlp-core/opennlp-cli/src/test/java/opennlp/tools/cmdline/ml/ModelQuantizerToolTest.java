@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.cmdline.ml;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import opennlp.tools.cmdline.TerminateToolException;
+import opennlp.tools.ml.maxent.GISModel;
+import opennlp.tools.ml.model.AbstractModel;
+import opennlp.tools.ml.model.Context;
+import opennlp.tools.ml.model.GenericModelWriter;
+import opennlp.tools.ml.model.QuantizedModelReader;
+import opennlp.tools.ml.model.QuantizedModelWriter;
+import opennlp.tools.ml.model.QuantizedParameters.Precision;
+import opennlp.tools.namefind.NameFinderME;
+import opennlp.tools.namefind.NameSample;
+import opennlp.tools.namefind.NameSampleDataStream;
+import opennlp.tools.namefind.TokenNameFinderFactory;
+import opennlp.tools.namefind.TokenNameFinderModel;
+import opennlp.tools.util.MockInputStreamFactory;
+import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.Parameters;
+import opennlp.tools.util.PlainTextByLineStream;
+import opennlp.tools.util.TrainingParameters;
+
+/**
+ * Tests for the {@link ModelQuantizerTool} class.
+ */
+public class ModelQuantizerToolTest {
+
+  @TempDir
+  private File tempDir;
+
+  private File writeModel() throws IOException {
+    Context[] params = {
+        new Context(new int[] {0, 1}, new double[] {2.0, -2.0}),
+        new Context(new int[] {1}, new double[] {0.5})
+    };
+    File modelFile = new File(tempDir, "model.bin");
+    new GenericModelWriter(new GISModel(params, new String[] {"a", "b"},
+        new String[] {"x", "y"}), modelFile).persist();
+    return modelFile;
+  }
+
+  @Test
+  void testConvert() throws IOException {
+    File modelFile = writeModel();
+    File outputFile = new File(tempDir, "model.quantized");
+
+    new ModelQuantizerTool().run(new String[] {"-model", modelFile.getPath(),
+        "-output", outputFile.getPath(), "-precision", "float32"});
+
+    AbstractModel quantized = new QuantizedModelReader(outputFile.toPath()).getModel();
+    Assertions.assertInstanceOf(GISModel.class, quantized);
+    Assertions.assertArrayEquals(new double[] {0.5, 0.5}, quantized.eval(new String[] {"c"}), 0d);
+    Assertions.assertEquals("y", quantized.getBestOutcome(quantized.eval(new String[] {"b"})));
+  }
+
+  @Test
+  void testConvertPackage() throws IOException {
+    TrainingParameters params = new TrainingParameters();
+    params.put(Parameters.ITERATIONS_PARAM, 70);
+    params.put(Parameters.CUTOFF_PARAM, 1);
+    TokenNameFinderModel model;
+    try (ObjectStream<NameSample> samples = new NameSampleDataStream(new PlainTextByLineStream(
+        new MockInputStreamFactory(new File("opennlp/tools/namefind/AnnotatedSentencesWithTypes.txt")),
+        StandardCharsets.ISO_8859_1))) {
+      model = NameFinderME.train("eng", null, samples, params, new TokenNameFinderFactory());
+    }
+    File modelFile = new File(tempDir, "namefinder.bin");
+    model.serialize(modelFile);
+    File outputFile = new File(tempDir, "namefinder-int8.bin");
+
+    new ModelQuantizerTool().run(new String[] {"-model", modelFile.getPath(),
+        "-output", outputFile.getPath()});
+
+    TokenNameFinderModel quantized = new TokenNameFinderModel(outputFile);
+    Assertions.assertEquals(Precision.INT8,
+        QuantizedModelWriter.getPrecision(quantized.getArtifact("nameFinder.model")));
+    Assertions.assertTrue(outputFile.length() < modelFile.length());
+
+    String[] sentence = {"Alisa", "Fernandes", "is", "a", "tourist", "from", "Spain", "."};
+    Assertions.assertArrayEquals(new NameFinderME(model).find(sentence),
+        new NameFinderME(quantized).find(sentence));
+  }
+
+  @Test
+  void testUnknownPrecision() throws IOException {
+    File modelFile = writeModel();
+
+    TerminateToolException e = Assertions.assertThrows(TerminateToolException.class,
+        () -> new ModelQuantizerTool().run(new String[] {"-model", modelFile.getPath(),
+            "-output", new File(tempDir, "model.quantized").getPath(), "-precision", "int4"}));
+    Assertions.assertEquals(1, e.getCode());
+  }
+}
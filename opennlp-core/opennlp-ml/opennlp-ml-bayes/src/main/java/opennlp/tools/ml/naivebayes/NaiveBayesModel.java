@@ -17,10 +17,11 @@
 
 package opennlp.tools.ml.naivebayes;
 
-import java.util.Map;
+import java.util.Arrays;
 
 import opennlp.tools.ml.AlgorithmType;
 import opennlp.tools.ml.model.AbstractModel;
+import opennlp.tools.ml.model.CompiledParameters;
 import opennlp.tools.ml.model.Context;
 import opennlp.tools.ml.model.EvalParameters;
 import opennlp.tools.ml.model.MaxentModel;
@@ -36,23 +37,6 @@ public class NaiveBayesModel extends AbstractModel {
   protected final double[] outcomeTotals;
   protected long vocabulary;
 
-  /**
-   * Initializes a {@link NaiveBayesModel}.
-   *
-   * @param params The {@link Context parameters} to set.
-   * @param predLabels The predicted labels.
-   * @param pmap A {@link Map} that provides a mapping between predicates and contexts.
-   * @param outcomeNames The names of the outcomes.
-   */
-  NaiveBayesModel(Context[] params, String[] predLabels, Map<String, Context> pmap,
-                  String[] outcomeNames) {
-    super(params, predLabels, pmap, outcomeNames);
-    outcomeTotals = initOutcomeTotals(outcomeNames, params);
-    this.evalParams = new NaiveBayesEvalParameters(params, outcomeNames.length,
-        outcomeTotals, predLabels.length);
-    modelType = AlgorithmType.NAIVE_BAYES;
-  }
-
   /**
    * Initializes a {@link NaiveBayesModel}.
    *
@@ -63,8 +47,7 @@ public class NaiveBayesModel extends AbstractModel {
   public NaiveBayesModel(Context[] params, String[] predLabels, String[] outcomeNames) {
     super(params, predLabels, outcomeNames);
     outcomeTotals = initOutcomeTotals(outcomeNames, params);
-    this.evalParams = new NaiveBayesEvalParameters(params, outcomeNames.length,
-        outcomeTotals, predLabels.length);
+    vocabulary = predLabels.length;
     modelType = AlgorithmType.NAIVE_BAYES;
   }
 
@@ -85,7 +68,7 @@ public class NaiveBayesModel extends AbstractModel {
    */
   @Override
   public double[] eval(String[] context) {
-    return eval(context, new double[evalParams.getNumOutcomes()]);
+    return eval(context, new double[compiledParams.getNumOutcomes()]);
   }
 
   /**
@@ -93,7 +76,7 @@ public class NaiveBayesModel extends AbstractModel {
    */
   @Override
   public double[] eval(String[] context, float[] values) {
-    return eval(context, values, new double[evalParams.getNumOutcomes()]);
+    return eval(context, values, new double[compiledParams.getNumOutcomes()]);
   }
 
   /**
@@ -105,12 +88,92 @@ public class NaiveBayesModel extends AbstractModel {
   }
 
   public double[] eval(String[] context, float[] values, double[] outsums) {
-    Context[] scontexts = new Context[context.length];
-    java.util.Arrays.fill(outsums, 0);
-    for (int i = 0; i < context.length; i++) {
-      scontexts[i] = pmap.get(context[i]);
+    return eval(context, values, outsums, 0);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public double[][] evalBatch(String[][] contexts, double[][] probs) {
+    MaxentModel.checkBatchSize(contexts, probs);
+    for (int i = 0; i < contexts.length; i++) {
+      eval(contexts[i], null, probs[i], 0);
+    }
+    return probs;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public double[] evalBatch(String[][] contexts, double[] probs) {
+    int numOutcomes = getNumOutcomes();
+    MaxentModel.checkBatchSize(contexts, probs, numOutcomes);
+    for (int i = 0; i < contexts.length; i++) {
+      eval(contexts[i], null, probs, i * numOutcomes);
+    }
+    return probs;
+  }
+
+  /**
+   * Computes the outcome distribution for a {@code context} in log space, with one
+   * primitive slot per outcome, and normalizes it the way {@link LogProbabilities} does.
+   *
+   * @param context The predicate names.
+   * @param values The values associated with each predicate, or {@code null}.
+   * @param probs The array to write the distribution to.
+   * @param offset The position of the first outcome in {@code probs}.
+   * @return The populated {@code probs}.
+   */
+  private double[] eval(String[] context, float[] values, double[] probs, int offset) {
+    int numOutcomes = outcomeTotals.length;
+    Arrays.fill(probs, offset, offset + numOutcomes, 0);
+
+    double value = 1;
+    for (int ci = 0; ci < context.length; ci++) {
+      int predIndex = compiledParams.getPredicateIndex(context[ci]);
+      if (predIndex >= 0) {
+        if (values != null) {
+          value = values[ci];
+        }
+        int pos = compiledParams.getStart(predIndex);
+        int end = compiledParams.getEnd(predIndex);
+        for (int i = 0; i < numOutcomes && pos < end; ++i) {
+          double numerator =
+              compiledParams.outcomeAt(pos) == i ? compiledParams.parameterAt(pos++) * value : 0;
+          double denominator = outcomeTotals[i];
+          probs[offset + i] += StrictMath.log(getProbability(numerator, denominator, vocabulary, true));
+        }
+      }
+    }
+
+    double total = 0;
+    for (double outcomeTotal : outcomeTotals) {
+      total += outcomeTotal;
+    }
+    double max = Double.NEGATIVE_INFINITY;
+    for (int i = 0; i < numOutcomes; i++) {
+      probs[offset + i] += StrictMath.log(outcomeTotals[i] / total);
+      if (probs[offset + i] > max) {
+        max = probs[offset + i];
+      }
+    }
+
+    double sum = 0;
+    for (int i = offset; i < offset + numOutcomes; i++) {
+      probs[i] = StrictMath.exp(probs[i] - max);
+      if (Double.isNaN(probs[i])) {
+        probs[i] = 0;
+      }
+      sum += probs[i];
+    }
+    if (sum > Double.MIN_VALUE) {
+      for (int i = offset; i < offset + numOutcomes; i++) {
+        probs[i] /= sum;
+      }
     }
-    return eval(scontexts, values, outsums, evalParams, true);
+    return probs;
   }
 
   /**
@@ -164,6 +227,11 @@ public class NaiveBayesModel extends AbstractModel {
         }
       }
     }
+    return addOutcomePriors(probabilities, outcomeTotals, prior);
+  }
+
+  private static double[] addOutcomePriors(Probabilities<Integer> probabilities,
+                                           double[] outcomeTotals, double[] prior) {
     double total = 0;
     for (double outcomeTotal : outcomeTotals) {
       total += outcomeTotal;
@@ -193,8 +261,15 @@ public class NaiveBayesModel extends AbstractModel {
   static double[] eval(int[] context, float[] values, double[] prior,
                               EvalParameters model, boolean normalize) {
     Context[] scontexts = new Context[context.length];
-    for (int i = 0; i < context.length; i++) {
-      scontexts[i] = model.getParams()[context[i]];
+    if (model instanceof CompiledParameters compiled) {
+      for (int i = 0; i < context.length; i++) {
+        scontexts[i] = compiled.getContext(context[i]);
+      }
+    } else {
+      Context[] params = model.getParams();
+      for (int i = 0; i < context.length; i++) {
+        scontexts[i] = params[context[i]];
+      }
     }
 
     return eval(scontexts, values, prior, model, normalize);
@@ -24,6 +24,7 @@ import opennlp.tools.ml.model.ChecksumEventStream;
 import opennlp.tools.ml.model.DataIndexer;
 import opennlp.tools.ml.model.DataIndexerFactory;
 import opennlp.tools.ml.model.Event;
+import opennlp.tools.ml.model.FeatureHasher;
 import opennlp.tools.ml.model.MaxentModel;
 import opennlp.tools.util.InsufficientTrainingDataException;
 import opennlp.tools.util.ObjectStream;
@@ -39,6 +40,7 @@ public abstract class AbstractEventTrainer<P extends Parameters>
   public static final String DATA_INDEXER_ONE_PASS_VALUE = "OnePass";
   public static final String DATA_INDEXER_TWO_PASS_VALUE = "TwoPass";
   public static final String DATA_INDEXER_ONE_PASS_REAL_VALUE = "OnePassRealValue";
+  public static final String DATA_INDEXER_PARALLEL_ONE_PASS_VALUE = "ParallelOnePass";
 
   public AbstractEventTrainer() {
   }
@@ -50,10 +52,23 @@ public abstract class AbstractEventTrainer<P extends Parameters>
   @Override
   public void validate() {
     super.validate();
+
+    if (!isFeatureHashingSupported() && FeatureHasher.fromParameters(trainingParameters) != null) {
+      throw new IllegalArgumentException(FeatureHasher.HASH_SIZE_PARAM + " is not supported by "
+          + getClass().getSimpleName());
+    }
   }
 
   public abstract boolean isSortAndMerge();
 
+  /**
+   * @return {@code true} if the trainer can train on hashed predicates, see
+   *         {@link FeatureHasher}, {@code false} otherwise.
+   */
+  protected boolean isFeatureHashingSupported() {
+    return false;
+  }
+
   public DataIndexer<P> getDataIndexer(ObjectStream<Event> events) throws IOException {
 
     trainingParameters.put(AbstractDataIndexer.SORT_PARAM, isSortAndMerge());
@@ -22,10 +22,11 @@ import java.util.List;
 import java.util.PriorityQueue;
 import java.util.Queue;
 
+import opennlp.tools.ml.model.EvalScratch;
 import opennlp.tools.ml.model.MaxentModel;
 import opennlp.tools.ml.model.SequenceClassificationModel;
 import opennlp.tools.util.BeamSearchContextGenerator;
-import opennlp.tools.util.Cache;
+import opennlp.tools.util.ConcurrentCache;
 import opennlp.tools.util.Sequence;
 import opennlp.tools.util.SequenceValidator;
 
@@ -48,8 +49,8 @@ public class BeamSearch implements SequenceClassificationModel {
   protected final int size;
   protected final MaxentModel model;
 
-  private final double[] probs;
-  private Cache<String[], double[]> contextsCache;
+  private final EvalScratch scratch = new EvalScratch();
+  private final ConcurrentCache<List<String>, double[]> contextsCache;
   private static final int zeroLog = -100000;
 
   /**
@@ -67,18 +68,30 @@ public class BeamSearch implements SequenceClassificationModel {
    *
    * @param size The size of the beam (k).
    * @param model The {@link MaxentModel} for assigning probabilities to the sequence outcomes.
-   * @param cacheSize The capacity of the {@link Cache} to use.
+   * @param cacheSize The capacity of the cache of the outcome probabilities per context,
+   *                  {@code 0} disables the cache.
    */
   public BeamSearch(int size, MaxentModel model, int cacheSize) {
+    this(size, model, cacheSize > 0 ? new ConcurrentCache<>(cacheSize) : null);
+  }
+
+  /**
+   * Initializes a {@link BeamSearch} instance which shares a cache of the outcome
+   * probabilities per context. The cache can be shared by all instances which use the
+   * same {@code model}, also across threads.
+   *
+   * @param size The size of the beam (k).
+   * @param model The {@link MaxentModel} for assigning probabilities to the sequence outcomes.
+   * @param contextsCache The {@link ConcurrentCache} of the outcome probabilities,
+   *                      or {@code null} to disable caching.
+   */
+  public BeamSearch(int size, MaxentModel model,
+      ConcurrentCache<List<String>, double[]> contextsCache) {
 
     this.size = size;
     this.model = model;
 
-    if (cacheSize > 0) {
-      contextsCache = new Cache<>(cacheSize);
-    }
-
-    this.probs = new double[model.getNumOutcomes()];
+    this.contextsCache = contextsCache;
   }
 
   /**
@@ -120,19 +133,21 @@ public class BeamSearch implements SequenceClassificationModel {
         String[] contexts = cg.getContext(i, sequence, outcomes, additionalContext);
         double[] scores;
         if (contextsCache != null) {
-          scores = contextsCache.computeIfAbsent(contexts, c -> model.eval(c, probs));
+          // cached scores are retained, they must not share the scratch buffer
+          scores = contextsCache.computeIfAbsent(Arrays.asList(contexts),
+              key -> model.eval(contexts));
         } else {
-          scores = model.eval(contexts, probs);
+          scores = model.eval(contexts, scratch);
         }
+        int numOutcomes = model.getNumOutcomes();
 
-        double[] temp_scores = new double[scores.length];
-        System.arraycopy(scores, 0, temp_scores, 0, scores.length);
+        double[] temp_scores = Arrays.copyOf(scores, numOutcomes);
 
         Arrays.sort(temp_scores);
 
-        double min = temp_scores[StrictMath.max(0,scores.length - size)];
+        double min = temp_scores[StrictMath.max(0, numOutcomes - size)];
 
-        for (int p = 0; p < scores.length; p++) {
+        for (int p = 0; p < numOutcomes; p++) {
           if (scores[p] >= min) {
             String out = model.getOutcome(p);
             if (validator.validSequence(i, sequence, outcomes, out)) {
@@ -145,7 +160,7 @@ public class BeamSearch implements SequenceClassificationModel {
         }
 
         if (next.size() == 0) { //if no advanced sequences, advance all valid
-          for (int p = 0; p < scores.length; p++) {
+          for (int p = 0; p < numOutcomes; p++) {
             String out = model.getOutcome(p);
             if (validator.validSequence(i, sequence, outcomes, out)) {
               Sequence ns = new Sequence(top, out, scores[p]);
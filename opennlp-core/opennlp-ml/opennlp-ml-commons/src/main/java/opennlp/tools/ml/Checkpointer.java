@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import opennlp.tools.ml.model.DataIndexer;
+import opennlp.tools.util.Parameters;
+
+/**
+ * Writes {@link TrainingCheckpoint checkpoints} of an iterative training run every few
+ * iterations and resumes the run from the last checkpoint.
+ * <p>
+ * Checkpointing is enabled by setting {@link #FILE_PARAM} in the training parameters.
+ * A checkpoint is then written every {@link #INTERVAL_PARAM} iterations, and if
+ * {@link #RESUME_PARAM} is {@code true} a run continues from the checkpoint in this file
+ * if it exists. The same parameters can therefore be used to start and to restart a run.
+ * <p>
+ * The trainer copies its state into the checkpoint, writing it to disk is done by a
+ * background thread so that the iterations are not stalled. If the previous checkpoint
+ * is still being written when the next one is due, the next one is skipped. Failures
+ * to write a checkpoint are logged, they do not stop the training.
+ * <p>
+ * An instance is created once per training run and has to be {@link #close() closed}
+ * when training is done, this waits until the last checkpoint is written.
+ */
+public final class Checkpointer implements AutoCloseable {
+
+  private static final Logger logger = LoggerFactory.getLogger(Checkpointer.class);
+
+  /**
+   * The path of the checkpoint file. Checkpointing is disabled if it is not set.
+   */
+  public static final String FILE_PARAM = "CheckpointFile";
+
+  /**
+   * The number of iterations between two checkpoints.
+   */
+  public static final String INTERVAL_PARAM = "CheckpointInterval";
+
+  public static final int INTERVAL_DEFAULT = 10;
+
+  /**
+   * Whether a run continues from an existing checkpoint file.
+   */
+  public static final String RESUME_PARAM = "CheckpointResume";
+
+  public static final boolean RESUME_DEFAULT = false;
+
+  private final Path file;
+  private final int interval;
+  private final boolean resume;
+  private final String algorithm;
+  private final long fingerprint;
+  private final ExecutorService executor;
+  private Future<?> pending;
+
+  private Checkpointer(Path file, int interval, boolean resume, String algorithm, long fingerprint) {
+    this.file = file;
+    this.interval = interval;
+    this.resume = resume;
+    this.algorithm = algorithm;
+    this.fingerprint = fingerprint;
+
+    if (file != null) {
+      executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "opennlp-checkpoint");
+        thread.setDaemon(true);
+        return thread;
+      });
+    } else {
+      executor = null;
+    }
+  }
+
+  /**
+   * Creates the {@link Checkpointer} of a training run.
+   *
+   * @param parameters The training {@link Parameters}, may be {@code null}.
+   * @param algorithm The name of the training algorithm.
+   * @param indexer The {@link DataIndexer} which holds the training data.
+   * @return The {@link Checkpointer}, which does nothing if checkpointing is not enabled.
+   * @throws IllegalArgumentException Thrown if the interval is not positive.
+   */
+  public static Checkpointer create(Parameters parameters, String algorithm, DataIndexer<?> indexer) {
+    String file = parameters != null ? parameters.getStringParameter(FILE_PARAM, null) : null;
+    if (file == null) {
+      return new Checkpointer(null, 0, false, algorithm, 0);
+    }
+
+    int interval = parameters.getIntParameter(INTERVAL_PARAM, INTERVAL_DEFAULT);
+    if (interval <= 0) {
+      throw new IllegalArgumentException(INTERVAL_PARAM + " must be > 0, but is " + interval);
+    }
+    return new Checkpointer(Path.of(file), interval, parameters.getBooleanParameter(RESUME_PARAM,
+        RESUME_DEFAULT), algorithm, TrainingCheckpoint.fingerprint(indexer));
+  }
+
+  /**
+   * @return {@code true} if checkpoints are written, {@code false} otherwise.
+   */
+  public boolean isEnabled() {
+    return file != null;
+  }
+
+  /**
+   * Reads the checkpoint to resume the training run from.
+   *
+   * @return The {@link TrainingCheckpoint}, or {@code null} if the run starts from the beginning.
+   * @throws UncheckedIOException Thrown if the checkpoint file could not be read.
+   * @throws IllegalStateException Thrown if the checkpoint was written by another algorithm
+   *                               or for other training data.
+   */
+  public TrainingCheckpoint resume() {
+    if (!resume || !Files.exists(file)) {
+      return null;
+    }
+
+    TrainingCheckpoint checkpoint;
+    try {
+      checkpoint = TrainingCheckpoint.read(file);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to read the training checkpoint " + file, e);
+    }
+
+    if (!algorithm.equals(checkpoint.getAlgorithm())) {
+      throw new IllegalStateException("The training checkpoint " + file + " was written by "
+          + checkpoint.getAlgorithm() + ", not by " + algorithm);
+    }
+    if (fingerprint != checkpoint.getFingerprint()) {
+      throw new IllegalStateException("The training checkpoint " + file
+          + " was written for different training data");
+    }
+
+    logger.info("Resuming training after iteration {} from {}", checkpoint.getIteration(), file);
+    return checkpoint;
+  }
+
+  /**
+   * @param iteration The number of completed iterations.
+   * @return {@code true} if a checkpoint should be written after this iteration.
+   */
+  public boolean isDue(int iteration) {
+    return file != null && iteration % interval == 0 && (pending == null || pending.isDone());
+  }
+
+  /**
+   * @param iteration The number of completed iterations.
+   * @return A new, empty {@link TrainingCheckpoint} for the state after {@code iteration}.
+   */
+  public TrainingCheckpoint newCheckpoint(int iteration) {
+    return new TrainingCheckpoint(algorithm, fingerprint, iteration);
+  }
+
+  /**
+   * Writes the {@code checkpoint} in the background.
+   *
+   * @param checkpoint The {@link TrainingCheckpoint} to write.
+   */
+  public void write(TrainingCheckpoint checkpoint) {
+    if (file == null) {
+      return;
+    }
+
+    pending = executor.submit(() -> {
+      try {
+        checkpoint.write(file);
+        logger.debug("Wrote training checkpoint after iteration {}", checkpoint.getIteration());
+      } catch (IOException e) {
+        logger.warn("Failed to write the training checkpoint {}", file, e);
+      }
+    });
+  }
+
+  /**
+   * Waits until the last checkpoint is written and stops the background thread.
+   */
+  @Override
+  public void close() {
+    if (executor != null) {
+      executor.shutdown();
+      try {
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
@@ -0,0 +1,284 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml;
+
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+
+import opennlp.tools.ml.model.FlatContexts;
+
+/**
+ * A compute engine which executes the data parallel parts of a training run, e.g.
+ * the computation of the model expectations or of a gradient, on a
+ * {@link ForkJoinPool work-stealing pool}.
+ * <p>
+ * An engine is created once per training run and reused for every iteration, it has
+ * to be {@link #close() closed} when training is done. With a single thread no pool
+ * is created and all work is executed by the calling thread.
+ * <p>
+ * The training data is split into {@link #partition(int[][]) partitions} which contain
+ * roughly the same number of non-zero features. Each partition is computed by one task
+ * which accumulates into its own partial results, these are then combined with
+ * {@link #sum(double[][], double[])} which is parallelized over the result vector.
+ */
+public class ComputeEngine implements AutoCloseable {
+
+  /**
+   * The minimum number of vector elements summed by a single task.
+   */
+  private static final int MIN_RANGE_SIZE = 8192;
+
+  /**
+   * Computes a partition of the training data.
+   */
+  @FunctionalInterface
+  public interface PartitionTask {
+
+    /**
+     * @param partition The index of the partition, between {@code 0} and the number of threads.
+     * @param start The index of the first context in the partition.
+     * @param end The index after the last context in the partition.
+     */
+    void compute(int partition, int start, int end);
+  }
+
+  /**
+   * Computes a range of indices.
+   */
+  @FunctionalInterface
+  public interface RangeTask {
+
+    /**
+     * @param start The first index of the range.
+     * @param end The index after the last index of the range.
+     */
+    void compute(int start, int end);
+  }
+
+  private final int threads;
+
+  private final ForkJoinPool pool;
+
+  /**
+   * Initializes a {@link ComputeEngine}.
+   *
+   * @param threads The number of threads to compute with in parallel.
+   *                Must be greater than {@code 0}.
+   * @throws IllegalArgumentException Thrown if parameters were invalid.
+   */
+  public ComputeEngine(int threads) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("Number of threads must be 1 or larger, but is " + threads);
+    }
+
+    this.threads = threads;
+    if (threads > 1) {
+      pool = new ForkJoinPool(threads, p -> {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+        thread.setName("opennlp.tools.ml.ComputeEngine-" + thread.getPoolIndex());
+        thread.setDaemon(true);
+        return thread;
+      }, null, false);
+    } else {
+      pool = null;
+    }
+  }
+
+  /**
+   * @return Retrieves the number of threads, which is also the number of partitions.
+   */
+  public int getThreads() {
+    return threads;
+  }
+
+  /**
+   * Splits the contexts into one partition per thread, each with roughly the same number of
+   * non-zero features. The cost of a context is its number of features plus one, the constant
+   * part accounts for the per context work, e.g. the normalization of the outcome distribution.
+   *
+   * @param contexts The contexts of the training data.
+   * @return The bounds of the partitions, the partition {@code p} spans the contexts from
+   *         {@code bounds[p]} (inclusive) to {@code bounds[p + 1]} (exclusive).
+   */
+  public int[] partition(int[][] contexts) {
+    int[] costs = new int[contexts.length];
+    for (int ci = 0; ci < contexts.length; ci++) {
+      costs[ci] = contexts[ci].length + 1;
+    }
+    return partition(costs);
+  }
+
+  /**
+   * Splits the contexts into one partition per thread, see {@link #partition(int[][])}.
+   *
+   * @param contexts The {@link FlatContexts} of the training data.
+   * @return The bounds of the partitions, the partition {@code p} spans the contexts from
+   *         {@code bounds[p]} (inclusive) to {@code bounds[p + 1]} (exclusive).
+   */
+  public int[] partition(FlatContexts contexts) {
+    int[] offsets = contexts.getOffsets();
+    int[] costs = new int[contexts.size()];
+    for (int ci = 0; ci < costs.length; ci++) {
+      costs[ci] = offsets[ci + 1] - offsets[ci] + 1;
+    }
+    return partition(costs);
+  }
+
+  /**
+   * Splits a sequence of work items into one partition per thread, each with roughly the
+   * same total cost, e.g. training sequences by their number of events.
+   *
+   * @param costs The cost of each work item, must not be negative.
+   * @return The bounds of the partitions, the partition {@code p} spans the items from
+   *         {@code bounds[p]} (inclusive) to {@code bounds[p + 1]} (exclusive).
+   */
+  public int[] partition(int[] costs) {
+    long totalCost = 0;
+    for (int cost : costs) {
+      totalCost += cost;
+    }
+
+    int[] bounds = new int[threads + 1];
+    long cost = 0;
+    int i = 0;
+    for (int p = 1; p < threads; p++) {
+      long target = totalCost * p / threads;
+      // an item belongs to the partition which contains its midpoint
+      while (i < costs.length && 2 * cost + costs[i] <= 2 * target) {
+        cost += costs[i];
+        i++;
+      }
+      bounds[p] = i;
+    }
+    bounds[threads] = costs.length;
+    return bounds;
+  }
+
+  /**
+   * Computes all partitions in parallel and waits until they are done.
+   *
+   * @param bounds The bounds of the partitions as returned by {@link #partition(int[][])}
+   *               or {@link #partition(int[])}.
+   * @param task The {@link PartitionTask} to compute each partition with.
+   * @throws RuntimeException Thrown if the computation of a partition failed.
+   */
+  public void forEachPartition(int[] bounds, PartitionTask task) {
+    if (pool == null) {
+      for (int p = 0; p + 1 < bounds.length; p++) {
+        task.compute(p, bounds[p], bounds[p + 1]);
+      }
+      return;
+    }
+
+    pool.invoke(new RecursiveAction() {
+      @Override
+      protected void compute() {
+        List<RecursiveAction> tasks = new ArrayList<>(bounds.length - 1);
+        for (int p = 0; p + 1 < bounds.length; p++) {
+          final int partition = p;
+          tasks.add(new RecursiveAction() {
+            @Override
+            protected void compute() {
+              task.compute(partition, bounds[partition], bounds[partition + 1]);
+            }
+          });
+        }
+        ForkJoinTask.invokeAll(tasks);
+      }
+    });
+  }
+
+  /**
+   * Computes the range from {@code 0} to {@code length} in parallel, the range is split
+   * recursively into sub ranges of at least {@code minRangeSize} indices.
+   *
+   * @param length The number of indices to compute.
+   * @param minRangeSize The minimum number of indices computed by a single task.
+   * @param task The {@link RangeTask} to compute the sub ranges with.
+   * @throws RuntimeException Thrown if the computation of a sub range failed.
+   */
+  public void forRange(int length, int minRangeSize, RangeTask task) {
+    if (pool == null || length <= minRangeSize) {
+      task.compute(0, length);
+    } else {
+      pool.invoke(new RangeAction(0, length, StrictMath.max(1, minRangeSize), task));
+    }
+  }
+
+  /**
+   * Sums the partial results element-wise into {@code target}.
+   *
+   * @param partials The partial results, each at least as long as {@code target}.
+   * @param target The vector to store the sum in, its values are overwritten.
+   */
+  public void sum(double[][] partials, double[] target) {
+    forRange(target.length, MIN_RANGE_SIZE, (start, end) -> {
+      System.arraycopy(partials[0], start, target, start, end - start);
+      for (int p = 1; p < partials.length; p++) {
+        double[] partial = partials[p];
+        for (int i = start; i < end; i++) {
+          target[i] += partial[i];
+        }
+      }
+    });
+  }
+
+  /**
+   * Shuts the threads of this engine down.
+   */
+  @Override
+  public void close() {
+    if (pool != null) {
+      pool.shutdown();
+    }
+  }
+
+  private static class RangeAction extends RecursiveAction {
+
+    @Serial
+    private static final long serialVersionUID = 2917325140573839126L;
+
+    private final int start;
+    private final int end;
+    private final int minRangeSize;
+    private final RangeTask task;
+
+    RangeAction(int start, int end, int minRangeSize, RangeTask task) {
+      this.start = start;
+      this.end = end;
+      this.minRangeSize = minRangeSize;
+      this.task = task;
+    }
+
+    @Override
+    protected void compute() {
+      if (end - start <= minRangeSize) {
+        task.compute(start, end);
+      } else {
+        int middle = (start + end) >>> 1;
+        invokeAll(new RangeAction(start, middle, minRangeSize, task),
+            new RangeAction(middle, end, minRangeSize, task));
+      }
+    }
+  }
+}
@@ -0,0 +1,410 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml;
+
+import java.util.Arrays;
+import java.util.List;
+
+import opennlp.tools.ml.model.EvalScratch;
+import opennlp.tools.ml.model.MaxentModel;
+import opennlp.tools.ml.model.SequenceClassificationModel;
+import opennlp.tools.util.BeamSearchContextGenerator;
+import opennlp.tools.util.ConcurrentCache;
+import opennlp.tools.util.Sequence;
+import opennlp.tools.util.SequenceValidator;
+
+/**
+ * Performs k-best search over a sequence, like {@link BeamSearch}, but keeps the
+ * hypotheses as outcome ids in preallocated arrays.
+ * <p>
+ * Each hypothesis is a node holding its outcome id, its probability and a back-pointer
+ * to its predecessor. The candidates of a position are selected with a bounded
+ * insertion into the {@code k} best instead of priority queues, and the threshold of
+ * the {@code k} best outcomes is found by partial selection instead of sorting the scores.
+ * {@link Sequence} objects are only created for the returned sequences.
+ * The node storage is recycled across calls, so only the outcome histories which are
+ * passed to the {@link BeamSearchContextGenerator} and {@link SequenceValidator}
+ * are allocated per position.
+ * <p>
+ * The search produces the same sequences as {@link BeamSearch}, the order of
+ * hypotheses with exactly equal scores may differ.
+ * <p>
+ * <b>Note:</b> Instances are not thread-safe.
+ *
+ * @see BeamSearch
+ */
+public class PrimitiveBeamSearch implements SequenceClassificationModel {
+
+  private static final Object[] EMPTY_ADDITIONAL_CONTEXT = new Object[0];
+  private static final String[] EMPTY_HISTORY = new String[0];
+  private static final int zeroLog = -100000;
+
+  protected final int size;
+  protected final MaxentModel model;
+
+  private final EvalScratch scratch = new EvalScratch();
+  private final ConcurrentCache<List<String>, double[]> contextsCache;
+
+  // hypothesis nodes, a parent of -1 marks the start of a sequence
+  private int[] nodeOutcome = new int[64];
+  private int[] nodeParent = new int[64];
+  private double[] nodeProb = new double[64];
+  private int numNodes;
+
+  // the beam of the current and the next position, ordered by descending score
+  private Beam beam;
+  private Beam nextBeam;
+
+  // the best candidates of a position, ordered by descending score
+  private int[] candBeam = new int[0];
+  private int[] candOutcome = new int[0];
+  private double[] candProb = new double[0];
+  private double[] candScore = new double[0];
+  private int numCands;
+
+  private final double[] topScores;
+
+  private static final class Beam {
+    private final int[] node;
+    private final double[] score;
+    private final String[][] history;
+    private int length;
+
+    private Beam(int size) {
+      node = new int[size];
+      score = new double[size];
+      history = new String[size][];
+    }
+  }
+
+  /**
+   * Initializes a {@link PrimitiveBeamSearch} instance.
+   *
+   * @param size The size of the beam (k).
+   * @param model The {@link MaxentModel} for assigning probabilities to the sequence outcomes.
+   */
+  public PrimitiveBeamSearch(int size, MaxentModel model) {
+    this(size, model, 0);
+  }
+
+  /**
+   * Initializes a {@link PrimitiveBeamSearch} instance.
+   *
+   * @param size The size of the beam (k).
+   * @param model The {@link MaxentModel} for assigning probabilities to the sequence outcomes.
+   * @param cacheSize The capacity of the cache of the outcome probabilities per context,
+   *                  {@code 0} disables the cache.
+   */
+  public PrimitiveBeamSearch(int size, MaxentModel model, int cacheSize) {
+    this(size, model, cacheSize > 0 ? new ConcurrentCache<>(cacheSize) : null);
+  }
+
+  /**
+   * Initializes a {@link PrimitiveBeamSearch} instance which shares a cache of the outcome
+   * probabilities per context. The cache can be shared by all instances which use the
+   * same {@code model}, also across threads.
+   *
+   * @param size The size of the beam (k).
+   * @param model The {@link MaxentModel} for assigning probabilities to the sequence outcomes.
+   * @param contextsCache The {@link ConcurrentCache} of the outcome probabilities,
+   *                      or {@code null} to disable caching.
+   */
+  public PrimitiveBeamSearch(int size, MaxentModel model,
+      ConcurrentCache<List<String>, double[]> contextsCache) {
+    if (size < 1) {
+      throw new IllegalArgumentException("size must be at least 1, but is " + size);
+    }
+    this.size = size;
+    this.model = model;
+
+    this.contextsCache = contextsCache;
+
+    beam = new Beam(size);
+    nextBeam = new Beam(size);
+    topScores = new double[size];
+  }
+
+  /**
+   * Computes the best sequence of outcomes based on the {@link MaxentModel}.
+   *
+   * @param numSequences The number of sequences.
+   * @param sequence The input {@link T} sequence.
+   * @param additionalContext An {@link Object[]} of additional context.
+   *     This is passed to the context generator blindly with the
+   *     assumption that the context are appropriate.
+   * @param minSequenceScore The minimum sequence score to use.
+   * @param cg The {@link BeamSearchContextGenerator context generator} to use.
+   * @param validator The {@link SequenceValidator} to validate sequences.
+   *
+   * @return The top ranked {@link Sequence} of outcomes or {@code null}
+   *         if no sequence could be found.
+   */
+  @Override
+  public <T> Sequence[] bestSequences(int numSequences, T[] sequence,
+      Object[] additionalContext, double minSequenceScore,
+      BeamSearchContextGenerator<T> cg, SequenceValidator<T> validator) {
+
+    if (additionalContext == null) {
+      additionalContext = EMPTY_ADDITIONAL_CONTEXT;
+    }
+
+    if (sequence.length == 0) {
+      return numSequences > 0 ? new Sequence[] {new Sequence()} : new Sequence[0];
+    }
+
+    // the last position must keep enough candidates for all requested sequences
+    ensureCandidateCapacity(StrictMath.max(size, numSequences));
+
+    numNodes = 0;
+    beam.node[0] = -1;
+    beam.score[0] = 0d;
+    beam.history[0] = EMPTY_HISTORY;
+    beam.length = 1;
+
+    int numOutcomes = model.getNumOutcomes();
+
+    for (int i = 0; i < sequence.length; i++) {
+      int capacity = i == sequence.length - 1 ? StrictMath.max(size, numSequences) : size;
+      numCands = 0;
+      int numAdvanced = 0;
+
+      for (int b = 0; b < beam.length; b++) {
+        String[] outcomes = beam.history[b];
+        String[] contexts = cg.getContext(i, sequence, outcomes, additionalContext);
+        double[] scores;
+        if (contextsCache != null) {
+          // cached scores are retained, they must not share the scratch buffer
+          scores = contextsCache.computeIfAbsent(Arrays.asList(contexts),
+              key -> model.eval(contexts));
+        } else {
+          scores = model.eval(contexts, scratch);
+        }
+
+        double min = kthLargest(scores, numOutcomes);
+
+        for (int p = 0; p < numOutcomes; p++) {
+          if (scores[p] >= min && validator.validSequence(i, sequence, outcomes, model.getOutcome(p))) {
+            numAdvanced += offer(b, p, scores[p], minSequenceScore, capacity);
+          }
+        }
+
+        if (numAdvanced == 0) { //if no advanced sequences, advance all valid
+          for (int p = 0; p < numOutcomes; p++) {
+            if (validator.validSequence(i, sequence, outcomes, model.getOutcome(p))) {
+              numAdvanced += offer(b, p, scores[p], minSequenceScore, capacity);
+            }
+          }
+        }
+      }
+
+      if (numCands == 0) {
+        return new Sequence[0];
+      }
+
+      if (i < sequence.length - 1) {
+        advance(i);
+      }
+    }
+
+    return toSequences(StrictMath.min(numSequences, numCands));
+  }
+
+  /**
+   * Computes the best sequence of outcomes based on the {@link MaxentModel}.
+   *
+   * @param numSequences The number of sequences.
+   * @param sequence The input {@link T} sequence.
+   * @param additionalContext An {@link Object[]} of additional context.
+   *     This is passed to the context generator blindly with the
+   *     assumption that the context are appropriate.
+   * @param cg The {@link BeamSearchContextGenerator context generator} to use.
+   * @param validator The {@link SequenceValidator} to validate sequences.
+   *
+   * @return The top ranked {@link Sequence} of outcomes or {@code null}
+   *         if no sequence could be found.
+   */
+  @Override
+  public <T> Sequence[] bestSequences(int numSequences, T[] sequence,
+      Object[] additionalContext, BeamSearchContextGenerator<T> cg, SequenceValidator<T> validator) {
+    return bestSequences(numSequences, sequence, additionalContext, zeroLog, cg, validator);
+  }
+
+  /**
+   * Computes the best sequence of outcomes based on the {@link MaxentModel}.
+   *
+   * @param sequence The input {@link T} sequence.
+   * @param additionalContext An {@link Object[]} of additional context.
+   *     This is passed to the context generator blindly with the
+   *     assumption that the context are appropriate.
+   * @param cg The {@link BeamSearchContextGenerator context generator} to use.
+   * @param validator The {@link SequenceValidator} to validate sequences.
+   *
+   * @return The top ranked {@link Sequence} of outcomes or {@code null}
+   *         if no sequence could be found.
+   */
+  @Override
+  public <T> Sequence bestSequence(T[] sequence, Object[] additionalContext,
+      BeamSearchContextGenerator<T> cg, SequenceValidator<T> validator) {
+    Sequence[] sequences = bestSequences(1, sequence, additionalContext, cg, validator);
+
+    if (sequences.length > 0)
+      return sequences[0];
+    else
+      return null;
+  }
+
+  @Override
+  public String[] getOutcomes() {
+    String[] outcomes = new String[model.getNumOutcomes()];
+
+    for (int i = 0; i < model.getNumOutcomes(); i++) {
+      outcomes[i] = model.getOutcome(i);
+    }
+    return outcomes;
+  }
+
+  /**
+   * @return The {@code size}-th largest of the scores, or the smallest score
+   *         if there are fewer outcomes than the beam size.
+   */
+  private double kthLargest(double[] scores, int numOutcomes) {
+    int k = StrictMath.min(size, numOutcomes);
+    int n = 0;
+    for (int p = 0; p < numOutcomes; p++) {
+      double score = scores[p];
+      if (n < k) {
+        n++;
+      } else if (score <= topScores[k - 1]) {
+        continue;
+      }
+      int j = n - 1;
+      while (j > 0 && topScores[j - 1] < score) {
+        topScores[j] = topScores[j - 1];
+        j--;
+      }
+      topScores[j] = score;
+    }
+    return topScores[k - 1];
+  }
+
+  /**
+   * Offers the extension of beam entry {@code b} by {@code outcome} as candidate.
+   *
+   * @return {@code 1} if the extended sequence scores above {@code minSequenceScore},
+   *         {@code 0} otherwise.
+   */
+  private int offer(int b, int outcome, double prob, double minSequenceScore, int capacity) {
+    double score = beam.score[b] + StrictMath.log(prob);
+    if (score <= minSequenceScore) {
+      return 0;
+    }
+
+    if (numCands == capacity) {
+      if (score <= candScore[capacity - 1]) {
+        return 1;
+      }
+      numCands--;
+    }
+
+    int j = numCands++;
+    while (j > 0 && candScore[j - 1] < score) {
+      candBeam[j] = candBeam[j - 1];
+      candOutcome[j] = candOutcome[j - 1];
+      candProb[j] = candProb[j - 1];
+      candScore[j] = candScore[j - 1];
+      j--;
+    }
+    candBeam[j] = b;
+    candOutcome[j] = outcome;
+    candProb[j] = prob;
+    candScore[j] = score;
+    return 1;
+  }
+
+  /**
+   * Turns the best candidates of position {@code i} into the beam of the next position.
+   */
+  private void advance(int i) {
+    int length = StrictMath.min(size, numCands);
+    for (int c = 0; c < length; c++) {
+      int b = candBeam[c];
+      String[] history = Arrays.copyOf(beam.history[b], i + 1);
+      history[i] = model.getOutcome(candOutcome[c]);
+
+      nextBeam.node[c] = addNode(candOutcome[c], beam.node[b], candProb[c]);
+      nextBeam.score[c] = candScore[c];
+      nextBeam.history[c] = history;
+    }
+    nextBeam.length = length;
+
+    Arrays.fill(beam.history, null);
+    Beam tmp = beam;
+    beam = nextBeam;
+    nextBeam = tmp;
+  }
+
+  private int addNode(int outcome, int parent, double prob) {
+    if (numNodes == nodeOutcome.length) {
+      int capacity = numNodes * 2;
+      nodeOutcome = Arrays.copyOf(nodeOutcome, capacity);
+      nodeParent = Arrays.copyOf(nodeParent, capacity);
+      nodeProb = Arrays.copyOf(nodeProb, capacity);
+    }
+    nodeOutcome[numNodes] = outcome;
+    nodeParent[numNodes] = parent;
+    nodeProb[numNodes] = prob;
+    return numNodes++;
+  }
+
+  private void ensureCandidateCapacity(int capacity) {
+    if (candScore.length < capacity) {
+      candBeam = new int[capacity];
+      candOutcome = new int[capacity];
+      candProb = new double[capacity];
+      candScore = new double[capacity];
+    }
+  }
+
+  /**
+   * Creates the {@link Sequence sequences} of the best candidates of the last position.
+   */
+  private Sequence[] toSequences(int numSequences) {
+    Sequence[] sequences = new Sequence[numSequences];
+    int length = beam.history[0].length + 1;
+    int[] outcomes = new int[length];
+    double[] probs = new double[length];
+
+    for (int s = 0; s < numSequences; s++) {
+      outcomes[length - 1] = candOutcome[s];
+      probs[length - 1] = candProb[s];
+      for (int n = beam.node[candBeam[s]], j = length - 2; n != -1; n = nodeParent[n], j--) {
+        outcomes[j] = nodeOutcome[n];
+        probs[j] = nodeProb[n];
+      }
+
+      Sequence sequence = new Sequence();
+      for (int j = 0; j < length; j++) {
+        sequence.add(model.getOutcome(outcomes[j]), probs[j]);
+      }
+      sequences[s] = sequence;
+    }
+
+    Arrays.fill(beam.history, null);
+    return sequences;
+  }
+}
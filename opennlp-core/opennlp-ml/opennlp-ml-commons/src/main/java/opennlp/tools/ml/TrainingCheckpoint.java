@@ -0,0 +1,316 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import opennlp.tools.ml.model.DataIndexer;
+import opennlp.tools.ml.model.FlatContexts;
+import opennlp.tools.util.InvalidFormatException;
+
+/**
+ * A snapshot of the state of an iterative training run, which allows to resume the
+ * training after it was interrupted.
+ * <p>
+ * A checkpoint holds the name of the algorithm, a {@link #fingerprint(DataIndexer) fingerprint}
+ * of the training data, the number of completed iterations and named arrays with the
+ * state of the trainer, e.g. its parameters. The arrays are copied when they are put
+ * into the checkpoint, later changes of the trainer do not affect it.
+ * <p>
+ * Protocol:
+ * <pre>
+ *  1 - (int) - Magic number
+ *  2 - (int) - Format version
+ *  3 - (utf) - Algorithm
+ *  4 - (long) - Fingerprint of the training data
+ *  5 - (int) - Number of completed iterations
+ *  6 - (int) - Number of arrays
+ *  7+ - (utf, byte, int, values) - Name, type ('D' or 'I'), length and elements of each array
+ * </pre>
+ *
+ * @see Checkpointer
+ */
+public final class TrainingCheckpoint {
+
+  private static final int MAGIC = 0x4F4E4350;
+  private static final int VERSION = 1;
+
+  private static final byte TYPE_DOUBLE = 'D';
+  private static final byte TYPE_INT = 'I';
+
+  private final String algorithm;
+  private final long fingerprint;
+  private final int iteration;
+  private final Map<String, Object> arrays = new LinkedHashMap<>();
+
+  /**
+   * Initializes an empty {@link TrainingCheckpoint}.
+   *
+   * @param algorithm The name of the training algorithm.
+   * @param fingerprint The fingerprint of the training data.
+   * @param iteration The number of completed iterations.
+   */
+  public TrainingCheckpoint(String algorithm, long fingerprint, int iteration) {
+    this.algorithm = algorithm;
+    this.fingerprint = fingerprint;
+    this.iteration = iteration;
+  }
+
+  /**
+   * @return Retrieves the name of the training algorithm.
+   */
+  public String getAlgorithm() {
+    return algorithm;
+  }
+
+  /**
+   * @return Retrieves the fingerprint of the training data.
+   */
+  public long getFingerprint() {
+    return fingerprint;
+  }
+
+  /**
+   * @return Retrieves the number of completed iterations.
+   */
+  public int getIteration() {
+    return iteration;
+  }
+
+  /**
+   * Puts a copy of the {@code values} into this checkpoint.
+   *
+   * @param name The name of the array.
+   * @param values The values to store.
+   * @return This {@link TrainingCheckpoint}.
+   */
+  public TrainingCheckpoint put(String name, double[] values) {
+    arrays.put(name, values.clone());
+    return this;
+  }
+
+  /**
+   * Puts a copy of the {@code values} into this checkpoint.
+   *
+   * @param name The name of the array.
+   * @param values The values to store.
+   * @return This {@link TrainingCheckpoint}.
+   */
+  public TrainingCheckpoint put(String name, int[] values) {
+    arrays.put(name, values.clone());
+    return this;
+  }
+
+  /**
+   * Puts a single value into this checkpoint.
+   *
+   * @param name The name of the value.
+   * @param value The value to store.
+   * @return This {@link TrainingCheckpoint}.
+   */
+  public TrainingCheckpoint put(String name, double value) {
+    arrays.put(name, new double[] {value});
+    return this;
+  }
+
+  /**
+   * @param name The name of the array.
+   * @return The stored {@code double} array, not a copy.
+   * @throws IllegalStateException Thrown if there is no {@code double} array with this name.
+   */
+  public double[] getDoubles(String name) {
+    if (arrays.get(name) instanceof double[] values) {
+      return values;
+    }
+    throw new IllegalStateException("The checkpoint has no double values named " + name);
+  }
+
+  /**
+   * @param name The name of the array.
+   * @return The stored {@code int} array, not a copy.
+   * @throws IllegalStateException Thrown if there is no {@code int} array with this name.
+   */
+  public int[] getInts(String name) {
+    if (arrays.get(name) instanceof int[] values) {
+      return values;
+    }
+    throw new IllegalStateException("The checkpoint has no int values named " + name);
+  }
+
+  /**
+   * @param name The name of the value.
+   * @return The stored single value.
+   * @throws IllegalStateException Thrown if there is no single value with this name.
+   */
+  public double getDouble(String name) {
+    double[] values = getDoubles(name);
+    if (values.length != 1) {
+      throw new IllegalStateException("The checkpoint value " + name + " is not a single value");
+    }
+    return values[0];
+  }
+
+  /**
+   * Writes this checkpoint to a temporary file next to {@code file} which then replaces
+   * {@code file}, so that an interrupted write never leaves an incomplete checkpoint.
+   *
+   * @param file The {@link Path} of the checkpoint file.
+   * @throws IOException Thrown if IO errors occurred.
+   */
+  public void write(Path file) throws IOException {
+    Path dir = file.toAbsolutePath().getParent();
+    Files.createDirectories(dir);
+    Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+    try {
+      try (DataOutputStream out = new DataOutputStream(
+          new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeUTF(algorithm);
+        out.writeLong(fingerprint);
+        out.writeInt(iteration);
+        out.writeInt(arrays.size());
+        for (Map.Entry<String, Object> entry : arrays.entrySet()) {
+          out.writeUTF(entry.getKey());
+          if (entry.getValue() instanceof double[] values) {
+            out.writeByte(TYPE_DOUBLE);
+            out.writeInt(values.length);
+            for (double value : values) {
+              out.writeDouble(value);
+            }
+          } else {
+            int[] values = (int[]) entry.getValue();
+            out.writeByte(TYPE_INT);
+            out.writeInt(values.length);
+            for (int value : values) {
+              out.writeInt(value);
+            }
+          }
+        }
+      }
+
+      try {
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+  }
+
+  /**
+   * Reads a checkpoint which was written with {@link #write(Path)}.
+   *
+   * @param file The {@link Path} of the checkpoint file.
+   * @return The {@link TrainingCheckpoint} which was read.
+   * @throws InvalidFormatException Thrown if the file is not a checkpoint.
+   * @throws IOException Thrown if IO errors occurred.
+   */
+  public static TrainingCheckpoint read(Path file) throws IOException {
+    try (DataInputStream in = new DataInputStream(
+        new BufferedInputStream(Files.newInputStream(file)))) {
+      if (in.readInt() != MAGIC) {
+        throw new InvalidFormatException(file + " is not a training checkpoint");
+      }
+      int version = in.readInt();
+      if (version != VERSION) {
+        throw new InvalidFormatException("Unsupported training checkpoint version " + version);
+      }
+
+      TrainingCheckpoint checkpoint = new TrainingCheckpoint(in.readUTF(), in.readLong(), in.readInt());
+      int numArrays = in.readInt();
+      for (int i = 0; i < numArrays; i++) {
+        String name = in.readUTF();
+        byte type = in.readByte();
+        int length = in.readInt();
+        if (type == TYPE_DOUBLE) {
+          double[] values = new double[length];
+          for (int j = 0; j < length; j++) {
+            values[j] = in.readDouble();
+          }
+          checkpoint.arrays.put(name, values);
+        } else if (type == TYPE_INT) {
+          int[] values = new int[length];
+          for (int j = 0; j < length; j++) {
+            values[j] = in.readInt();
+          }
+          checkpoint.arrays.put(name, values);
+        } else {
+          throw new InvalidFormatException("Unknown array type " + type + " in training checkpoint");
+        }
+      }
+      return checkpoint;
+    }
+  }
+
+  /**
+   * Computes a fingerprint of the indexed training data, which is used to detect whether
+   * a checkpoint was written for other data.
+   *
+   * @param indexer The {@link DataIndexer} which holds the indexed training data.
+   * @return The 64-bit FNV-1a hash of the labels, contexts and outcomes of the events.
+   */
+  public static long fingerprint(DataIndexer<?> indexer) {
+    long hash = 0xcbf29ce484222325L;
+    hash = mix(hash, indexer.getOutcomeLabels());
+    hash = mix(hash, indexer.getPredLabels());
+
+    FlatContexts contexts = indexer.getFlatContexts();
+    hash = mix(hash, contexts.getOffsets());
+    hash = mix(hash, contexts.getPredicates());
+    float[] values = contexts.getValues();
+    if (values != null) {
+      for (float value : values) {
+        hash = mix(hash, Float.floatToIntBits(value));
+      }
+    }
+    hash = mix(hash, indexer.getOutcomeList());
+    return mix(hash, indexer.getNumTimesEventsSeen());
+  }
+
+  private static long mix(long hash, String[] labels) {
+    hash = mix(hash, labels.length);
+    for (String label : labels) {
+      hash = mix(hash, label.hashCode());
+    }
+    return hash;
+  }
+
+  private static long mix(long hash, int[] values) {
+    hash = mix(hash, values.length);
+    for (int value : values) {
+      hash = mix(hash, value);
+    }
+    return hash;
+  }
+
+  private static long mix(long hash, int value) {
+    return (hash ^ value) * 0x100000001b3L;
+  }
+}
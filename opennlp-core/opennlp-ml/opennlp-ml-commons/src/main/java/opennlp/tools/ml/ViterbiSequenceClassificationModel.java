@@ -0,0 +1,404 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml;
+
+import java.util.Arrays;
+
+import opennlp.tools.ml.model.EvalScratch;
+import opennlp.tools.ml.model.MaxentModel;
+import opennlp.tools.ml.model.SequenceClassificationModel;
+import opennlp.tools.util.BeamSearchContextGenerator;
+import opennlp.tools.util.Sequence;
+import opennlp.tools.util.SequenceValidator;
+
+/**
+ * Finds the exact best sequences of outcomes with the Viterbi algorithm.
+ * <p>
+ * The decoder requires that the contexts of the {@link BeamSearchContextGenerator}
+ * only depend on the previous {@code order} outcomes, see
+ * {@link BeamSearchContextGenerator#getOutcomeHistoryOrder()}. The search states are
+ * the last {@code max(order, 1)} outcomes, the model is evaluated once per position and
+ * reachable state, which takes {@code O(n * |Y|^(order + 1))} for {@code n} positions and
+ * {@code |Y|} outcomes. The {@link SequenceValidator} is applied as mask of the
+ * transitions from a state to the next outcome.
+ * <p>
+ * For {@code k} best sequences the best {@code k} hypotheses are kept per state.
+ * The outcome history which is passed to the context generator and the validator is
+ * the one of the best hypothesis of a state.
+ * <p>
+ * <b>Note:</b> Instances are not thread-safe.
+ *
+ * @see BeamSearch
+ */
+public class ViterbiSequenceClassificationModel implements SequenceClassificationModel {
+
+  /**
+   * The manifest entry and training parameter which selects the sequence decoder.
+   */
+  public static final String SEQUENCE_DECODER_PARAMETER = "SequenceDecoder";
+
+  /**
+   * The {@link #SEQUENCE_DECODER_PARAMETER} value which selects this decoder.
+   */
+  public static final String VITERBI_DECODER = "Viterbi";
+
+  /**
+   * The system property which overrides the {@link #SEQUENCE_DECODER_PARAMETER}
+   * of all models.
+   */
+  public static final String SEQUENCE_DECODER_PROPERTY = "opennlp.sequence.decoder";
+
+  /**
+   * The manifest entry which declares the outcome history order of a model,
+   * see {@link BeamSearchContextGenerator#getOutcomeHistoryOrder()}.
+   */
+  public static final String OUTCOME_HISTORY_ORDER_PARAMETER = "OutcomeHistoryOrder";
+
+  private static final Object[] EMPTY_ADDITIONAL_CONTEXT = new Object[0];
+  private static final String[] EMPTY_HISTORY = new String[0];
+  private static final int zeroLog = -100000;
+  private static final int MAX_STATES = 1 << 20;
+
+  protected final MaxentModel model;
+  protected final int order;
+
+  private final EvalScratch scratch = new EvalScratch();
+  private final int numOutcomes;
+  private final int numStates;
+  /** {@code (numOutcomes + 1)^(stateLength - 1)}, removes the oldest outcome of a state. */
+  private final int shift;
+
+  // lattice indexed by ((position * numStates) + state) * numBest + rank, recycled across calls
+  private int numBest;
+  private double[] score = new double[0];
+  private double[] prob = new double[0];
+  private int[] backState = new int[0];
+  private int[] backRank = new int[0];
+  private int[] count = new int[0];
+
+  private int[] active;
+  private int[] nextActive;
+  private String[][] history;
+  private String[][] nextHistory;
+  private final double[] logProbs;
+  private final boolean[] valid;
+
+  /**
+   * Initializes a {@link ViterbiSequenceClassificationModel} instance.
+   *
+   * @param model The {@link MaxentModel} for assigning probabilities to the sequence outcomes.
+   * @param order The number of previous outcomes the contexts depend on.
+   * @throws IllegalArgumentException Thrown if {@code order} is negative or leads to too many states.
+   */
+  public ViterbiSequenceClassificationModel(MaxentModel model, int order) {
+    if (order < 0) {
+      throw new IllegalArgumentException("order must not be negative, but is " + order);
+    }
+    this.model = model;
+    this.order = order;
+    this.numOutcomes = model.getNumOutcomes();
+
+    // the validators depend on the previous outcome, so a state holds at least one outcome
+    int stateLength = StrictMath.max(order, 1);
+    long states = 1;
+    for (int i = 0; i < stateLength; i++) {
+      states *= numOutcomes + 1;
+      if (states > MAX_STATES) {
+        throw new IllegalArgumentException("An order of " + order + " needs more than " +
+            MAX_STATES + " states for " + numOutcomes + " outcomes");
+      }
+    }
+    numStates = (int) states;
+    shift = numStates / (numOutcomes + 1);
+
+    active = new int[numStates];
+    nextActive = new int[numStates];
+    history = new String[numStates][];
+    nextHistory = new String[numStates][];
+    logProbs = new double[numOutcomes];
+    valid = new boolean[numOutcomes];
+  }
+
+  /**
+   * @return The number of previous outcomes the contexts depend on.
+   */
+  public int getOrder() {
+    return order;
+  }
+
+  /**
+   * Computes the best sequences of outcomes based on the {@link MaxentModel}.
+   *
+   * @param numSequences The number of sequences.
+   * @param sequence The input {@link T} sequence.
+   * @param additionalContext An {@link Object[]} of additional context.
+   *     This is passed to the context generator blindly with the
+   *     assumption that the context are appropriate.
+   * @param minSequenceScore The minimum sequence score to use.
+   * @param cg The {@link BeamSearchContextGenerator context generator} to use.
+   * @param validator The {@link SequenceValidator} to validate sequences.
+   *
+   * @return The top ranked {@link Sequence sequences} of outcomes, ordered by
+   *         descending score.
+   */
+  @Override
+  public <T> Sequence[] bestSequences(int numSequences, T[] sequence,
+      Object[] additionalContext, double minSequenceScore,
+      BeamSearchContextGenerator<T> cg, SequenceValidator<T> validator) {
+
+    if (additionalContext == null) {
+      additionalContext = EMPTY_ADDITIONAL_CONTEXT;
+    }
+
+    if (sequence.length == 0) {
+      return numSequences > 0 ? new Sequence[] {new Sequence()} : new Sequence[0];
+    }
+    if (numSequences < 1) {
+      return new Sequence[0];
+    }
+
+    ensureCapacity(sequence.length, numSequences);
+
+    // the start state, no outcomes yet
+    int numActive = 1;
+    active[0] = 0;
+    history[0] = EMPTY_HISTORY;
+
+    for (int i = 0; i < sequence.length; i++) {
+      int base = i * numStates;
+      Arrays.fill(count, base, base + numStates, 0);
+      int numNext = 0;
+
+      for (int a = 0; a < numActive; a++) {
+        int state = active[a];
+        String[] outcomes = history[state];
+        double[] probs = model.eval(cg.getContext(i, sequence, outcomes, additionalContext), scratch);
+
+        for (int y = 0; y < numOutcomes; y++) {
+          valid[y] = validator.validSequence(i, sequence, outcomes, model.getOutcome(y));
+          if (valid[y]) {
+            logProbs[y] = StrictMath.log(probs[y]);
+          }
+        }
+
+        int prevBase = ((i - 1) * numStates + state) * numBest;
+        int prevCount = i == 0 ? 1 : count[(i - 1) * numStates + state];
+        for (int y = 0; y < numOutcomes; y++) {
+          if (!valid[y]) {
+            continue;
+          }
+          int next = (state % shift) * (numOutcomes + 1) + y + 1;
+          for (int r = 0; r < prevCount; r++) {
+            double s = (i == 0 ? 0d : score[prevBase + r]) + logProbs[y];
+            if (s <= minSequenceScore) {
+              continue;
+            }
+            if (count[base + next] == 0) {
+              nextActive[numNext++] = next;
+            }
+            insert((base + next) * numBest, base + next, s, probs[y], state, r);
+          }
+        }
+      }
+
+      if (numNext == 0) {
+        return new Sequence[0];
+      }
+
+      if (i < sequence.length - 1) {
+        for (int a = 0; a < numNext; a++) {
+          int next = nextActive[a];
+          String[] h = Arrays.copyOf(history[backState[(base + next) * numBest]], i + 1);
+          h[i] = model.getOutcome(next % (numOutcomes + 1) - 1);
+          nextHistory[next] = h;
+        }
+        Arrays.fill(history, null);
+        String[][] tmpHistory = history;
+        history = nextHistory;
+        nextHistory = tmpHistory;
+      }
+
+      int[] tmp = active;
+      active = nextActive;
+      nextActive = tmp;
+      numActive = numNext;
+    }
+
+    Arrays.fill(history, null);
+    return toSequences(sequence.length, numActive, numSequences);
+  }
+
+  /**
+   * Computes the best sequences of outcomes based on the {@link MaxentModel}.
+   *
+   * @param numSequences The number of sequences.
+   * @param sequence The input {@link T} sequence.
+   * @param additionalContext An {@link Object[]} of additional context.
+   *     This is passed to the context generator blindly with the
+   *     assumption that the context are appropriate.
+   * @param cg The {@link BeamSearchContextGenerator context generator} to use.
+   * @param validator The {@link SequenceValidator} to validate sequences.
+   *
+   * @return The top ranked {@link Sequence sequences} of outcomes, ordered by
+   *         descending score.
+   */
+  @Override
+  public <T> Sequence[] bestSequences(int numSequences, T[] sequence,
+      Object[] additionalContext, BeamSearchContextGenerator<T> cg, SequenceValidator<T> validator) {
+    return bestSequences(numSequences, sequence, additionalContext, zeroLog, cg, validator);
+  }
+
+  /**
+   * Computes the best sequence of outcomes based on the {@link MaxentModel}.
+   *
+   * @param sequence The input {@link T} sequence.
+   * @param additionalContext An {@link Object[]} of additional context.
+   *     This is passed to the context generator blindly with the
+   *     assumption that the context are appropriate.
+   * @param cg The {@link BeamSearchContextGenerator context generator} to use.
+   * @param validator The {@link SequenceValidator} to validate sequences.
+   *
+   * @return The top ranked {@link Sequence} of outcomes or {@code null}
+   *         if no sequence could be found.
+   */
+  @Override
+  public <T> Sequence bestSequence(T[] sequence, Object[] additionalContext,
+      BeamSearchContextGenerator<T> cg, SequenceValidator<T> validator) {
+    Sequence[] sequences = bestSequences(1, sequence, additionalContext, cg, validator);
+
+    if (sequences.length > 0)
+      return sequences[0];
+    else
+      return null;
+  }
+
+  @Override
+  public String[] getOutcomes() {
+    String[] outcomes = new String[model.getNumOutcomes()];
+
+    for (int i = 0; i < model.getNumOutcomes(); i++) {
+      outcomes[i] = model.getOutcome(i);
+    }
+    return outcomes;
+  }
+
+  /**
+   * Inserts a hypothesis into the best hypotheses of a state, ordered by descending score.
+   */
+  private void insert(int offset, int countIndex, double s, double p, int fromState, int fromRank) {
+    int n = count[countIndex];
+    if (n == numBest) {
+      if (s <= score[offset + n - 1]) {
+        return;
+      }
+      n--;
+    } else {
+      count[countIndex] = n + 1;
+    }
+
+    int j = offset + n;
+    while (j > offset && score[j - 1] < s) {
+      score[j] = score[j - 1];
+      prob[j] = prob[j - 1];
+      backState[j] = backState[j - 1];
+      backRank[j] = backRank[j - 1];
+      j--;
+    }
+    score[j] = s;
+    prob[j] = p;
+    backState[j] = fromState;
+    backRank[j] = fromRank;
+  }
+
+  private void ensureCapacity(int length, int numSequences) {
+    numBest = numSequences;
+    long size = (long) length * numStates * numBest;
+    if (size > Integer.MAX_VALUE - 8) {
+      throw new IllegalArgumentException("The sequence is too long to be decoded with " +
+          numSequences + " best sequences");
+    }
+    if (score.length < size) {
+      int capacity = (int) StrictMath.min(Integer.MAX_VALUE - 8, StrictMath.max(size, score.length * 2L));
+      score = new double[capacity];
+      prob = new double[capacity];
+      backState = new int[capacity];
+      backRank = new int[capacity];
+    }
+    if (count.length < length * numStates) {
+      count = new int[StrictMath.max(length * numStates, count.length * 2)];
+    }
+  }
+
+  /**
+   * Follows the back-pointers of the best hypotheses of the last position.
+   */
+  private Sequence[] toSequences(int length, int numActive, int numSequences) {
+    int last = (length - 1) * numStates;
+
+    // select the best hypotheses over all states of the last position
+    int[] bestState = new int[numSequences];
+    int[] bestRank = new int[numSequences];
+    double[] bestScore = new double[numSequences];
+    int numFound = 0;
+    for (int a = 0; a < numActive; a++) {
+      int state = active[a];
+      int offset = (last + state) * numBest;
+      for (int r = 0; r < count[last + state]; r++) {
+        double s = score[offset + r];
+        if (numFound == numSequences) {
+          if (s <= bestScore[numFound - 1]) {
+            break;
+          }
+          numFound--;
+        }
+        int j = numFound++;
+        while (j > 0 && bestScore[j - 1] < s) {
+          bestState[j] = bestState[j - 1];
+          bestRank[j] = bestRank[j - 1];
+          bestScore[j] = bestScore[j - 1];
+          j--;
+        }
+        bestState[j] = state;
+        bestRank[j] = r;
+        bestScore[j] = s;
+      }
+    }
+
+    Sequence[] sequences = new Sequence[numFound];
+    int[] outcomes = new int[length];
+    double[] probs = new double[length];
+    for (int s = 0; s < numFound; s++) {
+      int state = bestState[s];
+      int rank = bestRank[s];
+      for (int i = length - 1; i >= 0; i--) {
+        int index = ((i * numStates) + state) * numBest + rank;
+        outcomes[i] = state % (numOutcomes + 1) - 1;
+        probs[i] = prob[index];
+        state = backState[index];
+        rank = backRank[index];
+      }
+
+      Sequence sequence = new Sequence();
+      for (int i = 0; i < length; i++) {
+        sequence.add(model.getOutcome(outcomes[i]), probs[i]);
+      }
+      sequences[s] = sequence;
+    }
+    return sequences;
+  }
+}
@@ -58,11 +58,18 @@ public abstract class AbstractDataIndexer<P extends Parameters> implements DataI
     this.reportMap = reportMap;
     if (this.reportMap == null) reportMap = new HashMap<>();
     trainingParameters = indexingParameters;
+    featureHasher = FeatureHasher.fromParameters(indexingParameters);
   }
 
-  private int numEvents;
-  /** The integer contexts associated with each unique event. */
+  /** The total number of events, including duplicates. */
+  protected int numEvents;
+  /**
+   * The integer contexts associated with each unique event. Indexers may set either these
+   * arrays or {@link #flatContexts}, the other layout is derived from it on demand.
+   */
   protected int[][] contexts;
+  /** The integer contexts associated with each unique event, in the flat layout. */
+  protected FlatContexts flatContexts;
   /** The integer outcome associated with each unique event. */
   protected int[] outcomeList;
   /** The number of times an event occurred in the training data. */
@@ -73,15 +80,39 @@ public abstract class AbstractDataIndexer<P extends Parameters> implements DataI
   protected String[] outcomeLabels;
   /** The number of times each predicate occurred. */
   protected int[] predCounts;
+  /** The hasher mapping predicates to buckets, or {@code null} if predicates are indexed by name. */
+  protected FeatureHasher featureHasher;
+  /** The hash bucket of each predicate index, only set in hashing mode. */
+  protected int[] predicateBuckets;
+  /** The predicate index of each hash bucket, {@code -1} for buckets below the cutoff. */
+  private int[] bucketIndex;
 
   /**
    * {@inheritDoc}
+   * <p>
+   * If the indexer only built {@link #flatContexts}, the arrays are materialized on the
+   * first call and kept alongside the flat contexts.
    */
   @Override
   public int[][] getContexts() {
+    if (contexts == null && flatContexts != null) {
+      contexts = flatContexts.toArrays();
+    }
     return contexts;
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public FlatContexts getFlatContexts() {
+    float[][] values = getValues();
+    if (flatContexts == null || values != null && flatContexts.getValues() == null) {
+      flatContexts = FlatContexts.of(getContexts(), values);
+    }
+    return flatContexts;
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -129,6 +160,22 @@ public abstract class AbstractDataIndexer<P extends Parameters> implements DataI
   public int getNumEvents() {
     return numEvents;
   }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public FeatureHasher getFeatureHasher() {
+    return featureHasher;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int[] getPredicateBuckets() {
+    return predicateBuckets;
+  }
   
   /**
    * Sorts and uniques the array of comparable events and return the number of unique events.
@@ -176,7 +223,7 @@ public abstract class AbstractDataIndexer<P extends Parameters> implements DataI
 
     if (sort) logger.info("done. Reduced {} events to {}.", numEvents, numUniqueEvents);
 
-    contexts = new int[numUniqueEvents][];
+    FlatContexts.Builder builder = new FlatContexts.Builder(numUniqueEvents);
     outcomeList = new int[numUniqueEvents];
     numTimesEventsSeen = new int[numUniqueEvents];
 
@@ -187,9 +234,11 @@ public abstract class AbstractDataIndexer<P extends Parameters> implements DataI
       }
       numTimesEventsSeen[j] = evt.seen;
       outcomeList[j] = evt.outcome;
-      contexts[j] = evt.predIndexes;
+      builder.add(evt.predIndexes);
       ++j;
     }
+    flatContexts = builder.build();
+    contexts = null;
     return numUniqueEvents;
   }
 
@@ -206,16 +255,35 @@ public abstract class AbstractDataIndexer<P extends Parameters> implements DataI
    */
   protected List<ComparableEvent> index(ObjectStream<Event> events,
                                         Map<String, Integer> predicateIndex) throws IOException {
-    Map<String, Integer> omap = new HashMap<>();
-
     List<ComparableEvent> eventsToCompare = new ArrayList<>();
+    index(events, predicateIndex, eventsToCompare::add);
+    return eventsToCompare;
+  }
+
+  /**
+   * Performs the data indexing and passes each indexed event to the {@code consumer}
+   * instead of collecting them in memory. Events without any active feature are dropped.
+   * <p>
+   * <b>Note:</b>
+   * Make sure the {@link #init(Parameters, Map)} method is called first.
+   *
+   * @param events A {@link ObjectStream< Event >} of events used as input.
+   * @param predicateIndex A {@link Map} providing the data of a predicate index.
+   * @param consumer The {@link IndexedEventConsumer} which receives the indexed events.
+   *
+   * @throws IOException Thrown if IO errors occurred during indexing.
+   */
+  protected void index(ObjectStream<Event> events, Map<String, Integer> predicateIndex,
+                       IndexedEventConsumer consumer) throws IOException {
+    Map<String, Integer> omap = new HashMap<>();
 
     Event ev;
     while ((ev = events.read()) != null) {
 
       omap.putIfAbsent(ev.getOutcome(), omap.size());
 
-      int[] cons = Arrays.stream(ev.getContext())
+      int[] cons = bucketIndex != null ? hashContext(ev.getContext()) :
+          Arrays.stream(ev.getContext())
           .map(predicateIndex::get)
           .filter(Objects::nonNull)
           .mapToInt(i -> i).toArray();
@@ -223,14 +291,47 @@ public abstract class AbstractDataIndexer<P extends Parameters> implements DataI
       // drop events with no active features
       if (cons.length > 0) {
         int ocID = omap.get(ev.getOutcome());
-        eventsToCompare.add(new ComparableEvent(ocID, cons, ev.getValues()));
+        consumer.accept(new ComparableEvent(ocID, cons, ev.getValues()));
       } else {
         logger.info("Dropped event {}:{}", ev.getOutcome(), Arrays.asList(ev.getContext()));
       }
     }
     outcomeLabels = toIndexedStringArray(omap);
-    predLabels = toIndexedStringArray(predicateIndex);
-    return eventsToCompare;
+    predLabels = bucketIndex != null ? bucketLabels() : toIndexedStringArray(predicateIndex);
+  }
+
+  /**
+   * Maps the predicates of a context to the indexes of their hash buckets, predicates
+   * whose bucket is below the cutoff are dropped. Must only be called in hashing mode
+   * after {@link #selectBuckets(int[], int)}.
+   *
+   * @param context The contexts/features which occur in an event.
+   * @return The predicate indexes of the context.
+   */
+  protected int[] hashContext(String[] context) {
+    int[] cons = new int[context.length];
+    int length = 0;
+    for (String predicate : context) {
+      int predIndex = bucketIndex[featureHasher.bucket(predicate)];
+      if (predIndex >= 0) {
+        cons[length++] = predIndex;
+      }
+    }
+    return length == cons.length ? cons : Arrays.copyOf(cons, length);
+  }
+
+  /**
+   * In hashing mode the predicate names are not known, each predicate index is
+   * labeled with the number of its bucket instead.
+   *
+   * @return The labels of the predicate indexes.
+   */
+  protected String[] bucketLabels() {
+    String[] labels = new String[predicateBuckets.length];
+    for (int i = 0; i < labels.length; i++) {
+      labels[i] = "#" + predicateBuckets[i];
+    }
+    return labels;
   }
 
   /**
@@ -245,6 +346,46 @@ public abstract class AbstractDataIndexer<P extends Parameters> implements DataI
     }
   }
 
+  /**
+   * Updates the per-bucket counter with the specified event contexts.
+   * Must only be called in hashing mode, see {@link #getFeatureHasher()}.
+   *
+   * @param ec The contexts/features which occur in an event.
+   * @param bucketCounts The counters, indexed by hash bucket.
+   */
+  protected void updateBuckets(String[] ec, int[] bucketCounts) {
+    for (String s : ec) {
+      bucketCounts[featureHasher.bucket(s)]++;
+    }
+  }
+
+  /**
+   * Assigns a predicate index, in ascending bucket order, to each hash bucket which
+   * occurred at least {@code cutoff} times and sets {@link #predCounts} and
+   * {@link #predicateBuckets} accordingly. Events passed to
+   * {@link #index(ObjectStream, Map)} afterwards are indexed by hash bucket.
+   *
+   * @param bucketCounts The counters, as filled by {@link #updateBuckets(String[], int[])}.
+   * @param cutoff The minimum number of occurrences of a bucket.
+   */
+  protected void selectBuckets(int[] bucketCounts, int cutoff) {
+    bucketIndex = new int[bucketCounts.length];
+    int numPredicates = 0;
+    for (int bucket = 0; bucket < bucketCounts.length; bucket++) {
+      bucketIndex[bucket] = bucketCounts[bucket] >= cutoff && bucketCounts[bucket] > 0
+          ? numPredicates++ : -1;
+    }
+
+    predicateBuckets = new int[numPredicates];
+    predCounts = new int[numPredicates];
+    for (int bucket = 0; bucket < bucketCounts.length; bucket++) {
+      if (bucketIndex[bucket] >= 0) {
+        predicateBuckets[bucketIndex[bucket]] = bucket;
+        predCounts[bucketIndex[bucket]] = bucketCounts[bucket];
+      }
+    }
+  }
+
   /**
    * Utility method for creating a {@code String[]} from a map whose
    * keys are labels (Strings) to be stored in the array and whose
@@ -265,4 +406,17 @@ public abstract class AbstractDataIndexer<P extends Parameters> implements DataI
     return null;
   }
 
+  /**
+   * Receives the events produced by {@link #index(ObjectStream, Map, IndexedEventConsumer)}.
+   */
+  @FunctionalInterface
+  protected interface IndexedEventConsumer {
+
+    /**
+     * @param event The indexed {@link ComparableEvent}.
+     * @throws IOException Thrown if IO errors occurred while storing the event.
+     */
+    void accept(ComparableEvent event) throws IOException;
+  }
+
 }
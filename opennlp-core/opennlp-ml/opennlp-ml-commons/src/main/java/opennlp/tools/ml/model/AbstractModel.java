@@ -17,6 +17,7 @@
 
 package opennlp.tools.ml.model;
 
+import java.lang.reflect.InvocationTargetException;
 import java.text.DecimalFormat;
 import java.util.Arrays;
 import java.util.LinkedHashMap;
@@ -33,18 +34,52 @@ public abstract class AbstractModel implements MaxentModel {
 
   private static final DecimalFormat DECIMAL_FORMAT = new DecimalFormat("0.0000");
 
-  /** Mapping between predicates/contexts and an integer representing them. */
+  /**
+   * Mapping between predicates/contexts and an integer representing them.
+   *
+   * @deprecated The parameters are kept in {@link #compiledParams}. This field is only set by
+   *             the deprecated {@link #AbstractModel(Context[], String[], Map, String[])}
+   *             constructor and is not read by this class, use {@link #getDataStructures()}.
+   */
+  @Deprecated(forRemoval = true, since = "2.5.5")
   protected Map<String, Context> pmap;
   /** The names of the outcomes. */
   protected String[] outcomeNames;
-  /** Parameters for the model. */
+  /** Parameters for the model, compiled for evaluation. */
+  protected CompiledParameters compiledParams;
+  /**
+   * Parameters for the model.
+   *
+   * @deprecated Refers to the same parameters as {@link #compiledParams}, with the type this
+   *             field had before the parameters were compiled. It is kept for subclasses which
+   *             read it, changing it has no effect on this class. Use {@link #compiledParams}.
+   */
+  @Deprecated(forRemoval = true, since = "2.5.5")
   protected EvalParameters evalParams;
+  /** The structures of {@link #getDataStructures()}, created on first use. */
+  private volatile Object[] dataStructures;
   /** Prior distribution for this model. */
   protected Prior prior;
 
   /** The type of the model. */
   protected AlgorithmType modelType;
 
+  /**
+   * Initializes an {@link AbstractModel}.
+   * <p>
+   * The parameters are compiled into {@link CompiledParameters}, the given
+   * {@link Context} objects are not retained.
+   *
+   * @param params The {@link Context parameters} to set.
+   * @param predLabels The predicted labels.
+   * @param outcomeNames The names of the outcomes.
+   */
+  public AbstractModel(Context[] params, String[] predLabels, String[] outcomeNames) {
+    this.outcomeNames = outcomeNames;
+    this.compiledParams = CompiledParameters.compile(params, predLabels, outcomeNames.length);
+    this.evalParams = compiledParams;
+  }
+
   /**
    * Initializes an {@link AbstractModel}.
    *
@@ -52,37 +87,29 @@ public abstract class AbstractModel implements MaxentModel {
    * @param predLabels The predicted labels.
    * @param pmap A {@link Map} that provides a mapping between predicates and contexts.
    * @param outcomeNames The names of the outcomes.
+   *
+   * @deprecated The {@code pmap} is not used for evaluation,
+   *             use {@link #AbstractModel(Context[], String[], String[])} instead.
    */
+  @Deprecated(forRemoval = true, since = "2.5.5")
   protected AbstractModel(Context[] params, String[] predLabels,
       Map<String, Context> pmap, String[] outcomeNames) {
+    this(params, predLabels, outcomeNames);
     this.pmap = pmap;
-    this.outcomeNames =  outcomeNames;
-    this.evalParams = new EvalParameters(params,outcomeNames.length);
   }
 
   /**
-   * Initializes an {@link AbstractModel}.
+   * Initializes an {@link AbstractModel} with already compiled parameters.
    *
-   * @param params The {@link Context parameters} to set.
-   * @param predLabels The predicted labels.
+   * @param compiledParams The {@link CompiledParameters} to set.
    * @param outcomeNames The names of the outcomes.
    */
-  public AbstractModel(Context[] params, String[] predLabels, String[] outcomeNames) {
-    init(predLabels, params, outcomeNames);
-    this.evalParams = new EvalParameters(params, outcomeNames.length);
-  }
-
-  private void init(String[] predLabels, Context[] params, String[] outcomeNames) {
-    this.pmap = new LinkedHashMap<>(predLabels.length);
-
-    for (int i = 0; i < predLabels.length; i++) {
-      pmap.put(predLabels[i], params[i]);
-    }
-
-    this.outcomeNames =  outcomeNames;
+  protected AbstractModel(CompiledParameters compiledParams, String[] outcomeNames) {
+    this.outcomeNames = outcomeNames;
+    this.compiledParams = compiledParams;
+    this.evalParams = compiledParams;
   }
 
-
   /**
    * Return the name of the outcome corresponding to the highest likelihood
    * in the parameter ocs.
@@ -154,7 +181,7 @@ public abstract class AbstractModel implements MaxentModel {
 
   @Override
   public int getNumOutcomes() {
-    return evalParams.getNumOutcomes();
+    return compiledParams.getNumOutcomes();
   }
 
   /**
@@ -171,22 +198,53 @@ public abstract class AbstractModel implements MaxentModel {
    *            stored in the index of the array which represents their
    *            unique ids in the model.</li>
    * </ul>
+   * <p>
+   * The {@link Context} objects and the {@link Map} are created from the
+   * {@link CompiledParameters} of this model on the first call, later calls return
+   * the same objects.
    *
    * @return An {@link Object} array with the values as described above.
-   * 
+   *
    * @implNote : This method will usually only be needed by GIS model writers.
    */
   public final Object[] getDataStructures() {
-    Object[] data = new Object[3];
-    data[0] = evalParams.getParams();
-    data[1] = pmap;
-    data[2] = outcomeNames;
-    return data;
+    Object[] data = dataStructures;
+    if (data == null) {
+      Context[] params = compiledParams.getParams();
+      Map<String, Context> pmap = new LinkedHashMap<>(params.length);
+      for (int pi = 0; pi < params.length; pi++) {
+        pmap.put(compiledParams.getPredicate(pi), params[pi]);
+      }
+
+      data = new Object[3];
+      data[0] = params;
+      data[1] = pmap;
+      data[2] = outcomeNames;
+      dataStructures = data;
+    }
+    return data.clone();
+  }
+
+  /**
+   * Creates a model of the same class with other parameters, via the class's
+   * {@code (CompiledParameters, String[])} constructor.
+   *
+   * @param params The {@link CompiledParameters} of the new model.
+   * @return The new {@link AbstractModel}, sharing the outcome names of this model.
+   */
+  AbstractModel withParameters(CompiledParameters params) {
+    try {
+      return getClass().getDeclaredConstructor(CompiledParameters.class, String[].class)
+          .newInstance(params, outcomeNames);
+    } catch (InvocationTargetException | InstantiationException | IllegalAccessException |
+             NoSuchMethodException e) {
+      throw new RuntimeException("Problem instantiating model class: " + getClass().getName(), e);
+    }
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(pmap, Arrays.hashCode(outcomeNames), evalParams, prior);
+    return Objects.hash(Arrays.hashCode(outcomeNames), compiledParams, prior);
   }
 
   @Override
@@ -197,7 +255,8 @@ public abstract class AbstractModel implements MaxentModel {
 
     if (obj instanceof AbstractModel model) {
 
-      return pmap.equals(model.pmap) && Objects.deepEquals(outcomeNames, model.outcomeNames)
+      return compiledParams.equals(model.compiledParams)
+          && Objects.deepEquals(outcomeNames, model.outcomeNames)
           && Objects.equals(prior, model.prior);
     }
 
@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.model;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * A compact binary encoding of indexed {@link ComparableEvent events}.
+ * <p>
+ * All integers are written as variable length quantities with seven bits per byte. The
+ * predicate indexes of an event are written as the zig-zag encoded difference to the
+ * previous index, the order of the indexes is kept. Most events therefore need one or
+ * two bytes per predicate instead of the four bytes of a plain integer.
+ * <p>
+ * Protocol:
+ * <pre>
+ *  1 - (varint) - Number of times the event was seen
+ *  2 - (varint) - Outcome index
+ *  3 - (varint) - Number of predicate indexes
+ *  4+ - (zig-zag varint) - Difference to the previous predicate index
+ *  5 - (varint) - Number of values plus one, {@code 0} if the event has no values
+ *  6+ - (int) - Bits of the float value
+ * </pre>
+ */
+final class ComparableEventCodec {
+
+  private ComparableEventCodec() {
+  }
+
+  /**
+   * Writes an event to the {@link OutputStream}.
+   *
+   * @param out The {@link OutputStream} to write to, should be buffered.
+   * @param event The {@link ComparableEvent} to write.
+   * @throws IOException Thrown if IO errors occurred.
+   */
+  static void write(OutputStream out, ComparableEvent event) throws IOException {
+    writeVarInt(out, event.seen);
+    writeVarInt(out, event.outcome);
+    writeVarInt(out, event.predIndexes.length);
+    int previous = 0;
+    for (int predIndex : event.predIndexes) {
+      int delta = predIndex - previous;
+      writeVarInt(out, (delta << 1) ^ (delta >> 31));
+      previous = predIndex;
+    }
+
+    if (event.values == null) {
+      writeVarInt(out, 0);
+    } else {
+      writeVarInt(out, event.values.length + 1);
+      for (float value : event.values) {
+        int bits = Float.floatToRawIntBits(value);
+        out.write(bits >>> 24);
+        out.write(bits >>> 16);
+        out.write(bits >>> 8);
+        out.write(bits);
+      }
+    }
+  }
+
+  /**
+   * Reads an event from the {@link InputStream}.
+   *
+   * @param in The {@link InputStream} to read from, should be buffered.
+   * @return The {@link ComparableEvent} which was read.
+   * @throws IOException Thrown if IO errors occurred or the stream ended within an event.
+   */
+  static ComparableEvent read(InputStream in) throws IOException {
+    int seen = readVarInt(in);
+    int outcome = readVarInt(in);
+    int[] predIndexes = new int[readVarInt(in)];
+    int previous = 0;
+    for (int i = 0; i < predIndexes.length; i++) {
+      int zigZag = readVarInt(in);
+      previous += (zigZag >>> 1) ^ -(zigZag & 1);
+      predIndexes[i] = previous;
+    }
+
+    float[] values = null;
+    int valuesLength = readVarInt(in);
+    if (valuesLength > 0) {
+      values = new float[valuesLength - 1];
+      for (int i = 0; i < values.length; i++) {
+        values[i] = Float.intBitsToFloat(readByte(in) << 24 | readByte(in) << 16
+            | readByte(in) << 8 | readByte(in));
+      }
+    }
+
+    ComparableEvent event = new ComparableEvent(outcome, predIndexes, values);
+    event.seen = seen;
+    return event;
+  }
+
+  private static void writeVarInt(OutputStream out, int value) throws IOException {
+    while ((value & ~0x7F) != 0) {
+      out.write((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    out.write(value);
+  }
+
+  private static int readVarInt(InputStream in) throws IOException {
+    int value = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      int b = readByte(in);
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IOException("Malformed variable length integer");
+  }
+
+  private static int readByte(InputStream in) throws IOException {
+    int b = in.read();
+    if (b < 0) {
+      throw new EOFException("Unexpected end of event data");
+    }
+    return b;
+  }
+}
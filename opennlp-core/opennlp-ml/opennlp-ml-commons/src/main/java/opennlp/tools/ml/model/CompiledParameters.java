@@ -0,0 +1,438 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.model;
+
+import opennlp.tools.ml.ArrayMath;
+
+/**
+ * A compact, read-only representation of the {@link EvalParameters} of a trained model.
+ * <p>
+ * Instead of one {@link Context} object, holding two small arrays, per predicate,
+ * all parameters are stored in a single flat block in compressed sparse row (CSR)
+ * layout: the active outcomes and parameters of predicate {@code p} are found at the
+ * positions {@code [getStart(p), getEnd(p))} of that block. Predicates are resolved
+ * via a {@link PredicateIndex}, unless the parameters are
+ * {@link #compile(Context[], int) unnamed} and predicates are addressed by index only,
+ * e.g. by hash bucket. If every predicate is active for every outcome, as is the case
+ * for models trained with L-BFGS, the outcome ids are implicit and are not stored at all.
+ * <p>
+ * {@link Context} objects are only created on demand via {@link #getParams()} or
+ * {@link #getContext(int)}, e.g. when a model is written.
+ * <p>
+ * Subclasses may keep the parameters outside the heap, see {@link MappedParameters}.
+ * Such subclasses override the predicate lookup, the accessors of the parameter block
+ * and {@link #addParameters(int, double, double[], int)}.
+ */
+public class CompiledParameters extends EvalParameters {
+
+  /** The predicate names, or {@code null} if the predicates are unnamed. */
+  private final PredicateIndex predicates;
+  /** Start positions of each predicate in the parameter block, plus the end position. */
+  private final int[] offsets;
+  /** The active outcome ids, or {@code null} if all predicates are active for all outcomes. */
+  private final int[] outcomes;
+  private final double[] parameters;
+
+  private CompiledParameters(PredicateIndex predicates, int[] offsets, int[] outcomes,
+                             double[] parameters, int numOutcomes) {
+    super(null, numOutcomes);
+    this.predicates = predicates;
+    this.offsets = offsets;
+    this.outcomes = outcomes;
+    this.parameters = parameters;
+  }
+
+  /**
+   * Initializes {@link CompiledParameters} for a subclass which provides its own storage.
+   *
+   * @param numOutcomes The number of outcomes of the model.
+   */
+  protected CompiledParameters(int numOutcomes) {
+    this(null, null, null, null, numOutcomes);
+  }
+
+  /**
+   * Compiles the given model parameters.
+   *
+   * @param params The {@link Context parameters}, one per predicate.
+   * @param predLabels The predicate names, in the same order as {@code params}.
+   * @param numOutcomes The number of outcomes of the model.
+   * @return The {@link CompiledParameters} holding a copy of {@code params}.
+   * @throws IllegalArgumentException Thrown if {@code params} and {@code predLabels}
+   *                                  differ in length.
+   */
+  public static CompiledParameters compile(Context[] params, String[] predLabels, int numOutcomes) {
+    if (params.length != predLabels.length) {
+      throw new IllegalArgumentException("Number of parameters (" + params.length +
+          ") does not match the number of predicates (" + predLabels.length + ")");
+    }
+    return compile(new PredicateIndex(predLabels), params, numOutcomes);
+  }
+
+  /**
+   * Compiles the given model parameters without predicate names. The predicates can
+   * only be addressed by index, {@link #getPredicateIndex(String)} always returns {@code -1}.
+   *
+   * @param params The {@link Context parameters}, one per predicate index.
+   * @param numOutcomes The number of outcomes of the model.
+   * @return The {@link CompiledParameters} holding a copy of {@code params}.
+   */
+  public static CompiledParameters compile(Context[] params, int numOutcomes) {
+    return compile(null, params, numOutcomes);
+  }
+
+  /**
+   * Compiles the given model parameters with an existing {@link PredicateIndex}. This avoids
+   * indexing the predicate names again when parameters which change during training are
+   * compiled repeatedly.
+   *
+   * @param predicates The {@link PredicateIndex} of the predicate names, in the same order
+   *                   as {@code params}, or {@code null} for unnamed predicates.
+   * @param params The {@link Context parameters}, one per predicate.
+   * @param numOutcomes The number of outcomes of the model.
+   * @return The {@link CompiledParameters} holding a copy of {@code params}.
+   */
+  public static CompiledParameters compile(PredicateIndex predicates, Context[] params,
+                                           int numOutcomes) {
+    int[] offsets = new int[params.length + 1];
+    boolean dense = true;
+    for (int pi = 0; pi < params.length; pi++) {
+      int[] activeOutcomes = params[pi].getOutcomes();
+      offsets[pi + 1] = offsets[pi] + activeOutcomes.length;
+      dense &= isFullPattern(activeOutcomes, numOutcomes);
+    }
+
+    int[] outcomes = dense ? null : new int[offsets[params.length]];
+    double[] parameters = new double[offsets[params.length]];
+    for (int pi = 0; pi < params.length; pi++) {
+      int length = offsets[pi + 1] - offsets[pi];
+      System.arraycopy(params[pi].getParameters(), 0, parameters, offsets[pi], length);
+      if (outcomes != null) {
+        System.arraycopy(params[pi].getOutcomes(), 0, outcomes, offsets[pi], length);
+      }
+    }
+
+    return new CompiledParameters(predicates, offsets, outcomes, parameters, numOutcomes);
+  }
+
+  private static boolean isFullPattern(int[] activeOutcomes, int numOutcomes) {
+    if (activeOutcomes.length != numOutcomes) {
+      return false;
+    }
+    for (int i = 0; i < activeOutcomes.length; i++) {
+      if (activeOutcomes[i] != i) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @param predicate The name of a predicate.
+   * @return The index of {@code predicate}, or {@code -1} if it is not part of the model
+   *         or the predicates are unnamed.
+   */
+  public int getPredicateIndex(String predicate) {
+    return predicates != null ? predicates.indexOf(predicate) : -1;
+  }
+
+  /**
+   * Looks up the predicate {@code prefix + text.substring(start, end)} without creating it,
+   * see {@link PredicateIndex#indexOf(int, String, String, int, int)}.
+   *
+   * @param hash The {@link String#hashCode()} of the predicate.
+   * @param prefix The leading part of the predicate name.
+   * @param text The text holding the remaining part of the predicate name.
+   * @param start The index of the first char in {@code text}.
+   * @param end The index after the last char in {@code text}.
+   * @return The index of the predicate, or {@code -1} if it is not part of the model
+   *         or the predicates are unnamed.
+   */
+  public int getPredicateIndex(int hash, String prefix, String text, int start, int end) {
+    return predicates != null ? predicates.indexOf(hash, prefix, text, start, end) : -1;
+  }
+
+  /**
+   * @param predIndex A predicate index.
+   * @return The name of the predicate at {@code predIndex}, or {@code null} if the
+   *         predicates are unnamed.
+   */
+  public String getPredicate(int predIndex) {
+    return predicates != null ? predicates.getPredicate(predIndex) : null;
+  }
+
+  /**
+   * @return The number of predicates.
+   */
+  public int getNumPredicates() {
+    return offsets.length - 1;
+  }
+
+  /**
+   * @param predIndex A predicate index.
+   * @return The first position of the predicate's entries in the parameter block.
+   */
+  public int getStart(int predIndex) {
+    return offsets[predIndex];
+  }
+
+  /**
+   * @param predIndex A predicate index.
+   * @return The position after the last of the predicate's entries in the parameter block.
+   */
+  public int getEnd(int predIndex) {
+    return offsets[predIndex + 1];
+  }
+
+  /**
+   * @param position A position in the parameter block.
+   * @return The outcome id stored at {@code position}.
+   */
+  public int outcomeAt(int position) {
+    return outcomes != null ? outcomes[position] : position % getNumOutcomes();
+  }
+
+  /**
+   * @param position A position in the parameter block.
+   * @return The parameter stored at {@code position}.
+   */
+  public double parameterAt(int position) {
+    return parameters[position];
+  }
+
+  /**
+   * Adds the parameters of the given predicates to {@code scores}, each one weighted
+   * by the corresponding value. Predicates unknown to the model are ignored.
+   *
+   * @param context The predicate names.
+   * @param values The values associated with each predicate, or {@code null} for {@code 1}.
+   * @param scores The per-outcome scores to add to.
+   */
+  public void sumFeatures(String[] context, float[] values, double[] scores) {
+    sumFeatures(context, values, scores, 0);
+  }
+
+  /**
+   * Adds the parameters of the given predicates to the per-outcome scores stored
+   * in {@code scores} from {@code offset} on. Predicates unknown to the model are ignored.
+   *
+   * @param context The predicate names.
+   * @param values The values associated with each predicate, or {@code null} for {@code 1}.
+   * @param scores The array holding the per-outcome scores to add to.
+   * @param offset The position of the score of the first outcome in {@code scores}.
+   */
+  public void sumFeatures(String[] context, float[] values, double[] scores, int offset) {
+    for (int ci = 0; ci < context.length; ci++) {
+      int predIndex = getPredicateIndex(context[ci]);
+      if (predIndex >= 0) {
+        addParameters(predIndex, values != null ? values[ci] : 1, scores, offset);
+      }
+    }
+  }
+
+  /**
+   * Adds the parameters of the given predicates to {@code scores}, each one weighted
+   * by the corresponding value. Negative predicate indices are ignored.
+   *
+   * @param predIndices The predicate indices, as returned by {@link #getPredicateIndex(String)}.
+   * @param values The values associated with each predicate, or {@code null} for {@code 1}.
+   * @param scores The per-outcome scores to add to.
+   */
+  public void sumFeatures(int[] predIndices, float[] values, double[] scores) {
+    sumFeatures(predIndices, values, scores, 0);
+  }
+
+  /**
+   * Adds the parameters of the given predicates to the per-outcome scores stored
+   * in {@code scores} from {@code offset} on. Negative predicate indices are ignored.
+   *
+   * @param predIndices The predicate indices, as returned by {@link #getPredicateIndex(String)}.
+   * @param values The values associated with each predicate, or {@code null} for {@code 1}.
+   * @param scores The array holding the per-outcome scores to add to.
+   * @param offset The position of the score of the first outcome in {@code scores}.
+   */
+  public void sumFeatures(int[] predIndices, float[] values, double[] scores, int offset) {
+    sumFeatures(predIndices, predIndices.length, values, scores, offset);
+  }
+
+  /**
+   * Adds the parameters of the first {@code length} given predicates to the per-outcome
+   * scores stored in {@code scores} from {@code offset} on. Negative predicate indices
+   * are ignored.
+   *
+   * @param predIndices The predicate indices, as returned by {@link #getPredicateIndex(String)}.
+   * @param length The number of valid elements in {@code predIndices}.
+   * @param values The values associated with each predicate, or {@code null} for {@code 1}.
+   * @param scores The array holding the per-outcome scores to add to.
+   * @param offset The position of the score of the first outcome in {@code scores}.
+   */
+  public void sumFeatures(int[] predIndices, int length, float[] values, double[] scores,
+                          int offset) {
+    for (int ci = 0; ci < length; ci++) {
+      if (predIndices[ci] >= 0) {
+        addParameters(predIndices[ci], values != null ? values[ci] : 1, scores, offset);
+      }
+    }
+  }
+
+  /**
+   * Adds the parameters of the predicates stored from {@code start} to {@code end} in
+   * {@code predIndices} to {@code scores}, e.g. of a context in {@link FlatContexts}.
+   * Negative predicate indices are ignored.
+   *
+   * @param predIndices The predicate indices, as returned by {@link #getPredicateIndex(String)}.
+   * @param values The values associated with each predicate, indexed like {@code predIndices},
+   *               or {@code null} for {@code 1}.
+   * @param start The index of the first predicate in {@code predIndices}.
+   * @param end The index after the last predicate in {@code predIndices}.
+   * @param scores The per-outcome scores to add to.
+   */
+  public void sumFeatures(int[] predIndices, float[] values, int start, int end, double[] scores) {
+    for (int ci = start; ci < end; ci++) {
+      if (predIndices[ci] >= 0) {
+        addParameters(predIndices[ci], values != null ? values[ci] : 1, scores, 0);
+      }
+    }
+  }
+
+  /**
+   * Adds the parameters of a single predicate, weighted by {@code value}, to the
+   * per-outcome scores stored in {@code scores} from {@code offset} on.
+   *
+   * @param predIndex A predicate index.
+   * @param value The value associated with the predicate.
+   * @param scores The array holding the per-outcome scores to add to.
+   * @param offset The position of the score of the first outcome in {@code scores}.
+   */
+  protected void addParameters(int predIndex, double value, double[] scores, int offset) {
+    int start = offsets[predIndex];
+    int end = offsets[predIndex + 1];
+    if (outcomes == null) {
+      ArrayMath.axpy(value, parameters, start, scores, offset, end - start);
+    } else {
+      for (int pos = start; pos < end; pos++) {
+        scores[offset + outcomes[pos]] += parameters[pos] * value;
+      }
+    }
+  }
+
+  /**
+   * Materializes the parameters of a single predicate.
+   *
+   * @param predIndex A predicate index.
+   * @return A new {@link Context} holding a copy of the predicate's outcomes and parameters.
+   */
+  public Context getContext(int predIndex) {
+    int start = getStart(predIndex);
+    int end = getEnd(predIndex);
+    int[] activeOutcomes = new int[end - start];
+    double[] activeParameters = new double[end - start];
+    for (int i = 0; i < activeOutcomes.length; i++) {
+      activeOutcomes[i] = outcomeAt(start + i);
+      activeParameters[i] = parameterAt(start + i);
+    }
+    return new Context(activeOutcomes, activeParameters);
+  }
+
+  /**
+   * Materializes the parameters of all predicates. Each call creates new
+   * {@link Context} objects, which are not retained by this instance.
+   *
+   * @return The {@link Context parameters}, in predicate index order.
+   */
+  @Override
+  public Context[] getParams() {
+    Context[] params = new Context[getNumPredicates()];
+    for (int pi = 0; pi < params.length; pi++) {
+      params[pi] = getContext(pi);
+    }
+    return params;
+  }
+
+  private boolean isNamed() {
+    return getNumPredicates() == 0 || getPredicate(0) != null;
+  }
+
+  private int hashCode(int predIndex) {
+    int h = 1;
+    for (int pos = getStart(predIndex); pos < getEnd(predIndex); pos++) {
+      h = 31 * h + outcomeAt(pos);
+      h = 31 * h + Double.hashCode(parameterAt(pos));
+    }
+    return h;
+  }
+
+  private boolean equals(int predIndex, CompiledParameters other, int otherIndex) {
+    int length = getEnd(predIndex) - getStart(predIndex);
+    if (length != other.getEnd(otherIndex) - other.getStart(otherIndex)) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      int pos = getStart(predIndex) + i;
+      int otherPos = other.getStart(otherIndex) + i;
+      if (outcomeAt(pos) != other.outcomeAt(otherPos)
+          || Double.compare(parameterAt(pos), other.parameterAt(otherPos)) != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * The hash code does not depend on the order of named predicates.
+   */
+  @Override
+  public int hashCode() {
+    int h = 0;
+    for (int pi = 0; pi < getNumPredicates(); pi++) {
+      String predicate = getPredicate(pi);
+      h += (predicate != null ? predicate.hashCode() : pi) ^ hashCode(pi);
+    }
+    return 31 * h + getNumOutcomes();
+  }
+
+  /**
+   * Two instances are equal if they hold the same parameters for the same
+   * predicates, regardless of the order of the predicates. Unnamed predicates
+   * are compared by index.
+   */
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+
+    if (obj instanceof CompiledParameters other) {
+      if (getNumOutcomes() != other.getNumOutcomes()
+          || getNumPredicates() != other.getNumPredicates()
+          || isNamed() != other.isNamed()) {
+        return false;
+      }
+      for (int pi = 0; pi < getNumPredicates(); pi++) {
+        String predicate = getPredicate(pi);
+        int otherIndex = predicate != null ? other.getPredicateIndex(predicate) : pi;
+        if (otherIndex < 0 || !equals(pi, other, otherIndex)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    return false;
+  }
+}
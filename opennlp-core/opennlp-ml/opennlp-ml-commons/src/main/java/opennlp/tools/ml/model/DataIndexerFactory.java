@@ -58,6 +58,7 @@ public class DataIndexerFactory {
       case AbstractEventTrainer.DATA_INDEXER_ONE_PASS_VALUE -> new OnePassDataIndexer();
       case AbstractEventTrainer.DATA_INDEXER_TWO_PASS_VALUE -> new TwoPassDataIndexer();
       case AbstractEventTrainer.DATA_INDEXER_ONE_PASS_REAL_VALUE -> new OnePassRealValueDataIndexer();
+      case AbstractEventTrainer.DATA_INDEXER_PARALLEL_ONE_PASS_VALUE -> new ParallelOnePassDataIndexer();
       default ->
         // if the user passes in a class name for the indexer, try to instantiate the class.
               ExtensionLoader.instantiateExtension(DataIndexer.class, indexerParam);
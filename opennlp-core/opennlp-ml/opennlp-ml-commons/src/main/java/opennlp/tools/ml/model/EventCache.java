@@ -0,0 +1,322 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import opennlp.tools.util.InvalidFormatException;
+import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.Parameters;
+
+/**
+ * A persistent cache of the {@link Event events} which a component generates from its training
+ * samples, it allows repeated training runs on the same data, e.g. to tune the training
+ * parameters, to skip the feature generation.
+ * <p>
+ * The cache is enabled by setting {@link #CACHE_DIR_PARAM} in the training parameters. The
+ * events are stored in one file per key, the key is a hash of the samples and of a description
+ * of the feature generation, e.g. the feature generator descriptor. The first training run
+ * writes the events to the cache while they are generated, later runs read them from the file.
+ * <p>
+ * The events are not indexed, so every training parameter which only affects indexing and
+ * training, e.g. the cutoff, can be changed without invalidating the cache.
+ * <p>
+ * Protocol:
+ * <pre>
+ *  1 - (int) - Magic number
+ *  2 - (int) - Format version
+ *  3+ - (byte, event) - {@code 1} followed by an event, {@code 0} after the last event
+ * </pre>
+ * An event consists of its outcome, the number of context predicates, each predicate and
+ * the values of the predicates, if there are any. Strings are written once and then referred
+ * to by their index: a string is written as {@code (int)} index, followed by the {@code (utf)}
+ * string if it is new.
+ */
+public final class EventCache {
+
+  private static final Logger logger = LoggerFactory.getLogger(EventCache.class);
+
+  /**
+   * The directory of the event cache files. The cache is disabled if it is not set.
+   */
+  public static final String CACHE_DIR_PARAM = "EventCacheDir";
+
+  private static final int MAGIC = 0x4F4E4543;
+  private static final int VERSION = 1;
+
+  private static final byte END = 0;
+  private static final byte EVENT = 1;
+
+  private EventCache() {
+  }
+
+  /**
+   * Caches the {@link Event events} which are generated from the {@code samples}.
+   * <p>
+   * If the cache is enabled the samples are read once to compute the key, and then reset.
+   * If the events of the samples are in the cache, they are read from the cache and the
+   * {@code events} stream is not used. Otherwise the {@code events} are written to the cache
+   * once they were read completely.
+   *
+   * @param params The training {@link Parameters}, may be {@code null}.
+   * @param samples The {@link ObjectStream} of samples the events are generated from.
+   * @param sampleKey Converts a sample to a {@link String} which represents all of its data
+   *                  which is used by the feature generation.
+   * @param featurization A description of everything which affects the generated events
+   *                      besides the samples, e.g. the feature generator descriptor, or
+   *                      {@code null} if it cannot be described and the events must not be cached.
+   * @param events The {@link ObjectStream} of {@link Event events} generated from the
+   *               {@code samples}, must not have been read yet.
+   * @param <T> The type of the samples.
+   * @return The {@link ObjectStream} of cached {@link Event events}, or {@code events} if the
+   *         cache is not enabled or the {@code featurization} is {@code null}.
+   * @throws IOException Thrown if IO errors occurred.
+   */
+  public static <T> ObjectStream<Event> cache(Parameters params, ObjectStream<T> samples,
+                                              Function<? super T, String> sampleKey,
+                                              String featurization, ObjectStream<Event> events)
+      throws IOException {
+    String dir = params != null ? params.getStringParameter(CACHE_DIR_PARAM, null) : null;
+    if (dir == null) {
+      return events;
+    }
+    if (featurization == null) {
+      logger.info("The training events cannot be cached, their featurization is unknown");
+      return events;
+    }
+
+    Path file = Path.of(dir).resolve("events-" + key(samples, sampleKey, featurization) + ".bin");
+    samples.reset();
+
+    if (Files.exists(file)) {
+      logger.info("Reading the training events from the cache {}", file);
+      return new CachedEventStream(file);
+    }
+
+    logger.info("Writing the training events to the cache {}", file);
+    return new CachingEventStream(events, file);
+  }
+
+  /*
+   * Computes the key of the samples and the featurization, samples are separated by a zero byte.
+   */
+  private static <T> String key(ObjectStream<T> samples, Function<? super T, String> sampleKey,
+                                String featurization) throws IOException {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+
+    digest.update(featurization.getBytes(StandardCharsets.UTF_8));
+    T sample;
+    while ((sample = samples.read()) != null) {
+      digest.update((byte) 0);
+      digest.update(sampleKey.apply(sample).getBytes(StandardCharsets.UTF_8));
+    }
+    return HexFormat.of().formatHex(digest.digest(), 0, 16);
+  }
+
+  /**
+   * Reads the {@link Event events} from a cache file.
+   */
+  private static class CachedEventStream implements ObjectStream<Event> {
+
+    private final Path file;
+    private DataInputStream in;
+    private final List<String> strings = new ArrayList<>();
+
+    CachedEventStream(Path file) throws IOException {
+      this.file = file;
+      open();
+    }
+
+    private void open() throws IOException {
+      in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)));
+      strings.clear();
+      if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+        in.close();
+        throw new InvalidFormatException(file + " is not an event cache file");
+      }
+    }
+
+    @Override
+    public Event read() throws IOException {
+      byte type = in.readByte();
+      if (type == END) {
+        return null;
+      } else if (type != EVENT) {
+        throw new InvalidFormatException("Unknown record type " + type + " in " + file);
+      }
+
+      String outcome = readString();
+      String[] context = new String[in.readInt()];
+      for (int i = 0; i < context.length; i++) {
+        context[i] = readString();
+      }
+
+      float[] values = null;
+      if (in.readBoolean()) {
+        values = new float[context.length];
+        for (int i = 0; i < values.length; i++) {
+          values[i] = in.readFloat();
+        }
+      }
+      return new Event(outcome, context, values);
+    }
+
+    private String readString() throws IOException {
+      int index = in.readInt();
+      if (index == strings.size()) {
+        strings.add(in.readUTF());
+      }
+      return strings.get(index);
+    }
+
+    @Override
+    public void reset() throws IOException {
+      in.close();
+      open();
+    }
+
+    @Override
+    public void close() throws IOException {
+      in.close();
+    }
+  }
+
+  /**
+   * Writes the {@link Event events} of a stream to a temporary file while they are read, the
+   * file becomes the cache file when the stream is exhausted.
+   */
+  private static class CachingEventStream implements ObjectStream<Event> {
+
+    private final ObjectStream<Event> events;
+    private final Path file;
+    private Path tmp;
+    private DataOutputStream out;
+    private final Map<String, Integer> strings = new HashMap<>();
+
+    CachingEventStream(ObjectStream<Event> events, Path file) throws IOException {
+      this.events = events;
+      this.file = file;
+      open();
+    }
+
+    private void open() throws IOException {
+      Path dir = file.toAbsolutePath().getParent();
+      Files.createDirectories(dir);
+      tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+      out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)));
+      strings.clear();
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+    }
+
+    @Override
+    public Event read() throws IOException {
+      Event event = events.read();
+      if (out == null) {
+        return event;
+      }
+
+      if (event != null) {
+        out.writeByte(EVENT);
+        writeString(event.getOutcome());
+        String[] context = event.getContext();
+        out.writeInt(context.length);
+        for (String predicate : context) {
+          writeString(predicate);
+        }
+
+        float[] values = event.getValues();
+        out.writeBoolean(values != null);
+        if (values != null) {
+          for (int i = 0; i < context.length; i++) {
+            out.writeFloat(values[i]);
+          }
+        }
+      } else {
+        out.writeByte(END);
+        out.close();
+        out = null;
+        try {
+          Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+          Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+      }
+      return event;
+    }
+
+    private void writeString(String s) throws IOException {
+      Integer index = strings.get(s);
+      if (index != null) {
+        out.writeInt(index);
+      } else {
+        out.writeInt(strings.size());
+        out.writeUTF(s);
+        strings.put(s, strings.size());
+      }
+    }
+
+    private void discard() throws IOException {
+      if (out != null) {
+        out.close();
+        out = null;
+        Files.deleteIfExists(tmp);
+      }
+    }
+
+    @Override
+    public void reset() throws IOException {
+      discard();
+      events.reset();
+      if (!Files.exists(file)) {
+        open();
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      discard();
+      events.close();
+    }
+  }
+}
@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.model;
+
+/**
+ * A {@link MaxentModel} which can evaluate a context given as predicate indices
+ * of its {@link CompiledParameters}.
+ * <p>
+ * Context generators which resolve their features directly to indices, see
+ * {@link CompiledParameters#getPredicateIndex(int, String, String, int, int)},
+ * can use this to score a decision without creating any predicate strings.
+ */
+public interface IndexedMaxentModel extends MaxentModel {
+
+  /**
+   * @return The {@link CompiledParameters} which resolve predicate names to the
+   *         indices accepted by {@link #evalIndices(int[], int, double[])}.
+   */
+  CompiledParameters getParameters();
+
+  /**
+   * Evaluates a context of predicate indices. The result is the same as evaluating
+   * the names of the predicates with {@link #eval(String[], double[])}.
+   *
+   * @param predIndices The predicate indices, {@code -1} marks an unknown predicate.
+   * @param length The number of predicate indices to read from {@code predIndices}.
+   * @param probs The array the normalized outcome probabilities are written to,
+   *              must hold at least {@link #getNumOutcomes()} elements.
+   * @return The {@code probs} array.
+   */
+  double[] evalIndices(int[] predIndices, int length, double[] probs);
+}
@@ -0,0 +1,212 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package opennlp.tools.ml.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+import opennlp.tools.ml.AlgorithmType;
+import opennlp.tools.util.InvalidFormatException;
+
+/**
+ * Reads models in the memory-mapped binary format written by {@link MappedModelWriter}.
+ * <p>
+ * The model file is mapped read-only into memory and the returned model evaluates
+ * directly against the mapping via {@link MappedParameters}; only the outcome names
+ * are copied onto the heap. Loading is therefore independent of the model size, and
+ * all processes which map the same file share its pages.
+ * <p>
+ * Only standalone model files can be mapped. The entries of a model package are compressed
+ * zip entries, so the format is not recognized when loading packages, e.g. by
+ * {@code GenericModelSerializer}; such models have to be used as a bare
+ * {@link MaxentModel} instead. Because a single mapping is limited to {@link Integer#MAX_VALUE}
+ * bytes, files larger than 2 GB are rejected.
+ * <p>
+ * Format of memory-mapped models, all numbers are big-endian and each section
+ * starts at a multiple of eight bytes:
+ * <p>
+ * <br>1. header of {@value #HEADER_SIZE} bytes: magic number, version, # of outcomes,
+ *        # of predicates, # of parameters, # of hash slots, flags, size of the labels
+ *        section and size of the predicate names section ({@code int} each)
+ * <br>2. labels: the algorithm type and the outcome names
+ *        ({@code String}, as by {@link java.io.DataOutput#writeUTF(String)})
+ * <br>3. start of each predicate name in the predicate names section ({@code int[]})
+ * <br>4. predicate names (modified UTF-8 {@code byte[]})
+ * <br>5. hash slots of the predicates, {@code index + 1} or {@code 0} if empty ({@code int[]})
+ * <br>6. start of each predicate in the parameter block ({@code int[]})
+ * <br>7. active outcomes, omitted if all predicates are active for all outcomes ({@code int[]})
+ * <br>8. parameter block ({@code double[]})
+ *
+ * @see MappedParameters
+ * @see MappedModelWriter
+ */
+public class MappedModelReader {
+
+  static final int MAGIC = 0x4F4E4D50;
+  static final int VERSION = 1;
+  static final int HEADER_SIZE = 64;
+  static final int FLAG_DENSE = 1;
+
+  /** The model classes which can be evaluated against mapped or quantized parameters. */
+  static final Map<AlgorithmType, String> MODEL_CLASSES = Map.of(
+      AlgorithmType.MAXENT, "opennlp.tools.ml.maxent.GISModel",
+      AlgorithmType.MAXENT_QN, "opennlp.tools.ml.maxent.quasinewton.QNModel",
+      AlgorithmType.PERCEPTRON, "opennlp.tools.ml.perceptron.PerceptronModel");
+
+  private final Path file;
+
+  /**
+   * Initializes a {@link MappedModelReader}.
+   *
+   * @param file The {@link Path} of the model file to be mapped.
+   */
+  public MappedModelReader(Path file) {
+    this.file = file;
+  }
+
+  /**
+   * Maps the model file into memory.
+   *
+   * @return The {@link AbstractModel} backed by the mapped file.
+   * @throws IOException Thrown if IO errors occurred, the file is larger than 2 GB
+   *                     or is not in the expected format.
+   */
+  public AbstractModel getModel() throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("Model file is too large to be mapped: " + file);
+      }
+      // the mapping stays valid after the channel is closed
+      return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+  }
+
+  /**
+   * Constructs a model which evaluates against the given buffer.
+   *
+   * @param buffer A {@link ByteBuffer} holding a model in the memory-mapped format from
+   *               position {@code 0} on. It must not be modified afterwards.
+   * @return The {@link AbstractModel} backed by {@code buffer}.
+   * @throws IOException Thrown if the buffer does not hold a model in the expected format.
+   */
+  public static AbstractModel read(ByteBuffer buffer) throws IOException {
+    if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+      throw new InvalidFormatException("Not a memory-mapped model");
+    }
+    if (buffer.getInt(4) != VERSION) {
+      throw new InvalidFormatException("Unsupported memory-mapped model version: " + buffer.getInt(4));
+    }
+
+    int numOutcomes = buffer.getInt(8);
+    int numPredicates = buffer.getInt(12);
+    int numEntries = buffer.getInt(16);
+    int numSlots = buffer.getInt(20);
+    boolean dense = (buffer.getInt(24) & FLAG_DENSE) != 0;
+    int labelsLength = buffer.getInt(28);
+    int stringsLength = buffer.getInt(32);
+
+    if (numOutcomes < 0 || numPredicates < 0 || numEntries < 0 || labelsLength < 0
+        || stringsLength < 0 || Integer.bitCount(numSlots) != 1) {
+      throw new InvalidFormatException("Memory-mapped model is corrupt");
+    }
+
+    // computed in long, the counts of a corrupt or huge model must not overflow
+    int offsetsLength = sectionLength((numPredicates + 1L) * Integer.BYTES);
+    int slotsLength = sectionLength((long) numSlots * Integer.BYTES);
+    int outcomesLength = dense ? 0 : sectionLength((long) numEntries * Integer.BYTES);
+    int parametersLength = sectionLength((long) numEntries * Double.BYTES);
+
+    long labelsStart = HEADER_SIZE;
+    long stringOffsetsStart = align(labelsStart + labelsLength);
+    long stringsStart = align(stringOffsetsStart + offsetsLength);
+    long slotsStart = align(stringsStart + stringsLength);
+    long offsetsStart = align(slotsStart + slotsLength);
+    long outcomesStart = align(offsetsStart + offsetsLength);
+    long parametersStart = align(outcomesStart + outcomesLength);
+    if (parametersStart + parametersLength > buffer.capacity()) {
+      throw new InvalidFormatException("Memory-mapped model is truncated or corrupt");
+    }
+
+    byte[] labels = new byte[labelsLength];
+    buffer.get((int) labelsStart, labels);
+    DataInputStream labelsIn = new DataInputStream(new ByteArrayInputStream(labels));
+    AlgorithmType modelType = AlgorithmType.fromAlgorithmType(labelsIn.readUTF());
+    String[] outcomeNames = new String[numOutcomes];
+    for (int i = 0; i < numOutcomes; i++) {
+      outcomeNames[i] = labelsIn.readUTF();
+    }
+
+    MappedParameters params = new MappedParameters(numOutcomes, numPredicates,
+        intSection(buffer, stringOffsetsStart, offsetsLength),
+        buffer.slice((int) stringsStart, stringsLength),
+        intSection(buffer, slotsStart, slotsLength),
+        intSection(buffer, offsetsStart, offsetsLength),
+        dense ? null : intSection(buffer, outcomesStart, outcomesLength),
+        buffer.slice((int) parametersStart, parametersLength).asDoubleBuffer());
+
+    return constructModel(modelType, params, outcomeNames);
+  }
+
+  static long align(long position) {
+    return (position + 7) & ~7L;
+  }
+
+  /*
+   * A section is sliced from a single buffer, its length must be an int.
+   */
+  private static int sectionLength(long length) throws IOException {
+    if (length > Integer.MAX_VALUE) {
+      throw new IOException("Memory-mapped model section of " + length + " bytes is too large");
+    }
+    return (int) length;
+  }
+
+  /*
+   * The start of a section is below the buffer capacity once the section end was checked.
+   */
+  private static IntBuffer intSection(ByteBuffer buffer, long start, int length) {
+    return buffer.slice((int) start, length).asIntBuffer();
+  }
+
+  static AbstractModel constructModel(AlgorithmType modelType, CompiledParameters params,
+                                      String[] outcomeNames) throws IOException {
+    String modelClazz = MODEL_CLASSES.get(modelType);
+    if (modelClazz == null) {
+      throw new InvalidFormatException("Model type " + modelType + " is not supported");
+    }
+
+    try {
+      final Class<? extends AbstractModel> modelClass =
+          Class.forName(modelClazz).asSubclass(AbstractModel.class);
+      return modelClass.getDeclaredConstructor(CompiledParameters.class, String[].class)
+          .newInstance(params, outcomeNames);
+    } catch (ClassNotFoundException e) {
+      throw new RuntimeException("Given model is not available in the classpath!", e);
+    } catch (InvocationTargetException | InstantiationException | IllegalAccessException |
+             NoSuchMethodException | ClassCastException e) {
+      throw new RuntimeException("Problem instantiating model class: " + modelClazz, e);
+    }
+  }
+}
@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package opennlp.tools.ml.model;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes a model in the memory-mapped binary format, which is described
+ * in {@link MappedModelReader}.
+ * <p>
+ * Models trained with GIS, L-BFGS or the perceptron algorithm are supported.
+ *
+ * @see MappedModelReader
+ */
+public class MappedModelWriter {
+
+  private final AbstractModel model;
+  private final Path file;
+
+  /**
+   * Initializes a {@link MappedModelWriter}.
+   *
+   * @param model The {@link AbstractModel} to be written.
+   * @param file The {@link Path} of the model file to be written.
+   * @throws IllegalArgumentException Thrown if the type of {@code model} is not supported.
+   */
+  public MappedModelWriter(AbstractModel model, Path file) {
+    if (!MappedModelReader.MODEL_CLASSES.containsKey(model.getModelType())) {
+      throw new IllegalArgumentException("Model type " + model.getModelType() +
+          " cannot be memory-mapped");
+    }
+    this.model = model;
+    this.file = file;
+  }
+
+  /**
+   * Writes the model to the file.
+   *
+   * @throws IOException Thrown if IO errors occurred.
+   */
+  public void persist() throws IOException {
+    CompiledParameters params = model.compiledParams;
+    int numOutcomes = params.getNumOutcomes();
+    int numPredicates = params.getNumPredicates();
+    int numEntries = numPredicates > 0 ? params.getEnd(numPredicates - 1) : 0;
+
+    ByteArrayOutputStream labelBytes = new ByteArrayOutputStream();
+    DataOutputStream labels = new DataOutputStream(labelBytes);
+    labels.writeUTF(model.getModelType().getAlgorithmType());
+    for (int i = 0; i < numOutcomes; i++) {
+      labels.writeUTF(model.getOutcome(i));
+    }
+
+    byte[][] predicates = new byte[numPredicates][];
+    int stringsLength = 0;
+    for (int pi = 0; pi < numPredicates; pi++) {
+      predicates[pi] = MappedParameters.encode(params.getPredicate(pi));
+      stringsLength += predicates[pi].length;
+    }
+
+    int[] slots = buildSlots(params);
+    boolean dense = isDense(params);
+
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(Files.newOutputStream(file)))) {
+      out.writeInt(MappedModelReader.MAGIC);
+      out.writeInt(MappedModelReader.VERSION);
+      out.writeInt(numOutcomes);
+      out.writeInt(numPredicates);
+      out.writeInt(numEntries);
+      out.writeInt(slots.length);
+      out.writeInt(dense ? MappedModelReader.FLAG_DENSE : 0);
+      out.writeInt(labelBytes.size());
+      out.writeInt(stringsLength);
+      pad(out, MappedModelReader.HEADER_SIZE);
+
+      labelBytes.writeTo(out);
+      pad(out, MappedModelReader.align(out.size()));
+
+      int stringOffset = 0;
+      out.writeInt(stringOffset);
+      for (byte[] predicate : predicates) {
+        stringOffset += predicate.length;
+        out.writeInt(stringOffset);
+      }
+      pad(out, MappedModelReader.align(out.size()));
+
+      for (byte[] predicate : predicates) {
+        out.write(predicate);
+      }
+      pad(out, MappedModelReader.align(out.size()));
+
+      for (int slot : slots) {
+        out.writeInt(slot);
+      }
+      pad(out, MappedModelReader.align(out.size()));
+
+      for (int pi = 0; pi < numPredicates; pi++) {
+        out.writeInt(params.getStart(pi));
+      }
+      out.writeInt(numEntries);
+      pad(out, MappedModelReader.align(out.size()));
+
+      if (!dense) {
+        for (int pos = 0; pos < numEntries; pos++) {
+          out.writeInt(params.outcomeAt(pos));
+        }
+        pad(out, MappedModelReader.align(out.size()));
+      }
+
+      for (int pos = 0; pos < numEntries; pos++) {
+        out.writeDouble(params.parameterAt(pos));
+      }
+    }
+  }
+
+  private static void pad(DataOutputStream out, long position) throws IOException {
+    while (out.size() < position) {
+      out.write(0);
+    }
+  }
+
+  /*
+   * Builds the same open-addressing table as the PredicateIndex.
+   */
+  private static int[] buildSlots(CompiledParameters params) {
+    int numPredicates = params.getNumPredicates();
+    int capacity = 2;
+    while (capacity < numPredicates * 2) {
+      capacity <<= 1;
+    }
+    int[] slots = new int[capacity];
+    int mask = capacity - 1;
+
+    for (int pi = 0; pi < numPredicates; pi++) {
+      String predicate = params.getPredicate(pi);
+      int slot = PredicateIndex.mix(predicate.hashCode()) & mask;
+      while (slots[slot] != 0 && !params.getPredicate(slots[slot] - 1).equals(predicate)) {
+        slot = (slot + 1) & mask;
+      }
+      slots[slot] = pi + 1;
+    }
+    return slots;
+  }
+
+  private static boolean isDense(CompiledParameters params) {
+    int numOutcomes = params.getNumOutcomes();
+    for (int pi = 0; pi < params.getNumPredicates(); pi++) {
+      int start = params.getStart(pi);
+      if (params.getEnd(pi) - start != numOutcomes) {
+        return false;
+      }
+      for (int oi = 0; oi < numOutcomes; oi++) {
+        if (params.outcomeAt(start + oi) != oi) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+}
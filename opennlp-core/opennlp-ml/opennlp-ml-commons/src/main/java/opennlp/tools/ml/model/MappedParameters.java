@@ -0,0 +1,203 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.model;
+
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * {@link CompiledParameters} which are evaluated directly against a {@link ByteBuffer},
+ * typically a read-only memory-mapped model file as written by {@link MappedModelWriter}.
+ * <p>
+ * Neither the predicate names nor the parameters are copied onto the heap: predicates
+ * are looked up in an open-addressing slot table stored in the buffer, and compared
+ * against their encoded form in place. Several processes mapping the same file share
+ * a single copy of it in the page cache.
+ * <p>
+ * Predicate names are stored in the modified UTF-8 encoding of
+ * {@link java.io.DataOutput#writeUTF(String)}, which encodes every {@code char}
+ * on its own and therefore allows a comparison without decoding.
+ * <p>
+ * Instances are safe for concurrent use, all buffer accesses are absolute.
+ *
+ * @see MappedModelReader
+ */
+public final class MappedParameters extends CompiledParameters {
+
+  private final int numPredicates;
+  private final IntBuffer stringOffsets;
+  private final ByteBuffer strings;
+  private final IntBuffer slots;
+  private final int mask;
+  private final IntBuffer offsets;
+  /** The active outcome ids, or {@code null} if all predicates are active for all outcomes. */
+  private final IntBuffer outcomes;
+  private final DoubleBuffer parameters;
+
+  MappedParameters(int numOutcomes, int numPredicates, IntBuffer stringOffsets, ByteBuffer strings,
+                   IntBuffer slots, IntBuffer offsets, IntBuffer outcomes, DoubleBuffer parameters) {
+    super(numOutcomes);
+    this.numPredicates = numPredicates;
+    this.stringOffsets = stringOffsets;
+    this.strings = strings;
+    this.slots = slots;
+    this.mask = slots.capacity() - 1;
+    this.offsets = offsets;
+    this.outcomes = outcomes;
+    this.parameters = parameters;
+  }
+
+  @Override
+  public int getPredicateIndex(String predicate) {
+    if (predicate == null) {
+      return -1;
+    }
+    return getPredicateIndex(predicate.hashCode(), "", predicate, 0, predicate.length());
+  }
+
+  @Override
+  public int getPredicateIndex(int hash, String prefix, String text, int start, int end) {
+    int slot = PredicateIndex.mix(hash) & mask;
+    int entry;
+    while ((entry = slots.get(slot)) != 0) {
+      int limit = stringOffsets.get(entry);
+      int pos = matches(prefix, 0, prefix.length(), stringOffsets.get(entry - 1), limit);
+      if (pos >= 0 && matches(text, start, end, pos, limit) == limit) {
+        return entry - 1;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return -1;
+  }
+
+  /**
+   * Compares the chars {@code [from, to)} of {@code text} with the encoded bytes starting at {@code pos}.
+   *
+   * @return The position after the matched bytes, or {@code -1} if they differ.
+   */
+  private int matches(String text, int from, int to, int pos, int end) {
+    for (int i = from; i < to; i++) {
+      char c = text.charAt(i);
+      if (c >= 0x0001 && c <= 0x007F) {
+        if (pos >= end || strings.get(pos++) != (byte) c) {
+          return -1;
+        }
+      } else if (c <= 0x07FF) {
+        if (end - pos < 2
+            || strings.get(pos++) != (byte) (0xC0 | (c >> 6))
+            || strings.get(pos++) != (byte) (0x80 | (c & 0x3F))) {
+          return -1;
+        }
+      } else {
+        if (end - pos < 3
+            || strings.get(pos++) != (byte) (0xE0 | (c >> 12))
+            || strings.get(pos++) != (byte) (0x80 | ((c >> 6) & 0x3F))
+            || strings.get(pos++) != (byte) (0x80 | (c & 0x3F))) {
+          return -1;
+        }
+      }
+    }
+    return pos;
+  }
+
+  /**
+   * Decodes the name of a predicate from the buffer, each call creates a new {@link String}.
+   */
+  @Override
+  public String getPredicate(int predIndex) {
+    int pos = stringOffsets.get(predIndex);
+    int end = stringOffsets.get(predIndex + 1);
+    StringBuilder predicate = new StringBuilder(end - pos);
+    while (pos < end) {
+      int b = strings.get(pos++) & 0xFF;
+      if (b < 0x80) {
+        predicate.append((char) b);
+      } else if (b < 0xE0) {
+        predicate.append((char) (((b & 0x1F) << 6) | (strings.get(pos++) & 0x3F)));
+      } else {
+        int b2 = strings.get(pos++) & 0x3F;
+        predicate.append((char) (((b & 0x0F) << 12) | (b2 << 6) | (strings.get(pos++) & 0x3F)));
+      }
+    }
+    return predicate.toString();
+  }
+
+  /**
+   * Encodes a predicate name in the form expected by {@link #getPredicateIndex(String)}.
+   */
+  static byte[] encode(String predicate) {
+    byte[] bytes = new byte[predicate.length() * 3];
+    int length = 0;
+    for (int i = 0; i < predicate.length(); i++) {
+      char c = predicate.charAt(i);
+      if (c >= 0x0001 && c <= 0x007F) {
+        bytes[length++] = (byte) c;
+      } else if (c <= 0x07FF) {
+        bytes[length++] = (byte) (0xC0 | (c >> 6));
+        bytes[length++] = (byte) (0x80 | (c & 0x3F));
+      } else {
+        bytes[length++] = (byte) (0xE0 | (c >> 12));
+        bytes[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+        bytes[length++] = (byte) (0x80 | (c & 0x3F));
+      }
+    }
+    return Arrays.copyOf(bytes, length);
+  }
+
+  @Override
+  public int getNumPredicates() {
+    return numPredicates;
+  }
+
+  @Override
+  public int getStart(int predIndex) {
+    return offsets.get(predIndex);
+  }
+
+  @Override
+  public int getEnd(int predIndex) {
+    return offsets.get(predIndex + 1);
+  }
+
+  @Override
+  public int outcomeAt(int position) {
+    return outcomes != null ? outcomes.get(position) : position % getNumOutcomes();
+  }
+
+  @Override
+  public double parameterAt(int position) {
+    return parameters.get(position);
+  }
+
+  @Override
+  protected void addParameters(int predIndex, double value, double[] scores, int offset) {
+    int start = offsets.get(predIndex);
+    int end = offsets.get(predIndex + 1);
+    if (outcomes == null) {
+      for (int pos = start, oi = offset; pos < end; pos++, oi++) {
+        scores[oi] += parameters.get(pos) * value;
+      }
+    } else {
+      for (int pos = start; pos < end; pos++) {
+        scores[offset + outcomes.get(pos)] += parameters.get(pos) * value;
+      }
+    }
+  }
+}
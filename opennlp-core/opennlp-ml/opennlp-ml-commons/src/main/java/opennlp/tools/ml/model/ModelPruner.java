@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.model;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import opennlp.tools.util.ObjectStream;
+
+/**
+ * Prunes the parameters of a trained {@link AbstractModel}.
+ * <p>
+ * Models trained with GIS or L-BFGS without a strong L1 penalty keep every predicate,
+ * including predicates whose parameters are close to zero for all outcomes. The pruner
+ * drops all parameters whose magnitude is below a threshold, and afterwards keeps only
+ * the predicates with the largest parameter magnitude if their number is limited.
+ * A dropped parameter contributes exactly as much as a parameter of zero, predicates
+ * without any remaining parameters are removed from the model.
+ * <p>
+ * Models trained with GIS, L-BFGS or the perceptron algorithm are supported.
+ * The pruned model can be written with {@link GenericModelWriter}.
+ */
+public class ModelPruner {
+
+  private final double threshold;
+  private final int maxPredicates;
+
+  /**
+   * Initializes a {@link ModelPruner}.
+   *
+   * @param threshold The minimum magnitude of the parameters which are kept.
+   *                  Must not be negative.
+   * @param maxPredicates The maximum number of predicates which are kept.
+   *                      Must be greater than {@code 0}.
+   * @throws IllegalArgumentException Thrown if parameters are invalid.
+   */
+  public ModelPruner(double threshold, int maxPredicates) {
+    if (!(threshold >= 0)) {
+      throw new IllegalArgumentException("threshold must not be negative, but is " + threshold);
+    }
+    if (maxPredicates < 1) {
+      throw new IllegalArgumentException("maxPredicates must be 1 or larger, but is " + maxPredicates);
+    }
+    this.threshold = threshold;
+    this.maxPredicates = maxPredicates;
+  }
+
+  /**
+   * Initializes a {@link ModelPruner} which does not limit the number of predicates.
+   *
+   * @param threshold The minimum magnitude of the parameters which are kept.
+   *                  Must not be negative.
+   * @throws IllegalArgumentException Thrown if {@code threshold} is negative.
+   */
+  public ModelPruner(double threshold) {
+    this(threshold, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Prunes the given model, which is not modified.
+   *
+   * @param model The {@link AbstractModel} to prune.
+   * @return A new {@link AbstractModel} of the same type, holding the remaining parameters.
+   * @throws IllegalArgumentException Thrown if the type of {@code model} is not supported.
+   */
+  public AbstractModel prune(AbstractModel model) {
+    if (!MappedModelReader.MODEL_CLASSES.containsKey(model.getModelType())) {
+      throw new IllegalArgumentException("Model type " + model.getModelType() + " cannot be pruned");
+    }
+
+    CompiledParameters params = model.compiledParams;
+    List<String> predLabels = new ArrayList<>();
+    List<Context> contexts = new ArrayList<>();
+    List<Double> magnitudes = new ArrayList<>();
+
+    for (int pi = 0; pi < params.getNumPredicates(); pi++) {
+      int start = params.getStart(pi);
+      int end = params.getEnd(pi);
+      int[] outcomes = new int[end - start];
+      double[] parameters = new double[end - start];
+      int length = 0;
+      double magnitude = 0;
+      for (int i = start; i < end; i++) {
+        double parameter = params.parameterAt(i);
+        double abs = StrictMath.abs(parameter);
+        if (parameter != 0 && abs >= threshold) {
+          outcomes[length] = params.outcomeAt(i);
+          parameters[length] = parameter;
+          length++;
+          magnitude = StrictMath.max(magnitude, abs);
+        }
+      }
+
+      if (length > 0) {
+        predLabels.add(params.getPredicate(pi));
+        contexts.add(new Context(Arrays.copyOf(outcomes, length), Arrays.copyOf(parameters, length)));
+        magnitudes.add(magnitude);
+      }
+    }
+
+    if (contexts.size() > maxPredicates) {
+      // keep the predicates with the largest magnitude in their original order
+      Integer[] order = new Integer[contexts.size()];
+      Arrays.setAll(order, i -> i);
+      Arrays.sort(order, (a, b) -> Double.compare(magnitudes.get(b), magnitudes.get(a)));
+      boolean[] keep = new boolean[order.length];
+      for (int i = 0; i < maxPredicates; i++) {
+        keep[order[i]] = true;
+      }
+
+      List<String> keptLabels = new ArrayList<>(maxPredicates);
+      List<Context> keptContexts = new ArrayList<>(maxPredicates);
+      for (int i = 0; i < keep.length; i++) {
+        if (keep[i]) {
+          keptLabels.add(predLabels.get(i));
+          keptContexts.add(contexts.get(i));
+        }
+      }
+      predLabels = keptLabels;
+      contexts = keptContexts;
+    }
+
+    return model.withParameters(CompiledParameters.compile(contexts.toArray(new Context[0]),
+        predLabels.toArray(new String[0]), model.getNumOutcomes()));
+  }
+
+  /**
+   * Computes the accuracy of a model on held-out events, e.g. to check
+   * the effect of pruning.
+   *
+   * @param model The {@link MaxentModel} to evaluate.
+   * @param events The held-out {@link Event events}.
+   * @return The fraction of events whose outcome is predicted correctly,
+   *         or {@link Double#NaN} if there are no events.
+   * @throws IOException Thrown if IO errors occurred while reading the events.
+   */
+  public static double accuracy(MaxentModel model, ObjectStream<Event> events) throws IOException {
+    int correct = 0;
+    int total = 0;
+    Event event;
+    while ((event = events.read()) != null) {
+      double[] probs = event.getValues() != null ? model.eval(event.getContext(), event.getValues())
+          : model.eval(event.getContext());
+      if (model.getBestOutcome(probs).equals(event.getOutcome())) {
+        correct++;
+      }
+      total++;
+    }
+    return total > 0 ? (double) correct / total : Double.NaN;
+  }
+}
@@ -92,11 +92,21 @@ public class OnePassDataIndexer extends AbstractDataIndexer<TrainingParameters>
       Map<String, Integer> predicatesInOut, int cutoff) throws IOException {
 
     Map<String, Integer> counter = new HashMap<>();
+    int[] bucketCounts = featureHasher != null ? new int[featureHasher.getSize()] : null;
     List<Event> events = new LinkedList<>();
     Event ev;
     while ((ev = eventStream.read()) != null) {
       events.add(ev);
-      update(ev.getContext(), counter);
+      if (bucketCounts != null) {
+        updateBuckets(ev.getContext(), bucketCounts);
+      } else {
+        update(ev.getContext(), counter);
+      }
+    }
+
+    if (bucketCounts != null) {
+      selectBuckets(bucketCounts, cutoff);
+      return events;
     }
 
     String[] predicateSet = counter.entrySet().stream()
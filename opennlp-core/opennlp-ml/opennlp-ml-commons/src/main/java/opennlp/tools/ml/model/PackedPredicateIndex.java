@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package opennlp.tools.ml.model;
+
+/**
+ * A compact variant of {@link PredicateIndex} which does not keep one {@link String}
+ * per predicate.
+ * <p>
+ * All predicate names are concatenated into a single {@link String} and addressed by
+ * their start offsets, which saves the object and array headers of each name. The slot
+ * table is probed like the one of {@link PredicateIndex}, lookups compare against the
+ * regions of the concatenated names. {@link #getPredicate(int)} creates a new
+ * {@link String} on every call.
+ * <p>
+ * Instances are safe for concurrent use.
+ */
+final class PackedPredicateIndex {
+
+  /** The concatenated predicate names. */
+  private final String names;
+  /** The start offset of each predicate name in {@link #names}, plus the end offset. */
+  private final int[] offsets;
+
+  /** Slot table holding {@code index + 1} of a predicate, {@code 0} marks an empty slot. */
+  private final int[] slots;
+  private final int mask;
+
+  /**
+   * Initializes a {@link PackedPredicateIndex} for the given predicate labels.
+   * If a label occurs more than once, the last occurrence wins.
+   *
+   * @param labels The predicate names. Must not contain {@code null} elements.
+   *               The array is not retained.
+   */
+  PackedPredicateIndex(String[] labels) {
+    offsets = new int[labels.length + 1];
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < labels.length; i++) {
+      sb.append(labels[i]);
+      offsets[i + 1] = sb.length();
+    }
+    names = sb.toString();
+
+    int capacity = 2;
+    while (capacity < labels.length * 2) {
+      capacity <<= 1;
+    }
+    slots = new int[capacity];
+    mask = capacity - 1;
+
+    for (int i = 0; i < labels.length; i++) {
+      int slot = PredicateIndex.mix(labels[i].hashCode()) & mask;
+      while (slots[slot] != 0 && !labels[slots[slot] - 1].equals(labels[i])) {
+        slot = (slot + 1) & mask;
+      }
+      slots[slot] = i + 1;
+    }
+  }
+
+  /**
+   * @param predicate The predicate name to look up.
+   * @return The index of {@code predicate}, or {@code -1} if it is not known.
+   */
+  int indexOf(String predicate) {
+    if (predicate == null) {
+      return -1;
+    }
+
+    int slot = PredicateIndex.mix(predicate.hashCode()) & mask;
+    int entry;
+    while ((entry = slots[slot]) != 0) {
+      int start = offsets[entry - 1];
+      if (offsets[entry] - start == predicate.length()
+          && names.regionMatches(start, predicate, 0, predicate.length())) {
+        return entry - 1;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return -1;
+  }
+
+  /**
+   * Looks up the predicate {@code prefix + text.substring(start, end)} without creating it,
+   * see {@link PredicateIndex#indexOf(int, String, String, int, int)}.
+   *
+   * @param hash The {@link String#hashCode()} of the predicate.
+   * @param prefix The leading part of the predicate name.
+   * @param text The text holding the remaining part of the predicate name.
+   * @param start The index of the first char in {@code text}.
+   * @param end The index after the last char in {@code text}.
+   * @return The index of the predicate, or {@code -1} if it is not known.
+   */
+  int indexOf(int hash, String prefix, String text, int start, int end) {
+    int length = prefix.length() + end - start;
+    int slot = PredicateIndex.mix(hash) & mask;
+    int entry;
+    while ((entry = slots[slot]) != 0) {
+      int labelStart = offsets[entry - 1];
+      if (offsets[entry] - labelStart == length
+          && names.regionMatches(labelStart, prefix, 0, prefix.length())
+          && names.regionMatches(labelStart + prefix.length(), text, start, end - start)) {
+        return entry - 1;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return -1;
+  }
+
+  /**
+   * @param index A predicate index.
+   * @return The name of the predicate stored at {@code index}.
+   */
+  String getPredicate(int index) {
+    return names.substring(offsets[index], offsets[index + 1]);
+  }
+}
@@ -0,0 +1,341 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.model;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import opennlp.tools.ml.ComputeEngine;
+import opennlp.tools.util.InsufficientTrainingDataException;
+import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.Parameters;
+import opennlp.tools.util.TrainingParameters;
+
+/**
+ * A {@link DataIndexer} which, like the {@link OnePassDataIndexer}, keeps all events
+ * in memory, but counts, indexes and sorts them on several threads. The number of
+ * threads is configured with {@link Parameters#THREADS_PARAM}.
+ * <p>
+ * The events are split into partitions of roughly the same number of predicates:
+ * <ol>
+ *   <li>Each partition counts its predicates in primitive hash tables, one per shard of
+ *   the predicate hash codes. The shards are then merged in parallel.</li>
+ *   <li>Each partition indexes its events, sorts them and merges duplicates.</li>
+ *   <li>The sorted partitions are merged into the unique events.</li>
+ * </ol>
+ * The result is identical to the result of the {@link OnePassDataIndexer}.
+ *
+ * @see DataIndexer
+ * @see AbstractDataIndexer
+ */
+public class ParallelOnePassDataIndexer extends AbstractDataIndexer<TrainingParameters> {
+
+  private static final Logger logger = LoggerFactory.getLogger(ParallelOnePassDataIndexer.class);
+
+  public ParallelOnePassDataIndexer() {}
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void index(ObjectStream<Event> eventStream) throws IOException {
+    int cutoff = trainingParameters.getIntParameter(Parameters.CUTOFF_PARAM,
+        Parameters.CUTOFF_DEFAULT_VALUE);
+    boolean sort = trainingParameters.getBooleanParameter(SORT_PARAM, SORT_DEFAULT);
+    int threads = trainingParameters.getIntParameter(Parameters.THREADS_PARAM, 1);
+
+    long start = System.currentTimeMillis();
+
+    logger.info("Indexing events with ParallelOnePass using cutoff of {} and {} threads",
+        cutoff, threads);
+
+    List<Event> events = new ArrayList<>();
+    Event ev;
+    while ((ev = eventStream.read()) != null) {
+      events.add(ev);
+    }
+
+    try (ComputeEngine engine = new ComputeEngine(threads)) {
+      int[] costs = new int[events.size()];
+      for (int i = 0; i < costs.length; i++) {
+        costs[i] = events.get(i).getContext().length + 1;
+      }
+      int[] bounds = engine.partition(costs);
+
+      logger.info("Computing event counts...");
+      int[] outcomes = new int[events.size()];
+      List<List<String>> partitionOutcomes = countPredicates(engine, bounds, events, outcomes, cutoff);
+      logger.info("done. {} events", events.size());
+
+      // outcomes are numbered in the order of their first occurrence, as in the OnePassDataIndexer
+      Map<String, Integer> omap = new HashMap<>();
+      int[][] outcomeMapping = new int[threads][];
+      for (int p = 0; p < threads; p++) {
+        List<String> labels = partitionOutcomes.get(p);
+        outcomeMapping[p] = new int[labels.size()];
+        for (int i = 0; i < labels.size(); i++) {
+          omap.putIfAbsent(labels.get(i), omap.size());
+          outcomeMapping[p][i] = omap.get(labels.get(i));
+        }
+      }
+      outcomeLabels = toIndexedStringArray(omap);
+
+      logger.info("Indexing...  ");
+      List<List<ComparableEvent>> partitions = indexEvents(engine, bounds, events, outcomes,
+          outcomeMapping, sort);
+      logger.info("done.");
+
+      logger.info("Sorting and merging events... ");
+      List<ComparableEvent> uniqueEvents = sort ? merge(partitions) : concat(partitions);
+      setEvents(uniqueEvents, sort);
+    }
+    logger.info(String.format("Done indexing in %.2f s.", (System.currentTimeMillis() - start) / 1000d));
+  }
+
+  /*
+   * Counts the predicates of all partitions and selects those which occur at least cutoff
+   * times. Stores the partition local outcome id of each event in outcomes and returns the
+   * outcome labels of each partition in the order of their first occurrence.
+   */
+  private List<List<String>> countPredicates(ComputeEngine engine, int[] bounds, List<Event> events,
+      int[] outcomes, int cutoff) {
+    int threads = engine.getThreads();
+    List<List<String>> partitionOutcomes = new ArrayList<>(threads);
+    for (int p = 0; p < threads; p++) {
+      partitionOutcomes.add(new ArrayList<>());
+    }
+
+    if (featureHasher != null) {
+      int[][] partitionBucketCounts = new int[threads][featureHasher.getSize()];
+      engine.forEachPartition(bounds, (partition, start, end) -> {
+        countOutcomes(events, start, end, outcomes, partitionOutcomes.get(partition));
+        for (int i = start; i < end; i++) {
+          updateBuckets(events.get(i).getContext(), partitionBucketCounts[partition]);
+        }
+      });
+
+      int[] bucketCounts = partitionBucketCounts[0];
+      engine.forRange(bucketCounts.length, 8192, (start, end) -> {
+        for (int p = 1; p < threads; p++) {
+          for (int bucket = start; bucket < end; bucket++) {
+            bucketCounts[bucket] += partitionBucketCounts[p][bucket];
+          }
+        }
+      });
+      selectBuckets(bucketCounts, cutoff);
+      return partitionOutcomes;
+    }
+
+    // each partition counts into one table per shard, the shards are merged in parallel
+    PredicateCounter[][] counters = new PredicateCounter[threads][threads];
+    engine.forEachPartition(bounds, (partition, start, end) -> {
+      countOutcomes(events, start, end, outcomes, partitionOutcomes.get(partition));
+      PredicateCounter[] shards = counters[partition];
+      for (int s = 0; s < threads; s++) {
+        shards[s] = new PredicateCounter();
+      }
+      for (int i = start; i < end; i++) {
+        for (String predicate : events.get(i).getContext()) {
+          shards[shard(predicate, threads)].add(predicate, 1);
+        }
+      }
+    });
+
+    int[] shardBounds = new int[threads + 1];
+    Arrays.setAll(shardBounds, s -> s);
+    List<List<String>> selected = new ArrayList<>(Collections.nCopies(threads, null));
+    PredicateCounter[] merged = new PredicateCounter[threads];
+    engine.forEachPartition(shardBounds, (shard, start, end) -> {
+      PredicateCounter counter = counters[0][shard];
+      for (int p = 1; p < threads; p++) {
+        counters[p][shard].forEach(counter::add);
+      }
+      List<String> predicates = new ArrayList<>();
+      counter.forEach((predicate, count) -> {
+        if (count >= cutoff) {
+          predicates.add(predicate);
+        }
+      });
+      merged[shard] = counter;
+      selected.set(shard, predicates);
+    });
+
+    String[] predicateSet = selected.stream().flatMap(List::stream).sorted().toArray(String[]::new);
+    PredicateIndex predicateIndex = new PredicateIndex(predicateSet);
+
+    predCounts = new int[predicateSet.length];
+    for (PredicateCounter counter : merged) {
+      counter.forEach((predicate, count) -> {
+        if (count >= cutoff) {
+          predCounts[predicateIndex.indexOf(predicate)] = count;
+        }
+      });
+    }
+    predLabels = predicateSet;
+    return partitionOutcomes;
+  }
+
+  private static int shard(String predicate, int shards) {
+    // the high bits select the shard, the low bits the slot within the shard
+    return (PredicateIndex.mix(predicate.hashCode()) >>> 16) % shards;
+  }
+
+  private static void countOutcomes(List<Event> events, int start, int end, int[] outcomes,
+      List<String> labels) {
+    Map<String, Integer> omap = new HashMap<>();
+    for (int i = start; i < end; i++) {
+      String outcome = events.get(i).getOutcome();
+      Integer id = omap.get(outcome);
+      if (id == null) {
+        id = omap.size();
+        omap.put(outcome, id);
+        labels.add(outcome);
+      }
+      outcomes[i] = id;
+    }
+  }
+
+  /*
+   * Indexes the events of every partition and, if sort is set, sorts them and merges
+   * the duplicates within the partition.
+   */
+  private List<List<ComparableEvent>> indexEvents(ComputeEngine engine, int[] bounds,
+      List<Event> events, int[] outcomes, int[][] outcomeMapping, boolean sort) {
+    PredicateIndex predicateIndex = featureHasher == null ? new PredicateIndex(predLabels) : null;
+    if (featureHasher != null) {
+      predLabels = bucketLabels();
+    }
+
+    List<List<ComparableEvent>> partitions = new ArrayList<>(Collections.nCopies(bounds.length - 1, null));
+    engine.forEachPartition(bounds, (partition, start, end) -> {
+      List<ComparableEvent> indexed = new ArrayList<>(end - start);
+      for (int i = start; i < end; i++) {
+        Event ev = events.get(i);
+        int[] cons = predicateIndex == null ? hashContext(ev.getContext())
+            : indexContext(ev.getContext(), predicateIndex);
+
+        // drop events with no active features
+        if (cons.length > 0) {
+          indexed.add(new ComparableEvent(outcomeMapping[partition][outcomes[i]], cons, ev.getValues()));
+        } else {
+          logger.info("Dropped event {}:{}", ev.getOutcome(), Arrays.asList(ev.getContext()));
+        }
+      }
+
+      if (sort) {
+        Collections.sort(indexed);
+        int numUnique = 0;
+        for (ComparableEvent event : indexed) {
+          if (numUnique > 0 && indexed.get(numUnique - 1).compareTo(event) == 0) {
+            indexed.get(numUnique - 1).seen += event.seen;
+          } else {
+            indexed.set(numUnique++, event);
+          }
+        }
+        indexed.subList(numUnique, indexed.size()).clear();
+      }
+      partitions.set(partition, indexed);
+    });
+    return partitions;
+  }
+
+  private static int[] indexContext(String[] context, PredicateIndex predicateIndex) {
+    int[] cons = new int[context.length];
+    int length = 0;
+    for (String predicate : context) {
+      int predIndex = predicateIndex.indexOf(predicate);
+      if (predIndex >= 0) {
+        cons[length++] = predIndex;
+      }
+    }
+    return length == cons.length ? cons : Arrays.copyOf(cons, length);
+  }
+
+  /*
+   * Merges the sorted partitions, duplicates across partitions are merged as well.
+   */
+  private static List<ComparableEvent> merge(List<List<ComparableEvent>> partitions) {
+    int[] positions = new int[partitions.size()];
+    PriorityQueue<Integer> queue = new PriorityQueue<>(partitions.size(),
+        Comparator.comparing(p -> partitions.get(p).get(positions[p])));
+    int size = 0;
+    for (int p = 0; p < partitions.size(); p++) {
+      size += partitions.get(p).size();
+      if (!partitions.get(p).isEmpty()) {
+        queue.add(p);
+      }
+    }
+
+    List<ComparableEvent> uniqueEvents = new ArrayList<>(size);
+    while (!queue.isEmpty()) {
+      int p = queue.poll();
+      ComparableEvent event = partitions.get(p).get(positions[p]++);
+      int last = uniqueEvents.size() - 1;
+      if (last >= 0 && uniqueEvents.get(last).compareTo(event) == 0) {
+        uniqueEvents.get(last).seen += event.seen;
+      } else {
+        uniqueEvents.add(event);
+      }
+      if (positions[p] < partitions.get(p).size()) {
+        queue.add(p);
+      }
+    }
+    return uniqueEvents;
+  }
+
+  private static List<ComparableEvent> concat(List<List<ComparableEvent>> partitions) {
+    List<ComparableEvent> events = new ArrayList<>();
+    for (List<ComparableEvent> partition : partitions) {
+      events.addAll(partition);
+    }
+    return events;
+  }
+
+  private void setEvents(List<ComparableEvent> uniqueEvents, boolean sort)
+      throws InsufficientTrainingDataException {
+    if (uniqueEvents.isEmpty()) {
+      throw new InsufficientTrainingDataException("Insufficient training data to create model.");
+    }
+
+    FlatContexts.Builder builder = new FlatContexts.Builder(uniqueEvents.size());
+    outcomeList = new int[uniqueEvents.size()];
+    numTimesEventsSeen = new int[uniqueEvents.size()];
+    numEvents = 0;
+    for (int i = 0; i < uniqueEvents.size(); i++) {
+      ComparableEvent event = uniqueEvents.get(i);
+      builder.add(event.predIndexes);
+      outcomeList[i] = event.outcome;
+      numTimesEventsSeen[i] = event.seen;
+      numEvents += event.seen;
+    }
+    flatContexts = builder.build();
+    contexts = null;
+
+    if (sort) logger.info("done. Reduced {} events to {}.", numEvents, uniqueEvents.size());
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.model;
+
+import java.util.function.ObjIntConsumer;
+
+/**
+ * A mutable, open-addressing hash table which counts the occurrences of predicates.
+ * <p>
+ * Keys and counts are kept in two parallel arrays which are probed linearly, the
+ * table is doubled when it is half full. Compared to a {@code HashMap<String, Integer>}
+ * no entry objects and no boxed counts are allocated.
+ * <p>
+ * Instances are not safe for concurrent use.
+ */
+final class PredicateCounter {
+
+  private String[] keys;
+  private int[] counts;
+  private int mask;
+  private int size;
+
+  PredicateCounter() {
+    keys = new String[16];
+    counts = new int[16];
+    mask = 15;
+  }
+
+  /**
+   * Adds {@code count} to the count of {@code predicate}.
+   *
+   * @param predicate The predicate, must not be {@code null}.
+   * @param count The number of occurrences to add.
+   */
+  void add(String predicate, int count) {
+    int slot = PredicateIndex.mix(predicate.hashCode()) & mask;
+    String key;
+    while ((key = keys[slot]) != null) {
+      if (key.equals(predicate)) {
+        counts[slot] += count;
+        return;
+      }
+      slot = (slot + 1) & mask;
+    }
+
+    keys[slot] = predicate;
+    counts[slot] = count;
+    if (++size * 2 > keys.length) {
+      grow();
+    }
+  }
+
+  private void grow() {
+    String[] oldKeys = keys;
+    int[] oldCounts = counts;
+    keys = new String[oldKeys.length * 2];
+    counts = new int[oldKeys.length * 2];
+    mask = keys.length - 1;
+
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != null) {
+        int slot = PredicateIndex.mix(oldKeys[i].hashCode()) & mask;
+        while (keys[slot] != null) {
+          slot = (slot + 1) & mask;
+        }
+        keys[slot] = oldKeys[i];
+        counts[slot] = oldCounts[i];
+      }
+    }
+  }
+
+  /**
+   * @return The number of distinct predicates.
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Passes every predicate with its count to the {@code consumer}, in no particular order.
+   *
+   * @param consumer The {@link ObjIntConsumer} to receive the predicates.
+   */
+  void forEach(ObjIntConsumer<String> consumer) {
+    for (int i = 0; i < keys.length; i++) {
+      if (keys[i] != null) {
+        consumer.accept(keys[i], counts[i]);
+      }
+    }
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.model;
+
+/**
+ * An immutable, open-addressing hash table which maps predicate names to
+ * their zero-based position in the label array the table was built from.
+ * <p>
+ * The table itself is a single {@code int[]} of slots, probed linearly.
+ * The predicate strings are not copied, lookups compare against the
+ * original label array. Compared to a {@link java.util.HashMap} this avoids
+ * one entry object per predicate and keeps probes within a contiguous array.
+ * <p>
+ * Instances are safe for concurrent use.
+ */
+public final class PredicateIndex {
+
+  private final String[] labels;
+
+  /** Slot table holding {@code index + 1} of a label, {@code 0} marks an empty slot. */
+  private final int[] slots;
+  private final int mask;
+
+  /**
+   * Initializes a {@link PredicateIndex} for the given predicate labels.
+   * If a label occurs more than once, the last occurrence wins.
+   *
+   * @param labels The predicate names. Must not contain {@code null} elements.
+   *               The array is not copied and must not be modified afterwards.
+   */
+  public PredicateIndex(String[] labels) {
+    this.labels = labels;
+
+    int capacity = 2;
+    while (capacity < labels.length * 2) {
+      capacity <<= 1;
+    }
+    slots = new int[capacity];
+    mask = capacity - 1;
+
+    for (int i = 0; i < labels.length; i++) {
+      int slot = mix(labels[i].hashCode()) & mask;
+      while (slots[slot] != 0 && !labels[slots[slot] - 1].equals(labels[i])) {
+        slot = (slot + 1) & mask;
+      }
+      slots[slot] = i + 1;
+    }
+  }
+
+  /*
+   * Also used to build the slot table of the memory-mapped model format,
+   * see MappedParameters, so it must not change.
+   */
+  static int mix(int h) {
+    h ^= h >>> 16;
+    h *= 0x85EBCA6B;
+    return h ^ (h >>> 13);
+  }
+
+  /**
+   * @param predicate The predicate name to look up.
+   * @return The index of {@code predicate}, or {@code -1} if it is not known.
+   */
+  public int indexOf(String predicate) {
+    if (predicate == null) {
+      return -1;
+    }
+
+    int slot = mix(predicate.hashCode()) & mask;
+    int entry;
+    while ((entry = slots[slot]) != 0) {
+      if (labels[entry - 1].equals(predicate)) {
+        return entry - 1;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return -1;
+  }
+
+  /**
+   * Looks up the predicate {@code prefix + text.substring(start, end)} without
+   * creating it. Callers which derive many predicates from the same text can
+   * maintain the hash incrementally, e.g. as a rolling hash over a growing prefix.
+   *
+   * @param hash The {@link String#hashCode()} of the predicate.
+   * @param prefix The leading part of the predicate name.
+   * @param text The text holding the remaining part of the predicate name.
+   * @param start The index of the first char in {@code text}.
+   * @param end The index after the last char in {@code text}.
+   * @return The index of the predicate, or {@code -1} if it is not known.
+   */
+  public int indexOf(int hash, String prefix, String text, int start, int end) {
+    int length = prefix.length() + end - start;
+    int slot = mix(hash) & mask;
+    int entry;
+    while ((entry = slots[slot]) != 0) {
+      String label = labels[entry - 1];
+      if (label.length() == length && label.startsWith(prefix)
+          && label.regionMatches(prefix.length(), text, start, end - start)) {
+        return entry - 1;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return -1;
+  }
+
+  /**
+   * @param index A predicate index.
+   * @return The name of the predicate stored at {@code index}.
+   */
+  public String getPredicate(int index) {
+    return labels[index];
+  }
+
+  /**
+   * @return The number of predicate labels this index was built from.
+   */
+  public int size() {
+    return labels.length;
+  }
+}
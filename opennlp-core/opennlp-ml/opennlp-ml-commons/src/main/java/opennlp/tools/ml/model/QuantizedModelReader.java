@@ -0,0 +1,212 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.model;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import opennlp.tools.ml.AlgorithmType;
+import opennlp.tools.ml.model.QuantizedParameters.Precision;
+import opennlp.tools.util.InvalidFormatException;
+
+/**
+ * Reads models in the reduced precision binary format written by {@link QuantizedModelWriter}.
+ * <p>
+ * The returned model is backed by {@link QuantizedParameters}, the parameters stay in
+ * their reduced precision in memory and are dequantized during evaluation.
+ * <p>
+ * Format of quantized models, all numbers are big-endian:
+ * <p>
+ * <br>1. magic number and version ({@code int} each)
+ * <br>2. the algorithm type and the {@link Precision} ({@code String}, as by
+ *        {@link java.io.DataOutput#writeUTF(String)})
+ * <br>3. # of outcomes ({@code int}) and the outcome names ({@code String})
+ * <br>4. # of predicates ({@code int}) and the predicate names ({@code String})
+ * <br>5. whether all predicates are active for all outcomes ({@code boolean})
+ * <br>6. # of active outcomes of each predicate and the active outcomes, both omitted if
+ *        all predicates are active for all outcomes; a number of active outcomes takes one
+ *        byte for up to 255 outcomes, two bytes for up to 65535 outcomes, else four bytes;
+ *        an active outcome takes one byte for up to 256 outcomes, two bytes for up to
+ *        65536 outcomes, else four bytes
+ * <br>7. {@link Precision#INT8}: the scale of each predicate ({@code float[]}) and the
+ *        quantized parameters ({@code byte[]}); {@link Precision#FLOAT32}: the
+ *        parameters ({@code float[]})
+ *
+ * @see QuantizedParameters
+ * @see QuantizedModelWriter
+ */
+public class QuantizedModelReader {
+
+  static final int MAGIC = 0x4F4E5150;
+  static final int VERSION = 2;
+
+  private final Path file;
+
+  /**
+   * Initializes a {@link QuantizedModelReader}.
+   *
+   * @param file The {@link Path} of the model file to be read.
+   */
+  public QuantizedModelReader(Path file) {
+    this.file = file;
+  }
+
+  /**
+   * Reads the model file.
+   *
+   * @return The {@link AbstractModel} backed by {@link QuantizedParameters}.
+   * @throws IOException Thrown if IO errors occurred or the file is not in the expected format.
+   */
+  public AbstractModel getModel() throws IOException {
+    try (InputStream in = Files.newInputStream(file)) {
+      return read(in);
+    }
+  }
+
+  /**
+   * Reads a quantized model from the given stream, which is not closed.
+   *
+   * @param in The {@link InputStream} to read the model from.
+   * @return The {@link AbstractModel} backed by {@link QuantizedParameters}.
+   * @throws IOException Thrown if IO errors occurred or the stream does not hold
+   *                     a model in the expected format.
+   */
+  public static AbstractModel read(InputStream in) throws IOException {
+    DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+    if (data.readInt() != MAGIC) {
+      throw new InvalidFormatException("Not a quantized model");
+    }
+    int version = data.readInt();
+    if (version != VERSION) {
+      throw new InvalidFormatException("Unsupported quantized model version: " + version);
+    }
+
+    AlgorithmType modelType = AlgorithmType.fromAlgorithmType(data.readUTF());
+    Precision precision;
+    try {
+      precision = Precision.valueOf(data.readUTF());
+    } catch (IllegalArgumentException e) {
+      throw new InvalidFormatException("Unknown precision of quantized model", e);
+    }
+
+    int numOutcomes = data.readInt();
+    String[] outcomeNames = new String[numOutcomes];
+    for (int i = 0; i < numOutcomes; i++) {
+      outcomeNames[i] = data.readUTF();
+    }
+
+    int numPredicates = data.readInt();
+    String[] predicates = new String[numPredicates];
+    for (int pi = 0; pi < numPredicates; pi++) {
+      predicates[pi] = data.readUTF();
+    }
+
+    boolean dense = data.readBoolean();
+    int[] offsets = new int[numPredicates + 1];
+    int[] outcomes = null;
+    if (dense) {
+      for (int pi = 0; pi < numPredicates; pi++) {
+        offsets[pi + 1] = offsets[pi] + numOutcomes;
+      }
+    } else {
+      int lengthBytes = outcomeBytes(numOutcomes + 1);
+      ByteBuffer lengths = readBlock(data, numPredicates * lengthBytes);
+      for (int pi = 0; pi < numPredicates; pi++) {
+        int length = unsignedAt(lengths, pi, lengthBytes);
+        if (length < 0 || length > numOutcomes) {
+          throw new InvalidFormatException("Quantized model is corrupt");
+        }
+        offsets[pi + 1] = offsets[pi] + length;
+      }
+
+      int outcomeBytes = outcomeBytes(numOutcomes);
+      outcomes = new int[offsets[numPredicates]];
+      ByteBuffer block = readBlock(data, outcomes.length * outcomeBytes);
+      for (int pos = 0; pos < outcomes.length; pos++) {
+        outcomes[pos] = unsignedAt(block, pos, outcomeBytes);
+      }
+    }
+    int numEntries = offsets[numPredicates];
+
+    float[] floatParameters = null;
+    byte[] byteParameters = null;
+    float[] scales = null;
+    if (precision == Precision.INT8) {
+      scales = new float[numPredicates];
+      readBlock(data, numPredicates * Float.BYTES).asFloatBuffer().get(scales);
+      byteParameters = new byte[numEntries];
+      data.readFully(byteParameters);
+    } else {
+      floatParameters = new float[numEntries];
+      readBlock(data, numEntries * Float.BYTES).asFloatBuffer().get(floatParameters);
+    }
+
+    QuantizedParameters params = new QuantizedParameters(numOutcomes, new PackedPredicateIndex(predicates),
+        offsets, outcomes, floatParameters, byteParameters, scales);
+    return MappedModelReader.constructModel(modelType, params, outcomeNames);
+  }
+
+  /**
+   * Checks whether the given stream starts with a quantized model. The stream is
+   * reset to its current position afterwards.
+   *
+   * @param in The {@link InputStream} to check, it must {@link InputStream#markSupported()
+   *           support mark and reset}.
+   * @return {@code true} if the stream starts with the magic number of a quantized model.
+   * @throws IOException Thrown if IO errors occurred.
+   */
+  public static boolean isQuantizedModel(InputStream in) throws IOException {
+    in.mark(Integer.BYTES);
+    try {
+      byte[] magic = in.readNBytes(Integer.BYTES);
+      return magic.length == Integer.BYTES && ByteBuffer.wrap(magic).getInt() == MAGIC;
+    } finally {
+      in.reset();
+    }
+  }
+
+  private static int unsignedAt(ByteBuffer block, int index, int bytes) {
+    return switch (bytes) {
+      case Byte.BYTES -> Byte.toUnsignedInt(block.get(index));
+      case Short.BYTES -> Short.toUnsignedInt(block.getShort(index * Short.BYTES));
+      default -> block.getInt(index * Integer.BYTES);
+    };
+  }
+
+  /*
+   * The number of bytes needed to store the values from 0 to numOutcomes - 1,
+   * i.e. an outcome id.
+   */
+  static int outcomeBytes(int numOutcomes) {
+    if (numOutcomes <= 1 << Byte.SIZE) {
+      return Byte.BYTES;
+    }
+    return numOutcomes <= 1 << Short.SIZE ? Short.BYTES : Integer.BYTES;
+  }
+
+  private static ByteBuffer readBlock(DataInputStream data, int length) throws IOException {
+    byte[] block = new byte[length];
+    data.readFully(block);
+    return ByteBuffer.wrap(block);
+  }
+}
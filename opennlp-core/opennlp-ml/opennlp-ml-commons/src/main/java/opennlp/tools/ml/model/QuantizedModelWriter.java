@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.model;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import opennlp.tools.ml.model.QuantizedParameters.Precision;
+
+/**
+ * Writes a model with reduced parameter precision in the binary format which is
+ * described in {@link QuantizedModelReader}.
+ * <p>
+ * Models trained with GIS, L-BFGS or the perceptron algorithm are supported.
+ *
+ * @see QuantizedParameters
+ */
+public class QuantizedModelWriter {
+
+  private final AbstractModel model;
+  private final Precision precision;
+  private final Path file;
+
+  /**
+   * Initializes a {@link QuantizedModelWriter}.
+   *
+   * @param model The {@link AbstractModel} to be written.
+   * @param precision The {@link Precision} of the written parameters.
+   * @param file The {@link Path} of the model file to be written.
+   * @throws IllegalArgumentException Thrown if the type of {@code model} is not supported.
+   */
+  public QuantizedModelWriter(AbstractModel model, Precision precision, Path file) {
+    if (!MappedModelReader.MODEL_CLASSES.containsKey(model.getModelType())) {
+      throw new IllegalArgumentException("Model type " + model.getModelType() +
+          " cannot be quantized");
+    }
+    this.model = model;
+    this.precision = precision;
+    this.file = file;
+  }
+
+  /**
+   * Creates a copy of a model which stores its parameters with reduced precision.
+   *
+   * @param model The {@link AbstractModel} to quantize.
+   * @param precision The {@link Precision} of the stored parameters.
+   * @return A new {@link AbstractModel} of the same type, backed by {@link QuantizedParameters}.
+   * @throws IllegalArgumentException Thrown if the type of {@code model} is not supported.
+   */
+  public static AbstractModel quantize(AbstractModel model, Precision precision) {
+    if (!MappedModelReader.MODEL_CLASSES.containsKey(model.getModelType())) {
+      throw new IllegalArgumentException("Model type " + model.getModelType() +
+          " cannot be quantized");
+    }
+    return model.withParameters(QuantizedParameters.quantize(model.compiledParams, precision));
+  }
+
+  /**
+   * Writes the model to the file.
+   *
+   * @throws IOException Thrown if IO errors occurred.
+   */
+  public void persist() throws IOException {
+    try (OutputStream out = Files.newOutputStream(file)) {
+      write(model, precision, out);
+    }
+  }
+
+  /**
+   * Writes a model with reduced parameter precision to the given stream, which is
+   * not closed, e.g. as an artifact of a model package.
+   *
+   * @param model The {@link AbstractModel} to be written.
+   * @param precision The {@link Precision} of the written parameters.
+   * @param stream The {@link OutputStream} to write the model to.
+   * @throws IOException Thrown if IO errors occurred.
+   * @throws IllegalArgumentException Thrown if the type of {@code model} is not supported.
+   */
+  public static void write(AbstractModel model, Precision precision, OutputStream stream)
+      throws IOException {
+    if (!MappedModelReader.MODEL_CLASSES.containsKey(model.getModelType())) {
+      throw new IllegalArgumentException("Model type " + model.getModelType() +
+          " cannot be quantized");
+    }
+    QuantizedParameters params = model.compiledParams instanceof QuantizedParameters quantized
+        && quantized.getPrecision() == precision ? quantized
+        : QuantizedParameters.quantize(model.compiledParams, precision);
+    int numOutcomes = params.getNumOutcomes();
+    int numPredicates = params.getNumPredicates();
+    int numEntries = numPredicates > 0 ? params.getEnd(numPredicates - 1) : 0;
+    boolean dense = isDense(params);
+
+    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+    out.writeInt(QuantizedModelReader.MAGIC);
+    out.writeInt(QuantizedModelReader.VERSION);
+    out.writeUTF(model.getModelType().getAlgorithmType());
+    out.writeUTF(precision.name());
+
+    out.writeInt(numOutcomes);
+    for (int i = 0; i < numOutcomes; i++) {
+      out.writeUTF(model.getOutcome(i));
+    }
+
+    out.writeInt(numPredicates);
+    for (int pi = 0; pi < numPredicates; pi++) {
+      out.writeUTF(params.getPredicate(pi));
+    }
+
+    out.writeBoolean(dense);
+    if (!dense) {
+      int lengthBytes = QuantizedModelReader.outcomeBytes(numOutcomes + 1);
+      for (int pi = 0; pi < numPredicates; pi++) {
+        writeUnsigned(out, params.getEnd(pi) - params.getStart(pi), lengthBytes);
+      }
+      int outcomeBytes = QuantizedModelReader.outcomeBytes(numOutcomes);
+      for (int pos = 0; pos < numEntries; pos++) {
+        writeUnsigned(out, params.outcomeAt(pos), outcomeBytes);
+      }
+    }
+
+    if (precision == Precision.INT8) {
+      for (int pi = 0; pi < numPredicates; pi++) {
+        out.writeFloat(params.getScale(pi));
+      }
+      for (int pos = 0; pos < numEntries; pos++) {
+        out.writeByte(params.byteAt(pos));
+      }
+    } else {
+      for (int pos = 0; pos < numEntries; pos++) {
+        out.writeFloat(params.floatAt(pos));
+      }
+    }
+    out.flush();
+  }
+
+  /**
+   * @param model An {@link AbstractModel}.
+   * @return The {@link Precision} of the model's parameters, or {@code null} if the model
+   *         is not backed by {@link QuantizedParameters}.
+   */
+  public static Precision getPrecision(AbstractModel model) {
+    return model.compiledParams instanceof QuantizedParameters quantized ? quantized.getPrecision() : null;
+  }
+
+  private static void writeUnsigned(DataOutputStream out, int value, int bytes) throws IOException {
+    if (bytes == Byte.BYTES) {
+      out.writeByte(value);
+    } else if (bytes == Short.BYTES) {
+      out.writeShort(value);
+    } else {
+      out.writeInt(value);
+    }
+  }
+
+  private static boolean isDense(CompiledParameters params) {
+    int numOutcomes = params.getNumOutcomes();
+    for (int pi = 0; pi < params.getNumPredicates(); pi++) {
+      int start = params.getStart(pi);
+      if (params.getEnd(pi) - start != numOutcomes) {
+        return false;
+      }
+      for (int oi = 0; oi < numOutcomes; oi++) {
+        if (params.outcomeAt(start + oi) != oi) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+}
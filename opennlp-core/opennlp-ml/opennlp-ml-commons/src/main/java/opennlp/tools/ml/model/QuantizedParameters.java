@@ -0,0 +1,257 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.model;
+
+/**
+ * {@link CompiledParameters} which store the parameters with reduced precision, either as
+ * {@code float} values or quantized to 8-bit integers with one scale per predicate.
+ * <p>
+ * The parameters are dequantized on the fly during evaluation, the layout of the
+ * predicates and active outcomes is the same as of {@link CompiledParameters}.
+ * A {@link Precision#FLOAT32 float} parameter takes half and an
+ * {@link Precision#INT8 8-bit} parameter an eighth of the memory of a {@code double}.
+ * With 8-bit integers, a parameter is rounded to the nearest multiple of its predicate's
+ * scale, which is the largest magnitude of the predicate's parameters divided by
+ * {@value #INT8_MAX}.
+ * <p>
+ * The predicate names are kept in a {@link PackedPredicateIndex}, without one
+ * {@link String} object per predicate. The names, the offsets and the active outcomes
+ * are not reduced, so the memory of a whole model shrinks less than its parameters,
+ * in particular for sparse models with few parameters per predicate.
+ *
+ * @see QuantizedModelWriter
+ * @see QuantizedModelReader
+ */
+public final class QuantizedParameters extends CompiledParameters {
+
+  /**
+   * The precision of the stored parameters.
+   */
+  public enum Precision {
+    /** Parameters are stored as {@code float} values. */
+    FLOAT32,
+    /** Parameters are stored as 8-bit integers, scaled per predicate. */
+    INT8
+  }
+
+  static final int INT8_MAX = 127;
+
+  /** The predicate names, or {@code null} if the predicates are unnamed. */
+  private final PackedPredicateIndex predicates;
+  private final int[] offsets;
+  /** The active outcome ids, or {@code null} if all predicates are active for all outcomes. */
+  private final int[] outcomes;
+  /** The {@link Precision#FLOAT32} parameters, or {@code null}. */
+  private final float[] floatParameters;
+  /** The {@link Precision#INT8} parameters, or {@code null}. */
+  private final byte[] byteParameters;
+  /** The scale of each predicate's {@link Precision#INT8} parameters, or {@code null}. */
+  private final float[] scales;
+
+  QuantizedParameters(int numOutcomes, PackedPredicateIndex predicates, int[] offsets, int[] outcomes,
+                      float[] floatParameters, byte[] byteParameters, float[] scales) {
+    super(numOutcomes);
+    this.predicates = predicates;
+    this.offsets = offsets;
+    this.outcomes = outcomes;
+    this.floatParameters = floatParameters;
+    this.byteParameters = byteParameters;
+    this.scales = scales;
+  }
+
+  /**
+   * Stores the given parameters with reduced precision.
+   *
+   * @param params The {@link CompiledParameters} to quantize.
+   * @param precision The {@link Precision} of the stored parameters.
+   * @return The {@link QuantizedParameters} holding a copy of {@code params}.
+   */
+  public static QuantizedParameters quantize(CompiledParameters params, Precision precision) {
+    int numOutcomes = params.getNumOutcomes();
+    int numPredicates = params.getNumPredicates();
+
+    String[] labels = new String[numPredicates];
+    int[] offsets = new int[numPredicates + 1];
+    boolean dense = true;
+    for (int pi = 0; pi < numPredicates; pi++) {
+      labels[pi] = params.getPredicate(pi);
+      int start = params.getStart(pi);
+      int length = params.getEnd(pi) - start;
+      offsets[pi + 1] = offsets[pi] + length;
+      dense &= length == numOutcomes;
+      for (int i = 0; dense && i < length; i++) {
+        dense = params.outcomeAt(start + i) == i;
+      }
+    }
+
+    int numEntries = offsets[numPredicates];
+    int[] outcomes = dense ? null : new int[numEntries];
+    float[] floatParameters = precision == Precision.FLOAT32 ? new float[numEntries] : null;
+    byte[] byteParameters = precision == Precision.INT8 ? new byte[numEntries] : null;
+    float[] scales = precision == Precision.INT8 ? new float[numPredicates] : null;
+
+    for (int pi = 0; pi < numPredicates; pi++) {
+      int start = params.getStart(pi);
+      int length = offsets[pi + 1] - offsets[pi];
+      if (outcomes != null) {
+        for (int i = 0; i < length; i++) {
+          outcomes[offsets[pi] + i] = params.outcomeAt(start + i);
+        }
+      }
+
+      if (floatParameters != null) {
+        for (int i = 0; i < length; i++) {
+          floatParameters[offsets[pi] + i] = (float) params.parameterAt(start + i);
+        }
+      } else {
+        double max = 0;
+        for (int i = 0; i < length; i++) {
+          max = StrictMath.max(max, StrictMath.abs(params.parameterAt(start + i)));
+        }
+        scales[pi] = (float) (max / INT8_MAX);
+        for (int i = 0; i < length && scales[pi] > 0; i++) {
+          long q = StrictMath.round(params.parameterAt(start + i) / scales[pi]);
+          byteParameters[offsets[pi] + i] = (byte) StrictMath.max(-INT8_MAX, StrictMath.min(INT8_MAX, q));
+        }
+      }
+    }
+
+    boolean named = numPredicates > 0 && labels[0] != null;
+    return new QuantizedParameters(numOutcomes, named ? new PackedPredicateIndex(labels) : null, offsets,
+        outcomes, floatParameters, byteParameters, scales);
+  }
+
+  /**
+   * @return The {@link Precision} of the stored parameters.
+   */
+  public Precision getPrecision() {
+    return byteParameters != null ? Precision.INT8 : Precision.FLOAT32;
+  }
+
+  /**
+   * @param predIndex A predicate index.
+   * @return The scale of the predicate's {@link Precision#INT8} parameters,
+   *         or {@code 1} for {@link Precision#FLOAT32}.
+   */
+  public float getScale(int predIndex) {
+    return scales != null ? scales[predIndex] : 1;
+  }
+
+  @Override
+  public int getPredicateIndex(String predicate) {
+    return predicates != null ? predicates.indexOf(predicate) : -1;
+  }
+
+  @Override
+  public int getPredicateIndex(int hash, String prefix, String text, int start, int end) {
+    return predicates != null ? predicates.indexOf(hash, prefix, text, start, end) : -1;
+  }
+
+  @Override
+  public String getPredicate(int predIndex) {
+    return predicates != null ? predicates.getPredicate(predIndex) : null;
+  }
+
+  @Override
+  public int getNumPredicates() {
+    return offsets.length - 1;
+  }
+
+  @Override
+  public int getStart(int predIndex) {
+    return offsets[predIndex];
+  }
+
+  @Override
+  public int getEnd(int predIndex) {
+    return offsets[predIndex + 1];
+  }
+
+  @Override
+  public int outcomeAt(int position) {
+    return outcomes != null ? outcomes[position] : position % getNumOutcomes();
+  }
+
+  @Override
+  public double parameterAt(int position) {
+    if (floatParameters != null) {
+      return floatParameters[position];
+    }
+    return byteParameters[position] * scales[predicateAt(position)];
+  }
+
+  /**
+   * @return The index of the predicate whose entries contain {@code position}.
+   */
+  private int predicateAt(int position) {
+    // the last predicate starting at or before position, empty predicates are skipped
+    int low = 0;
+    int high = offsets.length - 2;
+    while (low < high) {
+      int mid = (low + high + 1) >>> 1;
+      if (offsets[mid] <= position) {
+        low = mid;
+      } else {
+        high = mid - 1;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Returns the stored {@link Precision#INT8} parameter at {@code position}.
+   */
+  byte byteAt(int position) {
+    return byteParameters[position];
+  }
+
+  /**
+   * Returns the stored {@link Precision#FLOAT32} parameter at {@code position}.
+   */
+  float floatAt(int position) {
+    return floatParameters[position];
+  }
+
+  @Override
+  protected void addParameters(int predIndex, double value, double[] scores, int offset) {
+    int start = offsets[predIndex];
+    int end = offsets[predIndex + 1];
+    if (byteParameters != null) {
+      double scaledValue = scales[predIndex] * value;
+      if (outcomes == null) {
+        for (int pos = start, oi = offset; pos < end; pos++, oi++) {
+          scores[oi] += byteParameters[pos] * scaledValue;
+        }
+      } else {
+        for (int pos = start; pos < end; pos++) {
+          scores[offset + outcomes[pos]] += byteParameters[pos] * scaledValue;
+        }
+      }
+    } else {
+      if (outcomes == null) {
+        for (int pos = start, oi = offset; pos < end; pos++, oi++) {
+          scores[oi] += floatParameters[pos] * value;
+        }
+      } else {
+        for (int pos = start; pos < end; pos++) {
+          scores[offset + outcomes[pos]] += floatParameters[pos] * value;
+        }
+      }
+    }
+  }
+}
@@ -25,10 +25,19 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.zip.CRC32C;
 import java.util.zip.CheckedInputStream;
 import java.util.zip.CheckedOutputStream;
@@ -36,6 +45,7 @@ import java.util.zip.CheckedOutputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import opennlp.tools.util.InsufficientTrainingDataException;
 import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.Parameters;
 import opennlp.tools.util.TrainingParameters;
@@ -44,10 +54,21 @@ import opennlp.tools.util.TrainingParameters;
  * Collecting event and context counts by making two passes over the events.
  * <p>
  * The first pass determines which contexts will be used by the model, and the
- * second pass creates the events in memory containing only the contexts which
- * will be used. This greatly reduces the amount of memory required for storing
- * the events. During the first pass a temporary event file is created which
- * is read during the second pass.
+ * second pass creates the events containing only the contexts which will be used.
+ * During the first pass a temporary event file is created which is read during
+ * the second pass.
+ * <p>
+ * The indexed events are kept on disk until they are sorted and merged: they are
+ * collected in sorted runs of bounded size, see {@link #SORT_BUFFER_SIZE_PARAM}, which
+ * are written in a compact encoding and merged externally into a memory mapped event
+ * store. This allows to index corpora whose events, including duplicates, do not fit
+ * into memory at once.
+ * <p>
+ * Only the indexing is out-of-core: when indexing is done, the unique events are
+ * decoded from the event store into {@link FlatContexts} and count arrays on the heap,
+ * as the trainers require them via {@link #getFlatContexts()}, {@link #getOutcomeList()}
+ * and {@link #getNumTimesEventsSeen()}. The unique events, not the corpus, must therefore
+ * fit into memory for training.
  *
  * @see DataIndexer
  * @see AbstractDataIndexer
@@ -56,6 +77,23 @@ public class TwoPassDataIndexer extends AbstractDataIndexer<TrainingParameters>
 
   private static final Logger logger = LoggerFactory.getLogger(TwoPassDataIndexer.class);
 
+  /**
+   * The approximate number of bytes of indexed events which are sorted in memory
+   * before they are written to a temporary run file.
+   */
+  public static final String SORT_BUFFER_SIZE_PARAM = "SortBufferSize";
+  public static final int SORT_BUFFER_SIZE_DEFAULT = 128 * 1024 * 1024;
+
+  /**
+   * The maximum number of runs which are merged at once.
+   */
+  private static final int MAX_MERGE_FAN_IN = 64;
+
+  /**
+   * The size of the windows in which the event store is mapped into memory.
+   */
+  private static final int MAPPED_WINDOW_SIZE = 64 * 1024 * 1024;
+
   public TwoPassDataIndexer() {}
 
   /**
@@ -66,14 +104,15 @@ public class TwoPassDataIndexer extends AbstractDataIndexer<TrainingParameters>
     int cutoff = trainingParameters.getIntParameter(Parameters.CUTOFF_PARAM,
         Parameters.CUTOFF_DEFAULT_VALUE);
     boolean sort = trainingParameters.getBooleanParameter(SORT_PARAM, SORT_DEFAULT);
+    int sortBufferSize = trainingParameters.getIntParameter(SORT_BUFFER_SIZE_PARAM,
+        SORT_BUFFER_SIZE_DEFAULT);
 
     logger.info("Indexing events with TwoPass using cutoff of {}", cutoff);
     logger.info("Computing event counts...");
 
     long start = System.currentTimeMillis();
     Map<String,Integer> predicateIndex = new HashMap<>();
-    File tmp = Files.createTempFile("events", null).toFile();
-    tmp.deleteOnExit();
+    File tmp = createTempFile();
     int numEvents;
     long writeChecksum;
 
@@ -86,31 +125,85 @@ public class TwoPassDataIndexer extends AbstractDataIndexer<TrainingParameters>
       logger.info("done. {} events", numEvents);
     }
 
-    List<ComparableEvent> eventsToCompare;
-    long readChecksum;
-    try (BufferedInputStream in = new BufferedInputStream(new FileInputStream(tmp));
-         CheckedInputStream readStream = new CheckedInputStream(in, new CRC32C());
-         EventStream readEventsStream = new EventStream(new DataInputStream(readStream))) {
-      logger.info("Indexing...");
-      eventsToCompare = index(readEventsStream, predicateIndex);
-      readChecksum = readStream.getChecksum().getValue();
-    }
-    tmp.delete();
+    File store = createTempFile();
+    List<Run> runs = new ArrayList<>();
+    try {
+      int numUniqueEvents;
+      long readChecksum;
+      try (BufferedInputStream in = new BufferedInputStream(new FileInputStream(tmp));
+           CheckedInputStream readStream = new CheckedInputStream(in, new CRC32C());
+           EventStream readEventsStream = new EventStream(new DataInputStream(readStream));
+           OutputStream storeOut = new BufferedOutputStream(new FileOutputStream(store))) {
+        logger.info("Indexing...");
+        if (sort) {
+          SortBuffer buffer = new SortBuffer(sortBufferSize, runs);
+          index(readEventsStream, predicateIndex, buffer::add);
+          readChecksum = readStream.getChecksum().getValue();
 
-    if (readChecksum != writeChecksum) {
-      throw new IOException("Checksum for writing and reading events did not match.");
-    } else {
-      logger.info("done.");
+          logger.info("Sorting and merging events... ");
+          numUniqueEvents = buffer.mergeInto(storeOut);
+        } else {
+          int[] count = new int[1];
+          index(readEventsStream, predicateIndex, event -> {
+            ComparableEventCodec.write(storeOut, event);
+            count[0]++;
+          });
+          readChecksum = readStream.getChecksum().getValue();
 
-      if (sort) {
-        logger.info("Sorting and merging events... ");
+          logger.info("Collecting events... ");
+          numUniqueEvents = count[0];
+        }
       }
-      else {
-        logger.info("Collecting events... ");
+
+      if (readChecksum != writeChecksum) {
+        throw new IOException("Checksum for writing and reading events did not match.");
+      }
+
+      loadEventStore(store, numUniqueEvents, sort);
+    } finally {
+      tmp.delete();
+      store.delete();
+      for (Run run : runs) {
+        run.file.delete();
+      }
+    }
+    logger.info(String.format("Done indexing in %.2f s.", (System.currentTimeMillis() - start) / 1000d));
+  }
+
+  private static File createTempFile() throws IOException {
+    File tmp = Files.createTempFile("events", null).toFile();
+    tmp.deleteOnExit();
+    return tmp;
+  }
+
+  /*
+   * Loads the unique events from the memory mapped event store onto the heap, the number
+   * of events including duplicates is the sum of their seen counts.
+   */
+  private void loadEventStore(File store, int numUniqueEvents, boolean sort) throws IOException {
+    if (numUniqueEvents == 0) {
+      throw new InsufficientTrainingDataException("Insufficient training data to create model.");
+    }
+
+    FlatContexts.Builder builder = new FlatContexts.Builder(numUniqueEvents);
+    outcomeList = new int[numUniqueEvents];
+    numTimesEventsSeen = new int[numUniqueEvents];
+    numEvents = 0;
+
+    try (FileChannel channel = FileChannel.open(store.toPath(), StandardOpenOption.READ);
+         InputStream in = new MappedInputStream(channel)) {
+      for (int i = 0; i < numUniqueEvents; i++) {
+        ComparableEvent event = ComparableEventCodec.read(in);
+        builder.add(event.predIndexes);
+        outcomeList[i] = event.outcome;
+        numTimesEventsSeen[i] = event.seen;
+        numEvents += event.seen;
       }
-      sortAndMerge(eventsToCompare,sort);
-      logger.info(String.format("Done indexing in %.2f s.", (System.currentTimeMillis() - start) / 1000d));
     }
+    flatContexts = builder.build();
+    contexts = null;
+
+    if (sort) logger.info("done. Reduced {} events to {}.", numEvents, numUniqueEvents);
   }
 
   /**
@@ -134,6 +227,7 @@ public class TwoPassDataIndexer extends AbstractDataIndexer<TrainingParameters>
   private int computeEventCounts(ObjectStream<Event> eventStream, DataOutputStream eventStore,
       Map<String,Integer> predicatesInOut, int cutoff) throws IOException {
     Map<String,Integer> counter = new HashMap<>();
+    int[] bucketCounts = featureHasher != null ? new int[featureHasher.getSize()] : null;
     int eventCount = 0;
 
     Event ev;
@@ -144,7 +238,11 @@ public class TwoPassDataIndexer extends AbstractDataIndexer<TrainingParameters>
 
       eventStore.writeInt(ev.getContext().length);
       String[] ec = ev.getContext();
-      update(ec, counter);
+      if (bucketCounts != null) {
+        updateBuckets(ec, bucketCounts);
+      } else {
+        update(ec, counter);
+      }
       for (String ctxString : ec)
         eventStore.writeUTF(ctxString);
 
@@ -158,6 +256,11 @@ public class TwoPassDataIndexer extends AbstractDataIndexer<TrainingParameters>
       }
     }
 
+    if (bucketCounts != null) {
+      selectBuckets(bucketCounts, cutoff);
+      return eventCount;
+    }
+
     String[] predicateSet = counter.entrySet().stream()
         .filter(entry -> entry.getValue() >= cutoff)
         .map(Map.Entry::getKey).sorted()
@@ -172,6 +275,214 @@ public class TwoPassDataIndexer extends AbstractDataIndexer<TrainingParameters>
     return eventCount;
   }
 
+  /**
+   * Collects indexed events in memory until the buffer is full, then the events are
+   * sorted, duplicates are merged and the result is written to a new run file.
+   */
+  private static class SortBuffer {
+
+    private final long capacity;
+    private final List<Run> runs;
+    private final List<ComparableEvent> events = new ArrayList<>();
+    private long size;
+
+    SortBuffer(long capacity, List<Run> runs) {
+      this.capacity = capacity;
+      this.runs = runs;
+    }
+
+    void add(ComparableEvent event) throws IOException {
+      events.add(event);
+      size += estimateSize(event);
+      if (size >= capacity) {
+        spill();
+      }
+    }
+
+    /*
+     * A rough estimate of the heap used by an event, including the object headers.
+     */
+    private static long estimateSize(ComparableEvent event) {
+      long size = 64 + 4L * event.predIndexes.length;
+      if (event.values != null) {
+        size += 16 + 4L * event.values.length;
+      }
+      return size;
+    }
+
+    private int sortAndCollapse() {
+      Collections.sort(events);
+      int numUnique = 0;
+      for (ComparableEvent event : events) {
+        if (numUnique > 0 && events.get(numUnique - 1).compareTo(event) == 0) {
+          events.get(numUnique - 1).seen += event.seen;
+        } else {
+          events.set(numUnique++, event);
+        }
+      }
+      events.subList(numUnique, events.size()).clear();
+      return numUnique;
+    }
+
+    private void spill() throws IOException {
+      sortAndCollapse();
+      Run run = new Run(createTempFile());
+      runs.add(run);
+      try (OutputStream out = new BufferedOutputStream(new FileOutputStream(run.file))) {
+        for (ComparableEvent event : events) {
+          ComparableEventCodec.write(out, event);
+        }
+      }
+      run.size = events.size();
+      events.clear();
+      size = 0;
+    }
+
+    /*
+     * Merges all collected events into the output and returns the number of unique events.
+     */
+    int mergeInto(OutputStream out) throws IOException {
+      if (runs.isEmpty()) {
+        sortAndCollapse();
+        for (ComparableEvent event : events) {
+          ComparableEventCodec.write(out, event);
+        }
+        return events.size();
+      }
+
+      if (!events.isEmpty()) {
+        spill();
+      }
+
+      // merge in several passes if there are too many runs to open them all at once
+      int next = 0;
+      while (runs.size() - next > MAX_MERGE_FAN_IN) {
+        Run run = new Run(createTempFile());
+        runs.add(run);
+        try (OutputStream runOut = new BufferedOutputStream(new FileOutputStream(run.file))) {
+          run.size = merge(runs.subList(next, next + MAX_MERGE_FAN_IN), runOut);
+        }
+        next += MAX_MERGE_FAN_IN;
+      }
+      return merge(runs.subList(next, runs.size()), out);
+    }
+
+    private static int merge(List<Run> merged, OutputStream out) throws IOException {
+      List<RunReader> readers = new ArrayList<>(merged.size());
+      try {
+        PriorityQueue<RunReader> queue = new PriorityQueue<>(merged.size(),
+            Comparator.comparing(reader -> reader.current));
+        for (Run run : merged) {
+          RunReader reader = new RunReader(run);
+          readers.add(reader);
+          if (reader.next()) {
+            queue.add(reader);
+          }
+        }
+
+        int numUnique = 0;
+        ComparableEvent pending = null;
+        while (!queue.isEmpty()) {
+          RunReader reader = queue.poll();
+          ComparableEvent event = reader.current;
+          if (pending != null && pending.compareTo(event) == 0) {
+            pending.seen += event.seen;
+          } else {
+            if (pending != null) {
+              ComparableEventCodec.write(out, pending);
+            }
+            pending = event;
+            numUnique++;
+          }
+          if (reader.next()) {
+            queue.add(reader);
+          }
+        }
+        if (pending != null) {
+          ComparableEventCodec.write(out, pending);
+        }
+        return numUnique;
+      } finally {
+        for (RunReader reader : readers) {
+          reader.in.close();
+        }
+      }
+    }
+  }
+
+  /**
+   * A temporary file with sorted unique events.
+   */
+  private static class Run {
+
+    private final File file;
+    private int size;
+
+    Run(File file) {
+      this.file = file;
+    }
+  }
+
+  /**
+   * Reads the sorted events of a {@link Run} one by one.
+   */
+  private static class RunReader {
+
+    private final InputStream in;
+    private int remaining;
+    private ComparableEvent current;
+
+    RunReader(Run run) throws IOException {
+      in = new BufferedInputStream(new FileInputStream(run.file));
+      remaining = run.size;
+    }
+
+    boolean next() throws IOException {
+      if (remaining == 0) {
+        current = null;
+        return false;
+      }
+      remaining--;
+      current = ComparableEventCodec.read(in);
+      return true;
+    }
+  }
+
+  /**
+   * An {@link InputStream} over a file which is mapped into memory in windows of
+   * {@link #MAPPED_WINDOW_SIZE} bytes, files larger than {@code 2 GB} are supported.
+   */
+  private static class MappedInputStream extends InputStream {
+
+    private final FileChannel channel;
+    private final long size;
+    private long position;
+    private MappedByteBuffer buffer;
+
+    MappedInputStream(FileChannel channel) throws IOException {
+      this.channel = channel;
+      this.size = channel.size();
+      map();
+    }
+
+    private void map() throws IOException {
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, position,
+          StrictMath.min(MAPPED_WINDOW_SIZE, size - position));
+    }
+
+    @Override
+    public int read() throws IOException {
+      if (!buffer.hasRemaining()) {
+        position += buffer.capacity();
+        if (position >= size) {
+          return -1;
+        }
+        map();
+      }
+      return buffer.get() & 0xFF;
+    }
+  }
+
   private static class EventStream implements ObjectStream<Event> {
 
     private final DataInputStream inputStream;
@@ -34,6 +34,16 @@ public class UniformPrior implements Prior {
     }
   }
 
+  @Override
+  public void logPrior(double[] dist, int[] context, int length, float[] values) {
+    logPrior(dist, context, values);
+  }
+
+  @Override
+  public void logPrior(double[] dist, int[] predicates, float[] values, int start, int end) {
+    logPrior(dist, predicates, values);
+  }
+
   @Override
   public void logPrior(double[] dist, Context[] context, float[] values) {
     logPrior(dist, (int[]) null, values);
@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import opennlp.tools.ml.model.DataIndexer;
+import opennlp.tools.ml.model.OnePassDataIndexer;
+import opennlp.tools.ml.model.SimpleEventStreamBuilder;
+import opennlp.tools.util.InvalidFormatException;
+import opennlp.tools.util.Parameters;
+import opennlp.tools.util.TrainingParameters;
+
+/**
+ * Tests for the {@link Checkpointer} and {@link TrainingCheckpoint} classes.
+ */
+public class CheckpointerTest {
+
+  private static DataIndexer<TrainingParameters> createIndexer(String... events) throws IOException {
+    SimpleEventStreamBuilder builder = new SimpleEventStreamBuilder();
+    for (String event : events) {
+      builder.add(event);
+    }
+    DataIndexer<TrainingParameters> indexer = new OnePassDataIndexer();
+    TrainingParameters params = new TrainingParameters();
+    params.put(Parameters.CUTOFF_PARAM, 0);
+    indexer.init(params, null);
+    indexer.index(builder.build());
+    return indexer;
+  }
+
+  private static TrainingParameters createParameters(Path file, boolean resume) {
+    TrainingParameters params = new TrainingParameters();
+    params.put(Checkpointer.FILE_PARAM, file.toString());
+    params.put(Checkpointer.INTERVAL_PARAM, 2);
+    params.put(Checkpointer.RESUME_PARAM, resume);
+    return params;
+  }
+
+  @Test
+  void testWriteAndRead(@TempDir Path tempDir) throws IOException {
+    TrainingCheckpoint checkpoint = new TrainingCheckpoint("GIS", 42L, 7)
+        .put("params", new double[] {0.5, -1.25})
+        .put("counts", new int[] {3, 1, 4})
+        .put("loglikelihood", -12.5);
+
+    Path file = tempDir.resolve("train.checkpoint");
+    checkpoint.write(file);
+    TrainingCheckpoint read = TrainingCheckpoint.read(file);
+
+    Assertions.assertEquals("GIS", read.getAlgorithm());
+    Assertions.assertEquals(42L, read.getFingerprint());
+    Assertions.assertEquals(7, read.getIteration());
+    Assertions.assertArrayEquals(new double[] {0.5, -1.25}, read.getDoubles("params"));
+    Assertions.assertArrayEquals(new int[] {3, 1, 4}, read.getInts("counts"));
+    Assertions.assertEquals(-12.5, read.getDouble("loglikelihood"));
+    Assertions.assertThrows(IllegalStateException.class, () -> read.getInts("params"));
+    Assertions.assertThrows(IllegalStateException.class, () -> read.getDoubles("missing"));
+  }
+
+  @Test
+  void testReadInvalidFile(@TempDir Path tempDir) throws IOException {
+    Path file = tempDir.resolve("invalid.checkpoint");
+    Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+    Assertions.assertThrows(InvalidFormatException.class, () -> TrainingCheckpoint.read(file));
+  }
+
+  @Test
+  void testDisabled() throws IOException {
+    DataIndexer<TrainingParameters> indexer = createIndexer("a/x y", "b/y z");
+    try (Checkpointer checkpointer = Checkpointer.create(new TrainingParameters(), "GIS", indexer)) {
+      Assertions.assertFalse(checkpointer.isEnabled());
+      Assertions.assertFalse(checkpointer.isDue(10));
+      Assertions.assertNull(checkpointer.resume());
+    }
+    try (Checkpointer checkpointer = Checkpointer.create(null, "GIS", indexer)) {
+      Assertions.assertFalse(checkpointer.isEnabled());
+    }
+  }
+
+  @Test
+  void testWriteAndResume(@TempDir Path tempDir) throws IOException {
+    DataIndexer<TrainingParameters> indexer = createIndexer("a/x y", "b/y z");
+    Path file = tempDir.resolve("train.checkpoint");
+
+    try (Checkpointer checkpointer = Checkpointer.create(createParameters(file, false), "GIS", indexer)) {
+      Assertions.assertTrue(checkpointer.isEnabled());
+      Assertions.assertNull(checkpointer.resume());
+      Assertions.assertFalse(checkpointer.isDue(3));
+      Assertions.assertTrue(checkpointer.isDue(4));
+      checkpointer.write(checkpointer.newCheckpoint(4).put("params", new double[] {1, 2}));
+    }
+
+    try (Checkpointer checkpointer = Checkpointer.create(createParameters(file, true), "GIS", indexer)) {
+      TrainingCheckpoint checkpoint = checkpointer.resume();
+      Assertions.assertEquals(4, checkpoint.getIteration());
+      Assertions.assertArrayEquals(new double[] {1, 2}, checkpoint.getDoubles("params"));
+    }
+  }
+
+  @Test
+  void testResumeWithOtherDataOrAlgorithm(@TempDir Path tempDir) throws IOException {
+    Path file = tempDir.resolve("train.checkpoint");
+    try (Checkpointer checkpointer = Checkpointer.create(createParameters(file, false), "GIS",
+        createIndexer("a/x y", "b/y z"))) {
+      checkpointer.write(checkpointer.newCheckpoint(2));
+    }
+
+    DataIndexer<TrainingParameters> otherIndexer = createIndexer("a/x y", "b/y w");
+    try (Checkpointer checkpointer = Checkpointer.create(createParameters(file, true), "GIS",
+        otherIndexer)) {
+      Assertions.assertThrows(IllegalStateException.class, checkpointer::resume);
+    }
+    try (Checkpointer checkpointer = Checkpointer.create(createParameters(file, true), "QN",
+        createIndexer("a/x y", "b/y z"))) {
+      Assertions.assertThrows(IllegalStateException.class, checkpointer::resume);
+    }
+  }
+
+  @Test
+  void testInvalidInterval(@TempDir Path tempDir) throws IOException {
+    TrainingParameters params = createParameters(tempDir.resolve("train.checkpoint"), false);
+    params.put(Checkpointer.INTERVAL_PARAM, 0);
+    DataIndexer<TrainingParameters> indexer = createIndexer("a/x y", "b/y z");
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> Checkpointer.create(params, "GIS", indexer));
+  }
+}
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Tests for the {@link ComputeEngine} class.
+ */
+public class ComputeEngineTest {
+
+  private static int[][] createContexts(Random random, int numContexts) {
+    int[][] contexts = new int[numContexts][];
+    for (int ci = 0; ci < numContexts; ci++) {
+      // a few contexts are much larger than the others
+      contexts[ci] = new int[ci % 50 == 0 ? 500 : random.nextInt(20)];
+    }
+    return contexts;
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 2, 3, 8})
+  void testPartitionsAreBalanced(int threads) {
+    int[][] contexts = createContexts(new Random(threads), 10000);
+    long totalCost = 0;
+    for (int[] context : contexts) {
+      totalCost += context.length + 1;
+    }
+
+    try (ComputeEngine engine = new ComputeEngine(threads)) {
+      int[] bounds = engine.partition(contexts);
+      Assertions.assertEquals(threads + 1, bounds.length);
+      Assertions.assertEquals(0, bounds[0]);
+      Assertions.assertEquals(contexts.length, bounds[threads]);
+
+      for (int p = 0; p < threads; p++) {
+        Assertions.assertTrue(bounds[p] <= bounds[p + 1]);
+        long cost = 0;
+        for (int ci = bounds[p]; ci < bounds[p + 1]; ci++) {
+          cost += contexts[ci].length + 1;
+        }
+        // a partition differs from the average at most by the largest context
+        Assertions.assertEquals((double) totalCost / threads, cost, 2 * 501);
+      }
+    }
+  }
+
+  @Test
+  void testPartitionWithFewerContextsThanThreads() {
+    try (ComputeEngine engine = new ComputeEngine(4)) {
+      int[] bounds = engine.partition(new int[][] {{1, 2}, {3}});
+      Assertions.assertEquals(5, bounds.length);
+      Assertions.assertEquals(2, bounds[4]);
+      for (int p = 0; p < 4; p++) {
+        Assertions.assertTrue(bounds[p] <= bounds[p + 1]);
+      }
+    }
+  }
+
+  @Test
+  void testPartitionByCost() {
+    try (ComputeEngine engine = new ComputeEngine(3)) {
+      Assertions.assertArrayEquals(new int[] {0, 2, 4, 6}, engine.partition(new int[] {5, 5, 5, 5, 5, 5}));
+      Assertions.assertArrayEquals(new int[] {0, 1, 3, 6}, engine.partition(new int[] {10, 1, 1, 10, 1, 1}));
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 4})
+  void testForEachPartition(int threads) {
+    int[][] contexts = createContexts(new Random(7), 1000);
+    try (ComputeEngine engine = new ComputeEngine(threads)) {
+      int[] bounds = engine.partition(contexts);
+
+      // the engine is reused, every context must be visited once per run
+      for (int run = 1; run <= 3; run++) {
+        AtomicIntegerArray visits = new AtomicIntegerArray(contexts.length);
+        int[] partitionOf = new int[contexts.length];
+        engine.forEachPartition(bounds, (partition, start, end) -> {
+          for (int ci = start; ci < end; ci++) {
+            visits.incrementAndGet(ci);
+            partitionOf[ci] = partition;
+          }
+        });
+        for (int ci = 0; ci < contexts.length; ci++) {
+          Assertions.assertEquals(1, visits.get(ci));
+          Assertions.assertTrue(bounds[partitionOf[ci]] <= ci && ci < bounds[partitionOf[ci] + 1]);
+        }
+      }
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 3})
+  void testSum(int threads) {
+    Random random = new Random(threads);
+    double[][] partials = new double[threads][50000];
+    double[] expected = new double[50000];
+    for (double[] partial : partials) {
+      for (int i = 0; i < partial.length; i++) {
+        partial[i] = random.nextDouble();
+        expected[i] += partial[i];
+      }
+    }
+
+    try (ComputeEngine engine = new ComputeEngine(threads)) {
+      double[] target = new double[50000];
+      target[0] = 100;
+      engine.sum(partials, target);
+      Assertions.assertArrayEquals(expected, target, 1e-12);
+    }
+  }
+
+  @Test
+  void testExceptionIsPropagated() {
+    try (ComputeEngine engine = new ComputeEngine(2)) {
+      Assertions.assertThrows(IllegalStateException.class, () ->
+          engine.forEachPartition(new int[] {0, 5, 10}, (partition, start, end) -> {
+            if (partition == 1) {
+              throw new IllegalStateException();
+            }
+          }));
+    }
+  }
+
+  @Test
+  void testInvalidThreads() {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new ComputeEngine(0));
+  }
+}
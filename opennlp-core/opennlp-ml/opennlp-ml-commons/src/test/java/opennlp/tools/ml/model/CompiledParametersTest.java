@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.model;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link CompiledParameters}, {@link PredicateIndex} and {@link PackedPredicateIndex}.
+ */
+public class CompiledParametersTest {
+
+  private static final String[] PREDICATES = {"a", "b", "c"};
+
+  private static Context[] sparseParams() {
+    return new Context[] {
+        new Context(new int[] {0, 2}, new double[] {1.0, 2.0}),
+        new Context(new int[] {1}, new double[] {-0.5}),
+        new Context(new int[] {}, new double[] {})
+    };
+  }
+
+  @Test
+  void testPredicateIndex() {
+    String[] labels = new String[1000];
+    for (int i = 0; i < labels.length; i++) {
+      labels[i] = "pred=" + i;
+    }
+    PredicateIndex index = new PredicateIndex(labels);
+
+    Assertions.assertEquals(labels.length, index.size());
+    for (int i = 0; i < labels.length; i++) {
+      Assertions.assertEquals(i, index.indexOf("pred=" + i));
+      Assertions.assertEquals(labels[i], index.getPredicate(i));
+    }
+    Assertions.assertEquals(-1, index.indexOf("pred=1000"));
+    Assertions.assertEquals(-1, index.indexOf(null));
+    Assertions.assertEquals(-1, new PredicateIndex(new String[0]).indexOf("a"));
+  }
+
+  @Test
+  void testPackedPredicateIndex() {
+    String[] labels = new String[1000];
+    for (int i = 0; i < labels.length; i++) {
+      labels[i] = "pred=" + i;
+    }
+    PackedPredicateIndex index = new PackedPredicateIndex(labels);
+
+    for (int i = 0; i < labels.length; i++) {
+      Assertions.assertEquals(i, index.indexOf("pred=" + i));
+      Assertions.assertEquals(labels[i], index.getPredicate(i));
+      String text = "x" + i + "y";
+      Assertions.assertEquals(i, index.indexOf(labels[i].hashCode(), "pred=", text, 1, text.length() - 1));
+    }
+    Assertions.assertEquals(-1, index.indexOf("pred=1000"));
+    Assertions.assertEquals(-1, index.indexOf("pred="));
+    Assertions.assertEquals(-1, index.indexOf(null));
+    Assertions.assertEquals(-1, index.indexOf("pred=1".hashCode(), "pred=", "12", 0, 2));
+    Assertions.assertEquals(-1, new PackedPredicateIndex(new String[0]).indexOf("a"));
+  }
+
+  @Test
+  void testSumFeaturesSparse() {
+    CompiledParameters params = CompiledParameters.compile(sparseParams(), PREDICATES, 3);
+
+    double[] scores = new double[3];
+    params.sumFeatures(new String[] {"a", "b", "unknown", "c"}, null, scores);
+    Assertions.assertArrayEquals(new double[] {1.0, -0.5, 2.0}, scores, 0d);
+
+    scores = new double[3];
+    params.sumFeatures(new int[] {0, -1, 1}, new float[] {2f, 5f, 4f}, scores);
+    Assertions.assertArrayEquals(new double[] {2.0, -2.0, 4.0}, scores, 0d);
+  }
+
+  @Test
+  void testSumFeaturesRange() {
+    CompiledParameters params = CompiledParameters.compile(sparseParams(), PREDICATES, 3);
+
+    double[] scores = new double[3];
+    params.sumFeatures(new int[] {1, 0, -1, 1}, new float[] {9f, 2f, 5f, 4f}, 1, 3, scores);
+    Assertions.assertArrayEquals(new double[] {2.0, 0.0, 4.0}, scores, 0d);
+  }
+
+  @Test
+  void testSumFeaturesDense() {
+    Context[] dense = {
+        new Context(new int[] {0, 1}, new double[] {1.0, 2.0}),
+        new Context(new int[] {0, 1}, new double[] {3.0, 4.0})
+    };
+    CompiledParameters params = CompiledParameters.compile(dense, new String[] {"x", "y"}, 2);
+
+    double[] scores = new double[2];
+    params.sumFeatures(new String[] {"x", "y"}, null, scores);
+    Assertions.assertArrayEquals(new double[] {4.0, 6.0}, scores, 0d);
+    Assertions.assertEquals(1, params.outcomeAt(params.getStart(1) + 1));
+    Assertions.assertArrayEquals(dense, params.getParams());
+  }
+
+  @Test
+  void testMaterializedParams() {
+    Context[] sparse = sparseParams();
+    CompiledParameters params = CompiledParameters.compile(sparse, PREDICATES, 3);
+
+    Assertions.assertEquals(3, params.getNumPredicates());
+    Assertions.assertEquals("b", params.getPredicate(1));
+    Assertions.assertArrayEquals(sparse, params.getParams());
+    Assertions.assertEquals(sparse[0], params.getContext(0));
+  }
+
+  @Test
+  void testEqualsIgnoresPredicateOrder() {
+    Context[] sparse = sparseParams();
+    CompiledParameters params = CompiledParameters.compile(sparse, PREDICATES, 3);
+    CompiledParameters reordered = CompiledParameters.compile(
+        new Context[] {sparse[2], sparse[0], sparse[1]}, new String[] {"c", "a", "b"}, 3);
+    CompiledParameters other = CompiledParameters.compile(
+        new Context[] {sparse[1], sparse[0], sparse[2]}, PREDICATES, 3);
+
+    Assertions.assertEquals(params, reordered);
+    Assertions.assertEquals(params.hashCode(), reordered.hashCode());
+    Assertions.assertNotEquals(params, other);
+  }
+
+  @Test
+  void testUnnamed() {
+    Context[] sparse = sparseParams();
+    CompiledParameters params = CompiledParameters.compile(sparse, 3);
+
+    Assertions.assertEquals(3, params.getNumPredicates());
+    Assertions.assertEquals(-1, params.getPredicateIndex("a"));
+    Assertions.assertNull(params.getPredicate(0));
+    Assertions.assertArrayEquals(sparse, params.getParams());
+
+    double[] scores = new double[3];
+    params.sumFeatures(new int[] {0, 1}, null, scores);
+    Assertions.assertArrayEquals(new double[] {1.0, -0.5, 2.0}, scores, 0d);
+
+    Assertions.assertEquals(params, CompiledParameters.compile(sparseParams(), 3));
+    Assertions.assertEquals(params.hashCode(), CompiledParameters.compile(sparseParams(), 3).hashCode());
+    Assertions.assertNotEquals(params, CompiledParameters.compile(sparse, PREDICATES, 3));
+  }
+
+  @Test
+  void testMismatchingLengths() {
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> CompiledParameters.compile(sparseParams(), new String[] {"a"}, 3));
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.model;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.ObjectStreamUtils;
+import opennlp.tools.util.TrainingParameters;
+
+public class EventCacheTest {
+
+  private static final List<String> SAMPLES = List.of("a/x y", "b/y z", "a/x z", "c/w;0.5 x;2");
+
+  private static ObjectStream<Event> createEvents(List<String> samples) {
+    SimpleEventStreamBuilder builder = new SimpleEventStreamBuilder();
+    for (String sample : samples) {
+      builder.add(sample);
+    }
+    return builder.build();
+  }
+
+  private static List<String> readAll(ObjectStream<Event> events) throws IOException {
+    List<String> result = new ArrayList<>();
+    Event event;
+    while ((event = events.read()) != null) {
+      result.add(event.toString());
+    }
+    return result;
+  }
+
+  private static TrainingParameters createParameters(Path dir) {
+    TrainingParameters params = new TrainingParameters();
+    params.put(EventCache.CACHE_DIR_PARAM, dir.toString());
+    return params;
+  }
+
+  @Test
+  void testDisabled() throws IOException {
+    ObjectStream<Event> events = createEvents(SAMPLES);
+    Assertions.assertSame(events, EventCache.cache(new TrainingParameters(),
+        ObjectStreamUtils.createObjectStream(SAMPLES), String::valueOf, "test", events));
+    Assertions.assertSame(events, EventCache.cache(null,
+        ObjectStreamUtils.createObjectStream(SAMPLES), String::valueOf, "test", events));
+  }
+
+  @Test
+  void testUnknownFeaturization(@TempDir Path dir) throws IOException {
+    ObjectStream<Event> events = createEvents(SAMPLES);
+    Assertions.assertSame(events, EventCache.cache(createParameters(dir),
+        ObjectStreamUtils.createObjectStream(SAMPLES), String::valueOf, null, events));
+    try (Stream<Path> files = Files.list(dir)) {
+      Assertions.assertEquals(0, files.count());
+    }
+  }
+
+  @Test
+  void testWriteAndRead(@TempDir Path dir) throws IOException {
+    List<String> expected = readAll(createEvents(SAMPLES));
+
+    ObjectStream<Event> written = EventCache.cache(createParameters(dir),
+        ObjectStreamUtils.createObjectStream(SAMPLES), String::valueOf, "test", createEvents(SAMPLES));
+    Assertions.assertEquals(expected, readAll(written));
+    try (Stream<Path> files = Files.list(dir)) {
+      Assertions.assertEquals(1, files.count());
+    }
+
+    // the events are read from the cache, the event stream is not used
+    ObjectStream<Event> failing = () -> {
+      throw new IllegalStateException("The events must be read from the cache");
+    };
+    ObjectStream<Event> cached = EventCache.cache(createParameters(dir),
+        ObjectStreamUtils.createObjectStream(SAMPLES), String::valueOf, "test", failing);
+    Assertions.assertEquals(expected, readAll(cached));
+
+    cached.reset();
+    Assertions.assertEquals(expected, readAll(cached));
+    cached.close();
+  }
+
+  @Test
+  void testKey(@TempDir Path dir) throws IOException {
+    readAll(EventCache.cache(createParameters(dir), ObjectStreamUtils.createObjectStream(SAMPLES),
+        String::valueOf, "test", createEvents(SAMPLES)));
+
+    // other samples or another featurization use another cache file
+    List<String> otherSamples = SAMPLES.subList(0, 3);
+    readAll(EventCache.cache(createParameters(dir), ObjectStreamUtils.createObjectStream(otherSamples),
+        String::valueOf, "test", createEvents(otherSamples)));
+    readAll(EventCache.cache(createParameters(dir), ObjectStreamUtils.createObjectStream(SAMPLES),
+        String::valueOf, "other", createEvents(SAMPLES)));
+
+    try (Stream<Path> files = Files.list(dir)) {
+      Assertions.assertEquals(3, files.count());
+    }
+  }
+
+  @Test
+  void testIncompleteStreamIsNotCached(@TempDir Path dir) throws IOException {
+    ObjectStream<Event> written = EventCache.cache(createParameters(dir),
+        ObjectStreamUtils.createObjectStream(SAMPLES), String::valueOf, "test", createEvents(SAMPLES));
+    written.read();
+    written.close();
+
+    try (Stream<Path> files = Files.list(dir)) {
+      Assertions.assertEquals(0, files.count());
+    }
+  }
+}
@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.model;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import opennlp.tools.util.TrainingParameters;
+
+public class FeatureHasherTest {
+
+  @Test
+  void testBucketRange() {
+    FeatureHasher hasher = new FeatureHasher(7, 42);
+    int[] counts = new int[hasher.getSize()];
+    for (int i = 0; i < 7000; i++) {
+      int bucket = hasher.bucket("w=" + i);
+      Assertions.assertTrue(bucket >= 0 && bucket < hasher.getSize());
+      counts[bucket]++;
+    }
+    for (int count : counts) {
+      Assertions.assertTrue(count > 800 && count < 1200, "Skewed bucket count: " + count);
+    }
+  }
+
+  @Test
+  void testStable() {
+    Assertions.assertEquals(0, new FeatureHasher(1 << 20, 0).bucket(""));
+    Assertions.assertEquals(new FeatureHasher(1 << 20, 3).bucket("pow=other,Apache"),
+        new FeatureHasher(1 << 20, 3).bucket(new String("pow=other,Apache")));
+    Assertions.assertNotEquals(new FeatureHasher(1 << 20, 0).bucket("w=apache"),
+        new FeatureHasher(1 << 20, 1).bucket("w=apache"));
+  }
+
+  @Test
+  void testFromParameters() {
+    TrainingParameters params = new TrainingParameters();
+    Assertions.assertNull(FeatureHasher.fromParameters(params));
+
+    params.put(FeatureHasher.HASH_SIZE_PARAM, 1024);
+    params.put(FeatureHasher.HASH_SEED_PARAM, 7);
+    Assertions.assertEquals(new FeatureHasher(1024, 7), FeatureHasher.fromParameters(params));
+  }
+
+  @Test
+  void testInvalidSize() {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new FeatureHasher(0, 0));
+  }
+}
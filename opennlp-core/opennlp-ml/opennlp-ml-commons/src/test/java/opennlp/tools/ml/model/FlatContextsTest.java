@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.model;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class FlatContextsTest {
+
+  @Test
+  void testOf() {
+    int[][] contexts = {{3, 1}, {}, {0, 2, 4}};
+    FlatContexts flat = FlatContexts.of(contexts, new float[][] {{0.5f, 2f}, null, {1f, 3f, 4f}});
+
+    Assertions.assertEquals(3, flat.size());
+    Assertions.assertArrayEquals(new int[] {0, 2, 2, 5}, flat.getOffsets());
+    Assertions.assertArrayEquals(new int[] {3, 1, 0, 2, 4}, flat.getPredicates());
+    Assertions.assertArrayEquals(new float[] {0.5f, 2f, 1f, 3f, 4f}, flat.getValues());
+    Assertions.assertArrayEquals(new int[] {0, 2, 4}, flat.getContext(2));
+    Assertions.assertArrayEquals(contexts, flat.toArrays());
+    Assertions.assertNull(FlatContexts.of(contexts, null).getValues());
+  }
+
+  @Test
+  void testBuilder() {
+    FlatContexts.Builder builder = new FlatContexts.Builder(0);
+    int[][] contexts = new int[100][];
+    for (int ci = 0; ci < contexts.length; ci++) {
+      contexts[ci] = new int[ci % 7];
+      for (int i = 0; i < contexts[ci].length; i++) {
+        contexts[ci][i] = ci + i;
+      }
+      builder.add(contexts[ci]);
+    }
+
+    FlatContexts flat = builder.build();
+    Assertions.assertEquals(contexts.length, flat.size());
+    Assertions.assertArrayEquals(contexts, flat.toArrays());
+    Assertions.assertNull(flat.getValues());
+  }
+
+  @Test
+  void testInvalidArrays() {
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> new FlatContexts(new int[] {0, 1}, new int[] {1, 2}, null));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> new FlatContexts(new int[] {0, 2}, new int[] {1, 2}, new float[1]));
+  }
+}
@@ -28,10 +28,9 @@ import opennlp.tools.util.TrainingParameters;
 
 public class OnePassDataIndexerTest {
 
-  @Test
-  void testIndex() throws IOException {
+  private static ObjectStream<Event> createEventStream() {
     // He belongs to <START:org> Apache Software Foundation <END> .
-    ObjectStream<Event> eventStream = new SimpleEventStreamBuilder()
+    return new SimpleEventStreamBuilder()
         .add("other/w=he n1w=belongs n2w=to po=other pow=other,He powf=other,ic ppo=other")
         .add("other/w=belongs p1w=he n1w=to n2w=apache po=other pow=other,belongs powf=other,lc ppo=other")
         .add("other/w=to p1w=belongs p2w=he n1w=apache n2w=software po=other pow=other,to" +
@@ -45,14 +44,18 @@ public class OnePassDataIndexerTest {
         .add("other/w=. p1w=foundation p2w=software po=org-cont pow=org-cont,. powf=org-cont,other" +
             " ppo=org-cont")
         .build();
+  }
 
+  @Test
+  void testIndex() throws IOException {
     DataIndexer<TrainingParameters> indexer = new OnePassDataIndexer();
     indexer.init(new TrainingParameters(Collections.emptyMap()), null);
-    indexer.index(eventStream);
+    indexer.index(createEventStream());
     Assertions.assertEquals(3, indexer.getContexts().length);
     Assertions.assertArrayEquals(new int[] {0}, indexer.getContexts()[0]);
     Assertions.assertArrayEquals(new int[] {0}, indexer.getContexts()[1]);
     Assertions.assertArrayEquals(new int[] {0}, indexer.getContexts()[2]);
+    Assertions.assertSame(indexer.getContexts(), indexer.getContexts());
     Assertions.assertNull(indexer.getValues());
     Assertions.assertEquals(5, indexer.getNumEvents());
     Assertions.assertArrayEquals(new int[] {0, 1, 2}, indexer.getOutcomeList());
@@ -60,5 +63,38 @@ public class OnePassDataIndexerTest {
     Assertions.assertArrayEquals(new String[] {"ppo=other"}, indexer.getPredLabels());
     Assertions.assertArrayEquals(new String[] {"other", "org-start", "org-cont"}, indexer.getOutcomeLabels());
     Assertions.assertArrayEquals(new int[] {5}, indexer.getPredCounts());
+    Assertions.assertNull(indexer.getFeatureHasher());
+    Assertions.assertNull(indexer.getPredicateBuckets());
+  }
+
+  @Test
+  void testIndexHashed() throws IOException {
+    TrainingParameters params = new TrainingParameters();
+    params.put(FeatureHasher.HASH_SIZE_PARAM, 1 << 16);
+    DataIndexer<TrainingParameters> indexer = new OnePassDataIndexer();
+    indexer.init(params, null);
+    indexer.index(createEventStream());
+
+    FeatureHasher hasher = indexer.getFeatureHasher();
+    Assertions.assertEquals(new FeatureHasher(1 << 16, FeatureHasher.HASH_SEED_DEFAULT), hasher);
+    Assertions.assertArrayEquals(new int[] {hasher.bucket("ppo=other")}, indexer.getPredicateBuckets());
+    Assertions.assertArrayEquals(new int[] {5}, indexer.getPredCounts());
+    Assertions.assertEquals(3, indexer.getContexts().length);
+    Assertions.assertArrayEquals(new int[] {0}, indexer.getContexts()[0]);
+    Assertions.assertArrayEquals(new int[] {3, 1, 1}, indexer.getNumTimesEventsSeen());
+  }
+
+  @Test
+  void testIndexHashedCollisions() throws IOException {
+    TrainingParameters params = new TrainingParameters();
+    params.put(FeatureHasher.HASH_SIZE_PARAM, 1);
+    DataIndexer<TrainingParameters> indexer = new OnePassDataIndexer();
+    indexer.init(params, null);
+    indexer.index(createEventStream());
+
+    // all predicates share the single bucket, so none of them is cut off
+    Assertions.assertArrayEquals(new int[] {0}, indexer.getPredicateBuckets());
+    Assertions.assertEquals(1, indexer.getPredLabels().length);
+    Assertions.assertEquals(7, indexer.getNumEvents());
   }
 }
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.model;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import opennlp.tools.util.ObjectStreamUtils;
+import opennlp.tools.util.Parameters;
+import opennlp.tools.util.TrainingParameters;
+
+public class ParallelOnePassDataIndexerTest {
+
+  private static List<Event> createEvents() {
+    Random random = new Random(42);
+    List<Event> events = new ArrayList<>();
+    for (int i = 0; i < 5000; i++) {
+      String[] context = new String[random.nextInt(6)];
+      for (int j = 0; j < context.length; j++) {
+        context[j] = "f" + random.nextInt(200);
+      }
+      events.add(new Event("o" + random.nextInt(5), context));
+    }
+    return events;
+  }
+
+  private static DataIndexer<TrainingParameters> index(DataIndexer<TrainingParameters> indexer,
+      TrainingParameters parameters, List<Event> events) throws IOException {
+    indexer.init(parameters, null);
+    indexer.index(ObjectStreamUtils.createObjectStream(events));
+    return indexer;
+  }
+
+  private static void assertIndexEquals(DataIndexer<TrainingParameters> expected,
+      DataIndexer<TrainingParameters> actual) {
+    Assertions.assertArrayEquals(expected.getContexts(), actual.getContexts());
+    Assertions.assertArrayEquals(expected.getOutcomeList(), actual.getOutcomeList());
+    Assertions.assertArrayEquals(expected.getNumTimesEventsSeen(), actual.getNumTimesEventsSeen());
+    Assertions.assertArrayEquals(expected.getPredLabels(), actual.getPredLabels());
+    Assertions.assertArrayEquals(expected.getPredCounts(), actual.getPredCounts());
+    Assertions.assertArrayEquals(expected.getOutcomeLabels(), actual.getOutcomeLabels());
+    Assertions.assertArrayEquals(expected.getPredicateBuckets(), actual.getPredicateBuckets());
+    Assertions.assertEquals(expected.getNumEvents(), actual.getNumEvents());
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 2, 4})
+  void testIndexEqualsOnePass(int threads) throws IOException {
+    List<Event> events = createEvents();
+    for (boolean sort : new boolean[] {true, false}) {
+      TrainingParameters parameters = new TrainingParameters();
+      parameters.put(Parameters.CUTOFF_PARAM, 20);
+      parameters.put(AbstractDataIndexer.SORT_PARAM, sort);
+      DataIndexer<TrainingParameters> expected = index(new OnePassDataIndexer(), parameters, events);
+
+      parameters.put(Parameters.THREADS_PARAM, threads);
+      assertIndexEquals(expected, index(new ParallelOnePassDataIndexer(), parameters, events));
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 3})
+  void testIndexHashedEqualsOnePass(int threads) throws IOException {
+    List<Event> events = createEvents();
+    TrainingParameters parameters = new TrainingParameters();
+    parameters.put(Parameters.CUTOFF_PARAM, 20);
+    parameters.put(FeatureHasher.HASH_SIZE_PARAM, 64);
+    DataIndexer<TrainingParameters> expected = index(new OnePassDataIndexer(), parameters, events);
+
+    parameters.put(Parameters.THREADS_PARAM, threads);
+    DataIndexer<TrainingParameters> actual = index(new ParallelOnePassDataIndexer(), parameters, events);
+    assertIndexEquals(expected, actual);
+    Assertions.assertEquals(expected.getFeatureHasher(), actual.getFeatureHasher());
+  }
+
+  @Test
+  void testIndex() throws IOException {
+    TrainingParameters parameters = new TrainingParameters();
+    parameters.put(Parameters.CUTOFF_PARAM, 2);
+    parameters.put(Parameters.THREADS_PARAM, 2);
+    DataIndexer<TrainingParameters> indexer = new ParallelOnePassDataIndexer();
+    indexer.init(parameters, null);
+    indexer.index(new SimpleEventStreamBuilder()
+        .add("other/w=he ppo=other")
+        .add("org-start/w=apache ppo=other")
+        .add("other/w=he ppo=other")
+        .add("org-cont/w=software po=org-start")
+        .build());
+
+    Assertions.assertArrayEquals(new String[] {"other", "org-start", "org-cont"}, indexer.getOutcomeLabels());
+    Assertions.assertArrayEquals(new String[] {"ppo=other", "w=he"}, indexer.getPredLabels());
+    Assertions.assertArrayEquals(new int[] {3, 2}, indexer.getPredCounts());
+    Assertions.assertArrayEquals(new int[][] {{1, 0}, {0}}, indexer.getContexts());
+    Assertions.assertArrayEquals(new int[] {0, 1}, indexer.getOutcomeList());
+    Assertions.assertArrayEquals(new int[] {2, 1}, indexer.getNumTimesEventsSeen());
+    Assertions.assertEquals(3, indexer.getNumEvents());
+  }
+}
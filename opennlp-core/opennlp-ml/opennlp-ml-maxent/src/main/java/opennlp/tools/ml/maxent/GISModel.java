@@ -22,8 +22,13 @@ import java.util.Objects;
 import opennlp.tools.ml.AlgorithmType;
 import opennlp.tools.ml.ArrayMath;
 import opennlp.tools.ml.model.AbstractModel;
+import opennlp.tools.ml.model.CompiledParameters;
 import opennlp.tools.ml.model.Context;
 import opennlp.tools.ml.model.EvalParameters;
+import opennlp.tools.ml.model.EvalScratch;
+import opennlp.tools.ml.model.FlatContexts;
+import opennlp.tools.ml.model.IndexedMaxentModel;
+import opennlp.tools.ml.model.MaxentModel;
 import opennlp.tools.ml.model.Prior;
 import opennlp.tools.ml.model.UniformPrior;
 
@@ -33,7 +38,7 @@ import opennlp.tools.ml.model.UniformPrior;
  *
  * @see AbstractModel
  */
-public final class GISModel extends AbstractModel {
+public final class GISModel extends AbstractModel implements IndexedMaxentModel {
 
   /**
    * Initializes a {@link GISModel} with the specified parameters, outcome names, and
@@ -63,6 +68,20 @@ public final class GISModel extends AbstractModel {
     modelType = AlgorithmType.MAXENT;
   }
 
+  /**
+   * Initializes a {@link GISModel} with already compiled parameters and a uniform prior,
+   * e.g. {@link opennlp.tools.ml.model.MappedParameters memory-mapped} ones.
+   *
+   * @param params The {@link CompiledParameters} of the model.
+   * @param outcomeNames The names of the outcomes this model predicts.
+   */
+  public GISModel(CompiledParameters params, String[] outcomeNames) {
+    super(params, outcomeNames);
+    this.prior = new UniformPrior();
+    prior.setLabels(outcomeNames, null);
+    modelType = AlgorithmType.MAXENT;
+  }
+
   /**
    * Evaluates a context and return an array of the likelihood
    * of each outcome given that context.
@@ -77,7 +96,7 @@ public final class GISModel extends AbstractModel {
    */
   @Override
   public double[] eval(String[] context) {
-    return (eval(context, new double[evalParams.getNumOutcomes()]));
+    return (eval(context, new double[compiledParams.getNumOutcomes()]));
   }
 
   /**
@@ -85,7 +104,7 @@ public final class GISModel extends AbstractModel {
    */
   @Override
   public double[] eval(String[] context, float[] values) {
-    return (eval(context, values, new double[evalParams.getNumOutcomes()]));
+    return (eval(context, values, new double[compiledParams.getNumOutcomes()]));
   }
 
   /**
@@ -111,12 +130,103 @@ public final class GISModel extends AbstractModel {
    *         method {@link #getOutcome(int)}.
    */
   public double[] eval(String[] context, float[] values, double[] outsums) {
-    Context[] scontexts = new Context[context.length];
+    int[] predIndices = new int[context.length];
+    resolvePredicates(context, predIndices);
+    prior.logPrior(outsums, predIndices, values);
+    compiledParams.sumFeatures(predIndices, values, outsums);
+    return normalize(outsums, 0, compiledParams.getNumOutcomes());
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Predicate lookup, prior, feature sums and normalization all work on the
+   * buffers of {@code scratch}, this method does not allocate.
+   */
+  @Override
+  public double[] eval(String[] context, EvalScratch scratch) {
+    int numOutcomes = compiledParams.getNumOutcomes();
+    double[] outsums = scratch.probs(numOutcomes);
+    int[] predIndices = scratch.indices(context.length);
+    resolvePredicates(context, predIndices);
+    prior.logPrior(outsums, predIndices, context.length, null);
+    compiledParams.sumFeatures(predIndices, context.length, null, outsums, 0);
+    return normalize(outsums, 0, numOutcomes);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public double[][] evalBatch(String[][] contexts, double[][] probs) {
+    MaxentModel.checkBatchSize(contexts, probs);
+
+    EvalScratch scratch = new EvalScratch();
+    double[] logPrior = scratch.probs(compiledParams.getNumOutcomes());
+    for (int i = 0; i < contexts.length; i++) {
+      evalInto(contexts[i], scratch, logPrior, probs[i], 0);
+    }
+    return probs;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public double[] evalBatch(String[][] contexts, double[] probs) {
+    int numOutcomes = compiledParams.getNumOutcomes();
+    MaxentModel.checkBatchSize(contexts, probs, numOutcomes);
+
+    EvalScratch scratch = new EvalScratch();
+    double[] logPrior = scratch.probs(numOutcomes);
+    for (int i = 0, offset = 0; i < contexts.length; i++, offset += numOutcomes) {
+      evalInto(contexts[i], scratch, logPrior, probs, offset);
+    }
+    return probs;
+  }
+
+  /**
+   * Evaluates one context of a batch into {@code probs} from {@code offset} on. The
+   * predicate indices and the prior are computed in the buffers shared by the batch.
+   */
+  private void evalInto(String[] context, EvalScratch scratch, double[] logPrior,
+                        double[] probs, int offset) {
+    int numOutcomes = compiledParams.getNumOutcomes();
+    int length = context.length;
+    int[] predIndices = scratch.indices(length);
+    resolvePredicates(context, predIndices);
+    prior.logPrior(logPrior, predIndices, length, null);
+    System.arraycopy(logPrior, 0, probs, offset, numOutcomes);
+    compiledParams.sumFeatures(predIndices, length, null, probs, offset);
+    normalize(probs, offset, numOutcomes);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public CompiledParameters getParameters() {
+    return compiledParams;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public double[] evalIndices(int[] predIndices, int length, double[] probs) {
+    prior.logPrior(probs, predIndices, length, null);
+    compiledParams.sumFeatures(predIndices, length, null, probs, 0);
+    return normalize(probs, 0, compiledParams.getNumOutcomes());
+  }
+
+  /**
+   * Resolves the predicates of a {@code context} into the first {@code context.length}
+   * elements of {@code predIndices}, unknown predicates are mapped to {@code -1}.
+   */
+  private void resolvePredicates(String[] context, int[] predIndices) {
     for (int i = 0; i < context.length; i++) {
-      scontexts[i] = pmap.get(context[i]);
+      predIndices[i] = compiledParams.getPredicateIndex(context[i]);
     }
-    prior.logPrior(outsums, scontexts, values);
-    return GISModel.eval(scontexts, values, outsums, evalParams);
   }
 
 
@@ -162,9 +272,15 @@ public final class GISModel extends AbstractModel {
   static double[] eval(int[] context, float[] values, double[] prior,
       EvalParameters model) {
 
+    if (model instanceof CompiledParameters compiled) {
+      compiled.sumFeatures(context, values, prior);
+      return normalize(prior, 0, model.getNumOutcomes());
+    }
+
+    Context[] params = model.getParams();
     Context[] scontexts = new Context[context.length];
     for (int i = 0; i < context.length; i++) {
-      scontexts[i] = model.getParams()[context[i]];
+      scontexts[i] = params[context[i]];
     }
 
     return GISModel.eval(scontexts, values, prior, model);
@@ -192,17 +308,42 @@ public final class GISModel extends AbstractModel {
                        EvalParameters model) {
 
     ArrayMath.sumFeatures(context, values, prior);
+    return normalize(prior, 0, model.getNumOutcomes());
+  }
 
-    double normal = 0.0;
-    for (int oid = 0; oid < model.getNumOutcomes(); oid++) {
-      prior[oid] = StrictMath.exp(prior[oid]);
-      normal += prior[oid];
+  /**
+   * Evaluates the context stored from {@code start} to {@code end} in the flat
+   * {@code predicates} and {@code values} arrays of {@link FlatContexts}.
+   *
+   * @param predicates The predicate indexes of all contexts.
+   * @param values The values of all predicates, or {@code null} if all values are {@code 1}.
+   * @param start The index of the first predicate of the context.
+   * @param end The index after the last predicate of the context.
+   * @param prior The prior distribution for the specified context.
+   * @param model The set of parameters used in this computation.
+   * @return The normalized probabilities for the outcomes given the context.
+   */
+  static double[] eval(int[] predicates, float[] values, int start, int end, double[] prior,
+                       EvalParameters model) {
+    if (model instanceof CompiledParameters compiled) {
+      compiled.sumFeatures(predicates, values, start, end, prior);
+    } else {
+      ArrayMath.sumFeatures(model.getParams(), predicates, values, start, end, prior);
     }
+    return normalize(prior, 0, model.getNumOutcomes());
+  }
 
-    for (int oid = 0; oid < model.getNumOutcomes(); oid++) {
-      prior[oid] /= normal;
-    }
-    return prior;
+  /**
+   * Turns the summed log-scores of each outcome into a probability distribution.
+   *
+   * @param scores The per-outcome scores, overwritten with the probabilities.
+   * @param offset The position of the score of the first outcome in {@code scores}.
+   * @param numOutcomes The number of outcomes.
+   * @return The normalized {@code scores}.
+   */
+  private static double[] normalize(double[] scores, int offset, int numOutcomes) {
+    ArrayMath.normalizeExps(scores, offset, numOutcomes);
+    return scores;
   }
 
   @Override
@@ -218,7 +359,8 @@ public final class GISModel extends AbstractModel {
 
     if (obj instanceof GISModel model) {
 
-      return pmap.equals(model.pmap) && Objects.deepEquals(outcomeNames, model.outcomeNames)
+      return compiledParams.equals(model.compiledParams)
+              && Objects.deepEquals(outcomeNames, model.outcomeNames)
               && Objects.equals(prior, model.prior);
     }
 
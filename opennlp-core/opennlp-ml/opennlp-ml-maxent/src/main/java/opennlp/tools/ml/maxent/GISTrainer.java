@@ -20,22 +20,21 @@ package opennlp.tools.ml.maxent;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.Callable;
-import java.util.concurrent.CompletionService;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorCompletionService;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import opennlp.tools.commons.Trainer;
 import opennlp.tools.ml.AbstractEventTrainer;
+import opennlp.tools.ml.AlgorithmType;
 import opennlp.tools.ml.ArrayMath;
+import opennlp.tools.ml.Checkpointer;
+import opennlp.tools.ml.ComputeEngine;
+import opennlp.tools.ml.TrainingCheckpoint;
 import opennlp.tools.ml.model.DataIndexer;
 import opennlp.tools.ml.model.EvalParameters;
 import opennlp.tools.ml.model.Event;
+import opennlp.tools.ml.model.FlatContexts;
 import opennlp.tools.ml.model.MaxentModel;
 import opennlp.tools.ml.model.MutableContext;
 import opennlp.tools.ml.model.OnePassDataIndexer;
@@ -70,11 +69,20 @@ import opennlp.tools.util.TrainingParameters;
  * A {@link Prior} can be used to train models which converge to the distribution which minimizes the
  * relative entropy between the distribution specified by the empirical constraints of the training
  * data and the specified prior. By default, the uniform distribution is used as the prior.
+ * <p>
+ * Long training runs can write checkpoints and be resumed from them, see {@link Checkpointer}.
  */
 public class GISTrainer extends AbstractEventTrainer<TrainingParameters> {
 
   private static final Logger logger = LoggerFactory.getLogger(GISTrainer.class);
 
+  // The minimum number of predicates updated by a single task
+  private static final int MIN_PREDICATES_PER_TASK = 1024;
+
+  // The names of the parameters and the log-likelihood in a training checkpoint
+  private static final String CHECKPOINT_PARAMS = "params";
+  private static final String CHECKPOINT_LOG_LIKELIHOOD = "loglikelihood";
+
   public static final String LOG_LIKELIHOOD_THRESHOLD_PARAM = "LLThreshold";
   public static final double LOG_LIKELIHOOD_THRESHOLD_DEFAULT = 0.0001;
   private double llThreshold = 0.0001;
@@ -105,13 +113,21 @@ public class GISTrainer extends AbstractEventTrainer<TrainingParameters> {
    */
   private int numOutcomes;
   /**
-   * Records the array of predicates seen in each event.
+   * Records the predicates seen in each event, in the flat layout.
+   */
+  private FlatContexts flatContexts;
+  /**
+   * The predicates of the event i are stored from contextOffsets[i] to contextOffsets[i + 1].
    */
-  private int[][] contexts;
+  private int[] contextOffsets;
   /**
-   * The value associated with each context. If null then context values are assumes to be 1.
+   * The predicates seen in all events.
    */
-  private float[][] values;
+  private int[] contexts;
+  /**
+   * The value associated with each predicate in contexts. If null then context values are assumes to be 1.
+   */
+  private float[] values;
   /**
    * List of outcomes for each event i, in context[i].
    */
@@ -220,7 +236,16 @@ public class GISTrainer extends AbstractEventTrainer<TrainingParameters> {
     int iterations = getIterations();
 
     int threads = trainingParameters.getIntParameter(Parameters.THREADS_PARAM, 1);
-    return trainModel(iterations, indexer, threads);
+    GISModel model = trainModel(iterations, indexer, threads);
+    if (indexer.getFeatureHasher() != null) {
+      return HashedMaxentModel.fromTrainedModel(model, indexer);
+    }
+    return model;
+  }
+
+  @Override
+  protected boolean isFeatureHashingSupported() {
+    return true;
   }
 
   /**
@@ -352,28 +377,31 @@ public class GISTrainer extends AbstractEventTrainer<TrainingParameters> {
 
     /* Incorporate all of the needed info *****/
     logger.info("Incorporating indexed data for training...");
-    contexts = di.getContexts();
-    values = di.getValues();
+    flatContexts = di.getFlatContexts();
+    contextOffsets = flatContexts.getOffsets();
+    contexts = flatContexts.getPredicates();
+    values = flatContexts.getValues();
     /*
     The number of times a predicate occurred in the training data.
    */
     int[] predicateCounts = di.getPredCounts();
     numTimesEventsSeen = di.getNumTimesEventsSeen();
-    numUniqueEvents = contexts.length;
+    numUniqueEvents = flatContexts.size();
     this.prior = modelPrior;
-    //printTable(contexts);
 
     // determine the correction constant and its inverse
     double correctionConstant = 0;
-    for (int ci = 0; ci < contexts.length; ci++) {
-      if (values == null || values[ci] == null) {
-        if (contexts[ci].length > correctionConstant) {
-          correctionConstant = contexts[ci].length;
+    for (int ci = 0; ci < numUniqueEvents; ci++) {
+      int start = contextOffsets[ci];
+      int end = contextOffsets[ci + 1];
+      if (values == null) {
+        if (end - start > correctionConstant) {
+          correctionConstant = end - start;
         }
       } else {
-        float cl = values[ci][0];
-        for (int vi = 1; vi < values[ci].length; vi++) {
-          cl += values[ci][vi];
+        float cl = values[start];
+        for (int vi = start + 1; vi < end; vi++) {
+          cl += values[vi];
         }
 
         if (cl > correctionConstant) {
@@ -398,11 +426,11 @@ public class GISTrainer extends AbstractEventTrainer<TrainingParameters> {
     // set up feature arrays
     float[][] predCount = new float[numPreds][numOutcomes];
     for (int ti = 0; ti < numUniqueEvents; ti++) {
-      for (int j = 0; j < contexts[ti].length; j++) {
-        if (values != null && values[ti] != null) {
-          predCount[contexts[ti][j]][outcomeList[ti]] += numTimesEventsSeen[ti] * values[ti][j];
+      for (int j = contextOffsets[ti]; j < contextOffsets[ti + 1]; j++) {
+        if (values != null) {
+          predCount[contexts[j]][outcomeList[ti]] += numTimesEventsSeen[ti] * values[j];
         } else {
-          predCount[contexts[ti][j]][outcomeList[ti]] += numTimesEventsSeen[ti];
+          predCount[contexts[j]][outcomeList[ti]] += numTimesEventsSeen[ti];
         }
       }
     }
@@ -482,7 +510,10 @@ public class GISTrainer extends AbstractEventTrainer<TrainingParameters> {
       logger.info("Computing model parameters in {} threads...", threads);
     }
 
-    findParameters(iterations, correctionConstant);
+    try (Checkpointer checkpointer = Checkpointer.create(trainingParameters,
+        AlgorithmType.MAXENT.getAlgorithmType(), di)) {
+      findParameters(iterations, correctionConstant, checkpointer);
+    }
 
     // Create and return the model
     return new GISModel(params, predLabels, outcomeLabels);
@@ -490,28 +521,43 @@ public class GISTrainer extends AbstractEventTrainer<TrainingParameters> {
   }
 
   /* Estimate and return the model parameters. */
-  private void findParameters(int iterations, double correctionConstant) {
-    int threads = modelExpects.length;
-
-    ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
-      Thread thread = new Thread(runnable);
-      thread.setName("opennlp.tools.ml.maxent.ModelExpectationComputeTask.nextIteration()");
-      thread.setDaemon(true);
-      return thread;
-    });
+  private void findParameters(int iterations, double correctionConstant, Checkpointer checkpointer) {
+    try (ComputeEngine engine = new ComputeEngine(modelExpects.length)) {
+      findParameters(iterations, correctionConstant, engine, checkpointer);
+    }
+
+    // kill a bunch of these big objects now that we don't need them
+    observedExpects = null;
+    modelExpects = null;
+    numTimesEventsSeen = null;
+    flatContexts = null;
+    contextOffsets = null;
+    contexts = null;
+    values = null;
+  }
 
-    CompletionService<ModelExpectationComputeTask> completionService =
-        new ExecutorCompletionService<>(executor);
+  private void findParameters(int iterations, double correctionConstant, ComputeEngine engine,
+                              Checkpointer checkpointer) {
+    // the events are split once by their number of features, all iterations use the same partitions
+    int[] partitionBounds = engine.partition(flatContexts);
     double prevLL = 0.0;
     double currLL;
 
+    int firstIteration = 1;
+    TrainingCheckpoint checkpoint = checkpointer.resume();
+    if (checkpoint != null) {
+      setParameters(checkpoint.getDoubles(CHECKPOINT_PARAMS));
+      prevLL = checkpoint.getDouble(CHECKPOINT_LOG_LIKELIHOOD);
+      firstIteration = checkpoint.getIteration() + 1;
+    }
+
     //Get the Training Progress Monitor and the StopCriteria.
     TrainingProgressMonitor progressMonitor = getTrainingProgressMonitor(trainingConfiguration);
     StopCriteria<Double> stopCriteria = getStopCriteria(trainingConfiguration);
 
     logger.info("Performing {} iterations.", iterations);
-    for (int i = 1; i <= iterations; i++) {
-      currLL = nextIteration(correctionConstant, completionService, i);
+    for (int i = firstIteration; i <= iterations; i++) {
+      currLL = nextIteration(correctionConstant, engine, partitionBounds, i);
       if (i > 1) {
         if (prevLL > currLL) {
           logger.warn("Model Diverging: loglikelihood decreased");
@@ -523,6 +569,12 @@ public class GISTrainer extends AbstractEventTrainer<TrainingParameters> {
         }
       }
       prevLL = currLL;
+
+      if (checkpointer.isDue(i)) {
+        checkpointer.write(checkpointer.newCheckpoint(i)
+            .put(CHECKPOINT_PARAMS, getParameters())
+            .put(CHECKPOINT_LOG_LIKELIHOOD, prevLL));
+      }
     }
 
     //At this point, all iterations have finished successfully.
@@ -530,13 +582,41 @@ public class GISTrainer extends AbstractEventTrainer<TrainingParameters> {
       progressMonitor.finishedTraining(iterations, null);
     }
     progressMonitor.display(true);
+  }
 
-    // kill a bunch of these big objects now that we don't need them
-    observedExpects = null;
-    modelExpects = null;
-    numTimesEventsSeen = null;
-    contexts = null;
-    executor.shutdown();
+  /* Copies the parameters of all predicates into one array, in the order of the predicates. */
+  private double[] getParameters() {
+    int length = 0;
+    for (MutableContext param : params) {
+      length += param.getParameters().length;
+    }
+
+    double[] parameters = new double[length];
+    int offset = 0;
+    for (MutableContext param : params) {
+      double[] predParams = param.getParameters();
+      System.arraycopy(predParams, 0, parameters, offset, predParams.length);
+      offset += predParams.length;
+    }
+    return parameters;
+  }
+
+  /* Restores the parameters of all predicates from an array created by getParameters(). */
+  private void setParameters(double[] parameters) {
+    int offset = 0;
+    for (MutableContext param : params) {
+      int numActiveOutcomes = param.getParameters().length;
+      if (offset + numActiveOutcomes > parameters.length) {
+        throw new IllegalStateException("The checkpoint parameters do not match the model");
+      }
+      for (int aoi = 0; aoi < numActiveOutcomes; aoi++) {
+        param.setParameter(aoi, parameters[offset + aoi]);
+      }
+      offset += numActiveOutcomes;
+    }
+    if (offset != parameters.length) {
+      throw new IllegalStateException("The checkpoint parameters do not match the model");
+    }
   }
 
   //modeled on implementation in  Zhang Le's maxent kit
@@ -563,97 +643,70 @@ public class GISTrainer extends AbstractEventTrainer<TrainingParameters> {
   }
 
   /* Compute one iteration of GIS and return log-likelihood.*/
-  private double nextIteration(double correctionConstant,
-                               CompletionService<ModelExpectationComputeTask> completionService,
-                               int iteration) {
+  private double nextIteration(double correctionConstant, ComputeEngine engine,
+                               int[] partitionBounds, int iteration) {
     // compute contribution of p(a|b_i) for each feature and the new
-    // correction parameter
+    // correction parameter, each partition of the events is computed
+    // by its own task into its own model expectations
     double loglikelihood = 0.0;
     int numEvents = 0;
     int numCorrect = 0;
 
-    // Each thread gets equal number of tasks, if the number of tasks
-    // is not divisible by the number of threads, the first "leftOver"
-    // threads have one extra task.
-    int numberOfThreads = modelExpects.length;
-    int taskSize = numUniqueEvents / numberOfThreads;
-    int leftOver = numUniqueEvents % numberOfThreads;
-
-    // submit all tasks to the completion service.
-    for (int i = 0; i < numberOfThreads; i++) {
-      if (i < leftOver) {
-        completionService.submit(new ModelExpectationComputeTask(i, i * taskSize + i,
-            taskSize + 1));
-      } else {
-        completionService.submit(new ModelExpectationComputeTask(i,
-            i * taskSize + leftOver, taskSize));
-      }
-    }
-
-    for (int i = 0; i < numberOfThreads; i++) {
-      ModelExpectationComputeTask finishedTask;
-      try {
-        finishedTask = completionService.take().get();
-      } catch (InterruptedException e) {
-        // TODO: We got interrupted, but that is currently not really supported!
-        // For now we fail hard. We hopefully soon
-        // handle this case properly!
-        throw new IllegalStateException("Interruption is not supported!", e);
-      } catch (ExecutionException e) {
-        // Only runtime exception can be thrown during training, if one was thrown
-        // it should be re-thrown. That could for example be a NullPointerException
-        // which is caused through a bug in our implementation.
-        throw new RuntimeException("Exception during training: " + e.getMessage(), e);
-      }
+    ModelExpectationComputeTask[] tasks = new ModelExpectationComputeTask[modelExpects.length];
+    engine.forEachPartition(partitionBounds, (partition, start, end) ->
+        tasks[partition] = new ModelExpectationComputeTask(partition, start, end - start).compute());
 
-      // When they are done, retrieve the results ...
+    for (ModelExpectationComputeTask finishedTask : tasks) {
       numEvents += finishedTask.getNumEvents();
       numCorrect += finishedTask.getNumCorrect();
       loglikelihood += finishedTask.getLoglikelihood();
     }
 
-    // merge the results of the two computations
-    for (int pi = 0; pi < numPreds; pi++) {
-      int[] activeOutcomes = params[pi].getOutcomes();
-
-      for (int aoi = 0; aoi < activeOutcomes.length; aoi++) {
-        for (int i = 1; i < modelExpects.length; i++) {
-          modelExpects[0][pi].updateParameter(aoi, modelExpects[i][pi].getParameters()[aoi]);
-        }
+    // merge the model expectations and compute the new parameter values,
+    // the predicates are independent of each other and are updated in parallel
+    engine.forRange(numPreds, MIN_PREDICATES_PER_TASK, (start, end) -> {
+      for (int pi = start; pi < end; pi++) {
+        updateParameters(pi, correctionConstant);
       }
-    }
+    });
 
-    // compute the new parameter values
-    for (int pi = 0; pi < numPreds; pi++) {
-      double[] observed = observedExpects[pi].getParameters();
-      double[] model = modelExpects[0][pi].getParameters();
-      int[] activeOutcomes = params[pi].getOutcomes();
-      for (int aoi = 0; aoi < activeOutcomes.length; aoi++) {
-        if (useGaussianSmoothing) {
-          params[pi].updateParameter(aoi, gaussianUpdate(pi, aoi, correctionConstant));
-        } else {
-          if (model[aoi] == 0) {
-            logger.warn("Model expects == 0 for {} {}", predLabels[pi], outcomeLabels[aoi]);
-          }
-          //params[pi].updateParameter(aoi,(StrictMath.log(observed[aoi]) - StrictMath.log(model[aoi])));
-          params[pi].updateParameter(aoi, ((StrictMath.log(observed[aoi]) - StrictMath.log(model[aoi]))
-              / correctionConstant));
-        }
+    getTrainingProgressMonitor(trainingConfiguration).
+        finishedIteration(iteration, numCorrect, numEvents, TrainingMeasure.LOG_LIKELIHOOD, loglikelihood);
 
-        for (MutableContext[] modelExpect : modelExpects) {
-          modelExpect[pi].setParameter(aoi, 0.0); // re-initialize to 0.0's
-        }
+    return loglikelihood;
+  }
+
+  /* Merge the model expectations of the predicate and update its parameters. */
+  private void updateParameters(int pi, double correctionConstant) {
+    double[] observed = observedExpects[pi].getParameters();
+    double[] model = modelExpects[0][pi].getParameters();
+    int[] activeOutcomes = params[pi].getOutcomes();
 
+    for (int aoi = 0; aoi < activeOutcomes.length; aoi++) {
+      for (int i = 1; i < modelExpects.length; i++) {
+        modelExpects[0][pi].updateParameter(aoi, modelExpects[i][pi].getParameters()[aoi]);
       }
     }
 
-    getTrainingProgressMonitor(trainingConfiguration).
-        finishedIteration(iteration, numCorrect, numEvents, TrainingMeasure.LOG_LIKELIHOOD, loglikelihood);
+    for (int aoi = 0; aoi < activeOutcomes.length; aoi++) {
+      if (useGaussianSmoothing) {
+        params[pi].updateParameter(aoi, gaussianUpdate(pi, aoi, correctionConstant));
+      } else {
+        if (model[aoi] == 0) {
+          logger.warn("Model expects == 0 for {} {}", predLabels[pi], outcomeLabels[aoi]);
+        }
+        //params[pi].updateParameter(aoi,(StrictMath.log(observed[aoi]) - StrictMath.log(model[aoi])));
+        params[pi].updateParameter(aoi, ((StrictMath.log(observed[aoi]) - StrictMath.log(model[aoi]))
+            / correctionConstant));
+      }
 
-    return loglikelihood;
+      for (MutableContext[] modelExpect : modelExpects) {
+        modelExpect[pi].setParameter(aoi, 0.0); // re-initialize to 0.0's
+      }
+    }
   }
 
-  private class ModelExpectationComputeTask implements Callable<ModelExpectationComputeTask> {
+  private class ModelExpectationComputeTask {
 
     private final int startIndex;
     private final int length;
@@ -669,7 +722,7 @@ public class GISTrainer extends AbstractEventTrainer<TrainingParameters> {
       this.threadIndex = threadIndex;
     }
 
-    public ModelExpectationComputeTask call() {
+    ModelExpectationComputeTask compute() {
 
       final double[] modelDistribution = new double[numOutcomes];
 
@@ -678,23 +731,21 @@ public class GISTrainer extends AbstractEventTrainer<TrainingParameters> {
 
         // TODO: check interruption status here, if interrupted set a poisoned flag and return
 
-        if (values != null) {
-          prior.logPrior(modelDistribution, contexts[ei], values[ei]);
-          GISModel.eval(contexts[ei], values[ei], modelDistribution, evalParams);
-        } else {
-          prior.logPrior(modelDistribution, contexts[ei]);
-          GISModel.eval(contexts[ei], modelDistribution, evalParams);
-        }
-        for (int j = 0; j < contexts[ei].length; j++) {
-          int pi = contexts[ei][j];
+        int start = contextOffsets[ei];
+        int end = contextOffsets[ei + 1];
+        prior.logPrior(modelDistribution, contexts, values, start, end);
+        GISModel.eval(contexts, values, start, end, modelDistribution, evalParams);
+
+        for (int j = start; j < end; j++) {
+          int pi = contexts[j];
           int[] activeOutcomes = modelExpects[threadIndex][pi].getOutcomes();
           for (int aoi = 0; aoi < activeOutcomes.length; aoi++) {
             int oi = activeOutcomes[aoi];
 
             // numTimesEventsSeen must also be thread safe
-            if (values != null && values[ei] != null) {
+            if (values != null) {
               modelExpects[threadIndex][pi].updateParameter(aoi, modelDistribution[oi]
-                  * values[ei][j] * numTimesEventsSeen[ei]);
+                  * values[j] * numTimesEventsSeen[ei]);
             } else {
               modelExpects[threadIndex][pi].updateParameter(aoi, modelDistribution[oi]
                   * numTimesEventsSeen[ei]);
@@ -716,15 +767,15 @@ public class GISTrainer extends AbstractEventTrainer<TrainingParameters> {
       return this;
     }
 
-    synchronized int getNumEvents() {
+    int getNumEvents() {
       return numEvents;
     }
 
-    synchronized int getNumCorrect() {
+    int getNumCorrect() {
       return numCorrect;
     }
 
-    synchronized double getLoglikelihood() {
+    double getLoglikelihood() {
       return loglikelihood;
     }
   }
@@ -0,0 +1,304 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.maxent;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import opennlp.tools.ml.AlgorithmType;
+import opennlp.tools.ml.ArrayMath;
+import opennlp.tools.ml.model.AbstractModel;
+import opennlp.tools.ml.model.CompiledParameters;
+import opennlp.tools.ml.model.Context;
+import opennlp.tools.ml.model.DataIndexer;
+import opennlp.tools.ml.model.EvalScratch;
+import opennlp.tools.ml.model.FeatureHasher;
+import opennlp.tools.ml.model.MaxentModel;
+import opennlp.tools.ml.model.UniformPrior;
+
+/**
+ * A maximum entropy model whose predicates are addressed by hash bucket instead of by name.
+ * <p>
+ * The model does not store a predicate string table, only the parameters of each
+ * used bucket and the size and seed of the {@link FeatureHasher}. At evaluation time
+ * the bucket of each context predicate is computed directly from the predicate string.
+ * Predicates which were not seen in training fall into arbitrary buckets and contribute
+ * the parameters of these buckets.
+ * <p>
+ * Only the used buckets are kept, in the compressed layout of {@link CompiledParameters},
+ * so the memory of a model grows with the number of used buckets, not the hash size.
+ * <p>
+ * Unlike a {@link GISModel}, the model has no configurable prior: it always uses a
+ * {@link UniformPrior}, which is not serialized. A uniform prior adds the same value to
+ * the scores of all outcomes and therefore does not change the normalized probabilities.
+ * <p>
+ * Such models are produced by the {@link GISTrainer} and the
+ * {@link opennlp.tools.ml.maxent.quasinewton.QNTrainer} if the
+ * {@link FeatureHasher#HASH_SIZE_PARAM} training parameter is set.
+ *
+ * @see FeatureHasher
+ * @see AbstractModel
+ */
+public final class HashedMaxentModel extends AbstractModel {
+
+  private final FeatureHasher hasher;
+
+  /** The used buckets in ascending order, the position of a bucket is its predicate index. */
+  private final int[] buckets;
+
+  /** Slot table holding {@code index + 1} of a used bucket, {@code 0} marks an empty slot. */
+  private final int[] slots;
+  private final int mask;
+
+  /**
+   * Initializes a {@link HashedMaxentModel} with the specified parameters.
+   * If a bucket occurs more than once, the last occurrence wins.
+   *
+   * @param params The {@link Context parameters} of the used buckets.
+   * @param buckets The bucket of each element of {@code params}.
+   * @param hasher The {@link FeatureHasher} the model was trained with.
+   * @param outcomeNames The names of the outcomes this model predicts.
+   * @throws IllegalArgumentException Thrown if {@code params} and {@code buckets} differ in
+   *                                  length or a bucket is out of range.
+   */
+  public HashedMaxentModel(Context[] params, int[] buckets, FeatureHasher hasher,
+                           String[] outcomeNames) {
+    this(sortByBucket(params, buckets, hasher.getSize()), params, buckets, hasher, outcomeNames);
+  }
+
+  private HashedMaxentModel(int[] order, Context[] params, int[] buckets, FeatureHasher hasher,
+                            String[] outcomeNames) {
+    super(CompiledParameters.compile(select(params, order), outcomeNames.length), outcomeNames);
+    this.hasher = hasher;
+    this.buckets = new int[order.length];
+    for (int i = 0; i < order.length; i++) {
+      this.buckets[i] = buckets[order[i]];
+    }
+
+    int capacity = 2;
+    while (capacity < order.length * 2) {
+      capacity <<= 1;
+    }
+    slots = new int[capacity];
+    mask = capacity - 1;
+    for (int i = 0; i < this.buckets.length; i++) {
+      int slot = this.buckets[i] & mask;
+      while (slots[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      slots[slot] = i + 1;
+    }
+
+    prior = new UniformPrior();
+    prior.setLabels(outcomeNames, null);
+    modelType = AlgorithmType.MAXENT_HASHED;
+  }
+
+  /*
+   * Returns the positions of the parameters to keep, ordered by bucket.
+   */
+  private static int[] sortByBucket(Context[] params, int[] buckets, int size) {
+    if (params.length != buckets.length) {
+      throw new IllegalArgumentException("Number of parameters (" + params.length +
+          ") does not match the number of buckets (" + buckets.length + ")");
+    }
+
+    long[] keys = new long[buckets.length];
+    for (int i = 0; i < buckets.length; i++) {
+      if (buckets[i] < 0 || buckets[i] >= size) {
+        throw new IllegalArgumentException("Bucket " + buckets[i] + " is out of range [0, " +
+            size + ")");
+      }
+      keys[i] = ((long) buckets[i] << 32) | i;
+    }
+    Arrays.sort(keys);
+
+    int[] order = new int[keys.length];
+    int used = 0;
+    for (int i = 0; i < keys.length; i++) {
+      if (i + 1 < keys.length && (keys[i] >>> 32) == (keys[i + 1] >>> 32)) {
+        continue;
+      }
+      order[used++] = (int) keys[i];
+    }
+    return Arrays.copyOf(order, used);
+  }
+
+  private static Context[] select(Context[] params, int[] order) {
+    Context[] selected = new Context[order.length];
+    for (int i = 0; i < order.length; i++) {
+      selected[i] = params[order[i]];
+    }
+    return selected;
+  }
+
+  /**
+   * Converts a model which was trained on the hashed predicates of a {@link DataIndexer}
+   * into a {@link HashedMaxentModel}.
+   *
+   * @param model The trained model, its predicates must be the ones of {@code indexer}.
+   * @param indexer The {@link DataIndexer} in hashing mode the model was trained on.
+   * @return The {@link HashedMaxentModel} holding the parameters of {@code model}.
+   * @throws IllegalArgumentException Thrown if {@code indexer} is not in hashing mode.
+   */
+  public static HashedMaxentModel fromTrainedModel(AbstractModel model, DataIndexer<?> indexer) {
+    if (indexer.getFeatureHasher() == null) {
+      throw new IllegalArgumentException("The data indexer does not hash predicates");
+    }
+    Object[] data = model.getDataStructures();
+    return new HashedMaxentModel((Context[]) data[0], indexer.getPredicateBuckets(),
+        indexer.getFeatureHasher(), (String[]) data[2]);
+  }
+
+  /**
+   * @return The {@link FeatureHasher} which maps predicates to the parameters of this model.
+   */
+  public FeatureHasher getFeatureHasher() {
+    return hasher;
+  }
+
+  /**
+   * @return The {@link CompiledParameters} of the used buckets, the predicate index of
+   *         a bucket is its position in {@link #getBuckets()}.
+   */
+  public CompiledParameters getParameters() {
+    return compiledParams;
+  }
+
+  /**
+   * @return The used hash buckets in ascending order.
+   */
+  public int[] getBuckets() {
+    return buckets.clone();
+  }
+
+  @Override
+  public double[] eval(String[] context) {
+    return eval(context, null, new double[compiledParams.getNumOutcomes()]);
+  }
+
+  @Override
+  public double[] eval(String[] context, float[] values) {
+    return eval(context, values, new double[compiledParams.getNumOutcomes()]);
+  }
+
+  @Override
+  public double[] eval(String[] context, double[] probs) {
+    return eval(context, null, probs);
+  }
+
+  /**
+   * Evaluates a context with the given values.
+   *
+   * @param context The names of the predicates which have been observed at the
+   *                present decision point.
+   * @param values The values associated with each predicate, or {@code null} for {@code 1}.
+   * @param outsums This is where the distribution is stored.
+   * @return The normalized probabilities for the outcomes given the context.
+   */
+  public double[] eval(String[] context, float[] values, double[] outsums) {
+    int[] predIndices = new int[context.length];
+    resolvePredicates(context, predIndices);
+    return eval(predIndices, context.length, values, outsums, 0);
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Hashing, feature sums and normalization all work on the buffers of
+   * {@code scratch}, this method does not allocate.
+   */
+  @Override
+  public double[] eval(String[] context, EvalScratch scratch) {
+    int[] predIndices = scratch.indices(context.length);
+    resolvePredicates(context, predIndices);
+    return eval(predIndices, context.length, null, scratch.probs(compiledParams.getNumOutcomes()), 0);
+  }
+
+  @Override
+  public double[][] evalBatch(String[][] contexts, double[][] probs) {
+    MaxentModel.checkBatchSize(contexts, probs);
+    for (int i = 0; i < contexts.length; i++) {
+      eval(contexts[i], null, probs[i]);
+    }
+    return probs;
+  }
+
+  @Override
+  public double[] evalBatch(String[][] contexts, double[] probs) {
+    int numOutcomes = compiledParams.getNumOutcomes();
+    MaxentModel.checkBatchSize(contexts, probs, numOutcomes);
+
+    EvalScratch scratch = new EvalScratch();
+    for (int i = 0, offset = 0; i < contexts.length; i++, offset += numOutcomes) {
+      int[] predIndices = scratch.indices(contexts[i].length);
+      resolvePredicates(contexts[i], predIndices);
+      eval(predIndices, contexts[i].length, null, probs, offset);
+    }
+    return probs;
+  }
+
+  /*
+   * Maps each predicate to the index of its bucket, unused buckets are mapped to -1.
+   */
+  private void resolvePredicates(String[] context, int[] predIndices) {
+    for (int i = 0; i < context.length; i++) {
+      predIndices[i] = indexOf(hasher.bucket(context[i]));
+    }
+  }
+
+  private int indexOf(int bucket) {
+    int slot = bucket & mask;
+    int entry;
+    while ((entry = slots[slot]) != 0) {
+      if (buckets[entry - 1] == bucket) {
+        return entry - 1;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return -1;
+  }
+
+  private double[] eval(int[] predIndices, int length, float[] values, double[] outsums, int offset) {
+    int numOutcomes = compiledParams.getNumOutcomes();
+    Arrays.fill(outsums, offset, offset + numOutcomes, 0);
+    compiledParams.sumFeatures(predIndices, length, values, outsums, offset);
+    ArrayMath.softmax(outsums, offset, numOutcomes);
+    return outsums;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(super.hashCode(), hasher, Arrays.hashCode(buckets));
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+
+    if (obj instanceof HashedMaxentModel model) {
+      return hasher.equals(model.hasher) && Arrays.equals(buckets, model.buckets)
+          && compiledParams.equals(model.compiledParams)
+          && Arrays.equals(outcomeNames, model.outcomeNames);
+    }
+
+    return false;
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package opennlp.tools.ml.maxent.io;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import opennlp.tools.ml.maxent.HashedMaxentModel;
+import opennlp.tools.ml.model.AbstractModelReader;
+import opennlp.tools.ml.model.Context;
+import opennlp.tools.ml.model.DataReader;
+import opennlp.tools.ml.model.FeatureHasher;
+
+/**
+ * The base class for readers of {@link HashedMaxentModel hashed maxent models}.
+ * <p>
+ * Format of hashed maxent models:
+ * <p>
+ * <br>HashedMaxent (model type identifier)
+ * <br>1. # of hash buckets ({@code int})
+ * <br>2. the hash seed ({@code int})
+ * <br>3. # of outcomes ({@code int})
+ * <br>   * list of outcome names ({@code String})
+ * <br>4. # of used buckets ({@code int})
+ * <br>   * list of ({@code int} {@code int} {@code int[]} {@code double[]})
+ * <br>    [bucket] [# of active outcomes] [active outcomes] [parameters]
+ *
+ * @see HashedMaxentModel
+ * @see AbstractModelReader
+ */
+public class HashedMaxentModelReader extends AbstractModelReader {
+
+  private static final Logger logger = LoggerFactory.getLogger(HashedMaxentModelReader.class);
+
+  /**
+   * Initializes a {@link HashedMaxentModelReader} via a {@link File}.
+   *
+   * @param file The {@link File} that references the model to be read.
+   *
+   * @throws IOException Thrown if IO errors occurred.
+   */
+  public HashedMaxentModelReader(File file) throws IOException {
+    super(file);
+  }
+
+  /**
+   * Initializes a {@link HashedMaxentModelReader} via a {@link DataReader}.
+   *
+   * @param dataReader The {@link DataReader} that references the model to be read.
+   */
+  public HashedMaxentModelReader(DataReader dataReader) {
+    super(dataReader);
+  }
+
+  @Override
+  public void checkModelType() throws IOException {
+    String modelType = readUTF();
+    if (!modelType.equals("HashedMaxent"))
+      logger.error("Attempting to load a {}"
+          + " model as a MAXENT_HASHED model. You should expect problems.", modelType);
+  }
+
+  /**
+   * Retrieves a model from disk.
+   *
+   * @return The {@link HashedMaxentModel} stored in the format and location specified to this
+   *         {@link HashedMaxentModelReader} (usually via its constructor).
+   * @throws IOException Thrown if IO errors occurred.
+   */
+  @Override
+  public HashedMaxentModel constructModel() throws IOException {
+    int size = readInt();
+    int seed = readInt();
+    String[] outcomeLabels = getOutcomes();
+
+    int numBuckets = readInt();
+    int[] buckets = new int[numBuckets];
+    Context[] params = new Context[numBuckets];
+    for (int i = 0; i < numBuckets; i++) {
+      buckets[i] = readInt();
+      int[] outcomes = new int[readInt()];
+      for (int k = 0; k < outcomes.length; k++) {
+        outcomes[k] = readInt();
+      }
+      double[] parameters = new double[outcomes.length];
+      for (int k = 0; k < parameters.length; k++) {
+        parameters[k] = readDouble();
+      }
+      params[i] = new Context(outcomes, parameters);
+    }
+
+    return new HashedMaxentModel(params, buckets, new FeatureHasher(size, seed), outcomeLabels);
+  }
+}
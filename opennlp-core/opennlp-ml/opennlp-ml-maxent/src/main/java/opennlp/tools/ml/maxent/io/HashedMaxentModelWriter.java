@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package opennlp.tools.ml.maxent.io;
+
+import java.io.IOException;
+
+import opennlp.tools.ml.maxent.HashedMaxentModel;
+import opennlp.tools.ml.model.AbstractModel;
+import opennlp.tools.ml.model.AbstractModelWriter;
+import opennlp.tools.ml.model.CompiledParameters;
+import opennlp.tools.ml.model.FeatureHasher;
+
+/**
+ * The base class for writers of {@link HashedMaxentModel hashed maxent models}.
+ * <p>
+ * It provides the {@link #persist()} method which takes care of the structure of a
+ * stored document, and requires an extending class to define precisely how
+ * the data should be stored. The format is described in {@link HashedMaxentModelReader}.
+ *
+ * @see HashedMaxentModel
+ * @see AbstractModelWriter
+ */
+public abstract class HashedMaxentModelWriter extends AbstractModelWriter {
+
+  private final HashedMaxentModel model;
+
+  /**
+   * Initializes a {@link HashedMaxentModelWriter}.
+   *
+   * @param model The {@link HashedMaxentModel} to be written.
+   * @throws IllegalArgumentException Thrown if {@code model} is not a {@link HashedMaxentModel}.
+   */
+  public HashedMaxentModelWriter(AbstractModel model) {
+    if (!(model instanceof HashedMaxentModel)) {
+      throw new IllegalArgumentException("Model must be a HashedMaxentModel, but is "
+          + model.getClass().getName());
+    }
+    this.model = (HashedMaxentModel) model;
+  }
+
+  /**
+   * Writes the {@link HashedMaxentModel}, using the
+   * {@link #writeUTF(String)}, {@link #writeDouble(double)}, or {@link #writeInt(int)}
+   * methods implemented by extending classes.
+   *
+   * @throws IOException Thrown if IO errors occurred.
+   */
+  @Override
+  public void persist() throws IOException {
+    writeUTF("HashedMaxent");
+
+    FeatureHasher hasher = model.getFeatureHasher();
+    writeInt(hasher.getSize());
+    writeInt(hasher.getSeed());
+
+    writeInt(model.getNumOutcomes());
+    for (int oi = 0; oi < model.getNumOutcomes(); oi++) {
+      writeUTF(model.getOutcome(oi));
+    }
+
+    CompiledParameters params = model.getParameters();
+    int[] buckets = model.getBuckets();
+    int numBuckets = 0;
+    for (int pi = 0; pi < params.getNumPredicates(); pi++) {
+      if (params.getEnd(pi) > params.getStart(pi)) {
+        numBuckets++;
+      }
+    }
+    writeInt(numBuckets);
+
+    for (int pi = 0; pi < params.getNumPredicates(); pi++) {
+      int start = params.getStart(pi);
+      int end = params.getEnd(pi);
+      if (end > start) {
+        writeInt(buckets[pi]);
+        writeInt(end - start);
+        for (int pos = start; pos < end; pos++) {
+          writeInt(params.outcomeAt(pos));
+        }
+        for (int pos = start; pos < end; pos++) {
+          writeDouble(params.parameterAt(pos));
+        }
+      }
+    }
+
+    close();
+  }
+}
@@ -21,11 +21,18 @@ import java.util.Arrays;
 
 import opennlp.tools.ml.ArrayMath;
 import opennlp.tools.ml.model.DataIndexer;
+import opennlp.tools.ml.model.FlatContexts;
 import opennlp.tools.ml.model.OnePassRealValueDataIndexer;
 import opennlp.tools.util.TrainingParameters;
 
 /**
  * Evaluates negative log-likelihood and its gradient from {@link DataIndexer}.
+ * <p>
+ * The contexts are kept in the flat layout of {@link FlatContexts}: the features of
+ * context {@code ci} are {@code contextPredicates[contextOffsets[ci] .. contextOffsets[ci + 1])}
+ * and their values, if any, are stored at the same positions of {@code values}. This replaces
+ * the nested {@code int[][] contexts} and {@code float[][] values} fields of earlier versions,
+ * subclasses which indexed them have to be migrated to the flat arrays.
  *
  * @see Function
  */
@@ -37,8 +44,10 @@ public class NegLogLikelihood implements Function {
   protected final int numContexts;
 
   // Information from data index
-  protected final float[][] values;
-  protected final int[][] contexts;
+  private final FlatContexts contexts;
+  protected final int[] contextOffsets;
+  protected final int[] contextPredicates;
+  protected final float[] values;
   protected final int[] outcomeList;
   protected final int[] numTimesEventsSeen;
 
@@ -54,19 +63,21 @@ public class NegLogLikelihood implements Function {
   public NegLogLikelihood(DataIndexer<TrainingParameters> indexer) {
 
     // Get data from indexer.
+    this.contexts          = indexer.getFlatContexts();
+    this.contextOffsets    = contexts.getOffsets();
+    this.contextPredicates = contexts.getPredicates();
     if (indexer instanceof OnePassRealValueDataIndexer) {
-      this.values = indexer.getValues();
+      this.values = contexts.getValues();
     } else {
       this.values = null;
     }
 
-    this.contexts    = indexer.getContexts();
     this.outcomeList = indexer.getOutcomeList();
     this.numTimesEventsSeen = indexer.getNumTimesEventsSeen();
 
     this.numOutcomes = indexer.getOutcomeLabels().length;
     this.numFeatures = indexer.getPredLabels().length;
-    this.numContexts = this.contexts.length;
+    this.numContexts = this.contexts.size();
     this.dimension   = numOutcomes * numFeatures;
 
     this.expectation = new double[numOutcomes];
@@ -103,19 +114,12 @@ public class NegLogLikelihood implements Function {
       throw new IllegalArgumentException(
           "x is invalid, its dimension is not equal to domain dimension.");
 
-    int ci, oi, ai, vectorIndex, outcome;
-    double predValue, logSumOfExps;
+    int ci, outcome;
+    double logSumOfExps;
     double negLogLikelihood = 0;
 
     for (ci = 0; ci < numContexts; ci++) {
-      for (oi = 0; oi < numOutcomes; oi++) {
-        tempSums[oi] = 0;
-        for (ai = 0; ai < contexts[ci].length; ai++) {
-          vectorIndex = indexOf(oi, contexts[ci][ai]);
-          predValue = values != null ? values[ci][ai] : 1.0;
-          tempSums[oi] += predValue * x[vectorIndex];
-        }
-      }
+      sumOutcomeScores(x, ci, tempSums);
 
       logSumOfExps = ArrayMath.logSumOfExps(tempSums);
 
@@ -141,33 +145,21 @@ public class NegLogLikelihood implements Function {
           "x is invalid, its dimension is not equal to the function.");
 
     int ci, oi, ai, vectorIndex;
-    double predValue, logSumOfExps;
+    double predValue;
     int empirical;
 
     // Reset gradient
     Arrays.fill(gradient, 0);
 
     for (ci = 0; ci < numContexts; ci++) {
-      for (oi = 0; oi < numOutcomes; oi++) {
-        expectation[oi] = 0;
-        for (ai = 0; ai < contexts[ci].length; ai++) {
-          vectorIndex = indexOf(oi, contexts[ci][ai]);
-          predValue = values != null ? values[ci][ai] : 1.0;
-          expectation[oi] += predValue * x[vectorIndex];
-        }
-      }
-
-      logSumOfExps = ArrayMath.logSumOfExps(expectation);
-
-      for (oi = 0; oi < numOutcomes; oi++) {
-        expectation[oi] = StrictMath.exp(expectation[oi] - logSumOfExps);
-      }
+      sumOutcomeScores(x, ci, expectation);
+      ArrayMath.softmax(expectation, 0, numOutcomes);
 
       for (oi = 0; oi < numOutcomes; oi++) {
         empirical = outcomeList[ci] == oi ? 1 : 0;
-        for (ai = 0; ai < contexts[ci].length; ai++) {
-          vectorIndex = indexOf(oi, contexts[ci][ai]);
-          predValue = values != null ? values[ci][ai] : 1.0;
+        for (ai = contextOffsets[ci]; ai < contextOffsets[ci + 1]; ai++) {
+          vectorIndex = indexOf(oi, contextPredicates[ai]);
+          predValue = values != null ? values[ai] : 1.0;
           gradient[vectorIndex] +=
               predValue * (expectation[oi] - empirical) * numTimesEventsSeen[ci];
         }
@@ -177,6 +169,29 @@ public class NegLogLikelihood implements Function {
     return gradient;
   }
 
+  /**
+   * Computes the score of each outcome for the context {@code ci}, the inner product
+   * of the context's features and the outcome's parameters in {@code x}.
+   *
+   * @param x The parameters.
+   * @param ci The index of the context.
+   * @param sums The array to store the score of each outcome in.
+   */
+  protected void sumOutcomeScores(double[] x, int ci, double[] sums) {
+    int start = contextOffsets[ci];
+    int end = contextOffsets[ci + 1];
+    for (int oi = 0; oi < numOutcomes; oi++) {
+      sums[oi] = ArrayMath.sparseInnerProduct(x, indexOf(oi, 0), contextPredicates, values, start, end);
+    }
+  }
+
+  /**
+   * @return The contexts of the training events in the flat layout.
+   */
+  protected FlatContexts getContexts() {
+    return contexts;
+  }
+
   protected int indexOf(int outcomeId, int featureId) {
     return outcomeId * numFeatures + featureId;
   }
@@ -17,34 +17,35 @@
 
 package opennlp.tools.ml.maxent.quasinewton;
 
-import java.lang.reflect.Constructor;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
-
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import opennlp.tools.ml.ArrayMath;
+import opennlp.tools.ml.ComputeEngine;
 import opennlp.tools.ml.model.DataIndexer;
 import opennlp.tools.util.TrainingParameters;
 
 /**
  * Evaluates {@link NegLogLikelihood negative log-likelihood} and
  * its gradient in parallel.
+ * <p>
+ * The contexts are split into partitions with roughly the same number of features
+ * which are computed by a {@link ComputeEngine}, the partial gradients are summed
+ * in parallel as well.
+ * <p>
+ * An instance which created its own {@link ComputeEngine} has to be {@link #close() closed}
+ * when it is no longer used.
  *
  * @see Function
  */
-public class ParallelNegLogLikelihood extends NegLogLikelihood {
+public class ParallelNegLogLikelihood extends NegLogLikelihood implements AutoCloseable {
+
+  private final ComputeEngine engine;
 
-  private static final Logger logger = LoggerFactory.getLogger(ParallelNegLogLikelihood.class);
+  // Whether the engine was created by this instance and is closed by it
+  private final boolean ownsEngine;
 
-  // Number of threads
-  private final int threads;
+  // Bounds of the contexts computed by each thread
+  private final int[] partitionBounds;
 
   // Partial value of negative log-likelihood to be computed by each thread
   private final double[] negLogLikelihoodThread;
@@ -52,22 +53,44 @@ public class ParallelNegLogLikelihood extends NegLogLikelihood {
   // Partial gradient
   private final double[][] gradientThread;
 
+  // Outcome scores of each thread
+  private final double[][] sumsThread;
+
   /**
+   * Initializes a {@link ParallelNegLogLikelihood} which computes with its own
+   * {@link ComputeEngine}, it is closed by {@link #close()}.
+   *
    * @param indexer The {@link DataIndexer} to use as input provider.
    * @param threads The number of thread to compute with in parallel.
    *                Must be greater than {@code 0}.
    * @throws IllegalArgumentException Thrown if parameters were invalid.
    */
   public ParallelNegLogLikelihood(DataIndexer<TrainingParameters> indexer, int threads) {
-    super(indexer);
+    this(indexer, new ComputeEngine(threads), true);
+  }
 
-    if (threads <= 0)
-      throw new IllegalArgumentException(
-          "Number of threads must 1 or larger");
+  /**
+   * Initializes a {@link ParallelNegLogLikelihood}.
+   *
+   * @param indexer The {@link DataIndexer} to use as input provider.
+   * @param engine The {@link ComputeEngine} to compute with, it is not closed
+   *               by this instance.
+   */
+  public ParallelNegLogLikelihood(DataIndexer<TrainingParameters> indexer, ComputeEngine engine) {
+    this(indexer, engine, false);
+  }
 
-    this.threads                = threads;
+  private ParallelNegLogLikelihood(DataIndexer<TrainingParameters> indexer, ComputeEngine engine,
+                                   boolean ownsEngine) {
+    super(indexer);
+
+    int threads = engine.getThreads();
+    this.engine                 = engine;
+    this.ownsEngine             = ownsEngine;
+    this.partitionBounds        = engine.partition(getContexts());
     this.negLogLikelihoodThread = new double[threads];
     this.gradientThread         = new double[threads][dimension];
+    this.sumsThread             = new double[threads][numOutcomes];
   }
 
   /**
@@ -85,11 +108,12 @@ public class ParallelNegLogLikelihood extends NegLogLikelihood {
           "x is invalid, its dimension is not equal to domain dimension.");
 
     // Compute partial value of negative log-likelihood in each thread
-    computeInParallel(x, NegLLComputeTask.class);
+    engine.forEachPartition(partitionBounds, (partition, start, end) ->
+        negLogLikelihoodThread[partition] = computeNegLogLikelihood(x, start, end, sumsThread[partition]));
 
     double negLogLikelihood = 0;
-    for (int t = 0; t < threads; t++) {
-      negLogLikelihood += negLogLikelihoodThread[t];
+    for (double partial : negLogLikelihoodThread) {
+      negLogLikelihood += partial;
     }
 
     return negLogLikelihood;
@@ -110,171 +134,53 @@ public class ParallelNegLogLikelihood extends NegLogLikelihood {
           "x is invalid, its dimension is not equal to the function.");
 
     // Compute partial gradient in each thread
-    computeInParallel(x, GradientComputeTask.class);
+    engine.forEachPartition(partitionBounds, (partition, start, end) ->
+        computeGradient(x, start, end, sumsThread[partition], gradientThread[partition]));
 
     // Accumulate gradient
-    for (int i = 0; i < dimension; i++) {
-      gradient[i] = 0;
-      for (int t = 0; t < threads; t++) {
-        gradient[i] += gradientThread[t][i];
-      }
-    }
+    engine.sum(gradientThread, gradient);
 
     return gradient;
   }
 
-  /**
-   * Computes the specified tasks in parallel.
-   */
-  private void computeInParallel(double[] x, Class<? extends ComputeTask> taskClass) {
-
-    ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
-      Thread thread = new Thread(runnable);
-      thread.setName(
-          "opennlp.tools.ml.maxent.quasinewton.ParallelNegLogLikelihood.computeInParallel()");
-      thread.setDaemon(true);
-      return thread;
-    });
-
-    int taskSize = numContexts / threads;
-    int leftOver = numContexts % threads;
-
-    try {
-      Constructor<? extends ComputeTask> cons = taskClass.getConstructor(
-          ParallelNegLogLikelihood.class,
-          int.class, int.class, int.class, double[].class);
-
-      List<Future<?>> futures = new ArrayList<>();
-      for (int i = 0; i < threads; i++) {
-        if (i != threads - 1)
-          futures.add(executor.submit(
-              cons.newInstance(this, i, i * taskSize, taskSize, x)));
-        else
-          futures.add(executor.submit(
-              cons.newInstance(this, i, i * taskSize, taskSize + leftOver, x)));
-      }
-
-      for (Future<?> future: futures)
-        future.get();
-
-    } catch (Exception e) {
-      logger.error(e.getLocalizedMessage(), e);
-    }
-
-    executor.shutdown();
-  }
-
-  /**
-   * A {@link ComputeTask} that is computed in parallel.
-   */
-  static abstract class ComputeTask implements Callable<ComputeTask> {
-
-    final int threadIndex;
-
-    // Start index of contexts to compute
-    final int startIndex;
-
-    // Number of contexts to compute
-    final int length;
-
-    final double[] x;
-
-    public ComputeTask(int threadIndex, int startIndex, int length, double[] x) {
-      this.threadIndex = threadIndex;
-      this.startIndex  = startIndex;
-      this.length      = length;
-      this.x           = x;
+  private double computeNegLogLikelihood(double[] x, int start, int end, double[] sums) {
+    double negLogLikelihood = 0;
+    for (int ci = start; ci < end; ci++) {
+      sumOutcomeScores(x, ci, sums);
+      double logSumOfExps = ArrayMath.logSumOfExps(sums);
+      negLogLikelihood -= (sums[outcomeList[ci]] - logSumOfExps) * numTimesEventsSeen[ci];
     }
+    return negLogLikelihood;
   }
 
-  /**
-   * A {@link ComputeTask} for computing partial value of negative log-likelihood.
-   */
-  class NegLLComputeTask extends ComputeTask {
-
-    final double[] tempSums;
-
-    public NegLLComputeTask(int threadIndex, int startIndex, int length, double[] x) {
-      super(threadIndex, startIndex, length, x);
-      this.tempSums = new double[numOutcomes];
-    }
-
-    @Override
-    public NegLLComputeTask call() {
-      int ci, oi, ai, vectorIndex, outcome;
-      double predValue, logSumOfExps;
-      negLogLikelihoodThread[threadIndex] = 0;
-
-      for (ci = startIndex; ci < startIndex + length; ci++) {
-        for (oi = 0; oi < numOutcomes; oi++) {
-          tempSums[oi] = 0;
-          for (ai = 0; ai < contexts[ci].length; ai++) {
-            vectorIndex = indexOf(oi, contexts[ci][ai]);
-            predValue = values != null ? values[ci][ai] : 1.0;
-            tempSums[oi] += predValue * x[vectorIndex];
-          }
+  private void computeGradient(double[] x, int start, int end, double[] expectation,
+                               double[] partialGradient) {
+    Arrays.fill(partialGradient, 0);
+
+    for (int ci = start; ci < end; ci++) {
+      sumOutcomeScores(x, ci, expectation);
+      ArrayMath.softmax(expectation, 0, numOutcomes);
+
+      for (int oi = 0; oi < numOutcomes; oi++) {
+        int empirical = outcomeList[ci] == oi ? 1 : 0;
+        for (int ai = contextOffsets[ci]; ai < contextOffsets[ci + 1]; ai++) {
+          int vectorIndex = indexOf(oi, contextPredicates[ai]);
+          double predValue = values != null ? values[ai] : 1.0;
+          partialGradient[vectorIndex] +=
+              predValue * (expectation[oi] - empirical) * numTimesEventsSeen[ci];
         }
-
-        logSumOfExps = ArrayMath.logSumOfExps(tempSums);
-
-        outcome = outcomeList[ci];
-        negLogLikelihoodThread[threadIndex] -=
-            (tempSums[outcome] - logSumOfExps) * numTimesEventsSeen[ci];
       }
-
-      return this;
     }
   }
 
   /**
-   * A {@link ComputeTask} for computing partial gradient.
+   * Closes the {@link ComputeEngine} if it was created by this instance. An engine
+   * passed to {@link #ParallelNegLogLikelihood(DataIndexer, ComputeEngine)} is not closed.
    */
-  class GradientComputeTask extends ComputeTask {
-
-    final double[] expectation;
-
-    public GradientComputeTask(int threadIndex, int startIndex, int length, double[] x) {
-      super(threadIndex, startIndex, length, x);
-      this.expectation = new double[numOutcomes];
-    }
-
-    @Override
-    public GradientComputeTask call() {
-      int ci, oi, ai, vectorIndex;
-      double predValue, logSumOfExps;
-      int empirical;
-
-      // Reset gradientThread
-      Arrays.fill(gradientThread[threadIndex], 0);
-
-      for (ci = startIndex; ci < startIndex + length; ci++) {
-        for (oi = 0; oi < numOutcomes; oi++) {
-          expectation[oi] = 0;
-          for (ai = 0; ai < contexts[ci].length; ai++) {
-            vectorIndex = indexOf(oi, contexts[ci][ai]);
-            predValue = values != null ? values[ci][ai] : 1.0;
-            expectation[oi] += predValue * x[vectorIndex];
-          }
-        }
-
-        logSumOfExps = ArrayMath.logSumOfExps(expectation);
-
-        for (oi = 0; oi < numOutcomes; oi++) {
-          expectation[oi] = StrictMath.exp(expectation[oi] - logSumOfExps);
-        }
-
-        for (oi = 0; oi < numOutcomes; oi++) {
-          empirical = outcomeList[ci] == oi ? 1 : 0;
-          for (ai = 0; ai < contexts[ci].length; ai++) {
-            vectorIndex = indexOf(oi, contexts[ci][ai]);
-            predValue = values != null ? values[ci][ai] : 1.0;
-            gradientThread[threadIndex][vectorIndex] +=
-                predValue * (expectation[oi] - empirical) * numTimesEventsSeen[ci];
-          }
-        }
-      }
-
-      return this;
+  @Override
+  public void close() {
+    if (ownsEngine) {
+      engine.close();
     }
   }
 }
@@ -17,10 +17,14 @@
 
 package opennlp.tools.ml.maxent.quasinewton;
 
+import java.util.Arrays;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import opennlp.tools.ml.ArrayMath;
+import opennlp.tools.ml.Checkpointer;
+import opennlp.tools.ml.TrainingCheckpoint;
 import opennlp.tools.ml.maxent.quasinewton.LineSearch.LineSearchResult;
 
 /**
@@ -92,6 +96,9 @@ public class QNMinimizer {
   /** The default maximum number of function evaluations is {@code 30,000}. */
   public static final int MAX_FCT_EVAL_DEFAULT = 30000;
 
+  // The name of the current point in a training checkpoint
+  private static final String CHECKPOINT_POINT = "point";
+
   // L1-regularization cost
   private final double l1Cost;
 
@@ -117,6 +124,10 @@ public class QNMinimizer {
   // This is optional and can be omitted.
   private Evaluator evaluator;
 
+  // For writing and resuming from training checkpoints.
+  // This is optional and can be omitted.
+  private Checkpointer checkpointer;
+
   /**
    * Initializes a {@link QNMinimizer} with default parameters
    * (see: {@link #L1COST_DEFAULT} and {@link #L2COST_DEFAULT}).
@@ -196,6 +207,21 @@ public class QNMinimizer {
     this.evaluator = evaluator;
   }
 
+  public Checkpointer getCheckpointer() {
+    return checkpointer;
+  }
+
+  /**
+   * Sets the {@link Checkpointer} which writes the current point and the Hessian updates
+   * every few iterations. If it resumes from a checkpoint, minimization continues from the
+   * point and with the Hessian updates of the checkpoint.
+   *
+   * @param checkpointer The {@link Checkpointer} to use, or {@code null} for none.
+   */
+  public void setCheckpointer(Checkpointer checkpointer) {
+    this.checkpointer = checkpointer;
+  }
+
   /**
    * Finds the parameters that minimize the objective function.
    *
@@ -208,8 +234,20 @@ public class QNMinimizer {
     this.dimension  = l2RegFunction.getDimension();
     this.updateInfo = new UpdateInfo(this.m, this.dimension);
 
-    // Current point is at the origin
+    // Current point is at the origin, or at the point of the checkpoint to resume from
     double[] currPoint = new double[dimension];
+    int firstIteration = 1;
+    TrainingCheckpoint checkpoint = checkpointer != null ? checkpointer.resume() : null;
+    if (checkpoint != null) {
+      double[] point = checkpoint.getDoubles(CHECKPOINT_POINT);
+      if (point.length != dimension) {
+        throw new IllegalStateException("The checkpoint point has dimension " + point.length
+            + ", but the function has dimension " + dimension);
+      }
+      System.arraycopy(point, 0, currPoint, 0, dimension);
+      updateInfo.restore(checkpoint);
+      firstIteration = checkpoint.getIteration() + 1;
+    }
 
     double currValue = l2RegFunction.valueAt(currPoint);
 
@@ -246,11 +284,16 @@ public class QNMinimizer {
     long startTime = System.currentTimeMillis();
 
     // Initial step size for the 1st iteration
-    double initialStepSize = l1Cost > 0 ?
-        ArrayMath.invL2norm(lsr.getPseudoGradAtNext()) :
-          ArrayMath.invL2norm(lsr.getGradAtNext());
+    double initialStepSize;
+    if (checkpoint != null) {
+      initialStepSize = INITIAL_STEP_SIZE;
+    } else {
+      initialStepSize = l1Cost > 0 ?
+          ArrayMath.invL2norm(lsr.getPseudoGradAtNext()) :
+            ArrayMath.invL2norm(lsr.getGradAtNext());
+    }
 
-    for (int iter = 1; iter <= iterations; iter++) {
+    for (int iter = firstIteration; iter <= iterations; iter++) {
       // Find direction
       if (l1Cost > 0) {
         System.arraycopy(lsr.getPseudoGradAtNext(), 0, direction, 0, direction.length);
@@ -291,6 +334,12 @@ public class QNMinimizer {
       if (isConverged(lsr))
         break;
 
+      if (checkpointer != null && checkpointer.isDue(iter)) {
+        TrainingCheckpoint next = checkpointer.newCheckpoint(iter).put(CHECKPOINT_POINT, lsr.getNextPoint());
+        updateInfo.save(next);
+        checkpointer.write(next);
+      }
+
       initialStepSize = INITIAL_STEP_SIZE;
     }
 
@@ -432,6 +481,10 @@ public class QNMinimizer {
    * Class to store vectors for Hessian approximation update.
    */
   private class UpdateInfo {
+    private static final String CHECKPOINT_RHO = "rho";
+    private static final String CHECKPOINT_S = "s";
+    private static final String CHECKPOINT_Y = "y";
+
     private final double[][] S;
     private final double[][] Y;
     private final double[] rho;
@@ -486,6 +539,27 @@ public class QNMinimizer {
       if (kCounter < m)
         kCounter++;
     }
+
+    /* Puts the stored Hessian updates into the checkpoint. */
+    void save(TrainingCheckpoint checkpoint) {
+      checkpoint.put(CHECKPOINT_RHO, Arrays.copyOf(rho, kCounter));
+      for (int i = 0; i < kCounter; i++) {
+        checkpoint.put(CHECKPOINT_S + i, S[i]);
+        checkpoint.put(CHECKPOINT_Y + i, Y[i]);
+      }
+    }
+
+    /* Restores the Hessian updates of the checkpoint, at most the m most recent ones. */
+    void restore(TrainingCheckpoint checkpoint) {
+      double[] savedRho = checkpoint.getDoubles(CHECKPOINT_RHO);
+      kCounter = StrictMath.min(savedRho.length, m);
+      int first = savedRho.length - kCounter;
+      for (int i = 0; i < kCounter; i++) {
+        rho[i] = savedRho[first + i];
+        System.arraycopy(checkpoint.getDoubles(CHECKPOINT_S + (first + i)), 0, S[i], 0, dimension);
+        System.arraycopy(checkpoint.getDoubles(CHECKPOINT_Y + (first + i)), 0, Y[i], 0, dimension);
+      }
+    }
   }
 
   /**
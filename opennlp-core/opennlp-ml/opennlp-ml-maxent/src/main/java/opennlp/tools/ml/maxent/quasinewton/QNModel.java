@@ -17,10 +17,15 @@
 
 package opennlp.tools.ml.maxent.quasinewton;
 
+import java.util.Arrays;
+
 import opennlp.tools.ml.AlgorithmType;
 import opennlp.tools.ml.ArrayMath;
 import opennlp.tools.ml.model.AbstractModel;
+import opennlp.tools.ml.model.CompiledParameters;
 import opennlp.tools.ml.model.Context;
+import opennlp.tools.ml.model.FlatContexts;
+import opennlp.tools.ml.model.IndexedMaxentModel;
 import opennlp.tools.ml.model.MaxentModel;
 
 /**
@@ -32,7 +37,7 @@ import opennlp.tools.ml.model.MaxentModel;
  * @see MaxentModel
  * @see QNTrainer
  */
-public class QNModel extends AbstractModel {
+public class QNModel extends AbstractModel implements IndexedMaxentModel {
 
   /**
    * Initializes a {@link QNModel} with the specified parameters,
@@ -47,6 +52,18 @@ public class QNModel extends AbstractModel {
     this.modelType = AlgorithmType.MAXENT_QN;
   }
 
+  /**
+   * Initializes a {@link QNModel} with already compiled parameters,
+   * e.g. {@link opennlp.tools.ml.model.MappedParameters memory-mapped} ones.
+   *
+   * @param params The {@link CompiledParameters} of the model.
+   * @param outcomeNames The names of the outcomes this model predicts.
+   */
+  public QNModel(CompiledParameters params, String[] outcomeNames) {
+    super(params, outcomeNames);
+    this.modelType = AlgorithmType.MAXENT_QN;
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -55,16 +72,12 @@ public class QNModel extends AbstractModel {
     return this.outcomeNames.length;
   }
 
-  private Context getPredIndex(String predicate) {
-    return pmap.get(predicate);
-  }
-
   /**
    * {@inheritDoc}
    */
   @Override
   public double[] eval(String[] context) {
-    return eval(context, new double[evalParams.getNumOutcomes()]);
+    return eval(context, new double[compiledParams.getNumOutcomes()]);
   }
 
   /**
@@ -80,7 +93,7 @@ public class QNModel extends AbstractModel {
    */
   @Override
   public double[] eval(String[] context, float[] values) {
-    return eval(context, values, new double[evalParams.getNumOutcomes()]);
+    return eval(context, values, new double[compiledParams.getNumOutcomes()]);
   }
 
   /**
@@ -94,30 +107,57 @@ public class QNModel extends AbstractModel {
    * @return Normalized probabilities for the outcomes given the context.
    */
   private double[] eval(String[] context, float[] values, double[] probs) {
+    compiledParams.sumFeatures(context, values, probs);
+    return normalize(probs, 0, outcomeNames.length);
+  }
 
-    for (int ci = 0; ci < context.length; ci++) {
-      Context pred = getPredIndex(context[ci]);
-
-      if (pred != null) {
-        double predValue = 1.0;
-        if (values != null) predValue = values[ci];
-
-        double[] parameters = pred.getParameters();
-        int[] outcomes = pred.getOutcomes();
-        for (int i = 0; i < outcomes.length; i++) {
-          int oi = outcomes[i];
-          probs[oi] += predValue * parameters[i];
-        }
-      }
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public double[][] evalBatch(String[][] contexts, double[][] probs) {
+    MaxentModel.checkBatchSize(contexts, probs);
+    for (int i = 0; i < contexts.length; i++) {
+      Arrays.fill(probs[i], 0);
+      eval(contexts[i], null, probs[i]);
     }
+    return probs;
+  }
 
-    double logSumExp = ArrayMath.logSumOfExps(probs);
-    for (int oi = 0; oi < outcomeNames.length; oi++) {
-      probs[oi] = StrictMath.exp(probs[oi] - logSumExp);
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public double[] evalBatch(String[][] contexts, double[] probs) {
+    int nOutcomes = outcomeNames.length;
+    MaxentModel.checkBatchSize(contexts, probs, nOutcomes);
+
+    Arrays.fill(probs, 0, contexts.length * nOutcomes, 0);
+    for (int i = 0, offset = 0; i < contexts.length; i++, offset += nOutcomes) {
+      compiledParams.sumFeatures(contexts[i], null, probs, offset);
+      normalize(probs, offset, nOutcomes);
     }
     return probs;
   }
 
+  @Override
+  public CompiledParameters getParameters() {
+    return compiledParams;
+  }
+
+  @Override
+  public double[] evalIndices(int[] predIndices, int length, double[] probs) {
+    int nOutcomes = outcomeNames.length;
+    Arrays.fill(probs, 0, nOutcomes, 0);
+    compiledParams.sumFeatures(predIndices, length, null, probs, 0);
+    return normalize(probs, 0, nOutcomes);
+  }
+
+  private static double[] normalize(double[] probs, int offset, int nOutcomes) {
+    ArrayMath.softmax(probs, offset, nOutcomes);
+    return probs;
+  }
+
   /**
    * Evaluates which should be used during training to report model accuracy.
    * @param context The indices of the predicates which have been observed at the present
@@ -132,21 +172,35 @@ public class QNModel extends AbstractModel {
    */
   static double[] eval(int[] context, float[] values, double[] probs,
       int nOutcomes, int nPredLabels, double[] parameters) {
+    return eval(context, values, 0, context.length, probs, nOutcomes, nPredLabels, parameters);
+  }
+
+  /**
+   * Evaluates the context stored from {@code start} to {@code end} in the flat
+   * {@code predicates} and {@code values} arrays of {@link FlatContexts}.
+   *
+   * @param predicates The predicate indexes of all contexts.
+   * @param values The values of all predicates, or {@code null} if all values are {@code 1}.
+   * @param start The index of the first predicate of the context.
+   * @param end The index after the last predicate of the context.
+   * @param probs The array to store the probabilities in, it must be zero initialized.
+   * @param nOutcomes The number of outcomes.
+   * @param nPredLabels The number of predicates.
+   * @param parameters The model parameters.
+   * @return Normalized probabilities for the outcomes given the context.
+   */
+  static double[] eval(int[] predicates, float[] values, int start, int end, double[] probs,
+      int nOutcomes, int nPredLabels, double[] parameters) {
 
-    for (int i = 0; i < context.length; i++) {
-      int predIdx = context[i];
+    for (int i = start; i < end; i++) {
+      int predIdx = predicates[i];
       double predValue = values != null ? values[i] : 1.0;
       for (int oi = 0; oi < nOutcomes; oi++) {
         probs[oi] += predValue * parameters[oi * nPredLabels + predIdx];
       }
     }
 
-    double logSumExp = ArrayMath.logSumOfExps(probs);
-
-    for (int oi = 0; oi < nOutcomes; oi++) {
-      probs[oi] = StrictMath.exp(probs[oi] - logSumExp);
-    }
-
+    ArrayMath.softmax(probs, 0, nOutcomes);
     return probs;
   }
 }
@@ -28,10 +28,14 @@ import org.slf4j.LoggerFactory;
 import opennlp.tools.commons.Trainer;
 import opennlp.tools.ml.AbstractEventTrainer;
 import opennlp.tools.ml.ArrayMath;
+import opennlp.tools.ml.Checkpointer;
+import opennlp.tools.ml.ComputeEngine;
+import opennlp.tools.ml.maxent.HashedMaxentModel;
 import opennlp.tools.ml.maxent.quasinewton.QNMinimizer.Evaluator;
 import opennlp.tools.ml.model.AbstractModel;
 import opennlp.tools.ml.model.Context;
 import opennlp.tools.ml.model.DataIndexer;
+import opennlp.tools.ml.model.FlatContexts;
 import opennlp.tools.util.TrainingParameters;
 
 /**
@@ -183,7 +187,16 @@ public class QNTrainer extends AbstractEventTrainer<TrainingParameters> {
   @Override
   public AbstractModel doTrain(DataIndexer<TrainingParameters> indexer) throws IOException {
     int iterations = getIterations();
-    return trainModel(iterations, indexer);
+    QNModel model = trainModel(iterations, indexer);
+    if (indexer.getFeatureHasher() != null) {
+      return HashedMaxentModel.fromTrainedModel(model, indexer);
+    }
+    return model;
+  }
+
+  @Override
+  protected boolean isFeatureHashingSupported() {
+    return true;
   }
 
   /**
@@ -198,21 +211,26 @@ public class QNTrainer extends AbstractEventTrainer<TrainingParameters> {
    */
   public QNModel trainModel(int iterations, DataIndexer<TrainingParameters> indexer) {
 
-    // Train model's parameters
-    Function objectiveFunction;
-    if (threads == 1) {
-      logger.info("Computing model parameters ...");
-      objectiveFunction = new NegLogLikelihood(indexer);
-    } else {
-      logger.info("Computing model parameters with {} threads...", threads);
-      objectiveFunction = new ParallelNegLogLikelihood(indexer, threads);
-    }
+    // Train model's parameters, the compute engine is shared by all function evaluations
+    double[] parameters;
+    try (ComputeEngine engine = new ComputeEngine(threads);
+         Checkpointer checkpointer = Checkpointer.create(trainingParameters, MAXENT_QN_VALUE, indexer)) {
+      Function objectiveFunction;
+      if (threads == 1) {
+        logger.info("Computing model parameters ...");
+        objectiveFunction = new NegLogLikelihood(indexer);
+      } else {
+        logger.info("Computing model parameters with {} threads...", threads);
+        objectiveFunction = new ParallelNegLogLikelihood(indexer, engine);
+      }
 
-    QNMinimizer minimizer = new QNMinimizer(
-        l1Cost, l2Cost, iterations, m, maxFctEval);
-    minimizer.setEvaluator(new ModelEvaluator(indexer));
+      QNMinimizer minimizer = new QNMinimizer(
+          l1Cost, l2Cost, iterations, m, maxFctEval);
+      minimizer.setEvaluator(new ModelEvaluator(indexer));
+      minimizer.setCheckpointer(checkpointer);
 
-    double[] parameters = minimizer.minimize(objectiveFunction);
+      parameters = minimizer.minimize(objectiveFunction);
+    }
 
     // Construct model with trained parameters
     String[] predLabels = indexer.getPredLabels();
@@ -251,8 +269,8 @@ public class QNTrainer extends AbstractEventTrainer<TrainingParameters> {
      */
     @Override
     public double evaluate(double[] parameters) {
-      int[][] contexts = indexer.getContexts();
-      float[][] values = indexer.getValues();
+      FlatContexts contexts = indexer.getFlatContexts();
+      int[] offsets = contexts.getOffsets();
       int[] nEventsSeen = indexer.getNumTimesEventsSeen();
       int[] outcomeList = indexer.getOutcomeList();
       int nOutcomes = indexer.getOutcomeLabels().length;
@@ -261,12 +279,10 @@ public class QNTrainer extends AbstractEventTrainer<TrainingParameters> {
       int nCorrect = 0;
       int nTotalEvents = 0;
 
-      for (int ei = 0; ei < contexts.length; ei++) {
-        int[] context = contexts[ei];
-        float[] value = values == null ? null : values[ei];
-
+      for (int ei = 0; ei < contexts.size(); ei++) {
         double[] probs = new double[nOutcomes];
-        QNModel.eval(context, value, probs, nOutcomes, nPredLabels, parameters);
+        QNModel.eval(contexts.getPredicates(), contexts.getValues(), offsets[ei], offsets[ei + 1],
+            probs, nOutcomes, nPredLabels, parameters);
         int outcome = ArrayMath.argmax(probs);
         if (outcome == outcomeList[ei]) {
           nCorrect += nEventsSeen[ei];
@@ -0,0 +1,574 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.maxent.sgd;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import opennlp.tools.commons.Trainer;
+import opennlp.tools.ml.AbstractTrainer;
+import opennlp.tools.ml.ArrayMath;
+import opennlp.tools.ml.EventTrainer;
+import opennlp.tools.ml.maxent.GISModel;
+import opennlp.tools.ml.maxent.HashedMaxentModel;
+import opennlp.tools.ml.model.AbstractModel;
+import opennlp.tools.ml.model.Context;
+import opennlp.tools.ml.model.DataIndexer;
+import opennlp.tools.ml.model.Event;
+import opennlp.tools.ml.model.FeatureHasher;
+import opennlp.tools.ml.model.FlatContexts;
+import opennlp.tools.util.InsufficientTrainingDataException;
+import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.Parameters;
+import opennlp.tools.util.TrainingParameters;
+
+/**
+ * A Maxent model {@link Trainer trainer} which fits the parameters of a multinomial
+ * logistic regression with mini-batch stochastic gradient descent.
+ * <p>
+ * Unlike the {@link opennlp.tools.ml.AbstractEventTrainer event trainers} based on a
+ * {@link DataIndexer}, this trainer reads the events directly from the
+ * {@link ObjectStream} once per epoch. Predicates and outcomes are numbered when they
+ * are seen for the first time and the parameters are updated after every mini-batch.
+ * The memory used therefore depends on the number of distinct predicates, or on the
+ * number of buckets if {@link FeatureHasher#HASH_SIZE_PARAM} is set, but not on the
+ * number of events. The event stream is {@link ObjectStream#reset() reset} between
+ * the epochs, it must support this if more than one epoch is trained or if
+ * {@link Parameters#CUTOFF_PARAM} is greater than {@code 1}.
+ * <p>
+ * The learning rate of each parameter is adapted with AdaGrad. If {@link #ADAGRAD_PARAM}
+ * is {@code false}, plain SGD with a learning rate of {@code LearningRate / epoch} is
+ * used instead. The number of epochs is configured via {@link Parameters#ITERATIONS_PARAM},
+ * training stops earlier if the average loss of an epoch changed less than
+ * {@link #TOLERANCE_PARAM}. Predicates which occurred less than
+ * {@link Parameters#CUTOFF_PARAM} times are not part of the model, they are counted
+ * in an additional pass over the events before the first epoch.
+ * <p>
+ * The trained model is a {@link GISModel}, or a {@link HashedMaxentModel} if the
+ * predicates are hashed, and can be written and used like any other maxent model.
+ *
+ * @see GISModel
+ * @see HashedMaxentModel
+ */
+public class SGDTrainer extends AbstractTrainer<TrainingParameters>
+    implements EventTrainer<TrainingParameters> {
+
+  private static final Logger logger = LoggerFactory.getLogger(SGDTrainer.class);
+
+  public static final String MAXENT_SGD_VALUE = "MAXENT_SGD";
+
+  public static final String LEARNING_RATE_PARAM = "LearningRate";
+
+  /** The default learning rate is {@code 0.1d}. */
+  public static final double LEARNING_RATE_DEFAULT = 0.1;
+
+  public static final String BATCH_SIZE_PARAM = "BatchSize";
+
+  /** The default number of events per mini-batch is {@code 32}. */
+  public static final int BATCH_SIZE_DEFAULT = 32;
+
+  public static final String ADAGRAD_PARAM = "AdaGrad";
+  public static final boolean ADAGRAD_DEFAULT = true;
+
+  public static final String L2COST_PARAM = "L2Cost";
+
+  /** The default L2-cost value is {@code 0d}. */
+  public static final double L2COST_DEFAULT = 0;
+
+  public static final String TOLERANCE_PARAM = "Tolerance";
+
+  /** The default minimal change of the average loss between two epochs is {@code 0.00001d}. */
+  public static final double TOLERANCE_DEFAULT = 0.00001;
+
+  /** The default number of epochs is {@code 20}. */
+  public static final int EPOCHS_DEFAULT = 20;
+
+  private static final int INITIAL_CAPACITY = 1024;
+
+  private double learningRate;
+  private int batchSize;
+  private boolean adaGrad;
+  private double l2Cost;
+  private double tolerance;
+
+  /**
+   * Initializes a {@link SGDTrainer}.
+   */
+  public SGDTrainer() {
+    this.learningRate = LEARNING_RATE_DEFAULT;
+    this.batchSize    = BATCH_SIZE_DEFAULT;
+    this.adaGrad      = ADAGRAD_DEFAULT;
+    this.l2Cost       = L2COST_DEFAULT;
+    this.tolerance    = TOLERANCE_DEFAULT;
+  }
+
+  /**
+   * Initializes a {@link SGDTrainer} with the specified {@code parameters}.
+   *
+   * @param parameters The {@link TrainingParameters} to use.
+   */
+  public SGDTrainer(TrainingParameters parameters) {
+    super(parameters);
+  }
+
+  @Override
+  public void init(TrainingParameters trainingParameters, Map<String, String> reportMap) {
+    super.init(trainingParameters, reportMap);
+    this.learningRate = trainingParameters.getDoubleParameter(LEARNING_RATE_PARAM, LEARNING_RATE_DEFAULT);
+    this.batchSize = trainingParameters.getIntParameter(BATCH_SIZE_PARAM, BATCH_SIZE_DEFAULT);
+    this.adaGrad = trainingParameters.getBooleanParameter(ADAGRAD_PARAM, ADAGRAD_DEFAULT);
+    this.l2Cost = trainingParameters.getDoubleParameter(L2COST_PARAM, L2COST_DEFAULT);
+    this.tolerance = trainingParameters.getDoubleParameter(TOLERANCE_PARAM, TOLERANCE_DEFAULT);
+  }
+
+  /**
+   * @return Retrieves the configured number of epochs, {@link #EPOCHS_DEFAULT} if
+   *         {@link Parameters#ITERATIONS_PARAM} is not set.
+   */
+  public int getEpochs() {
+    return trainingParameters.getIntParameter(Parameters.ITERATIONS_PARAM, EPOCHS_DEFAULT);
+  }
+
+  @Override
+  public void validate() {
+    super.validate();
+
+    String algorithmName = getAlgorithm();
+    if (algorithmName != null && !(MAXENT_SGD_VALUE.equals(algorithmName))) {
+      throw new IllegalArgumentException("algorithmName must be " + MAXENT_SGD_VALUE);
+    }
+
+    if (getEpochs() <= 0) {
+      throw new IllegalArgumentException("Number of epochs must be > 0");
+    }
+
+    if (!(learningRate > 0)) {
+      throw new IllegalArgumentException("Learning rate must be > 0");
+    }
+
+    if (batchSize <= 0) {
+      throw new IllegalArgumentException("Batch size must be > 0");
+    }
+
+    if (l2Cost < 0) {
+      throw new IllegalArgumentException("Regularization costs must be >= 0");
+    }
+
+    if (tolerance < 0) {
+      throw new IllegalArgumentException("Tolerance must be >= 0");
+    }
+  }
+
+  /**
+   * Trains a model directly from the {@code events}, without indexing them first.
+   *
+   * @param events The {@link ObjectStream} of training {@link Event events}. It is
+   *               {@link ObjectStream#reset() reset} after the pass which counts the
+   *               predicates and before every epoch but the first.
+   * @return The trained {@link GISModel}, or a {@link HashedMaxentModel} if
+   *         {@link FeatureHasher#HASH_SIZE_PARAM} is set.
+   * @throws IOException Thrown if IO errors occurred.
+   * @throws InsufficientTrainingDataException Thrown if the events contain less than
+   *                                           two outcomes.
+   */
+  @Override
+  public AbstractModel train(ObjectStream<Event> events) throws IOException {
+    validate();
+
+    FeatureHasher hasher = FeatureHasher.fromParameters(trainingParameters);
+    Updater updater = new Updater(hasher != null ? hasher.getSize() : INITIAL_CAPACITY, getCutoff());
+
+    Map<String, Integer> predicateIndex = new HashMap<>();
+    List<String> predLabels = new ArrayList<>();
+    Map<String, Integer> outcomeIndex = new HashMap<>();
+    List<String> outcomeLabels = new ArrayList<>();
+    int[] predicates = new int[16];
+
+    // count the predicates first, so that the cutoff applies to all of their occurrences
+    if (getCutoff() > 1) {
+      Event event;
+      while ((event = events.read()) != null) {
+        for (String predicate : event.getContext()) {
+          updater.count(indexOf(predicate, hasher, predicateIndex, predLabels, updater));
+        }
+      }
+      events.reset();
+    }
+
+    int epochs = getEpochs();
+    logger.info("Performing {} epochs.", epochs);
+    for (int epoch = 0; epoch < epochs; epoch++) {
+      if (epoch > 0) {
+        events.reset();
+      }
+      updater.startEpoch(epoch);
+
+      Event event;
+      while ((event = events.read()) != null) {
+        String[] context = event.getContext();
+        if (predicates.length < context.length) {
+          predicates = new int[StrictMath.max(context.length, predicates.length * 2)];
+        }
+
+        for (int i = 0; i < context.length; i++) {
+          predicates[i] = indexOf(context[i], hasher, predicateIndex, predLabels, updater);
+        }
+
+        Integer outcome = outcomeIndex.get(event.getOutcome());
+        if (outcome == null) {
+          outcome = outcomeLabels.size();
+          outcomeIndex.put(event.getOutcome(), outcome);
+          outcomeLabels.add(event.getOutcome());
+          updater.setNumOutcomes(outcomeLabels.size());
+        }
+
+        updater.learn(predicates, event.getValues(), 0, context.length, outcome, 1);
+      }
+
+      if (outcomeLabels.size() <= 1) {
+        throw new InsufficientTrainingDataException("Training data must contain more than one outcome");
+      }
+      if (updater.finishEpoch()) {
+        break;
+      }
+    }
+
+    addToReport(Parameters.TRAINER_TYPE_PARAM, EVENT_VALUE);
+
+    String[] outcomeNames = outcomeLabels.toArray(new String[0]);
+    List<Context> params = new ArrayList<>();
+    List<String> modelPredLabels = new ArrayList<>();
+    List<Integer> buckets = new ArrayList<>();
+    int numPredicates = hasher != null ? hasher.getSize() : predLabels.size();
+    for (int pi = 0; pi < numPredicates; pi++) {
+      // predicates without parameters, e.g. unused buckets, are left out of the model
+      Context context = updater.getParameters(pi);
+      if (context != null && context.getOutcomes().length > 0) {
+        params.add(context);
+        if (hasher != null) {
+          buckets.add(pi);
+        } else {
+          modelPredLabels.add(predLabels.get(pi));
+        }
+      }
+    }
+
+    if (hasher != null) {
+      return new HashedMaxentModel(params.toArray(new Context[0]), ArrayMath.toIntArray(buckets),
+          hasher, outcomeNames);
+    }
+    return new GISModel(params.toArray(new Context[0]), modelPredLabels.toArray(new String[0]),
+        outcomeNames);
+  }
+
+  /**
+   * @return The index of the {@code predicate}, its bucket if {@code hasher} is set.
+   *         Predicates are numbered when they are seen for the first time.
+   */
+  private static int indexOf(String predicate, FeatureHasher hasher, Map<String, Integer> predicateIndex,
+                             List<String> predLabels, Updater updater) {
+    if (hasher != null) {
+      return hasher.bucket(predicate);
+    }
+    Integer index = predicateIndex.get(predicate);
+    if (index == null) {
+      index = predLabels.size();
+      predicateIndex.put(predicate, index);
+      predLabels.add(predicate);
+      updater.ensureCapacity(predLabels.size());
+    }
+    return index;
+  }
+
+  /**
+   * Trains a model on the events of the {@code indexer}. The events are visited in the
+   * order of the indexer, an event seen several times is weighted accordingly.
+   *
+   * @param indexer The {@link DataIndexer} which holds the indexed events.
+   * @return The trained {@link GISModel}, or a {@link HashedMaxentModel} if the
+   *         {@code indexer} hashes predicates.
+   * @throws InsufficientTrainingDataException Thrown if the events contain less than
+   *                                           two outcomes.
+   */
+  @Override
+  public AbstractModel train(DataIndexer<TrainingParameters> indexer) throws IOException {
+    validate();
+
+    String[] outcomeNames = indexer.getOutcomeLabels();
+    if (outcomeNames.length <= 1) {
+      throw new InsufficientTrainingDataException("Training data must contain more than one outcome");
+    }
+
+    String[] predLabels = indexer.getPredLabels();
+    FlatContexts contexts = indexer.getFlatContexts();
+    int[] offsets = contexts.getOffsets();
+    int[] predicates = contexts.getPredicates();
+    float[] values = contexts.getValues();
+    int[] outcomeList = indexer.getOutcomeList();
+    int[] numTimesEventsSeen = indexer.getNumTimesEventsSeen();
+
+    // the cutoff was already applied by the indexer
+    Updater updater = new Updater(predLabels.length, 0);
+    updater.setNumOutcomes(outcomeNames.length);
+
+    int epochs = getEpochs();
+    logger.info("Performing {} epochs.", epochs);
+    for (int epoch = 0; epoch < epochs; epoch++) {
+      updater.startEpoch(epoch);
+      for (int ei = 0; ei < contexts.size(); ei++) {
+        updater.learn(predicates, values, offsets[ei], offsets[ei + 1], outcomeList[ei],
+            numTimesEventsSeen[ei]);
+      }
+      if (updater.finishEpoch()) {
+        break;
+      }
+    }
+
+    addToReport(Parameters.TRAINER_TYPE_PARAM, EVENT_VALUE);
+
+    Context[] params = new Context[predLabels.length];
+    for (int pi = 0; pi < params.length; pi++) {
+      params[pi] = updater.getParameters(pi);
+    }
+
+    if (indexer.getFeatureHasher() != null) {
+      return new HashedMaxentModel(params, indexer.getPredicateBuckets(), indexer.getFeatureHasher(),
+          outcomeNames);
+    }
+    return new GISModel(params, predLabels, outcomeNames);
+  }
+
+  /**
+   * Holds the parameters of the model and updates them after each mini-batch.
+   * <p>
+   * The parameters, gradients and squared gradient sums of a predicate are allocated
+   * when the predicate is updated for the first time, with one element per outcome
+   * known at that time. They are grown when further outcomes are seen.
+   */
+  private class Updater {
+
+    private final int cutoff;
+    private int[] counts;
+
+    private double[][] weights;
+    private double[][] gradients;
+    private double[][] squaredGradients;
+
+    private int[] touchedPreds;
+    private boolean[] isTouched;
+    private int numTouched;
+
+    private int numOutcomes;
+    private double[] probs = new double[0];
+
+    private int batchEvents;
+    private long batchWeight;
+
+    private int epoch;
+    private double loss;
+    private long numEvents;
+    private long numCorrect;
+    private double previousLoss = Double.NaN;
+
+    /**
+     * @param capacity The initial number of predicates.
+     * @param cutoff The minimal number of times a predicate must be counted to be updated.
+     */
+    Updater(int capacity, int cutoff) {
+      this.cutoff = cutoff;
+      counts = cutoff > 1 ? new int[capacity] : null;
+      weights = new double[capacity][];
+      gradients = new double[capacity][];
+      squaredGradients = adaGrad ? new double[capacity][] : null;
+      touchedPreds = new int[capacity];
+      isTouched = new boolean[capacity];
+    }
+
+    void ensureCapacity(int numPredicates) {
+      if (numPredicates > weights.length) {
+        int capacity = StrictMath.max(numPredicates, weights.length * 2);
+        if (counts != null) {
+          counts = Arrays.copyOf(counts, capacity);
+        }
+        weights = Arrays.copyOf(weights, capacity);
+        gradients = Arrays.copyOf(gradients, capacity);
+        if (squaredGradients != null) {
+          squaredGradients = Arrays.copyOf(squaredGradients, capacity);
+        }
+        touchedPreds = Arrays.copyOf(touchedPreds, capacity);
+        isTouched = Arrays.copyOf(isTouched, capacity);
+      }
+    }
+
+    void count(int pi) {
+      if (counts != null) {
+        counts[pi]++;
+      }
+    }
+
+    void setNumOutcomes(int numOutcomes) {
+      this.numOutcomes = numOutcomes;
+      probs = new double[numOutcomes];
+    }
+
+    void startEpoch(int epoch) {
+      this.epoch = epoch;
+      loss = 0;
+      numEvents = 0;
+      numCorrect = 0;
+    }
+
+    /**
+     * Computes the gradient of the loss of one event and adds it to the gradient of
+     * the current mini-batch, the parameters are updated once the mini-batch is full.
+     */
+    void learn(int[] predicates, float[] values, int start, int end, int outcome, int weight) {
+      Arrays.fill(probs, 0);
+      for (int i = start; i < end; i++) {
+        double[] row = weights[predicates[i]];
+        if (row != null) {
+          double value = values != null ? values[i] : 1;
+          for (int oi = 0; oi < row.length; oi++) {
+            probs[oi] += row[oi] * value;
+          }
+        }
+      }
+      ArrayMath.softmax(probs, 0, numOutcomes);
+
+      // the loss and accuracy of the parameters before the update
+      loss -= StrictMath.log(StrictMath.max(probs[outcome], Double.MIN_NORMAL)) * weight;
+      if (ArrayMath.argmax(probs) == outcome) {
+        numCorrect += weight;
+      }
+      numEvents += weight;
+
+      for (int i = start; i < end; i++) {
+        int pi = predicates[i];
+        if (counts != null && counts[pi] < cutoff) {
+          continue;
+        }
+
+        double[] gradient = gradientOf(pi);
+        double value = (values != null ? values[i] : 1) * weight;
+        for (int oi = 0; oi < numOutcomes; oi++) {
+          gradient[oi] += value * probs[oi];
+        }
+        gradient[outcome] -= value;
+      }
+
+      batchWeight += weight;
+      if (++batchEvents == batchSize) {
+        update();
+      }
+    }
+
+    private double[] gradientOf(int pi) {
+      if (!isTouched[pi]) {
+        isTouched[pi] = true;
+        touchedPreds[numTouched++] = pi;
+      }
+
+      if (gradients[pi] == null || gradients[pi].length < numOutcomes) {
+        weights[pi] = grow(weights[pi]);
+        gradients[pi] = grow(gradients[pi]);
+        if (squaredGradients != null) {
+          squaredGradients[pi] = grow(squaredGradients[pi]);
+        }
+      }
+      return gradients[pi];
+    }
+
+    private double[] grow(double[] row) {
+      return row == null ? new double[numOutcomes] : Arrays.copyOf(row, numOutcomes);
+    }
+
+    private void update() {
+      double rate = learningRate / (epoch + 1);
+      for (int t = 0; t < numTouched; t++) {
+        int pi = touchedPreds[t];
+        isTouched[pi] = false;
+
+        double[] w = weights[pi];
+        double[] g = gradients[pi];
+        for (int oi = 0; oi < g.length; oi++) {
+          double gradient = g[oi] / batchWeight + l2Cost * w[oi];
+          g[oi] = 0;
+          if (squaredGradients != null) {
+            double[] h = squaredGradients[pi];
+            h[oi] += gradient * gradient;
+            if (h[oi] > 0) {
+              w[oi] -= learningRate * gradient / StrictMath.sqrt(h[oi]);
+            }
+          } else {
+            w[oi] -= rate * gradient;
+          }
+        }
+      }
+
+      numTouched = 0;
+      batchEvents = 0;
+      batchWeight = 0;
+    }
+
+    /**
+     * Applies the last, incomplete mini-batch and logs the statistics of the epoch.
+     *
+     * @return {@code true} if the average loss changed less than the tolerance.
+     */
+    boolean finishEpoch() {
+      if (batchEvents > 0) {
+        update();
+      }
+
+      double averageLoss = loss / numEvents;
+      logger.info("{}: loss={}\taccuracy={}", epoch + 1, averageLoss, (double) numCorrect / numEvents);
+      boolean converged = StrictMath.abs(previousLoss - averageLoss) < tolerance;
+      previousLoss = averageLoss;
+      return converged;
+    }
+
+    /**
+     * @param pi The index of a predicate.
+     * @return The non-zero parameters of the predicate, or {@code null} if the predicate
+     *         was cut off.
+     */
+    Context getParameters(int pi) {
+      if (counts != null && counts[pi] < cutoff) {
+        return null;
+      }
+
+      double[] row = weights[pi] != null ? weights[pi] : new double[0];
+      List<Integer> outcomePattern = new ArrayList<>(row.length);
+      List<Double> alpha = new ArrayList<>(row.length);
+      for (int oi = 0; oi < row.length; oi++) {
+        if (row[oi] != 0) {
+          outcomePattern.add(oi);
+          alpha.add(row[oi]);
+        }
+      }
+      return new Context(ArrayMath.toIntArray(outcomePattern), ArrayMath.toDoubleArray(alpha));
+    }
+  }
+}
@@ -221,6 +221,12 @@ public class GISIndexingTest {
     di = DataIndexerFactory.getDataIndexer(parameters, myReportMap);
     Assertions.assertEquals("opennlp.tools.ml.model.OnePassRealValueDataIndexer", di.getClass().getName());
 
+    // test with a parallel 1-pass data indexer
+    parameters.put(AbstractEventTrainer.DATA_INDEXER_PARAM,
+        AbstractEventTrainer.DATA_INDEXER_PARALLEL_ONE_PASS_VALUE);
+    di = DataIndexerFactory.getDataIndexer(parameters, myReportMap);
+    Assertions.assertEquals("opennlp.tools.ml.model.ParallelOnePassDataIndexer", di.getClass().getName());
+
 
     // test with an UNRegistered MockIndexer
     parameters.put(AbstractEventTrainer.DATA_INDEXER_PARAM, "opennlp.tools.ml.maxent.MockDataIndexer");
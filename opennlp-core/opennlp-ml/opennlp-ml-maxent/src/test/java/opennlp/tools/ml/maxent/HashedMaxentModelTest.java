@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.maxent;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import opennlp.tools.ml.AlgorithmType;
+import opennlp.tools.ml.EventTrainer;
+import opennlp.tools.ml.PrepAttachDataUtil;
+import opennlp.tools.ml.maxent.quasinewton.QNTrainer;
+import opennlp.tools.ml.model.AbstractModel;
+import opennlp.tools.ml.model.BinaryFileDataReader;
+import opennlp.tools.ml.model.Context;
+import opennlp.tools.ml.model.EvalScratch;
+import opennlp.tools.ml.model.FeatureHasher;
+import opennlp.tools.ml.model.GenericModelReader;
+import opennlp.tools.ml.model.GenericModelWriter;
+import opennlp.tools.ml.model.MaxentModel;
+import opennlp.tools.util.Parameters;
+import opennlp.tools.util.TrainingParameters;
+
+public class HashedMaxentModelTest {
+
+  private static TrainingParameters hashingParameters(String algorithm, int hashSize) {
+    TrainingParameters trainParams = new TrainingParameters();
+    trainParams.put(Parameters.ALGORITHM_PARAM, algorithm);
+    trainParams.put(Parameters.CUTOFF_PARAM, 1);
+    trainParams.put(FeatureHasher.HASH_SIZE_PARAM, hashSize);
+    return trainParams;
+  }
+
+  private static MaxentModel train(EventTrainer<TrainingParameters> trainer,
+                                   TrainingParameters trainParams) throws IOException {
+    trainer.init(trainParams, null);
+    return trainer.train(PrepAttachDataUtil.createTrainingStream());
+  }
+
+  @Test
+  void testGISOnPrepAttachData() throws IOException {
+    MaxentModel model = train(new GISTrainer(),
+        hashingParameters(Parameters.ALGORITHM_DEFAULT_VALUE, 1 << 18));
+
+    Assertions.assertInstanceOf(HashedMaxentModel.class, model);
+    Assertions.assertEquals(AlgorithmType.MAXENT_HASHED, ((AbstractModel) model).getModelType());
+    PrepAttachDataUtil.testModel(model, 0.7982173805397376);
+  }
+
+  @Test
+  void testQNOnPrepAttachData() throws IOException {
+    MaxentModel model = train(new QNTrainer(),
+        hashingParameters(QNTrainer.MAXENT_QN_VALUE, 1 << 18));
+
+    Assertions.assertInstanceOf(HashedMaxentModel.class, model);
+    PrepAttachDataUtil.testModel(model, 0.8140628868531815);
+  }
+
+  @Test
+  void testSerialization() throws IOException {
+    HashedMaxentModel model = (HashedMaxentModel) train(new GISTrainer(),
+        hashingParameters(Parameters.ALGORITHM_DEFAULT_VALUE, 1 << 10));
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new GenericModelWriter(model, new DataOutputStream(out)).persist();
+
+    AbstractModel read = new GenericModelReader(new BinaryFileDataReader(
+        new DataInputStream(new ByteArrayInputStream(out.toByteArray())))).getModel();
+
+    Assertions.assertEquals(model, read);
+    Assertions.assertEquals(model.getFeatureHasher(), ((HashedMaxentModel) read).getFeatureHasher());
+
+    String[] context = {"verb=join", "noun=board", "prep=as", "prep_obj=director"};
+    Assertions.assertArrayEquals(model.eval(context), read.eval(context), 0d);
+  }
+
+  @Test
+  void testEvalWithScratch() throws IOException {
+    MaxentModel model = train(new GISTrainer(),
+        hashingParameters(Parameters.ALGORITHM_DEFAULT_VALUE, 1 << 10));
+
+    String[] context = {"verb=join", "noun=board", "prep=as", "prep_obj=director", "unseen"};
+    EvalScratch scratch = new EvalScratch();
+    Assertions.assertArrayEquals(model.eval(context),
+        Arrays.copyOf(model.eval(context, scratch), model.getNumOutcomes()), 0d);
+  }
+
+  @Test
+  void testOnlyUsedBucketsAreStored() {
+    Context first = new Context(new int[] {0}, new double[] {1.0});
+    Context last = new Context(new int[] {1}, new double[] {2.0});
+    Context high = new Context(new int[] {0, 1}, new double[] {3.0, 4.0});
+    HashedMaxentModel model = new HashedMaxentModel(new Context[] {high, first, last},
+        new int[] {1 << 20, 3, 3}, new FeatureHasher(1 << 24, 0), new String[] {"a", "b"});
+
+    Assertions.assertEquals(2, model.getParameters().getNumPredicates());
+    Assertions.assertArrayEquals(new int[] {3, 1 << 20}, model.getBuckets());
+    Assertions.assertEquals(last, model.getParameters().getContext(0));
+    Assertions.assertEquals(high, model.getParameters().getContext(1));
+  }
+
+  @Test
+  void testMismatchingBuckets() {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new HashedMaxentModel(
+        new Context[0], new int[] {1}, new FeatureHasher(4, 0),
+        new String[] {"a", "b"}));
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.maxent;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import opennlp.tools.ml.EventTrainer;
+import opennlp.tools.ml.PrepAttachDataUtil;
+import opennlp.tools.ml.maxent.quasinewton.QNModel;
+import opennlp.tools.ml.maxent.quasinewton.QNTrainer;
+import opennlp.tools.ml.model.AbstractModel;
+import opennlp.tools.ml.model.Context;
+import opennlp.tools.ml.model.MappedModelReader;
+import opennlp.tools.ml.model.MappedModelWriter;
+import opennlp.tools.util.InvalidFormatException;
+import opennlp.tools.util.Parameters;
+import opennlp.tools.util.TrainingParameters;
+
+/**
+ * Tests for the memory-mapped model format with {@link GISModel} and {@link QNModel}.
+ */
+public class MappedModelTest {
+
+  @TempDir
+  private Path tempDir;
+
+  private AbstractModel train(EventTrainer<TrainingParameters> trainer, String algorithm)
+      throws IOException {
+    TrainingParameters trainParams = new TrainingParameters();
+    trainParams.put(Parameters.ALGORITHM_PARAM, algorithm);
+    trainParams.put(Parameters.CUTOFF_PARAM, 1);
+    trainer.init(trainParams, null);
+    return (AbstractModel) trainer.train(PrepAttachDataUtil.createTrainingStream());
+  }
+
+  private AbstractModel mapped(AbstractModel model) throws IOException {
+    Path file = tempDir.resolve("model.mapped");
+    new MappedModelWriter(model, file).persist();
+    return new MappedModelReader(file).getModel();
+  }
+
+  @Test
+  void testGISModel() throws IOException {
+    AbstractModel model = train(new GISTrainer(), Parameters.ALGORITHM_DEFAULT_VALUE);
+    AbstractModel mapped = mapped(model);
+
+    Assertions.assertInstanceOf(GISModel.class, mapped);
+    Assertions.assertEquals(model, mapped);
+    PrepAttachDataUtil.testModel(mapped, 0.7997028967566229);
+  }
+
+  @Test
+  void testQNModel() throws IOException {
+    AbstractModel model = train(new QNTrainer(), QNTrainer.MAXENT_QN_VALUE);
+    AbstractModel mapped = mapped(model);
+
+    Assertions.assertInstanceOf(QNModel.class, mapped);
+    Assertions.assertEquals(model, mapped);
+    PrepAttachDataUtil.testModel(mapped, 0.8155484030700668);
+  }
+
+  @Test
+  void testNonAsciiPredicates() throws IOException {
+    String[] predicates = {"w=café", "w=€", "w=𝄞", "w=\u0000", "w=\ud800", "w="};
+    Context[] params = new Context[predicates.length];
+    for (int i = 0; i < params.length; i++) {
+      params[i] = new Context(new int[] {i % 2}, new double[] {i + 1});
+    }
+    GISModel model = new GISModel(params, predicates, new String[] {"a", "b"});
+    AbstractModel mapped = mapped(model);
+
+    for (String predicate : predicates) {
+      Assertions.assertArrayEquals(model.eval(new String[] {predicate}),
+          mapped.eval(new String[] {predicate}), 0d);
+    }
+    Assertions.assertArrayEquals(model.eval(new String[] {"w=caf"}),
+        mapped.eval(new String[] {"w=caf"}), 0d);
+    Assertions.assertEquals(model, mapped);
+  }
+
+  @Test
+  void testDataStructures() throws IOException {
+    String[] predicates = {"a", "b", "c"};
+    Context[] params = {
+        new Context(new int[] {0, 2}, new double[] {1.0, 2.0}),
+        new Context(new int[] {1}, new double[] {-0.5}),
+        new Context(new int[] {}, new double[] {})
+    };
+    AbstractModel mapped = mapped(new GISModel(params, predicates, new String[] {"x", "y", "z"}));
+    Object[] data = mapped.getDataStructures();
+
+    Assertions.assertArrayEquals(params, (Context[]) data[0]);
+    Assertions.assertEquals(Set.of("a", "b", "c"), ((Map<?, ?>) data[1]).keySet());
+    Assertions.assertArrayEquals(new String[] {"x", "y", "z"}, (String[]) data[2]);
+  }
+
+  @Test
+  void testInvalidFormat() {
+    Assertions.assertThrows(InvalidFormatException.class,
+        () -> MappedModelReader.read(ByteBuffer.allocate(128)));
+  }
+
+  @Test
+  void testTruncated() throws IOException {
+    Path file = tempDir.resolve("model.mapped");
+    new MappedModelWriter(train(new GISTrainer(), Parameters.ALGORITHM_DEFAULT_VALUE), file).persist();
+    byte[] bytes = Files.readAllBytes(file);
+
+    Assertions.assertThrows(InvalidFormatException.class,
+        () -> MappedModelReader.read(ByteBuffer.wrap(bytes, 0, bytes.length / 2).slice()));
+  }
+
+  @Test
+  void testOversizedSection() throws IOException {
+    Path file = tempDir.resolve("model.mapped");
+    new MappedModelWriter(train(new GISTrainer(), Parameters.ALGORITHM_DEFAULT_VALUE), file).persist();
+    ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+    // the parameter block of this many entries does not fit into an int sized section
+    buffer.putInt(16, 1 << 29);
+
+    Assertions.assertThrowsExactly(IOException.class, () -> MappedModelReader.read(buffer));
+  }
+}
@@ -18,12 +18,17 @@
 package opennlp.tools.ml.maxent;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.HashMap;
 
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import opennlp.tools.ml.AbstractEventTrainer;
+import opennlp.tools.ml.Checkpointer;
 import opennlp.tools.ml.EventTrainer;
 import opennlp.tools.ml.PrepAttachDataUtil;
 import opennlp.tools.ml.model.AbstractDataIndexer;
@@ -109,4 +114,28 @@ public class MaxentPrepAttachTest {
 
     PrepAttachDataUtil.testModel(model, 0.8103490963109681);
   }
+
+  @Test
+  void testMaxentOnPrepAttachDataResumedFromCheckpoint(@TempDir Path tempDir) throws IOException {
+    TrainingParameters trainParams = new TrainingParameters();
+    trainParams.put(Parameters.ALGORITHM_PARAM, Parameters.ALGORITHM_DEFAULT_VALUE);
+    trainParams.put(Parameters.ITERATIONS_PARAM, 40);
+    Path checkpoint = tempDir.resolve("gis.checkpoint");
+    trainParams.put(Checkpointer.FILE_PARAM, checkpoint.toString());
+    trainParams.put(Checkpointer.INTERVAL_PARAM, 40);
+
+    EventTrainer<TrainingParameters> trainer = new GISTrainer();
+    trainer.init(trainParams, null);
+    trainer.train(PrepAttachDataUtil.createTrainingStream());
+    Assertions.assertTrue(Files.exists(checkpoint));
+
+    // the resumed run continues after iteration 40 and ends with the same model
+    trainParams.put(Parameters.ITERATIONS_PARAM, 100);
+    trainParams.put(Checkpointer.RESUME_PARAM, true);
+    trainer = new GISTrainer();
+    trainer.init(trainParams, null);
+    MaxentModel model = trainer.train(PrepAttachDataUtil.createTrainingStream());
+
+    PrepAttachDataUtil.testModel(model, 0.8086159940579352);
+  }
 }
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.maxent;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import opennlp.tools.ml.PrepAttachDataUtil;
+import opennlp.tools.ml.maxent.quasinewton.QNModel;
+import opennlp.tools.ml.maxent.quasinewton.QNTrainer;
+import opennlp.tools.ml.model.AbstractModel;
+import opennlp.tools.ml.model.Context;
+import opennlp.tools.ml.model.GenericModelReader;
+import opennlp.tools.ml.model.GenericModelWriter;
+import opennlp.tools.ml.model.ModelPruner;
+import opennlp.tools.util.Parameters;
+import opennlp.tools.util.TrainingParameters;
+
+/**
+ * Tests for {@link ModelPruner} with {@link GISModel} and {@link QNModel}.
+ */
+public class ModelPrunerTest {
+
+  @TempDir
+  private File tempDir;
+
+  private static int numPredicates(AbstractModel model) {
+    return ((Map<?, ?>) model.getDataStructures()[1]).size();
+  }
+
+  private static GISModel createModel() {
+    Context[] params = {
+        new Context(new int[] {0, 1}, new double[] {1.0, 0.01}),
+        new Context(new int[] {1}, new double[] {-0.02}),
+        new Context(new int[] {0, 1}, new double[] {0.5, -2.0})
+    };
+    return new GISModel(params, new String[] {"a", "b", "c"}, new String[] {"x", "y"});
+  }
+
+  @Test
+  void testThreshold() {
+    GISModel model = createModel();
+    AbstractModel pruned = new ModelPruner(0.1).prune(model);
+
+    Assertions.assertInstanceOf(GISModel.class, pruned);
+    Object[] data = pruned.getDataStructures();
+    Assertions.assertEquals(Set.of("a", "c"), ((Map<?, ?>) data[1]).keySet());
+    Assertions.assertArrayEquals(new Context[] {
+        new Context(new int[] {0}, new double[] {1.0}),
+        new Context(new int[] {0, 1}, new double[] {0.5, -2.0})}, (Context[]) data[0]);
+
+    // a dropped parameter is evaluated like a parameter of zero
+    GISModel zeroed = new GISModel(new Context[] {
+        new Context(new int[] {0, 1}, new double[] {1.0, 0}),
+        new Context(new int[] {1}, new double[] {0}),
+        new Context(new int[] {0, 1}, new double[] {0.5, -2.0})},
+        new String[] {"a", "b", "c"}, new String[] {"x", "y"});
+    String[] context = {"a", "b", "c"};
+    Assertions.assertArrayEquals(zeroed.eval(context), pruned.eval(context), 0d);
+  }
+
+  @Test
+  void testMaxPredicates() {
+    AbstractModel pruned = new ModelPruner(0, 1).prune(createModel());
+
+    Assertions.assertEquals(Set.of("c"), ((Map<?, ?>) pruned.getDataStructures()[1]).keySet());
+  }
+
+  @Test
+  void testZeroThresholdKeepsModel() throws IOException {
+    TrainingParameters trainParams = new TrainingParameters();
+    trainParams.put(Parameters.ALGORITHM_PARAM, Parameters.ALGORITHM_DEFAULT_VALUE);
+    trainParams.put(Parameters.CUTOFF_PARAM, 1);
+    GISTrainer trainer = new GISTrainer();
+    trainer.init(trainParams, null);
+    AbstractModel model = (AbstractModel) trainer.train(PrepAttachDataUtil.createTrainingStream());
+
+    AbstractModel pruned = new ModelPruner(0).prune(model);
+    Assertions.assertEquals(model, pruned);
+    PrepAttachDataUtil.testModel(pruned, 0.7997028967566229);
+  }
+
+  @Test
+  void testPruneQNModel() throws IOException {
+    TrainingParameters trainParams = new TrainingParameters();
+    trainParams.put(Parameters.ALGORITHM_PARAM, QNTrainer.MAXENT_QN_VALUE);
+    trainParams.put(Parameters.CUTOFF_PARAM, 1);
+    QNTrainer trainer = new QNTrainer();
+    trainer.init(trainParams, null);
+    AbstractModel model = (AbstractModel) trainer.train(PrepAttachDataUtil.createTrainingStream());
+
+    AbstractModel pruned = new ModelPruner(0.1, 1000).prune(model);
+    Assertions.assertInstanceOf(QNModel.class, pruned);
+    Assertions.assertTrue(numPredicates(pruned) <= 1000);
+    Assertions.assertTrue(numPredicates(pruned) < numPredicates(model));
+
+    File file = new File(tempDir, "pruned.bin.gz");
+    new GenericModelWriter(pruned, file).persist();
+    AbstractModel read = new GenericModelReader(file).getModel();
+    Assertions.assertEquals(pruned, read);
+
+    Assertions.assertEquals(0.785590492696212,
+        ModelPruner.accuracy(read, PrepAttachDataUtil.createDevStream()), 0.00001);
+    Assertions.assertEquals(0.8155484030700668,
+        ModelPruner.accuracy(model, PrepAttachDataUtil.createDevStream()), 0.00001);
+  }
+
+  @Test
+  void testInvalidParameters() {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new ModelPruner(-1));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new ModelPruner(Double.NaN));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new ModelPruner(0, 0));
+  }
+}
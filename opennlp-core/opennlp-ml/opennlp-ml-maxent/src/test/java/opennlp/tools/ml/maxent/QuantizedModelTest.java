@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.maxent;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import opennlp.tools.ml.EventTrainer;
+import opennlp.tools.ml.PrepAttachDataUtil;
+import opennlp.tools.ml.maxent.quasinewton.QNModel;
+import opennlp.tools.ml.maxent.quasinewton.QNTrainer;
+import opennlp.tools.ml.model.AbstractModel;
+import opennlp.tools.ml.model.Context;
+import opennlp.tools.ml.model.GenericModelWriter;
+import opennlp.tools.ml.model.QuantizedModelReader;
+import opennlp.tools.ml.model.QuantizedModelWriter;
+import opennlp.tools.ml.model.QuantizedParameters.Precision;
+import opennlp.tools.util.InvalidFormatException;
+import opennlp.tools.util.Parameters;
+import opennlp.tools.util.TrainingParameters;
+
+/**
+ * Tests for the quantized model format with {@link GISModel} and {@link QNModel}.
+ */
+public class QuantizedModelTest {
+
+  @TempDir
+  private Path tempDir;
+
+  private AbstractModel train(EventTrainer<TrainingParameters> trainer, String algorithm)
+      throws IOException {
+    TrainingParameters trainParams = new TrainingParameters();
+    trainParams.put(Parameters.ALGORITHM_PARAM, algorithm);
+    trainParams.put(Parameters.CUTOFF_PARAM, 1);
+    trainer.init(trainParams, null);
+    return (AbstractModel) trainer.train(PrepAttachDataUtil.createTrainingStream());
+  }
+
+  private AbstractModel writeAndRead(AbstractModel model, Precision precision) throws IOException {
+    Path file = tempDir.resolve("model.quantized");
+    new QuantizedModelWriter(model, precision, file).persist();
+    return new QuantizedModelReader(file).getModel();
+  }
+
+  @Test
+  void testGISModelFloat32() throws IOException {
+    AbstractModel model = train(new GISTrainer(), Parameters.ALGORITHM_DEFAULT_VALUE);
+    AbstractModel quantized = QuantizedModelWriter.quantize(model, Precision.FLOAT32);
+    AbstractModel read = writeAndRead(model, Precision.FLOAT32);
+
+    Assertions.assertInstanceOf(GISModel.class, read);
+    Assertions.assertEquals(quantized, read);
+    PrepAttachDataUtil.testModel(read, 0.7997028967566229);
+  }
+
+  @Test
+  void testGISModelInt8() throws IOException {
+    AbstractModel model = train(new GISTrainer(), Parameters.ALGORITHM_DEFAULT_VALUE);
+    AbstractModel read = writeAndRead(model, Precision.INT8);
+
+    Assertions.assertEquals(QuantizedModelWriter.quantize(model, Precision.INT8), read);
+    PrepAttachDataUtil.testModel(read, 0.7994553107204754);
+  }
+
+  @Test
+  void testQNModelInt8() throws IOException {
+    AbstractModel model = train(new QNTrainer(), QNTrainer.MAXENT_QN_VALUE);
+    AbstractModel read = writeAndRead(model, Precision.INT8);
+
+    Assertions.assertInstanceOf(QNModel.class, read);
+    PrepAttachDataUtil.testModel(read, 0.8155484030700668);
+
+    File generic = tempDir.resolve("model.bin").toFile();
+    new GenericModelWriter(model, generic).persist();
+    Assertions.assertTrue(Files.size(tempDir.resolve("model.quantized")) < generic.length());
+  }
+
+  @Test
+  void testInt8Rounding() throws IOException {
+    Context[] params = {
+        new Context(new int[] {0, 2}, new double[] {1.27, -0.5}),
+        new Context(new int[] {1}, new double[] {-0.001}),
+        new Context(new int[] {}, new double[] {}),
+        new Context(new int[] {0, 1, 2}, new double[] {0, 0, 0})
+    };
+    GISModel model = new GISModel(params, new String[] {"a", "b", "c", "d"},
+        new String[] {"x", "y", "z"});
+    AbstractModel read = writeAndRead(model, Precision.INT8);
+
+    // each parameter is rounded to a multiple of its predicate's scale
+    float scaleA = (float) (1.27 / 127);
+    float scaleB = (float) (0.001 / 127);
+    Object[] data = read.getDataStructures();
+    Assertions.assertArrayEquals(new Context[] {
+        new Context(new int[] {0, 2}, new double[] {127 * scaleA, -50 * scaleA}),
+        new Context(new int[] {1}, new double[] {-127 * scaleB}),
+        new Context(new int[] {}, new double[] {}),
+        new Context(new int[] {0, 1, 2}, new double[] {0, 0, 0})}, (Context[]) data[0]);
+
+    String[] context = {"a", "b", "d", "unknown"};
+    Assertions.assertArrayEquals(model.eval(context), read.eval(context), 0.001);
+  }
+
+  @Test
+  void testInvalidFormat() {
+    Assertions.assertThrows(InvalidFormatException.class,
+        () -> QuantizedModelReader.read(new ByteArrayInputStream(new byte[8])));
+    Assertions.assertThrows(InvalidFormatException.class, () -> QuantizedModelReader.read(
+        new ByteArrayInputStream(ByteBuffer.allocate(8).putInt(0x4F4E5150).putInt(3).array())));
+  }
+}
@@ -22,11 +22,13 @@ import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import opennlp.tools.ml.ComputeEngine;
 import opennlp.tools.ml.model.DataIndexer;
 import opennlp.tools.ml.model.OnePassRealValueDataIndexer;
 import opennlp.tools.ml.model.RealValueFileEventStream;
@@ -182,6 +184,53 @@ public class NegLogLikelihoodTest {
         testDataIndexer, TOLERANCE01));
   }
 
+  @Test
+  void testParallelValueAndGradient() throws IOException {
+    // given
+    RealValueFileEventStream rvfes1 = new RealValueFileEventStream(
+        "src/test/resources/data/opennlp/maxent/real-valued-weights-training-data.txt",
+        StandardCharsets.UTF_8.name());
+    testDataIndexer.index(rvfes1);
+    NegLogLikelihood objectFunction = new NegLogLikelihood(testDataIndexer);
+    double[] point = dealignDoubleArrayForTestData(
+        new double[] {0.2, 0.5, 0.2, 0.5, 0.2, 0.5, 0.2, 0.5, 0.2, 0.5},
+        testDataIndexer.getPredLabels(), testDataIndexer.getOutcomeLabels());
+    double expectedValue = objectFunction.valueAt(point);
+    double[] expectedGradient = objectFunction.gradientAt(point).clone();
+
+    try (ComputeEngine engine = new ComputeEngine(3)) {
+      ParallelNegLogLikelihood parallelFunction = new ParallelNegLogLikelihood(testDataIndexer, engine);
+      // when, the engine is reused for several evaluations
+      for (int i = 0; i < 3; i++) {
+        // then
+        Assertions.assertEquals(expectedValue, parallelFunction.valueAt(point), TOLERANCE02);
+        Assertions.assertArrayEquals(expectedGradient, parallelFunction.gradientAt(point), TOLERANCE02);
+      }
+    }
+  }
+
+  @Test
+  void testParallelWithOwnEngine() throws IOException {
+    // given
+    RealValueFileEventStream rvfes1 = new RealValueFileEventStream(
+        "src/test/resources/data/opennlp/maxent/real-valued-weights-training-data.txt",
+        StandardCharsets.UTF_8.name());
+    testDataIndexer.index(rvfes1);
+    double[] point = dealignDoubleArrayForTestData(
+        new double[] {0.2, 0.5, 0.2, 0.5, 0.2, 0.5, 0.2, 0.5, 0.2, 0.5},
+        testDataIndexer.getPredLabels(), testDataIndexer.getOutcomeLabels());
+    double expectedValue = new NegLogLikelihood(testDataIndexer).valueAt(point);
+
+    // when
+    ParallelNegLogLikelihood parallelFunction = new ParallelNegLogLikelihood(testDataIndexer, 2);
+    try (parallelFunction) {
+      Assertions.assertEquals(expectedValue, parallelFunction.valueAt(point), TOLERANCE02);
+    }
+
+    // then, the own engine was closed
+    Assertions.assertThrows(RejectedExecutionException.class, () -> parallelFunction.valueAt(point));
+  }
+
   private double[] alignDoubleArrayForTestData(double[] expected,
                                                String[] predLabels, String[] outcomeLabels) {
     double[] aligned = new double[predLabels.length * outcomeLabels.length];
@@ -18,11 +18,16 @@
 package opennlp.tools.ml.maxent.quasinewton;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.HashMap;
 
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import opennlp.tools.ml.AbstractEventTrainer;
+import opennlp.tools.ml.Checkpointer;
 import opennlp.tools.ml.PrepAttachDataUtil;
 import opennlp.tools.ml.model.AbstractDataIndexer;
 import opennlp.tools.ml.model.AbstractModel;
@@ -118,5 +123,26 @@ public class QNPrepAttachTest {
     MaxentModel model = trainer.train(PrepAttachDataUtil.createTrainingStream());
     PrepAttachDataUtil.testModel(model, 0.8115870264917059);
   }
-}
 
+  @Test
+  void testQNOnPrepAttachDataResumedFromCheckpoint(@TempDir Path tempDir) throws IOException {
+    TrainingParameters trainParams = new TrainingParameters();
+    trainParams.put(Parameters.ALGORITHM_PARAM, QNTrainer.MAXENT_QN_VALUE);
+    trainParams.put(Parameters.ITERATIONS_PARAM, 30);
+    Path checkpoint = tempDir.resolve("qn.checkpoint");
+    trainParams.put(Checkpointer.FILE_PARAM, checkpoint.toString());
+    trainParams.put(Checkpointer.INTERVAL_PARAM, 30);
+
+    QNTrainer trainer = new QNTrainer();
+    trainer.init(trainParams, null);
+    trainer.train(PrepAttachDataUtil.createTrainingStream());
+    Assertions.assertTrue(Files.exists(checkpoint));
+
+    trainParams.put(Parameters.ITERATIONS_PARAM, 100);
+    trainParams.put(Checkpointer.RESUME_PARAM, true);
+    trainer = new QNTrainer();
+    trainer.init(trainParams, null);
+    MaxentModel model = trainer.train(PrepAttachDataUtil.createTrainingStream());
+    PrepAttachDataUtil.testModel(model, 0.8123297846001486);
+  }
+}
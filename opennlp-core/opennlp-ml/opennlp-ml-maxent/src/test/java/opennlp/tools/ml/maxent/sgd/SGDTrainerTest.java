@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml.maxent.sgd;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import opennlp.tools.ml.PrepAttachDataUtil;
+import opennlp.tools.ml.maxent.GISModel;
+import opennlp.tools.ml.maxent.HashedMaxentModel;
+import opennlp.tools.ml.model.AbstractDataIndexer;
+import opennlp.tools.ml.model.AbstractModel;
+import opennlp.tools.ml.model.BinaryFileDataReader;
+import opennlp.tools.ml.model.DataIndexer;
+import opennlp.tools.ml.model.Event;
+import opennlp.tools.ml.model.FeatureHasher;
+import opennlp.tools.ml.model.GenericModelReader;
+import opennlp.tools.ml.model.GenericModelWriter;
+import opennlp.tools.ml.model.MaxentModel;
+import opennlp.tools.ml.model.TwoPassDataIndexer;
+import opennlp.tools.util.InsufficientTrainingDataException;
+import opennlp.tools.util.ObjectStreamUtils;
+import opennlp.tools.util.Parameters;
+import opennlp.tools.util.TrainingParameters;
+
+public class SGDTrainerTest {
+
+  private static TrainingParameters createParameters() {
+    TrainingParameters trainParams = new TrainingParameters();
+    trainParams.put(Parameters.ALGORITHM_PARAM, SGDTrainer.MAXENT_SGD_VALUE);
+    trainParams.put(Parameters.CUTOFF_PARAM, 1);
+    return trainParams;
+  }
+
+  private static MaxentModel train(TrainingParameters trainParams) throws IOException {
+    SGDTrainer trainer = new SGDTrainer();
+    trainer.init(trainParams, null);
+    return trainer.train(PrepAttachDataUtil.createTrainingStream());
+  }
+
+  private static int numPredicates(MaxentModel model) {
+    return ((Map<?, ?>) ((AbstractModel) model).getDataStructures()[1]).size();
+  }
+
+  @Test
+  void testSGDOnPrepAttachData() throws IOException {
+    MaxentModel model = train(createParameters());
+    Assertions.assertInstanceOf(GISModel.class, model);
+    PrepAttachDataUtil.testModel(model, 0.8133201287447388);
+  }
+
+  @Test
+  void testSGDOnPrepAttachDataWithoutAdaGrad() throws IOException {
+    TrainingParameters trainParams = createParameters();
+    trainParams.put(SGDTrainer.ADAGRAD_PARAM, false);
+    trainParams.put(SGDTrainer.L2COST_PARAM, 0.0001);
+    PrepAttachDataUtil.testModel(train(trainParams), 0.7863332508046547);
+  }
+
+  @Test
+  void testSGDOnPrepAttachDataWithCutoff() throws IOException {
+    TrainingParameters trainParams = createParameters();
+    trainParams.put(Parameters.CUTOFF_PARAM, 5);
+    MaxentModel model = train(trainParams);
+    Assertions.assertTrue(numPredicates(model) < numPredicates(train(createParameters())));
+    PrepAttachDataUtil.testModel(model, 0.8130725427085912);
+  }
+
+  @Test
+  void testCutoffKeepsAllOccurrences() throws IOException {
+    Event[] events = {
+        new Event("a", new String[] {"x", "y"}),
+        new Event("b", new String[] {"y", "z"}),
+        new Event("a", new String[] {"x"}),
+        new Event("b", new String[] {"z"})
+    };
+    TrainingParameters trainParams = createParameters();
+    trainParams.put(Parameters.ITERATIONS_PARAM, 1);
+    SGDTrainer trainer = new SGDTrainer();
+    trainer.init(trainParams, null);
+    MaxentModel expected = trainer.train(ObjectStreamUtils.createObjectStream(events));
+
+    // every predicate occurs twice, the cutoff must not skip their first occurrence
+    trainParams.put(Parameters.CUTOFF_PARAM, 2);
+    trainer.init(trainParams, null);
+    MaxentModel model = trainer.train(ObjectStreamUtils.createObjectStream(events));
+    for (String[] context : new String[][] {{"x"}, {"y"}, {"z"}}) {
+      Assertions.assertArrayEquals(expected.eval(context), model.eval(context), 0d);
+    }
+  }
+
+  @Test
+  void testSGDOnHashedPrepAttachData() throws IOException {
+    TrainingParameters trainParams = createParameters();
+    trainParams.put(FeatureHasher.HASH_SIZE_PARAM, 1 << 16);
+    MaxentModel model = train(trainParams);
+    Assertions.assertInstanceOf(HashedMaxentModel.class, model);
+    PrepAttachDataUtil.testModel(model, 0.8148056449616241);
+  }
+
+  @Test
+  void testSGDOnIndexedPrepAttachData() throws IOException {
+    DataIndexer<TrainingParameters> indexer = new TwoPassDataIndexer();
+    TrainingParameters indexingParameters = new TrainingParameters();
+    indexingParameters.put(Parameters.CUTOFF_PARAM, 1);
+    indexingParameters.put(AbstractDataIndexer.SORT_PARAM, false);
+    indexer.init(indexingParameters, new HashMap<>());
+    indexer.index(PrepAttachDataUtil.createTrainingStream());
+
+    SGDTrainer trainer = new SGDTrainer();
+    trainer.init(createParameters(), null);
+    PrepAttachDataUtil.testModel(trainer.train(indexer), 0.8133201287447388);
+  }
+
+  @Test
+  void testSerdeModel() throws IOException {
+    AbstractModel trainedModel = (AbstractModel) train(createParameters());
+
+    ByteArrayOutputStream modelBytes = new ByteArrayOutputStream();
+    GenericModelWriter modelWriter = new GenericModelWriter(trainedModel,
+        new DataOutputStream(modelBytes));
+    modelWriter.persist();
+    modelWriter.close();
+
+    GenericModelReader modelReader = new GenericModelReader(new BinaryFileDataReader(
+        new ByteArrayInputStream(modelBytes.toByteArray())));
+    AbstractModel readModel = modelReader.getModel();
+
+    Assertions.assertInstanceOf(GISModel.class, readModel);
+    String[] context = {"verb=join", "noun=board", "prep=as", "prep_obj=director"};
+    Assertions.assertArrayEquals(trainedModel.eval(context), readModel.eval(context), 0.00000001);
+  }
+
+  @Test
+  void testSingleOutcome() {
+    SGDTrainer trainer = new SGDTrainer();
+    trainer.init(createParameters(), null);
+    Assertions.assertThrows(InsufficientTrainingDataException.class, () -> trainer.train(
+        ObjectStreamUtils.createObjectStream(new Event("a", new String[] {"x"}))));
+  }
+
+  @Test
+  void testInvalidParameters() {
+    TrainingParameters trainParams = createParameters();
+    trainParams.put(SGDTrainer.BATCH_SIZE_PARAM, 0);
+    SGDTrainer trainer = new SGDTrainer();
+    trainer.init(trainParams, null);
+    Assertions.assertThrows(IllegalArgumentException.class, trainer::validate);
+  }
+}
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package opennlp.tools.ml.perceptron;
+
+import opennlp.tools.ml.ArrayMath;
+import opennlp.tools.ml.model.CompiledParameters;
+import opennlp.tools.ml.model.Context;
+import opennlp.tools.ml.model.PredicateIndex;
+
+/**
+ * A live, read-only view of parameters which change during training.
+ * <p>
+ * Unlike {@link CompiledParameters#compile(PredicateIndex, Context[], int)}, the
+ * {@link Context} objects are not copied: updates of their parameters are visible
+ * immediately, without compiling the parameters again after every update. Every
+ * {@link Context} must hold a parameter for each outcome, in outcome order, so the
+ * position of an outcome in the parameter block can be computed.
+ */
+final class ContextParameters extends CompiledParameters {
+
+  private final PredicateIndex predicates;
+  private final Context[] params;
+
+  /**
+   * Initializes a view of the given parameters.
+   *
+   * @param predicates The {@link PredicateIndex} of the predicate names, in the same order
+   *                   as {@code params}.
+   * @param params The {@link Context parameters}, one per predicate, each one holding a
+   *               parameter for every outcome.
+   * @param numOutcomes The number of outcomes of the model.
+   */
+  ContextParameters(PredicateIndex predicates, Context[] params, int numOutcomes) {
+    super(numOutcomes);
+    this.predicates = predicates;
+    this.params = params;
+  }
+
+  @Override
+  public int getPredicateIndex(String predicate) {
+    return predicates.indexOf(predicate);
+  }
+
+  @Override
+  public int getPredicateIndex(int hash, String prefix, String text, int start, int end) {
+    return predicates.indexOf(hash, prefix, text, start, end);
+  }
+
+  @Override
+  public String getPredicate(int predIndex) {
+    return predicates.getPredicate(predIndex);
+  }
+
+  @Override
+  public int getNumPredicates() {
+    return params.length;
+  }
+
+  @Override
+  public int getStart(int predIndex) {
+    return predIndex * getNumOutcomes();
+  }
+
+  @Override
+  public int getEnd(int predIndex) {
+    return (predIndex + 1) * getNumOutcomes();
+  }
+
+  @Override
+  public int outcomeAt(int position) {
+    return position % getNumOutcomes();
+  }
+
+  @Override
+  public double parameterAt(int position) {
+    return params[position / getNumOutcomes()].getParameters()[position % getNumOutcomes()];
+  }
+
+  @Override
+  protected void addParameters(int predIndex, double value, double[] scores, int offset) {
+    ArrayMath.axpy(value, params[predIndex].getParameters(), 0, scores, offset, getNumOutcomes());
+  }
+}
@@ -23,8 +23,11 @@ import java.util.Objects;
 import opennlp.tools.ml.AlgorithmType;
 import opennlp.tools.ml.ArrayMath;
 import opennlp.tools.ml.model.AbstractModel;
+import opennlp.tools.ml.model.CompiledParameters;
 import opennlp.tools.ml.model.Context;
 import opennlp.tools.ml.model.EvalParameters;
+import opennlp.tools.ml.model.FlatContexts;
+import opennlp.tools.ml.model.IndexedMaxentModel;
 import opennlp.tools.ml.model.MaxentModel;
 
 /**
@@ -35,7 +38,7 @@ import opennlp.tools.ml.model.MaxentModel;
  * Discriminative Training Methods for Hidden Markov Models: Theory and Experiments
  * with the Perceptron Algorithm. Michael Collins, EMNLP 2002.
  */
-public class PerceptronModel extends AbstractModel {
+public class PerceptronModel extends AbstractModel implements IndexedMaxentModel {
 
   /**
    * Initializes a {@link PerceptronModel}.
@@ -49,12 +52,24 @@ public class PerceptronModel extends AbstractModel {
     modelType = AlgorithmType.PERCEPTRON;
   }
 
+  /**
+   * Initializes a {@link PerceptronModel} with already compiled parameters,
+   * e.g. {@link opennlp.tools.ml.model.MappedParameters memory-mapped} ones.
+   *
+   * @param params The {@link CompiledParameters} to set.
+   * @param outcomeNames The names of the outcomes.
+   */
+  public PerceptronModel(CompiledParameters params, String[] outcomeNames) {
+    super(params, outcomeNames);
+    modelType = AlgorithmType.PERCEPTRON;
+  }
+
   /**
    * {@inheritDoc}
    */
   @Override
   public double[] eval(String[] context) {
-    return eval(context,new double[evalParams.getNumOutcomes()]);
+    return eval(context,new double[compiledParams.getNumOutcomes()]);
   }
 
   /**
@@ -62,7 +77,7 @@ public class PerceptronModel extends AbstractModel {
    */
   @Override
   public double[] eval(String[] context, float[] values) {
-    return eval(context,values,new double[evalParams.getNumOutcomes()]);
+    return eval(context,values,new double[compiledParams.getNumOutcomes()]);
   }
 
   /**
@@ -74,12 +89,56 @@ public class PerceptronModel extends AbstractModel {
   }
 
   public double[] eval(String[] context, float[] values, double[] outsums) {
-    Context[] scontexts = new Context[context.length];
-    java.util.Arrays.fill(outsums, 0);
-    for (int i = 0; i < context.length; i++) {
-      scontexts[i] = pmap.get(context[i]);
+    Arrays.fill(outsums, 0);
+    compiledParams.sumFeatures(context, values, outsums);
+    return normalize(outsums, 0, compiledParams.getNumOutcomes());
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public double[][] evalBatch(String[][] contexts, double[][] probs) {
+    MaxentModel.checkBatchSize(contexts, probs);
+    for (int i = 0; i < contexts.length; i++) {
+      eval(contexts[i], null, probs[i]);
     }
-    return eval(scontexts,values,outsums,evalParams,true);
+    return probs;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public double[] evalBatch(String[][] contexts, double[] probs) {
+    int numOutcomes = compiledParams.getNumOutcomes();
+    MaxentModel.checkBatchSize(contexts, probs, numOutcomes);
+
+    Arrays.fill(probs, 0, contexts.length * numOutcomes, 0);
+    for (int i = 0, offset = 0; i < contexts.length; i++, offset += numOutcomes) {
+      compiledParams.sumFeatures(contexts[i], null, probs, offset);
+      normalize(probs, offset, numOutcomes);
+    }
+    return probs;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public CompiledParameters getParameters() {
+    return compiledParams;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public double[] evalIndices(int[] predIndices, int length, double[] probs) {
+    int numOutcomes = compiledParams.getNumOutcomes();
+    Arrays.fill(probs, 0, numOutcomes, 0);
+    compiledParams.sumFeatures(predIndices, length, null, probs, 0);
+    return normalize(probs, 0, numOutcomes);
   }
 
   /**
@@ -108,9 +167,18 @@ public class PerceptronModel extends AbstractModel {
    */
   static double[] eval(int[] context, float[] values, double[] prior,
                        EvalParameters model, boolean normalize) {
+    if (model instanceof CompiledParameters compiled) {
+      compiled.sumFeatures(context, values, prior);
+      if (normalize) {
+        normalize(prior, 0, model.getNumOutcomes());
+      }
+      return prior;
+    }
+
+    Context[] params = model.getParams();
     Context[] scontexts = new Context[context.length];
     for (int i = 0; i < context.length; i++) {
-      scontexts[i] = model.getParams()[context[i]];
+      scontexts[i] = params[context[i]];
     }
 
     return eval(scontexts, values, prior, model, normalize);
@@ -133,40 +201,79 @@ public class PerceptronModel extends AbstractModel {
     ArrayMath.sumFeatures(context, values, prior);
 
     if (normalize) {
-      int numOutcomes = model.getNumOutcomes();
+      normalize(prior, 0, model.getNumOutcomes());
+    }
+    return prior;
+  }
 
-      double maxPrior = 1;
+  /**
+   * Evaluates the context stored from {@code start} to {@code end} in the flat
+   * {@code predicates} and {@code values} arrays of {@link FlatContexts}.
+   *
+   * @param predicates The predicate indexes of all contexts.
+   * @param values The values of all predicates, or {@code null} if all values are {@code 1}.
+   * @param start The index of the first predicate of the context.
+   * @param end The index after the last predicate of the context.
+   * @param prior The data prior to the evaluation as {@code double[]}.
+   * @param model The {@link EvalParameters} used for evaluation.
+   * @param normalize Whether to normalize, or not.
+   *
+   * @return The resulting evaluation data as {@code double[]}.
+   */
+  static double[] eval(int[] predicates, float[] values, int start, int end, double[] prior,
+                       EvalParameters model, boolean normalize) {
+    if (model instanceof CompiledParameters compiled) {
+      compiled.sumFeatures(predicates, values, start, end, prior);
+    } else {
+      ArrayMath.sumFeatures(model.getParams(), predicates, values, start, end, prior);
+    }
 
-      for (int oid = 0; oid < numOutcomes; oid++) {
-        if (maxPrior < StrictMath.abs(prior[oid]))
-          maxPrior = StrictMath.abs(prior[oid]);
-      }
+    if (normalize) {
+      normalize(prior, 0, model.getNumOutcomes());
+    }
+    return prior;
+  }
 
-      double normal = 0.0;
-      for (int oid = 0; oid < numOutcomes; oid++) {
-        prior[oid] = StrictMath.exp(prior[oid] / maxPrior);
-        normal += prior[oid];
-      }
+  /**
+   * Turns the summed scores of each outcome into a probability distribution.
+   *
+   * @param scores The per-outcome scores, overwritten with the probabilities.
+   * @param offset The position of the score of the first outcome in {@code scores}.
+   * @param numOutcomes The number of outcomes.
+   * @return The normalized {@code scores}.
+   */
+  private static double[] normalize(double[] scores, int offset, int numOutcomes) {
+    double maxPrior = 1;
 
-      for (int oid = 0; oid < numOutcomes; oid++) {
-        prior[oid] /= normal;
-      }
+    for (int oid = offset; oid < offset + numOutcomes; oid++) {
+      if (maxPrior < StrictMath.abs(scores[oid]))
+        maxPrior = StrictMath.abs(scores[oid]);
     }
-    return prior;
+
+    double normal = 0.0;
+    for (int oid = offset; oid < offset + numOutcomes; oid++) {
+      scores[oid] = StrictMath.exp(scores[oid] / maxPrior);
+      normal += scores[oid];
+    }
+
+    for (int oid = offset; oid < offset + numOutcomes; oid++) {
+      scores[oid] /= normal;
+    }
+    return scores;
   }
 
   @Override
   public int hashCode() {
     /*
      * Note:
-     * The hashcode for 'pmap' can not be used here, as PerceptronModelWriter
+     * The hashcode for 'compiledParams' can not be used here, as PerceptronModelWriter
      * uses compressions during sortValues() operation, quote:
      * "remove parameters with 0 weight and predicates with no parameters"
      *
-     * This leads to fewer entries in 'pmap' for serialized PerceptronModel instances
+     * This leads to fewer predicates in 'compiledParams' for serialized PerceptronModel instances
      * that were trained from scratch.
      */
-    return Objects.hash(Arrays.hashCode(outcomeNames), evalParams, prior);
+    return Objects.hash(Arrays.hashCode(outcomeNames), prior);
   }
 
   @Override
@@ -179,11 +286,11 @@ public class PerceptronModel extends AbstractModel {
 
       /*
        * Note:
-       * The comparison 'pmap.equals(model.pmap)' can not be made here, as PerceptronModelWriter
-       * uses compressions during sortValues() operation, quote:
+       * The comparison 'compiledParams.equals(model.compiledParams)' can not be made here, as
+       * PerceptronModelWriter uses compressions during sortValues() operation, quote:
        * "remove parameters with 0 weight and predicates with no parameters"
        *
-       * This leads to fewer entries in 'pmap' for serialized PerceptronModel instances
+       * This leads to fewer predicates in 'compiledParams' for serialized PerceptronModel instances
        * that were trained from scratch.
        */
       return Objects.deepEquals(outcomeNames, model.outcomeNames)
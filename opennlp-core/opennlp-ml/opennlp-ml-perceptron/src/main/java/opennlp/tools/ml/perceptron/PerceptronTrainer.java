@@ -18,6 +18,7 @@
 package opennlp.tools.ml.perceptron;
 
 import java.io.IOException;
+import java.util.Arrays;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,15 +26,20 @@ import org.slf4j.LoggerFactory;
 import opennlp.tools.commons.Trainer;
 import opennlp.tools.ml.AbstractEventTrainer;
 import opennlp.tools.ml.ArrayMath;
+import opennlp.tools.ml.Checkpointer;
+import opennlp.tools.ml.ComputeEngine;
+import opennlp.tools.ml.TrainingCheckpoint;
 import opennlp.tools.ml.model.AbstractModel;
 import opennlp.tools.ml.model.DataIndexer;
 import opennlp.tools.ml.model.EvalParameters;
+import opennlp.tools.ml.model.FlatContexts;
 import opennlp.tools.ml.model.MutableContext;
 import opennlp.tools.monitoring.DefaultTrainingProgressMonitor;
 import opennlp.tools.monitoring.IterDeltaAccuracyUnderTolerance;
 import opennlp.tools.monitoring.StopCriteria;
 import opennlp.tools.monitoring.TrainingMeasure;
 import opennlp.tools.monitoring.TrainingProgressMonitor;
+import opennlp.tools.util.Parameters;
 import opennlp.tools.util.TrainingConfiguration;
 import opennlp.tools.util.TrainingParameters;
 
@@ -45,6 +51,11 @@ import opennlp.tools.util.TrainingParameters;
  * <p>
  * Discriminative Training Methods for Hidden Markov Models: Theory and Experiments
  * with the Perceptron Algorithm. Michael Collins, EMNLP 2002.
+ * <p>
+ * The averaged parameters are summed lazily, a parameter is only added to its sum when it
+ * changes. Training can use several threads, which are configured with the
+ * {@link Parameters#THREADS_PARAM} parameter. Long training runs can write checkpoints
+ * and be resumed from them, see {@link Checkpointer}.
  *
  * @see PerceptronModel
  * @see AbstractEventTrainer
@@ -56,6 +67,14 @@ public class PerceptronTrainer extends AbstractEventTrainer<TrainingParameters>
   public static final String PERCEPTRON_VALUE = "PERCEPTRON";
   public static final double TOLERANCE_DEFAULT = .00001;
 
+  // The names of the training state in a training checkpoint
+  private static final String CHECKPOINT_PARAMS = "params";
+  private static final String CHECKPOINT_SUMMED_PARAMS = "summedParams";
+  private static final String CHECKPOINT_SUMMED_UNTIL = "summedUntil";
+  private static final String CHECKPOINT_NUM_TIMES_SUMMED = "numTimesSummed";
+  private static final String CHECKPOINT_STEPSIZE = "stepsize";
+  private static final String CHECKPOINT_PREV_ACCURACIES = "prevAccuracies";
+
   /** Number of unique events which occurred in the event set. */
   private int numUniqueEvents;
   /** Number of events in the event set. */
@@ -65,11 +84,17 @@ public class PerceptronTrainer extends AbstractEventTrainer<TrainingParameters>
   private int numPreds;
   /** Number of outcomes. */
   private int numOutcomes;
-  /** Records the array of predicates seen in each event. */
-  private int[][] contexts;
+  /** Records the predicates seen in each event, in the flat layout. */
+  private FlatContexts flatContexts;
+
+  /** The predicates of the event i are stored from contextOffsets[i] to contextOffsets[i + 1]. */
+  private int[] contextOffsets;
+
+  /** The predicates seen in all events. */
+  private int[] contexts;
 
-  /** The value associates with each context. If null then context values are assumes to be 1. */
-  private float[][] values;
+  /** The value associated with each predicate in contexts. If null then values are assumed to be 1. */
+  private float[] values;
 
   /** List of outcomes for each event i, in context[i]. */
   private int[] outcomeList;
@@ -95,6 +120,18 @@ public class PerceptronTrainer extends AbstractEventTrainer<TrainingParameters>
 
   private boolean useSkippedlAveraging;
 
+  /** The parameters of predicate pi and outcome oi during training, at index pi * numOutcomes + oi. */
+  private double[] params;
+
+  /** The sums of the parameters over the averaged iterations, if averaging is used. */
+  private double[] summedParams;
+
+  /** The iteration up to which each parameter was added to its sum. */
+  private int[] summedUntil;
+
+  /** The number of averaged iterations up to and including each iteration. */
+  private int[] numTimesSummed;
+
   /**
    * Instantiates a {@link PerceptronTrainer} with default training parameters.
    */
@@ -157,7 +194,9 @@ public class PerceptronTrainer extends AbstractEventTrainer<TrainingParameters>
 
     this.setTolerance(tolerance);
 
-    return this.trainModel(iterations, indexer, cutoff, useAverage);
+    int threads = trainingParameters.getIntParameter(Parameters.THREADS_PARAM, 1);
+
+    return this.trainModel(iterations, indexer, cutoff, useAverage, threads);
   }
 
   // << members related to AbstractEventTrainer
@@ -244,12 +283,43 @@ public class PerceptronTrainer extends AbstractEventTrainer<TrainingParameters>
    */
   public AbstractModel trainModel(int iterations, DataIndexer<TrainingParameters> di,
                                   int cutoff, boolean useAverage) {
+    return trainModel(iterations, di, cutoff, useAverage, 1);
+  }
+
+  /**
+   * Trains a {@link PerceptronModel} with given parameters.
+   * <p>
+   * With more than one thread the events are split into one shard per thread. In each
+   * iteration the shards are trained in parallel, starting from the same parameters, and
+   * their updates are mixed with uniform weights into the parameters for the next iteration,
+   * see Distributed Training Strategies for the Structured Perceptron. Ryan McDonald,
+   * Keith Hall and Gideon Mann, NAACL 2010. The trained model then differs from the one
+   * trained with a single thread.
+   *
+   * @param iterations The number of iterations to use for training.
+   * @param di The {@link DataIndexer} used as data input.
+   * @param cutoff The {@link TrainingParameters#CUTOFF_PARAM} value to use for training.
+   * @param useAverage Whether to use 'averaging', or not.
+   *                   See {@link #setSkippedAveraging(boolean)} for details.
+   * @param threads The number of threads to train with. Must be greater than {@code 0}.
+   *
+   * @return A valid, trained {@link AbstractModel perceptron model}.
+   * @throws IllegalArgumentException Thrown if parameters were invalid.
+   */
+  public AbstractModel trainModel(int iterations, DataIndexer<TrainingParameters> di,
+                                  int cutoff, boolean useAverage, int threads) {
+    if (threads <= 0) {
+      throw new IllegalArgumentException("threads must be at least one or greater but is " + threads + "!");
+    }
+
     logger.info("Incorporating indexed data for training... ");
-    contexts = di.getContexts();
-    values = di.getValues();
+    flatContexts = di.getFlatContexts();
+    contextOffsets = flatContexts.getOffsets();
+    contexts = flatContexts.getPredicates();
+    values = flatContexts.getValues();
     numTimesEventsSeen = di.getNumTimesEventsSeen();
     numEvents = di.getNumEvents();
-    numUniqueEvents = contexts.length;
+    numUniqueEvents = flatContexts.size();
 
     outcomeLabels = di.getOutcomeLabels();
     outcomeList = di.getOutcomeList();
@@ -264,9 +334,16 @@ public class PerceptronTrainer extends AbstractEventTrainer<TrainingParameters>
         "\n\t Number of Outcomes: {} " +
         "\n\t Number of Predicates: {}", numUniqueEvents, numOutcomes, numPreds);
 
-    logger.info("Computing model parameters...");
+    if (threads == 1) {
+      logger.info("Computing model parameters...");
+    } else {
+      logger.info("Computing model parameters in {} threads...", threads);
+    }
 
-    MutableContext[] finalParameters = findParameters(iterations, useAverage);
+    MutableContext[] finalParameters;
+    try (Checkpointer checkpointer = Checkpointer.create(trainingParameters, PERCEPTRON_VALUE, di)) {
+      finalParameters = findParameters(iterations, useAverage, threads, checkpointer);
+    }
 
     logger.info("...done.");
 
@@ -274,32 +351,16 @@ public class PerceptronTrainer extends AbstractEventTrainer<TrainingParameters>
     return new PerceptronModel(finalParameters, predLabels, outcomeLabels);
   }
 
-  private MutableContext[] findParameters(int iterations, boolean useAverage) {
+  private MutableContext[] findParameters(int iterations, boolean useAverage, int threads,
+                                          Checkpointer checkpointer) {
 
     logger.info("Performing {} iterations.", iterations);
 
-    int[] allOutcomesPattern = new int[numOutcomes];
-    for (int oi = 0; oi < numOutcomes; oi++)
-      allOutcomesPattern[oi] = oi;
-
-    /* Stores the estimated parameter value of each predicate during iteration. */
-    MutableContext[] params = new MutableContext[numPreds];
-    for (int pi = 0; pi < numPreds; pi++) {
-      params[pi] = new MutableContext(allOutcomesPattern,new double[numOutcomes]);
-      for (int aoi = 0; aoi < numOutcomes; aoi++)
-        params[pi].setParameter(aoi, 0.0);
-    }
-
-    EvalParameters evalParams = new EvalParameters(params, numOutcomes);
+    params = new double[numPreds * numOutcomes];
 
-    /* Stores the sum of parameter values of each predicate over many iterations. */
-    MutableContext[] summedParams = new MutableContext[numPreds];
     if (useAverage) {
-      for (int pi = 0; pi < numPreds; pi++) {
-        summedParams[pi] = new MutableContext(allOutcomesPattern,new double[numOutcomes]);
-        for (int aoi = 0; aoi < numOutcomes; aoi++)
-          summedParams[pi].setParameter(aoi, 0.0);
-      }
+      summedParams = new double[params.length];
+      summedUntil = new int[params.length];
     }
 
     //Get the Training Progress Monitor and the StopCriteria.
@@ -313,89 +374,99 @@ public class PerceptronTrainer extends AbstractEventTrainer<TrainingParameters>
     double prevAccuracy2 = 0.0;
     double prevAccuracy3 = 0.0;
 
-    // A counter for the denominator for averaging.
-    int numTimesSummed = 0;
-
+    int lastIteration = 0;
     double stepsize = 1;
-    for (int i = 1; i <= iterations; i++) {
 
-      // Decrease the stepsize by a small amount.
-      if (stepSizeDecrease != null)
-        stepsize *= 1 - stepSizeDecrease;
+    TrainingCheckpoint checkpoint = checkpointer.resume();
+    if (checkpoint != null) {
+      lastIteration = checkpoint.getIteration();
+      restore(checkpoint.getDoubles(CHECKPOINT_PARAMS), params);
+      if (useAverage) {
+        restore(checkpoint.getDoubles(CHECKPOINT_SUMMED_PARAMS), summedParams);
+        System.arraycopy(checkpoint.getInts(CHECKPOINT_SUMMED_UNTIL), 0, summedUntil, 0, params.length);
+      }
+      stepsize = checkpoint.getDouble(CHECKPOINT_STEPSIZE);
+      double[] prevAccuracies = checkpoint.getDoubles(CHECKPOINT_PREV_ACCURACIES);
+      prevAccuracy1 = prevAccuracies[0];
+      prevAccuracy2 = prevAccuracies[1];
+      prevAccuracy3 = prevAccuracies[2];
+    }
 
-      int numCorrect = 0;
+    numTimesSummed = new int[StrictMath.max(iterations, lastIteration) + 1];
+    if (checkpoint != null) {
+      int[] summed = checkpoint.getInts(CHECKPOINT_NUM_TIMES_SUMMED);
+      System.arraycopy(summed, 0, numTimesSummed, 0, summed.length);
+    }
 
-      for (int ei = 0; ei < numUniqueEvents; ei++) {
-        int targetOutcome = outcomeList[ei];
+    try (ComputeEngine engine = new ComputeEngine(threads)) {
+      // Each shard of the events is trained in parallel, starting from the mixed parameters
+      int[] shardBounds = engine.partition(flatContexts);
+      Shard[] shards = new Shard[threads];
+      for (int si = 0; si < threads; si++) {
+        shards[si] = new Shard(threads > 1);
+      }
 
-        for (int ni = 0; ni < this.numTimesEventsSeen[ei]; ni++) {
+      for (int i = lastIteration + 1; i <= iterations; i++) {
+        lastIteration = i;
 
-          // Compute the model's prediction according to the current parameters.
-          double[] modelDistribution = new double[numOutcomes];
-          if (values != null)
-            PerceptronModel.eval(contexts[ei], values[ei], modelDistribution, evalParams, false);
-          else
-            PerceptronModel.eval(contexts[ei], null, modelDistribution, evalParams, false);
+        // Decrease the stepsize by a small amount.
+        if (stepSizeDecrease != null)
+          stepsize *= 1 - stepSizeDecrease;
 
-          int maxOutcome = ArrayMath.argmax(modelDistribution);
+        final int iteration = i;
+        final double iterationStepsize = stepsize;
+        engine.forEachPartition(shardBounds, (si, start, end) ->
+            shards[si].train(start, end, iteration, iterationStepsize));
 
-          // If the predicted outcome is different from the target
-          // outcome, do the standard update: boost the parameters
-          // associated with the target and reduce those associated
-          // with the incorrect predicted outcome.
-          if (maxOutcome != targetOutcome) {
-            for (int ci = 0; ci < contexts[ei].length; ci++) {
-              int pi = contexts[ei][ci];
-              if (values == null) {
-                params[pi].updateParameter(targetOutcome, stepsize);
-                params[pi].updateParameter(maxOutcome, -stepsize);
-              } else {
-                params[pi].updateParameter(targetOutcome, stepsize * values[ei][ci]);
-                params[pi].updateParameter(maxOutcome, -stepsize * values[ei][ci]);
-              }
-            }
-          }
+        int numCorrect = 0;
+        for (Shard shard : shards) {
+          shard.mix(iteration, threads);
+          numCorrect += shard.numCorrect;
+        }
 
-          // Update the counts for accuracy.
-          if (maxOutcome == targetOutcome)
-            numCorrect++;
+        // Calculate the training accuracy.
+        double trainingAccuracy = (double) numCorrect / numEvents;
+        if (i < 10 || (i % 10) == 0) {
+          progressMonitor.finishedIteration(i, numCorrect, numEvents,
+              TrainingMeasure.ACCURACY, trainingAccuracy);
         }
-      }
 
-      // Calculate the training accuracy.
-      double trainingAccuracy = (double) numCorrect / numEvents;
-      if (i < 10 || (i % 10) == 0) {
-        progressMonitor.finishedIteration(i, numCorrect, numEvents,
-            TrainingMeasure.ACCURACY, trainingAccuracy);
-      }
+        // TODO: Make averaging configurable !!!
 
-      // TODO: Make averaging configurable !!!
+        boolean doAveraging;
 
-      boolean doAveraging;
+        doAveraging = useAverage && useSkippedlAveraging && (i < 20 || isPerfectSquare(i)) || useAverage;
 
-      doAveraging = useAverage && useSkippedlAveraging && (i < 20 || isPerfectSquare(i)) || useAverage;
+        // The parameters of this iteration are summed lazily, when they change the next time
+        numTimesSummed[i] = numTimesSummed[i - 1] + (doAveraging ? 1 : 0);
 
-      if (doAveraging) {
-        numTimesSummed++;
-        for (int pi = 0; pi < numPreds; pi++)
-          for (int aoi = 0; aoi < numOutcomes; aoi++)
-            summedParams[pi].updateParameter(aoi, params[pi].getParameters()[aoi]);
-      }
+        // If the tolerance is greater than the difference between the
+        // current training accuracy and all of the previous three
+        // training accuracies, stop training.
+        if (stopCriteria.test(prevAccuracy1 - trainingAccuracy)
+            && stopCriteria.test(prevAccuracy2 - trainingAccuracy)
+            && stopCriteria.test(prevAccuracy3 - trainingAccuracy)) {
+          progressMonitor.finishedTraining(iterations, stopCriteria);
+          break;
+        }
 
-      // If the tolerance is greater than the difference between the
-      // current training accuracy and all of the previous three
-      // training accuracies, stop training.
-      if (stopCriteria.test(prevAccuracy1 - trainingAccuracy)
-          && stopCriteria.test(prevAccuracy2 - trainingAccuracy)
-          && stopCriteria.test(prevAccuracy3 - trainingAccuracy)) {
-        progressMonitor.finishedTraining(iterations, stopCriteria);
-        break;
+        // Update the previous training accuracies.
+        prevAccuracy1 = prevAccuracy2;
+        prevAccuracy2 = prevAccuracy3;
+        prevAccuracy3 = trainingAccuracy;
+
+        if (checkpointer.isDue(i)) {
+          TrainingCheckpoint next = checkpointer.newCheckpoint(i)
+              .put(CHECKPOINT_PARAMS, params)
+              .put(CHECKPOINT_NUM_TIMES_SUMMED, Arrays.copyOf(numTimesSummed, i + 1))
+              .put(CHECKPOINT_STEPSIZE, stepsize)
+              .put(CHECKPOINT_PREV_ACCURACIES, new double[] {prevAccuracy1, prevAccuracy2, prevAccuracy3});
+          if (useAverage) {
+            next.put(CHECKPOINT_SUMMED_PARAMS, summedParams).put(CHECKPOINT_SUMMED_UNTIL, summedUntil);
+          }
+          checkpointer.write(next);
+        }
       }
-
-      // Update the previous training accuracies.
-      prevAccuracy1 = prevAccuracy2;
-      prevAccuracy2 = prevAccuracy3;
-      prevAccuracy3 = trainingAccuracy;
     }
 
     //At this point, all iterations have finished successfully.
@@ -405,36 +476,79 @@ public class PerceptronTrainer extends AbstractEventTrainer<TrainingParameters>
     progressMonitor.display(true);
 
     // Output the final training stats.
-    trainingStats(evalParams);
+    MutableContext[] finalParams = toContexts(params);
+    trainingStats(new EvalParameters(finalParams, numOutcomes));
 
     // Create averaged parameters
     if (useAverage) {
-      for (int pi = 0; pi < numPreds; pi++)
-        for (int aoi = 0; aoi < numOutcomes; aoi++)
-          summedParams[pi].setParameter(aoi, summedParams[pi].getParameters()[aoi] / numTimesSummed);
+      for (int index = 0; index < params.length; index++) {
+        sumParameter(index, lastIteration);
+        summedParams[index] /= numTimesSummed[lastIteration];
+      }
+      finalParams = toContexts(summedParams);
+    }
 
-      return summedParams;
+    params = null;
+    summedParams = null;
+    summedUntil = null;
+    return finalParams;
+  }
 
-    } else {
+  private static void restore(double[] saved, double[] target) {
+    if (saved.length != target.length) {
+      throw new IllegalStateException("The checkpoint parameters do not match the model");
+    }
+    System.arraycopy(saved, 0, target, 0, target.length);
+  }
 
-      return params;
+  /**
+   * Adds the value of the parameter at the end of each averaged iteration since it was
+   * summed the last time up to the end of {@code iteration}. The parameter must not have
+   * changed in between.
+   */
+  private void sumParameter(int index, int iteration) {
+    int numIterations = numTimesSummed[iteration] - numTimesSummed[summedUntil[index]];
+    if (numIterations > 0) {
+      summedParams[index] += params[index] * numIterations;
+    }
+    summedUntil[index] = iteration;
+  }
 
+  /**
+   * Updates a parameter in the given iteration, if averaging is used its value at the end
+   * of the previous iterations is summed first.
+   */
+  private void updateParameter(int index, double delta, int iteration) {
+    if (summedParams != null) {
+      sumParameter(index, iteration - 1);
     }
+    params[index] += delta;
+  }
 
+  private MutableContext[] toContexts(double[] parameters) {
+    int[] allOutcomesPattern = new int[numOutcomes];
+    for (int oi = 0; oi < numOutcomes; oi++)
+      allOutcomesPattern[oi] = oi;
+
+    MutableContext[] contexts = new MutableContext[numPreds];
+    for (int pi = 0; pi < numPreds; pi++) {
+      contexts[pi] = new MutableContext(allOutcomesPattern,
+          Arrays.copyOfRange(parameters, pi * numOutcomes, (pi + 1) * numOutcomes));
+    }
+    return contexts;
   }
 
   private double trainingStats(EvalParameters evalParams) {
     int numCorrect = 0;
 
+    double[] modelDistribution = new double[numOutcomes];
     for (int ei = 0; ei < numUniqueEvents; ei++) {
       for (int ni = 0; ni < this.numTimesEventsSeen[ei]; ni++) {
 
-        double[] modelDistribution = new double[numOutcomes];
+        Arrays.fill(modelDistribution, 0);
 
-        if (values != null)
-          PerceptronModel.eval(contexts[ei], values[ei], modelDistribution, evalParams,false);
-        else
-          PerceptronModel.eval(contexts[ei], null, modelDistribution, evalParams, false);
+        PerceptronModel.eval(contexts, values, contextOffsets[ei], contextOffsets[ei + 1],
+            modelDistribution, evalParams, false);
 
         int max = ArrayMath.argmax(modelDistribution);
         if (max == outcomeList[ei])
@@ -446,6 +560,111 @@ public class PerceptronTrainer extends AbstractEventTrainer<TrainingParameters>
     return trainingAccuracy;
   }
 
+  /**
+   * Trains the perceptron on a shard of the events. With a single shard the parameters
+   * are updated directly, as in the standard perceptron algorithm. With several shards
+   * each shard collects its updates in its own deltas on top of the mixed parameters,
+   * which are not modified while the shards are trained. The deltas of all shards are
+   * then mixed into the parameters with uniform weights (iterative parameter mixing).
+   */
+  private class Shard {
+
+    private final double[] deltas;
+    private final int[] touchedPreds;
+    private final boolean[] isTouched;
+    private int numTouched;
+
+    private final double[] scores = new double[numOutcomes];
+    private int numCorrect;
+
+    Shard(boolean mixed) {
+      if (mixed) {
+        deltas = new double[params.length];
+        touchedPreds = new int[numPreds];
+        isTouched = new boolean[numPreds];
+      } else {
+        deltas = null;
+        touchedPreds = null;
+        isTouched = null;
+      }
+    }
+
+    void train(int start, int end, int iteration, double stepsize) {
+      numCorrect = 0;
+
+      for (int ei = start; ei < end; ei++) {
+        int targetOutcome = outcomeList[ei];
+
+        for (int ni = 0; ni < numTimesEventsSeen[ei]; ni++) {
+
+          // Compute the model's prediction according to the current parameters.
+          int maxOutcome = predict(ei);
+
+          // If the predicted outcome is different from the target
+          // outcome, do the standard update: boost the parameters
+          // associated with the target and reduce those associated
+          // with the incorrect predicted outcome.
+          if (maxOutcome != targetOutcome) {
+            for (int ci = contextOffsets[ei]; ci < contextOffsets[ei + 1]; ci++) {
+              int pi = contexts[ci];
+              double update = values == null ? stepsize : stepsize * values[ci];
+              update(pi, targetOutcome, update, iteration);
+              update(pi, maxOutcome, -update, iteration);
+            }
+          }
+
+          // Update the counts for accuracy.
+          if (maxOutcome == targetOutcome)
+            numCorrect++;
+        }
+      }
+    }
+
+    private int predict(int ei) {
+      Arrays.fill(scores, 0);
+      for (int ci = contextOffsets[ei]; ci < contextOffsets[ei + 1]; ci++) {
+        int offset = contexts[ci] * numOutcomes;
+        double value = values != null ? values[ci] : 1;
+        for (int oi = 0; oi < numOutcomes; oi++) {
+          double param = deltas != null ? params[offset + oi] + deltas[offset + oi] : params[offset + oi];
+          scores[oi] += param * value;
+        }
+      }
+      return ArrayMath.argmax(scores);
+    }
+
+    private void update(int pi, int oi, double delta, int iteration) {
+      if (deltas == null) {
+        updateParameter(pi * numOutcomes + oi, delta, iteration);
+      } else {
+        if (!isTouched[pi]) {
+          isTouched[pi] = true;
+          touchedPreds[numTouched++] = pi;
+        }
+        deltas[pi * numOutcomes + oi] += delta;
+      }
+    }
+
+    /* Mixes the deltas of this shard into the parameters, only touched parameters change. */
+    void mix(int iteration, int numShards) {
+      if (deltas == null) {
+        return;
+      }
+
+      for (int ti = 0; ti < numTouched; ti++) {
+        int pi = touchedPreds[ti];
+        for (int index = pi * numOutcomes; index < (pi + 1) * numOutcomes; index++) {
+          if (deltas[index] != 0) {
+            updateParameter(index, deltas[index] / numShards, iteration);
+            deltas[index] = 0;
+          }
+        }
+        isTouched[pi] = false;
+      }
+      numTouched = 0;
+    }
+  }
+
   // See whether a number is a perfect square.
   // Inefficient, but fine for our purposes.
   private static boolean isPerfectSquare(int n) {
@@ -19,6 +19,7 @@ package opennlp.tools.ml.perceptron;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -26,17 +27,25 @@ import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import opennlp.tools.commons.Trainer;
 import opennlp.tools.ml.AbstractEventModelSequenceTrainer;
+import opennlp.tools.ml.ComputeEngine;
 import opennlp.tools.ml.model.AbstractDataIndexer;
 import opennlp.tools.ml.model.AbstractModel;
 import opennlp.tools.ml.model.DataIndexer;
 import opennlp.tools.ml.model.Event;
+import opennlp.tools.ml.model.FeatureHasher;
 import opennlp.tools.ml.model.MutableContext;
 import opennlp.tools.ml.model.OnePassDataIndexer;
+import opennlp.tools.ml.model.PredicateIndex;
 import opennlp.tools.ml.model.Sequence;
 import opennlp.tools.ml.model.SequenceStream;
 import opennlp.tools.ml.model.SequenceStreamEventStream;
+import opennlp.tools.monitoring.DefaultTrainingProgressMonitor;
+import opennlp.tools.monitoring.TrainingMeasure;
+import opennlp.tools.monitoring.TrainingProgressMonitor;
 import opennlp.tools.util.Parameters;
+import opennlp.tools.util.TrainingConfiguration;
 import opennlp.tools.util.TrainingParameters;
 
 /**
@@ -51,6 +60,9 @@ import opennlp.tools.util.TrainingParameters;
  * <p>
  * Specifically only updates are applied to tokens which were incorrectly tagged by a sequence tagger
  * rather than to all feature across the sequence which differ from the training sequence.
+ * <p>
+ * Training can use several threads, which are configured with the {@link Parameters#THREADS_PARAM}
+ * parameter, see {@link #trainModel(int, SequenceStream, int, boolean, int)}.
  *
  * @see PerceptronModel
  * @see AbstractEventModelSequenceTrainer
@@ -103,6 +115,7 @@ public class SimplePerceptronSequenceTrainer extends AbstractEventModelSequenceT
   private static final int EVENT = 2;
 
   private String[] predLabels;
+  private PredicateIndex predicateIndex;
   private int numSequences;
 
   /**
@@ -128,6 +141,11 @@ public class SimplePerceptronSequenceTrainer extends AbstractEventModelSequenceT
         throw new IllegalArgumentException("algorithmName must be PERCEPTRON_SEQUENCE");
       }
     }
+
+    if (FeatureHasher.fromParameters(trainingParameters) != null) {
+      throw new IllegalArgumentException(FeatureHasher.HASH_SIZE_PARAM + " is not supported by "
+          + getClass().getSimpleName());
+    }
   }
 
   @Override
@@ -137,7 +155,9 @@ public class SimplePerceptronSequenceTrainer extends AbstractEventModelSequenceT
 
     boolean useAverage = trainingParameters.getBooleanParameter("UseAverage", true);
 
-    return trainModel(iterations, events, cutoff, useAverage);
+    int threads = trainingParameters.getIntParameter(Parameters.THREADS_PARAM, 1);
+
+    return trainModel(iterations, events, cutoff, useAverage, threads);
   }
 
   // << members related to AbstractSequenceTrainer
@@ -153,6 +173,38 @@ public class SimplePerceptronSequenceTrainer extends AbstractEventModelSequenceT
    */
   public AbstractModel trainModel(int iterations, SequenceStream<Event> sequenceStream,
                                   int cutoff, boolean useAverage) throws IOException {
+    return trainModel(iterations, sequenceStream, cutoff, useAverage, 1);
+  }
+
+  /**
+   * Trains a {@link PerceptronModel} with given parameters.
+   * <p>
+   * With more than one thread the sequences are split into one shard per thread. In each
+   * iteration the shards are decoded and trained in parallel, each starting from the same
+   * parameters and updating its own copy of them. At the end of the iteration the copies
+   * are mixed with uniform weights (iterative parameter mixing), see Distributed Training
+   * Strategies for the Structured Perceptron. Ryan McDonald, Keith Hall and Gideon Mann,
+   * NAACL 2010. With averaging, the mixed parameters of each iteration are averaged.
+   * <p>
+   * Every thread holds a copy of the parameters and decodes its shard, in order, with its
+   * own {@link SequenceStream#createWorkerStream() worker stream}, so the training is
+   * deterministic. Only one thread is used if the {@link SequenceStream} does not create
+   * worker streams.
+   *
+   * @param iterations     The number of iterations to use for training.
+   * @param sequenceStream The {@link SequenceStream<Event>} used as data input.
+   * @param cutoff         The {{@link TrainingParameters#CUTOFF_PARAM}} value to use for training.
+   * @param useAverage     Whether to use 'averaging', or not.
+   * @param threads        The number of threads to train with. Must be greater than {@code 0}.
+   * @return A valid, trained {@link AbstractModel perceptron model}.
+   * @throws IllegalArgumentException Thrown if parameters were invalid.
+   */
+  public AbstractModel trainModel(int iterations, SequenceStream<Event> sequenceStream,
+                                  int cutoff, boolean useAverage, int threads) throws IOException {
+    if (threads <= 0) {
+      throw new IllegalArgumentException("threads must be at least one or greater but is " + threads + "!");
+    }
+
     this.iterations = iterations;
     this.sequenceStream = sequenceStream;
 
@@ -176,6 +228,7 @@ public class SimplePerceptronSequenceTrainer extends AbstractEventModelSequenceT
     for (int i = 0; i < predLabels.length; i++) {
       pmap.put(predLabels[i], i);
     }
+    predicateIndex = new PredicateIndex(predLabels);
 
     logger.info("Incorporating indexed data for training... ");
     this.useAverage = useAverage;
@@ -224,8 +277,13 @@ public class SimplePerceptronSequenceTrainer extends AbstractEventModelSequenceT
       }
     }
 
-    logger.info("Computing model parameters...");
-    findParameters(iterations);
+    SequenceStream<Event>[] workerStreams = threads > 1 ? createWorkerStreams(threads) : null;
+    if (threads > 1 && workerStreams == null) {
+      logger.warn("The sequence stream does not support concurrent updates, training with one thread");
+      threads = 1;
+    }
+    logger.info("Computing model parameters in {} threads...", threads);
+    findParameters(iterations, threads, workerStreams);
     logger.info("...done.");
 
     /* Create and return the model ****/
@@ -238,11 +296,41 @@ public class SimplePerceptronSequenceTrainer extends AbstractEventModelSequenceT
     }
   }
 
-  private void findParameters(int iterations) throws IOException {
+  /**
+   * @return One worker stream per thread, or {@code null} if the sequence stream
+   *         does not create worker streams.
+   */
+  @SuppressWarnings("unchecked")
+  private SequenceStream<Event>[] createWorkerStreams(int threads) {
+    SequenceStream<Event>[] workerStreams = new SequenceStream[threads];
+    for (int wi = 0; wi < threads; wi++) {
+      workerStreams[wi] = sequenceStream.createWorkerStream();
+      if (workerStreams[wi] == null) {
+        return null;
+      }
+    }
+    return workerStreams;
+  }
+
+  private void findParameters(int iterations, int threads, SequenceStream<Event>[] workerStreams)
+      throws IOException {
     logger.info("Performing {} iterations.\n", iterations);
-    for (int i = 1; i <= iterations; i++) {
-      nextIteration(i);
+    TrainingProgressMonitor progressMonitor = getTrainingProgressMonitor(trainingConfiguration);
+    if (threads == 1) {
+      for (int i = 1; i <= iterations; i++) {
+        long start = System.nanoTime();
+        int numCorrect = trainIteration(i);
+        finishedIteration(progressMonitor, i, numCorrect, start);
+      }
+    } else {
+      findParametersInParallel(iterations, workerStreams, progressMonitor);
     }
+
+    if (!progressMonitor.isTrainingFinished()) {
+      progressMonitor.finishedTraining(iterations, null);
+    }
+    progressMonitor.display(true);
+
     if (useAverage) {
       trainingStats(averageParams);
     } else {
@@ -250,7 +338,35 @@ public class SimplePerceptronSequenceTrainer extends AbstractEventModelSequenceT
     }
   }
 
+  /* Reports the accuracy and the throughput of an iteration which started at the given time. */
+  private void finishedIteration(TrainingProgressMonitor progressMonitor, int iteration,
+                                 int numCorrect, long startNanos) {
+    double seconds = (System.nanoTime() - startNanos) / 1e9;
+    progressMonitor.finishedIteration(iteration, numCorrect, numEvents,
+        TrainingMeasure.ACCURACY, (double) numCorrect / numEvents);
+    progressMonitor.finishedIteration(iteration, numCorrect, numEvents,
+        TrainingMeasure.THROUGHPUT, seconds > 0 ? numEvents / seconds : 0);
+  }
+
+  /*
+   * Creates a model which evaluates the given parameters directly, updates of the
+   * parameters are visible to the model without creating it again.
+   */
+  private PerceptronModel createModel(MutableContext[] params) {
+    return new PerceptronModel(new ContextParameters(predicateIndex, params, numOutcomes), outcomeLabels);
+  }
+
+  /**
+   * Performs one training iteration.
+   *
+   * @param iteration The 1-based number of the iteration.
+   * @throws IOException Thrown if IO errors occurred while reading the sequences.
+   */
   public void nextIteration(int iteration) throws IOException {
+    trainIteration(iteration);
+  }
+
+  private int trainIteration(int iteration) throws IOException {
     iteration--; //move to 0-based index
     int numCorrect = 0;
     int oei = 0;
@@ -259,7 +375,7 @@ public class SimplePerceptronSequenceTrainer extends AbstractEventModelSequenceT
     for (int oi = 0; oi < numOutcomes; oi++) {
       featureCounts.add(new HashMap<>());
     }
-    PerceptronModel model = new PerceptronModel(params, predLabels, outcomeLabels);
+    final PerceptronModel model = createModel(params);
 
     sequenceStream.reset();
 
@@ -277,66 +393,9 @@ public class SimplePerceptronSequenceTrainer extends AbstractEventModelSequenceT
         }
       }
       if (update) {
-        for (int oi = 0; oi < numOutcomes; oi++) {
-          featureCounts.get(oi).clear();
-        }
-        if (logger.isTraceEnabled()) {
-          final StringBuilder sb = new StringBuilder();
-          for (Event event : events) {
-            sb.append(" ").append(event.getOutcome());
-          }
-          logger.trace("train: {}", sb);
-        }
+        countFeatures(events, taggerEvents, featureCounts);
+        oei += events.length;
 
-        //training feature count computation
-        for (int ei = 0; ei < events.length; ei++, oei++) {
-          String[] contextStrings = events[ei].getContext();
-          float[] values = events[ei].getValues();
-          int oi = omap.get(events[ei].getOutcome());
-          for (int ci = 0; ci < contextStrings.length; ci++) {
-            float value = 1;
-            if (values != null) {
-              value = values[ci];
-            }
-            Float c = featureCounts.get(oi).get(contextStrings[ci]);
-            if (c == null) {
-              c = value;
-            } else {
-              c += value;
-            }
-            featureCounts.get(oi).put(contextStrings[ci], c);
-          }
-        }
-        //evaluation feature count computation
-        if (logger.isTraceEnabled()) {
-          final StringBuilder sb = new StringBuilder();
-          for (Event taggerEvent : taggerEvents) {
-            sb.append(" ").append(taggerEvent.getOutcome());
-          }
-          logger.trace("test: {}", sb);
-        }
-        for (Event taggerEvent : taggerEvents) {
-          String[] contextStrings = taggerEvent.getContext();
-          float[] values = taggerEvent.getValues();
-          int oi = omap.get(taggerEvent.getOutcome());
-          for (int ci = 0; ci < contextStrings.length; ci++) {
-            float value = 1;
-            if (values != null) {
-              value = values[ci];
-            }
-            Float c = featureCounts.get(oi).get(contextStrings[ci]);
-            if (c == null) {
-              c = -1 * value;
-            } else {
-              c -= value;
-            }
-            if (c == 0f) {
-              featureCounts.get(oi).remove(contextStrings[ci]);
-            } else {
-              featureCounts.get(oi).put(contextStrings[ci], c);
-            }
-          }
-        }
         for (int oi = 0; oi < numOutcomes; oi++) {
           for (String feature : featureCounts.get(oi).keySet()) {
             int pi = pmap.getOrDefault(feature, -1);
@@ -366,7 +425,6 @@ public class SimplePerceptronSequenceTrainer extends AbstractEventModelSequenceT
             }
           }
         }
-        model = new PerceptronModel(params, predLabels, outcomeLabels);
       }
       si++;
     }
@@ -394,6 +452,229 @@ public class SimplePerceptronSequenceTrainer extends AbstractEventModelSequenceT
     }
     logger.info("{}. ({}/{}) {}", iteration, numCorrect,
         numEvents, ((double) numCorrect / numEvents));
+    return numCorrect;
+  }
+
+  private void findParametersInParallel(int iterations, SequenceStream<Event>[] workerStreams,
+                                        TrainingProgressMonitor progressMonitor) throws IOException {
+    int threads = workerStreams.length;
+    // the shards are fixed, the sequences are read only once
+    List<Sequence<Event>> sequences = new ArrayList<>(numSequences);
+    sequenceStream.reset();
+    Sequence<Event> sequence;
+    while ((sequence = sequenceStream.read()) != null) {
+      sequences.add(sequence);
+    }
+
+    int[] sequenceLengths = new int[sequences.size()];
+    for (int si = 0; si < sequenceLengths.length; si++) {
+      sequenceLengths[si] = sequences.get(si).getEvents().length;
+    }
+
+    // The iteration up to which each predicate was added to the average parameters
+    int[] averagedUntil = useAverage ? new int[numPreds] : null;
+
+    try (ComputeEngine engine = new ComputeEngine(threads)) {
+      int[] shardBounds = engine.partition(sequenceLengths);
+      Worker[] workers = new Worker[threads];
+      for (int wi = 0; wi < threads; wi++) {
+        workers[wi] = new Worker(workerStreams[wi]);
+      }
+
+      boolean[] isMixed = new boolean[numPreds];
+      int[] mixedPreds = new int[numPreds];
+
+      for (int i = 1; i <= iterations; i++) {
+        long start = System.nanoTime();
+
+        engine.forEachPartition(shardBounds, (wi, first, end) -> workers[wi].train(sequences, first, end));
+
+        // Mix the predicates which were updated by any worker, the others are equal in all copies
+        int numCorrect = 0;
+        int numMixed = 0;
+        for (Worker worker : workers) {
+          numCorrect += worker.numCorrect;
+          for (int ti = 0; ti < worker.numTouched; ti++) {
+            int pi = worker.touchedPreds[ti];
+            worker.isTouched[pi] = false;
+            if (!isMixed[pi]) {
+              isMixed[pi] = true;
+              mixedPreds[numMixed++] = pi;
+            }
+          }
+          worker.numTouched = 0;
+        }
+
+        for (int mi = 0; mi < numMixed; mi++) {
+          int pi = mixedPreds[mi];
+          isMixed[pi] = false;
+          double[] predParams = params[pi].getParameters();
+          if (useAverage) {
+            for (int oi = 0; oi < numOutcomes; oi++) {
+              averageParams[pi].updateParameter(oi, predParams[oi] * (i - 1 - averagedUntil[pi]));
+            }
+            averagedUntil[pi] = i - 1;
+          }
+          for (int oi = 0; oi < numOutcomes; oi++) {
+            double sum = 0;
+            for (Worker worker : workers) {
+              sum += worker.params[pi].getParameters()[oi];
+            }
+            params[pi].setParameter(oi, sum / threads);
+          }
+          for (Worker worker : workers) {
+            for (int oi = 0; oi < numOutcomes; oi++) {
+              worker.params[pi].setParameter(oi, predParams[oi]);
+            }
+          }
+        }
+
+        logger.info("{}. ({}/{}) {}", i - 1, numCorrect, numEvents, ((double) numCorrect / numEvents));
+        finishedIteration(progressMonitor, i, numCorrect, start);
+      }
+    }
+
+    //finish average computation
+    if (useAverage) {
+      for (int pi = 0; pi < numPreds; pi++) {
+        double[] predParams = params[pi].getParameters();
+        for (int oi = 0; oi < numOutcomes; oi++) {
+          averageParams[pi].updateParameter(oi, predParams[oi] * (iterations - averagedUntil[pi]));
+          averageParams[pi].setParameter(oi, averageParams[pi].getParameters()[oi] / iterations);
+        }
+      }
+    }
+  }
+
+  /**
+   * Trains a shard of the sequences on a private copy of the parameters.
+   */
+  private class Worker {
+
+    private final SequenceStream<Event> stream;
+    private final MutableContext[] params = new MutableContext[numPreds];
+    private final List<Map<String, Float>> featureCounts = new ArrayList<>(numOutcomes);
+
+    private final boolean[] isTouched = new boolean[numPreds];
+    private final int[] touchedPreds = new int[numPreds];
+    private int numTouched;
+
+    private int numCorrect;
+
+    Worker(SequenceStream<Event> stream) {
+      this.stream = stream;
+      MutableContext[] mixedParams = SimplePerceptronSequenceTrainer.this.params;
+      for (int pi = 0; pi < numPreds; pi++) {
+        params[pi] = new MutableContext(mixedParams[pi].getOutcomes(),
+            Arrays.copyOf(mixedParams[pi].getParameters(), numOutcomes));
+      }
+      for (int oi = 0; oi < numOutcomes; oi++) {
+        featureCounts.add(new HashMap<>());
+      }
+    }
+
+    void train(List<Sequence<Event>> sequences, int start, int end) {
+      numCorrect = 0;
+      final PerceptronModel model = createModel(params);
+
+      for (int si = start; si < end; si++) {
+        Sequence<Event> sequence = sequences.get(si);
+        Event[] taggerEvents = stream.updateContext(sequence, model);
+        Event[] events = sequence.getEvents();
+        boolean update = false;
+        for (int ei = 0; ei < events.length; ei++) {
+          if (!taggerEvents[ei].getOutcome().equals(events[ei].getOutcome())) {
+            update = true;
+          } else {
+            numCorrect++;
+          }
+        }
+
+        if (update) {
+          countFeatures(events, taggerEvents, featureCounts);
+          for (int oi = 0; oi < numOutcomes; oi++) {
+            for (Map.Entry<String, Float> featureCount : featureCounts.get(oi).entrySet()) {
+              int pi = pmap.getOrDefault(featureCount.getKey(), -1);
+              if (pi != -1) {
+                params[pi].updateParameter(oi, featureCount.getValue());
+                if (!isTouched[pi]) {
+                  isTouched[pi] = true;
+                  touchedPreds[numTouched++] = pi;
+                }
+              }
+            }
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Computes the difference of the feature counts of the training and the tagged events, per
+   * outcome. Features whose counts are equal are not contained in {@code featureCounts}.
+   */
+  private void countFeatures(Event[] events, Event[] taggerEvents,
+                             List<Map<String, Float>> featureCounts) {
+    for (int oi = 0; oi < numOutcomes; oi++) {
+      featureCounts.get(oi).clear();
+    }
+    if (logger.isTraceEnabled()) {
+      final StringBuilder sb = new StringBuilder();
+      for (Event event : events) {
+        sb.append(" ").append(event.getOutcome());
+      }
+      logger.trace("train: {}", sb);
+    }
+
+    //training feature count computation
+    for (int ei = 0; ei < events.length; ei++) {
+      String[] contextStrings = events[ei].getContext();
+      float[] values = events[ei].getValues();
+      int oi = omap.get(events[ei].getOutcome());
+      for (int ci = 0; ci < contextStrings.length; ci++) {
+        float value = 1;
+        if (values != null) {
+          value = values[ci];
+        }
+        Float c = featureCounts.get(oi).get(contextStrings[ci]);
+        if (c == null) {
+          c = value;
+        } else {
+          c += value;
+        }
+        featureCounts.get(oi).put(contextStrings[ci], c);
+      }
+    }
+    //evaluation feature count computation
+    if (logger.isTraceEnabled()) {
+      final StringBuilder sb = new StringBuilder();
+      for (Event taggerEvent : taggerEvents) {
+        sb.append(" ").append(taggerEvent.getOutcome());
+      }
+      logger.trace("test: {}", sb);
+    }
+    for (Event taggerEvent : taggerEvents) {
+      String[] contextStrings = taggerEvent.getContext();
+      float[] values = taggerEvent.getValues();
+      int oi = omap.get(taggerEvent.getOutcome());
+      for (int ci = 0; ci < contextStrings.length; ci++) {
+        float value = 1;
+        if (values != null) {
+          value = values[ci];
+        }
+        Float c = featureCounts.get(oi).get(contextStrings[ci]);
+        if (c == null) {
+          c = -1 * value;
+        } else {
+          c -= value;
+        }
+        if (c == 0f) {
+          featureCounts.get(oi).remove(contextStrings[ci]);
+        } else {
+          featureCounts.get(oi).put(contextStrings[ci], c);
+        }
+      }
+    }
   }
 
   private void trainingStats(MutableContext[] params) throws IOException {
@@ -415,4 +696,17 @@ public class SimplePerceptronSequenceTrainer extends AbstractEventModelSequenceT
     }
     logger.info(". ({}/{}) {}", numCorrect, numEvents, ((double) numCorrect / numEvents));
   }
+
+  /**
+   * Get the {@link TrainingProgressMonitor} associated with this {@link Trainer}.
+   *
+   * @param trainingConfig {@link TrainingConfiguration}.
+   * @return {@link TrainingProgressMonitor}. If {@link TrainingConfiguration} is {@code null} or
+   * {@link TrainingConfiguration#progMon()} is {@code null},
+   * then return the default {@link TrainingProgressMonitor}.
+   */
+  private TrainingProgressMonitor getTrainingProgressMonitor(TrainingConfiguration trainingConfig) {
+    return trainingConfig != null && trainingConfig.progMon() != null ? trainingConfig.progMon() :
+        new DefaultTrainingProgressMonitor();
+  }
 }
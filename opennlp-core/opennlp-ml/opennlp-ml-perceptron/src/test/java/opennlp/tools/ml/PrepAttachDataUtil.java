@@ -23,12 +23,14 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.junit.jupiter.api.Assertions;
 
+import opennlp.tools.ml.model.EvalScratch;
 import opennlp.tools.ml.model.Event;
 import opennlp.tools.ml.model.MaxentModel;
 import opennlp.tools.util.ObjectStream;
@@ -90,5 +92,28 @@ public class PrepAttachDataUtil {
     double accuracy = correct / (double) total;
 
     Assertions.assertEquals(expecedAccuracy, accuracy, .00001);
+
+    testEvalBatch(model, devEvents);
+  }
+
+  private static void testEvalBatch(MaxentModel model, List<Event> events) {
+    String[][] contexts = new String[events.size()][];
+    for (int i = 0; i < contexts.length; i++) {
+      contexts[i] = events.get(i).getContext();
+    }
+
+    int numOutcomes = model.getNumOutcomes();
+    double[][] rows = model.evalBatch(contexts, new double[contexts.length][numOutcomes]);
+    double[] flat = model.evalBatch(contexts, new double[contexts.length * numOutcomes]);
+    EvalScratch scratch = new EvalScratch();
+
+    for (int i = 0; i < contexts.length; i++) {
+      double[] expected = model.eval(contexts[i]);
+      Assertions.assertArrayEquals(expected, rows[i], 1e-12);
+      Assertions.assertArrayEquals(expected,
+          Arrays.copyOfRange(flat, i * numOutcomes, (i + 1) * numOutcomes), 1e-12);
+      Assertions.assertArrayEquals(expected,
+          Arrays.copyOf(model.eval(contexts[i], scratch), numOutcomes), 1e-12);
+    }
   }
 }
@@ -22,17 +22,26 @@ import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import opennlp.tools.ml.Checkpointer;
 import opennlp.tools.ml.EventTrainer;
 import opennlp.tools.ml.PrepAttachDataUtil;
 import opennlp.tools.ml.model.AbstractDataIndexer;
 import opennlp.tools.ml.model.AbstractModel;
+import opennlp.tools.ml.model.MappedModelReader;
+import opennlp.tools.ml.model.MappedModelWriter;
 import opennlp.tools.ml.model.MaxentModel;
+import opennlp.tools.ml.model.QuantizedModelReader;
+import opennlp.tools.ml.model.QuantizedModelWriter;
+import opennlp.tools.ml.model.QuantizedParameters.Precision;
 import opennlp.tools.ml.model.TwoPassDataIndexer;
 import opennlp.tools.util.Parameters;
 import opennlp.tools.util.TrainingParameters;
@@ -54,6 +63,60 @@ public class PerceptronPrepAttachTest {
     PrepAttachDataUtil.testModel(model, 0.7650408516959644);
   }
 
+  @Test
+  void testPerceptronOnPrepAttachDataInParallel() throws IOException {
+    TrainingParameters trainParams = new TrainingParameters();
+    trainParams.put(Parameters.ALGORITHM_PARAM, PerceptronTrainer.PERCEPTRON_VALUE);
+    trainParams.put(Parameters.CUTOFF_PARAM, 1);
+    trainParams.put(Parameters.THREADS_PARAM, 3);
+
+    EventTrainer<TrainingParameters> trainer = new PerceptronTrainer();
+    trainer.init(trainParams, null);
+    AbstractModel modelA = (AbstractModel) trainer.train(PrepAttachDataUtil.createTrainingStream());
+    PrepAttachDataUtil.testModel(modelA, 0.7910373854914583);
+
+    // the shards are mixed in a fixed order, the training is deterministic
+    AbstractModel modelB = (AbstractModel) trainer.train(PrepAttachDataUtil.createTrainingStream());
+    Assertions.assertEquals(modelA, modelB);
+  }
+
+  @Test
+  void testMemoryMappedModel(@TempDir Path tempDir) throws IOException {
+    TwoPassDataIndexer indexer = new TwoPassDataIndexer();
+    TrainingParameters indexingParameters = new TrainingParameters();
+    indexingParameters.put(Parameters.CUTOFF_PARAM, 1);
+    indexingParameters.put(AbstractDataIndexer.SORT_PARAM, false);
+    indexer.init(indexingParameters, new HashMap<>());
+    indexer.index(PrepAttachDataUtil.createTrainingStream());
+    AbstractModel model = new PerceptronTrainer().trainModel(400, indexer, 1);
+
+    Path file = tempDir.resolve("perceptron.mapped");
+    new MappedModelWriter(model, file).persist();
+    AbstractModel mapped = new MappedModelReader(file).getModel();
+
+    Assertions.assertInstanceOf(PerceptronModel.class, mapped);
+    Assertions.assertEquals(model, mapped);
+    PrepAttachDataUtil.testModel(mapped, 0.7650408516959644);
+  }
+
+  @Test
+  void testQuantizedModel(@TempDir Path tempDir) throws IOException {
+    TwoPassDataIndexer indexer = new TwoPassDataIndexer();
+    TrainingParameters indexingParameters = new TrainingParameters();
+    indexingParameters.put(Parameters.CUTOFF_PARAM, 1);
+    indexingParameters.put(AbstractDataIndexer.SORT_PARAM, false);
+    indexer.init(indexingParameters, new HashMap<>());
+    indexer.index(PrepAttachDataUtil.createTrainingStream());
+    AbstractModel model = new PerceptronTrainer().trainModel(400, indexer, 1);
+
+    Path file = tempDir.resolve("perceptron.quantized");
+    new QuantizedModelWriter(model, Precision.INT8, file).persist();
+    AbstractModel quantized = new QuantizedModelReader(file).getModel();
+
+    Assertions.assertInstanceOf(PerceptronModel.class, quantized);
+    PrepAttachDataUtil.testModel(quantized, 0.7650408516959644);
+  }
+
   @Test
   void testPerceptronOnPrepAttachDataWithSkippedAveraging() throws IOException {
 
@@ -156,4 +219,29 @@ public class PerceptronPrepAttachTest {
     Assertions.assertTrue(
         reportMap.containsKey("Training-Eventhash"), "Report Map does not contain the training event hash");
   }
+
+  @Test
+  void testPerceptronOnPrepAttachDataResumedFromCheckpoint(@TempDir Path tempDir) throws IOException {
+    TrainingParameters trainParams = new TrainingParameters();
+    trainParams.put(Parameters.ALGORITHM_PARAM, PerceptronTrainer.PERCEPTRON_VALUE);
+    trainParams.put(Parameters.CUTOFF_PARAM, 1);
+    trainParams.put(Parameters.ITERATIONS_PARAM, 50);
+    trainParams.put("StepSizeDecrease", 0.06d);
+    Path checkpoint = tempDir.resolve("perceptron.checkpoint");
+    trainParams.put(Checkpointer.FILE_PARAM, checkpoint.toString());
+    trainParams.put(Checkpointer.INTERVAL_PARAM, 50);
+
+    EventTrainer<TrainingParameters> trainer = new PerceptronTrainer();
+    trainer.init(trainParams, null);
+    trainer.train(PrepAttachDataUtil.createTrainingStream());
+    Assertions.assertTrue(Files.exists(checkpoint));
+
+    // the resumed run continues after iteration 50 and ends with the same model
+    trainParams.put(Parameters.ITERATIONS_PARAM, 500);
+    trainParams.put(Checkpointer.RESUME_PARAM, true);
+    trainer = new PerceptronTrainer();
+    trainer.init(trainParams, null);
+    MaxentModel model = trainer.train(PrepAttachDataUtil.createTrainingStream());
+    PrepAttachDataUtil.testModel(model, 0.7791532557563754);
+  }
 }
@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * A {@link MathKernel} based on the incubating Java Vector API ({@code jdk.incubator.vector}).
+ * <p>
+ * The JVM has to be started with {@code --add-modules jdk.incubator.vector}, {@link ArrayMath}
+ * then picks this kernel up automatically if it is on the classpath. Each loop processes as many
+ * elements at once as the preferred vector shape of the platform holds; the remaining
+ * elements are processed one by one.
+ * <p>
+ * Results may differ from the {@link ScalarMathKernel} in the last bits, as sums are accumulated
+ * per lane, products are fused, and the vectorized exponential function is not
+ * {@link StrictMath#exp(double)}. Unlike the scalar kernel, {@link #max(double[], int, int)}
+ * returns {@code NaN} if any element is {@code NaN}.
+ */
+public class VectorMathKernel implements MathKernel {
+
+  private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+  /** The float species with as many lanes as {@link #SPECIES}, to widen feature values. */
+  private static final VectorSpecies<Float> FLOAT_SPECIES = SPECIES.length() > 1
+      ? VectorSpecies.of(float.class, VectorShape.forBitSize(SPECIES.vectorBitSize() / 2)) : null;
+
+  /**
+   * Initializes a {@link VectorMathKernel}.
+   *
+   * @throws UnsupportedOperationException Thrown if the platform has no vector
+   *                                       registers which hold more than one {@code double}.
+   */
+  public VectorMathKernel() {
+    if (FLOAT_SPECIES == null) {
+      throw new UnsupportedOperationException("No SIMD support for double values: " + SPECIES);
+    }
+  }
+
+  @Override
+  public double dot(double[] a, int aOffset, double[] b, int bOffset, int length) {
+    DoubleVector acc = DoubleVector.zero(SPECIES);
+    int i = 0;
+    for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+      DoubleVector va = DoubleVector.fromArray(SPECIES, a, aOffset + i);
+      DoubleVector vb = DoubleVector.fromArray(SPECIES, b, bOffset + i);
+      acc = va.fma(vb, acc);
+    }
+    double product = acc.reduceLanes(VectorOperators.ADD);
+    for (; i < length; i++) {
+      product += a[aOffset + i] * b[bOffset + i];
+    }
+    return product;
+  }
+
+  @Override
+  public double sparseDot(double[] x, int offset, int[] indices, float[] values, int start, int length) {
+    DoubleVector acc = DoubleVector.zero(SPECIES);
+    int i = 0;
+    for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+      DoubleVector vx = DoubleVector.fromArray(SPECIES, x, offset, indices, start + i);
+      if (values == null) {
+        acc = acc.add(vx);
+      } else {
+        DoubleVector vv = (DoubleVector) FloatVector.fromArray(FLOAT_SPECIES, values, start + i)
+            .convertShape(VectorOperators.F2D, SPECIES, 0);
+        acc = vx.fma(vv, acc);
+      }
+    }
+    double sum = acc.reduceLanes(VectorOperators.ADD);
+    for (; i < length; i++) {
+      sum += (values != null ? values[start + i] : 1.0) * x[offset + indices[start + i]];
+    }
+    return sum;
+  }
+
+  @Override
+  public void axpy(double a, double[] x, int xOffset, double[] y, int yOffset, int length) {
+    DoubleVector va = DoubleVector.broadcast(SPECIES, a);
+    int i = 0;
+    for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+      DoubleVector vx = DoubleVector.fromArray(SPECIES, x, xOffset + i);
+      DoubleVector vy = DoubleVector.fromArray(SPECIES, y, yOffset + i);
+      vx.fma(va, vy).intoArray(y, yOffset + i);
+    }
+    for (; i < length; i++) {
+      y[yOffset + i] += x[xOffset + i] * a;
+    }
+  }
+
+  @Override
+  public double max(double[] x, int offset, int length) {
+    DoubleVector acc = DoubleVector.broadcast(SPECIES, x[offset]);
+    int i = 0;
+    for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+      acc = acc.max(DoubleVector.fromArray(SPECIES, x, offset + i));
+    }
+    double max = acc.reduceLanes(VectorOperators.MAX);
+    for (; i < length; i++) {
+      max = Math.max(max, x[offset + i]);
+    }
+    return max;
+  }
+
+  @Override
+  public double sumOfExps(double[] x, int offset, int length, double shift) {
+    DoubleVector vshift = DoubleVector.broadcast(SPECIES, shift);
+    DoubleVector acc = DoubleVector.zero(SPECIES);
+    int i = 0;
+    for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+      DoubleVector v = DoubleVector.fromArray(SPECIES, x, offset + i);
+      VectorMask<Double> finite = v.compare(VectorOperators.NE, Double.NEGATIVE_INFINITY);
+      acc = acc.add(v.sub(vshift).lanewise(VectorOperators.EXP), finite);
+    }
+    double sum = acc.reduceLanes(VectorOperators.ADD);
+    for (; i < length; i++) {
+      if (x[offset + i] != Double.NEGATIVE_INFINITY)
+        sum += Math.exp(x[offset + i] - shift);
+    }
+    return sum;
+  }
+
+  @Override
+  public double exp(double[] x, int offset, int length, double shift) {
+    DoubleVector vshift = DoubleVector.broadcast(SPECIES, shift);
+    DoubleVector acc = DoubleVector.zero(SPECIES);
+    int i = 0;
+    for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+      DoubleVector v = DoubleVector.fromArray(SPECIES, x, offset + i)
+          .sub(vshift).lanewise(VectorOperators.EXP);
+      v.intoArray(x, offset + i);
+      acc = acc.add(v);
+    }
+    double sum = acc.reduceLanes(VectorOperators.ADD);
+    for (; i < length; i++) {
+      x[offset + i] = Math.exp(x[offset + i] - shift);
+      sum += x[offset + i];
+    }
+    return sum;
+  }
+
+  @Override
+  public void divide(double[] x, int offset, int length, double divisor) {
+    DoubleVector vdivisor = DoubleVector.broadcast(SPECIES, divisor);
+    int i = 0;
+    for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+      DoubleVector.fromArray(SPECIES, x, offset + i).div(vdivisor).intoArray(x, offset + i);
+    }
+    for (; i < length; i++) {
+      x[offset + i] /= divisor;
+    }
+  }
+}
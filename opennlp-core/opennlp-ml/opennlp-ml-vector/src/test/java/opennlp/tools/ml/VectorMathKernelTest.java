@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the {@link VectorMathKernel} against the {@link ScalarMathKernel}.
+ * The lengths cover vector loops with and without a scalar tail.
+ */
+public class VectorMathKernelTest {
+
+  private static final int[] LENGTHS = {1, 3, 8, 13, 64, 101};
+  private static final double DELTA = 1e-12;
+
+  private final MathKernel scalar = new ScalarMathKernel();
+  private final MathKernel vector = new VectorMathKernel();
+  private final Random random = new Random(17);
+
+  private double[] randomVector(int length) {
+    return random.doubles(length, -5, 5).toArray();
+  }
+
+  @Test
+  void testSelectedByArrayMath() {
+    Assertions.assertInstanceOf(VectorMathKernel.class, ArrayMath.getKernel());
+  }
+
+  @Test
+  void testDotAndAxpy() {
+    for (int length : LENGTHS) {
+      double[] a = randomVector(length + 2);
+      double[] b = randomVector(length);
+      Assertions.assertEquals(scalar.dot(a, 2, b, 0, length), vector.dot(a, 2, b, 0, length), DELTA);
+
+      double[] expected = b.clone();
+      double[] actual = b.clone();
+      scalar.axpy(0.5, a, 1, expected, 0, length);
+      vector.axpy(0.5, a, 1, actual, 0, length);
+      Assertions.assertArrayEquals(expected, actual, DELTA);
+    }
+  }
+
+  @Test
+  void testSparseDot() {
+    double[] x = randomVector(500);
+    for (int length : LENGTHS) {
+      int[] indices = random.ints(length, 0, 250).toArray();
+      float[] values = new float[length];
+      for (int i = 0; i < length; i++) {
+        values[i] = random.nextFloat();
+      }
+      Assertions.assertEquals(scalar.sparseDot(x, 250, indices, null, 0, length),
+          vector.sparseDot(x, 250, indices, null, 0, length), DELTA);
+      Assertions.assertEquals(scalar.sparseDot(x, 0, indices, values, length / 2, length - length / 2),
+          vector.sparseDot(x, 0, indices, values, length / 2, length - length / 2), DELTA);
+    }
+  }
+
+  @Test
+  void testExps() {
+    for (int length : LENGTHS) {
+      double[] x = randomVector(length);
+      x[length / 2] = Double.NEGATIVE_INFINITY;
+      Assertions.assertEquals(scalar.max(x, 0, length), vector.max(x, 0, length));
+
+      double max = scalar.max(x, 0, length);
+      Assertions.assertEquals(scalar.sumOfExps(x, 0, length, max),
+          vector.sumOfExps(x, 0, length, max), DELTA);
+
+      double[] expected = x.clone();
+      double[] actual = x.clone();
+      Assertions.assertEquals(scalar.exp(expected, 0, length, max),
+          vector.exp(actual, 0, length, max), DELTA);
+      Assertions.assertArrayEquals(expected, actual, DELTA);
+
+      scalar.divide(expected, 0, length, 3);
+      vector.divide(actual, 0, length, 3);
+      Assertions.assertArrayEquals(expected, actual, DELTA);
+    }
+  }
+}
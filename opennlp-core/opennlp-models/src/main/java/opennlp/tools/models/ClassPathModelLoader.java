@@ -26,6 +26,7 @@ import java.util.Properties;
 import java.util.Set;
 
 import opennlp.tools.util.model.BaseModel;
+import opennlp.tools.util.model.ModelRegistry;
 
 /**
  * Responsible for loading OpenNLP models from the classpath via {@link ClassPathModelEntry entries}.
@@ -70,6 +71,9 @@ public class ClassPathModelLoader {
   /**
    * Restores a {@link T model} among a set {@link ClassPathModelEntry classpath entries}
    * according to the specified parameters {@code lang} and {@code type}.
+   * <p>
+   * The model instance is shared via the {@link ModelRegistry}, repeated calls return
+   * the same instance as long as it is in use.
    *
    * @param classPathEntries A non-empty set of {@link ClassPathModelEntry candidates} to find a matching
    *                         model in. Must not be {@code null}. If it is empty, the result will
@@ -91,7 +95,51 @@ public class ClassPathModelLoader {
     if (type == null) {
       throw new IllegalArgumentException("ModelType must not be null.");
     }
-    return load(classPathEntries, lang, type.getName(), modelType);
+    final ClassPathModel cpm = find(classPathEntries, lang, type.getName());
+    if (cpm == null) {
+      return null;
+    }
+    return ModelRegistry.getInstance().get(registryKey(cpm, lang, type), modelType,
+        () -> newInstance(cpm, modelType));
+  }
+
+  /**
+   * Restores a {@link T model} among a set {@link ClassPathModelEntry classpath entries}
+   * according to the specified parameters {@code lang} and {@code type} and leases the
+   * shared model instance from the {@link ModelRegistry}.
+   *
+   * @param classPathEntries A non-empty set of {@link ClassPathModelEntry candidates} to find a matching
+   *                         model in. Must not be {@code null}. If it is empty, the result will
+   *                         be {@code null}.
+   * @param lang      The language code of the requested model. If {@code null} or empty,
+   *                  the result will be {@code null} as well.
+   * @param type      The {@link ModelType} to select the model variant. It must not be {@code null}.
+   * @param modelType The class of model type parameter {@link T} to create an instance of.
+   *
+   * @return A {@link ModelRegistry.Lease} of the model instance of type {@link T},
+   *         or {@code null} if no match was found for the specified parameters.
+   *
+   * @throws IllegalArgumentException Thrown if parameters were invalid.
+   * @throws ClassPathLoaderException Thrown if {@link T} could not be instantiated correctly.
+   * @throws IOException Thrown if something went wrong during reading resources from the classpath.
+   */
+  <T extends BaseModel> ModelRegistry.Lease<T> acquire(Set<ClassPathModelEntry> classPathEntries,
+      String lang, ModelType type, Class<T> modelType) throws IOException {
+    if (type == null) {
+      throw new IllegalArgumentException("ModelType must not be null.");
+    }
+    final ClassPathModel cpm = find(classPathEntries, lang, type.getName());
+    if (cpm == null) {
+      return null;
+    }
+    return ModelRegistry.getInstance().acquire(registryKey(cpm, lang, type), modelType,
+        () -> newInstance(cpm, modelType));
+  }
+
+  private static ModelRegistry.Key registryKey(ClassPathModel cpm, String lang, ModelType type) {
+    final String sha256 = cpm.getModelSHA256();
+    return new ModelRegistry.Key(lang, type, "unknown".equals(sha256) ?
+        cpm.getModelName() + "-" + cpm.getModelVersion() : sha256);
   }
 
   /**
@@ -118,6 +166,12 @@ public class ClassPathModelLoader {
    */
   <T extends BaseModel> T load(Set<ClassPathModelEntry> classPathEntries, String lang,
                                String type, Class<T> modelType) throws IOException {
+    final ClassPathModel cpm = find(classPathEntries, lang, type);
+    return cpm != null ? newInstance(cpm, modelType) : null;
+  }
+
+  private ClassPathModel find(Set<ClassPathModelEntry> classPathEntries, String lang, String type)
+      throws IOException {
     if (classPathEntries == null) {
       throw new IllegalArgumentException("The provided ClassPath entries must not be null!");
     }
@@ -127,24 +181,22 @@ public class ClassPathModelLoader {
     if (type == null) {
       throw new IllegalArgumentException("The provided ModelType must not be null!");
     }
-    T result = null;
-    if (classPathEntries.isEmpty()) {
-      return result;
-    }
-    try {
-      for (ClassPathModelEntry entry : classPathEntries) {
-        final ClassPathModel cpm = load(entry);
-        if (cpm != null && cpm.getModelLanguage().equals(lang) && cpm.getModelName().contains(type)) {
-          try (InputStream is = new BufferedInputStream(new ByteArrayInputStream(cpm.model()))) {
-            result = modelType.getConstructor(InputStream.class).newInstance(is);
-            break; // found a match
-          }
-        }
+    for (ClassPathModelEntry entry : classPathEntries) {
+      final ClassPathModel cpm = load(entry);
+      if (cpm != null && cpm.getModelLanguage().equals(lang) && cpm.getModelName().contains(type)) {
+        return cpm; // found a match
       }
+    }
+    return null;
+  }
+
+  private static <T extends BaseModel> T newInstance(ClassPathModel cpm, Class<T> modelType)
+      throws IOException {
+    try (InputStream is = new BufferedInputStream(new ByteArrayInputStream(cpm.model()))) {
+      return modelType.getConstructor(InputStream.class).newInstance(is);
     } catch (InstantiationException | IllegalAccessException |
              InvocationTargetException | NoSuchMethodException e) {
       throw new ClassPathLoaderException(e);
     }
-    return result;
   }
 }
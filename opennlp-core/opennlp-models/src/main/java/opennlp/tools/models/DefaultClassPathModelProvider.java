@@ -21,10 +21,14 @@ import java.io.IOException;
 
 import opennlp.tools.models.simple.SimpleClassPathModelFinder;
 import opennlp.tools.util.model.BaseModel;
+import opennlp.tools.util.model.ModelRegistry;
 
 /**
  * A default implementation of {@link ClassPathModelProvider} which by default relies on
  * {@link SimpleClassPathModelFinder} to scan for models in the current classpath.
+ * <p>
+ * Loaded models are shared via the {@link ModelRegistry}, so that providers
+ * return the same model instance for the same model as long as it is in use.
  *
  * @see ClassPathModelFinder
  * @see ClassPathModelLoader
@@ -87,4 +91,24 @@ public class DefaultClassPathModelProvider implements ClassPathModelProvider {
                                       boolean reloadCache) throws IOException {
     return loader.load(finder.findModels(reloadCache), lang, type, modelType);
   }
+
+  /**
+   * Restores a {@link T model} among all classpath models at runtime
+   * according to the specified parameters {@code lang} and {@code type} and leases
+   * the shared model instance from the {@link ModelRegistry}.
+   *
+   * @param lang      The ISO language code of the requested model.
+   * @param type      The type of model to specify the model variant.
+   * @param modelType The class of model type parameter {@link T} to create an instance of.
+   *
+   * @return A {@link ModelRegistry.Lease} of the model instance of type {@link T}, or {@code null}
+   *         if no match was found for the specified parameters. The lease must be closed once
+   *         the model is not used anymore.
+   * @throws IllegalArgumentException Thrown if parameters were invalid.
+   * @throws IOException Thrown if something went wrong during reading resources from the classpath.
+   */
+  public <T extends BaseModel> ModelRegistry.Lease<T> acquire(String lang, ModelType type,
+                                                              Class<T> modelType) throws IOException {
+    return loader.acquire(finder.findModels(false), lang, type, modelType);
+  }
 }
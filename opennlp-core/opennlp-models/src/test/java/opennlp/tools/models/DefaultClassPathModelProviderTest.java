@@ -27,8 +27,10 @@ import opennlp.tools.models.simple.SimpleClassPathModelFinder;
 import opennlp.tools.postag.POSModel;
 import opennlp.tools.sentdetect.SentenceModel;
 import opennlp.tools.tokenize.TokenizerModel;
+import opennlp.tools.util.model.ModelRegistry;
 
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
@@ -73,6 +75,18 @@ public class DefaultClassPathModelProviderTest {
     assertTrue(m.isLoadedFromSerialized());
   }
 
+  @Test
+  void testLoadSharedModel() throws IOException {
+    SentenceModel m = provider.load("en", ModelType.SENTENCE_DETECTOR, SentenceModel.class);
+    assertSame(m, new DefaultClassPathModelProvider(finder, new ClassPathModelLoader())
+        .load("en", ModelType.SENTENCE_DETECTOR, SentenceModel.class));
+
+    try (ModelRegistry.Lease<SentenceModel> lease =
+             provider.acquire("en", ModelType.SENTENCE_DETECTOR, SentenceModel.class)) {
+      assertSame(m, lease.get());
+    }
+  }
+
   @Test
   void testCreateInstance() {
     try {
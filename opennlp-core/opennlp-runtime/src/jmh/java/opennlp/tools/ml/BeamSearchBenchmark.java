@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml;
+
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import opennlp.tools.ml.maxent.GISModel;
+import opennlp.tools.ml.model.Context;
+import opennlp.tools.ml.model.MaxentModel;
+import opennlp.tools.ml.model.SequenceClassificationModel;
+import opennlp.tools.util.BeamSearchContextGenerator;
+import opennlp.tools.util.Sequence;
+import opennlp.tools.util.SequenceValidator;
+
+/**
+ * A benchmark class to compare the sequence decoders on a tagging task with a context
+ * generator which looks at the current word and the two previous outcomes.
+ * <p>
+ * Run it with {@code -prof gc} to compare the allocation per sentence.
+ */
+@State(Scope.Thread)
+public class BeamSearchBenchmark {
+
+  private static final int NUM_WORDS = 5000;
+  private static final int NUM_OUTCOMES = 24;
+  private static final int NUM_SENTENCES = 256;
+  private static final int SENTENCE_LENGTH = 25;
+
+  private static final BeamSearchContextGenerator<String> CONTEXT_GENERATOR =
+      (index, sequence, priorDecisions, additionalContext) -> new String[] {
+          "w=" + sequence[index],
+          "p1=" + (index > 0 ? priorDecisions[index - 1] : "BOS"),
+          "p2=" + (index > 1 ? priorDecisions[index - 2] : "BOS")};
+
+  private static final SequenceValidator<String> VALIDATOR =
+      (i, inputSequence, outcomesSequence, outcome) -> true;
+
+  @Param({"BeamSearch", "PrimitiveBeamSearch"})
+  private String decoder;
+
+  @Param({"3", "10"})
+  private int beamSize;
+
+  private SequenceClassificationModel sequenceModel;
+  private String[][] sentences;
+  private int next;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    Random random = new Random(42);
+
+    String[] outcomeNames = new String[NUM_OUTCOMES];
+    for (int oi = 0; oi < outcomeNames.length; oi++) {
+      outcomeNames[oi] = "tag-" + oi;
+    }
+
+    String[] predLabels = new String[NUM_WORDS + 2 * (NUM_OUTCOMES + 1)];
+    int pi = 0;
+    for (int w = 0; w < NUM_WORDS; w++) {
+      predLabels[pi++] = "w=" + w;
+    }
+    for (String prefix : new String[] {"p1=", "p2="}) {
+      predLabels[pi++] = prefix + "BOS";
+      for (String outcome : outcomeNames) {
+        predLabels[pi++] = prefix + outcome;
+      }
+    }
+
+    Context[] params = new Context[predLabels.length];
+    for (int i = 0; i < params.length; i++) {
+      int[] outcomes = random.ints(0, NUM_OUTCOMES).distinct()
+          .limit(1 + random.nextInt(6)).sorted().toArray();
+      params[i] = new Context(outcomes, random.doubles(outcomes.length, -2, 2).toArray());
+    }
+    MaxentModel model = new GISModel(params, predLabels, outcomeNames);
+
+    sequenceModel = "BeamSearch".equals(decoder) ? new BeamSearch(beamSize, model)
+        : new PrimitiveBeamSearch(beamSize, model);
+
+    sentences = new String[NUM_SENTENCES][SENTENCE_LENGTH];
+    for (String[] sentence : sentences) {
+      for (int i = 0; i < sentence.length; i++) {
+        sentence[i] = Integer.toString(random.nextInt(NUM_WORDS));
+      }
+    }
+  }
+
+  @Benchmark
+  public Sequence bestSequence() {
+    next = (next + 1) & (NUM_SENTENCES - 1);
+    return sequenceModel.bestSequence(sentences[next], null, CONTEXT_GENERATOR, VALIDATOR);
+  }
+}
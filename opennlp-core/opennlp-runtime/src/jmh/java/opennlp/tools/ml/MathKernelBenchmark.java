@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml;
+
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * A benchmark class to compare the {@link ScalarMathKernel} with the Vector API based
+ * {@code VectorMathKernel}, for vector lengths typical for the number of outcomes of a model.
+ */
+@Fork(jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class MathKernelBenchmark {
+
+  @State(Scope.Thread)
+  public static class KernelPlan {
+
+    @Param({"opennlp.tools.ml.ScalarMathKernel", "opennlp.tools.ml.VectorMathKernel"})
+    private String kernelClazz;
+
+    @Param({"12", "48", "256"})
+    private int length;
+
+    public MathKernel kernel;
+    public double[] a;
+    public double[] b;
+    public double[] x;
+    public int[] indices;
+    public float[] values;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+      kernel = (MathKernel) Class.forName(kernelClazz).getDeclaredConstructor().newInstance();
+
+      Random random = new Random(42);
+      a = random.doubles(length, -5, 5).toArray();
+      b = random.doubles(length, -5, 5).toArray();
+      x = random.doubles(length * 100, -1, 1).toArray();
+      indices = random.ints(length, 0, x.length).toArray();
+      values = new float[length];
+      for (int i = 0; i < length; i++) {
+        values[i] = random.nextFloat();
+      }
+    }
+  }
+
+  @Benchmark
+  public double dot(KernelPlan plan) {
+    return plan.kernel.dot(plan.a, 0, plan.b, 0, plan.length);
+  }
+
+  @Benchmark
+  public double sparseDot(KernelPlan plan) {
+    return plan.kernel.sparseDot(plan.x, 0, plan.indices, plan.values, 0, plan.length);
+  }
+
+  @Benchmark
+  public double[] axpy(KernelPlan plan) {
+    plan.kernel.axpy(1e-9, plan.a, 0, plan.b, 0, plan.length);
+    return plan.b;
+  }
+
+  @Benchmark
+  public double logSumOfExps(KernelPlan plan) {
+    double max = plan.kernel.max(plan.a, 0, plan.length);
+    return max + StrictMath.log(plan.kernel.sumOfExps(plan.a, 0, plan.length, max));
+  }
+
+  @Benchmark
+  public double[] softmax(KernelPlan plan) {
+    double[] probs = plan.b;
+    System.arraycopy(plan.a, 0, probs, 0, plan.length);
+    double max = plan.kernel.max(probs, 0, plan.length);
+    double sum = plan.kernel.exp(probs, 0, plan.length, max);
+    plan.kernel.divide(probs, 0, plan.length, sum);
+    return probs;
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml;
+
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import opennlp.tools.ml.maxent.GISModel;
+import opennlp.tools.ml.maxent.quasinewton.QNModel;
+import opennlp.tools.ml.model.Context;
+import opennlp.tools.ml.model.EvalScratch;
+import opennlp.tools.ml.model.MaxentModel;
+
+/**
+ * A benchmark class to compare the allocating {@link MaxentModel#eval(String[])} with the
+ * scratch based {@link MaxentModel#eval(String[], EvalScratch)} of GIS and QN models.
+ * <p>
+ * Run it with {@code -prof gc}: the {@code gc.alloc.rate.norm} of {@code evalWithScratch}
+ * is expected to be {@code 0 B/op}.
+ */
+public class MaxentEvalBenchmark {
+
+  private static final int NUM_PREDICATES = 50000;
+  private static final int NUM_OUTCOMES = 12;
+  private static final int CONTEXT_LENGTH = 24;
+  private static final int NUM_CONTEXTS = 1024;
+
+  @State(Scope.Benchmark)
+  public static class ModelPlan {
+
+    @Param({"GIS", "QN"})
+    private String modelType;
+
+    public MaxentModel model;
+    public String[][] contexts;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      Random random = new Random(42);
+
+      String[] predLabels = new String[NUM_PREDICATES];
+      for (int i = 0; i < predLabels.length; i++) {
+        predLabels[i] = "pred=" + i;
+      }
+      String[] outcomeNames = new String[NUM_OUTCOMES];
+      for (int i = 0; i < outcomeNames.length; i++) {
+        outcomeNames[i] = "outcome-" + i;
+      }
+
+      boolean dense = "QN".equals(modelType);
+      Context[] params = new Context[NUM_PREDICATES];
+      for (int pi = 0; pi < params.length; pi++) {
+        params[pi] = dense ? denseContext(random) : sparseContext(random);
+      }
+      model = dense ? new QNModel(params, predLabels, outcomeNames)
+          : new GISModel(params, predLabels, outcomeNames);
+
+      contexts = new String[NUM_CONTEXTS][CONTEXT_LENGTH];
+      for (String[] context : contexts) {
+        for (int ci = 0; ci < context.length; ci++) {
+          // about one predicate in ten is unknown to the model
+          context[ci] = "pred=" + random.nextInt(NUM_PREDICATES + NUM_PREDICATES / 10);
+        }
+      }
+    }
+
+    private static Context denseContext(Random random) {
+      int[] outcomes = new int[NUM_OUTCOMES];
+      double[] parameters = new double[NUM_OUTCOMES];
+      for (int oi = 0; oi < NUM_OUTCOMES; oi++) {
+        outcomes[oi] = oi;
+        parameters[oi] = random.nextGaussian();
+      }
+      return new Context(outcomes, parameters);
+    }
+
+    private static Context sparseContext(Random random) {
+      int[] outcomes = random.ints(0, NUM_OUTCOMES).distinct()
+          .limit(1 + random.nextInt(3)).sorted().toArray();
+      double[] parameters = random.doubles(outcomes.length, -1, 1).toArray();
+      return new Context(outcomes, parameters);
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class ThreadPlan {
+    public final EvalScratch scratch = new EvalScratch();
+    public int next;
+
+    public String[] nextContext(ModelPlan plan) {
+      next = (next + 1) & (NUM_CONTEXTS - 1);
+      return plan.contexts[next];
+    }
+  }
+
+  @Benchmark
+  public double[] eval(ModelPlan plan, ThreadPlan thread) {
+    return plan.model.eval(thread.nextContext(plan));
+  }
+
+  @Benchmark
+  public double[] evalWithScratch(ModelPlan plan, ThreadPlan thread) {
+    return plan.model.eval(thread.nextContext(plan), thread.scratch);
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.postag;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import opennlp.tools.formats.ResourceAsStreamFactory;
+import opennlp.tools.ml.BeamSearch;
+import opennlp.tools.ml.PrimitiveBeamSearch;
+import opennlp.tools.ml.ViterbiSequenceClassificationModel;
+import opennlp.tools.ml.model.MaxentModel;
+import opennlp.tools.ml.model.SequenceClassificationModel;
+import opennlp.tools.util.CollectionObjectStream;
+import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.Parameters;
+import opennlp.tools.util.PlainTextByLineStream;
+import opennlp.tools.util.Sequence;
+import opennlp.tools.util.SequenceValidator;
+import opennlp.tools.util.TrainingParameters;
+
+/**
+ * A benchmark class to compare the throughput of the sequence decoders with a POS model
+ * which uses the two previous tags. The model is trained on the first part of the annotated
+ * test sentences, the remaining sentences are tagged. That Viterbi finds the exact best
+ * sequences is verified by {@code ViterbiSequenceClassificationModelTest}.
+ */
+@State(Scope.Thread)
+public class SequenceDecoderBenchmark {
+
+  private static final int NUM_TRAINING_SENTENCES = 108;
+
+  @Param({"BeamSearch", "PrimitiveBeamSearch", "Viterbi"})
+  private String decoder;
+
+  private SequenceClassificationModel sequenceModel;
+  private POSContextGenerator contextGenerator;
+  private SequenceValidator<String> validator;
+  private List<POSSample> testSamples;
+  private int next;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    List<POSSample> samples = new ArrayList<>();
+    try (ObjectStream<POSSample> in = new WordTagSampleStream(new PlainTextByLineStream(
+        new ResourceAsStreamFactory(SequenceDecoderBenchmark.class,
+            "/opennlp/tools/postag/AnnotatedSentences.txt"), StandardCharsets.UTF_8))) {
+      POSSample sample;
+      while ((sample = in.read()) != null) {
+        samples.add(sample);
+      }
+    }
+    testSamples = samples.subList(NUM_TRAINING_SENTENCES, samples.size());
+
+    TrainingParameters params = new TrainingParameters();
+    params.put(Parameters.ALGORITHM_PARAM, "MAXENT");
+    params.put(Parameters.ITERATIONS_PARAM, 100);
+    params.put(Parameters.CUTOFF_PARAM, 1);
+
+    // the default features without the feature cache, it prevents exact decoding
+    String descriptor;
+    try (InputStream in = SequenceDecoderBenchmark.class.getResourceAsStream(
+        "/opennlp/tools/postag/pos-default-features.xml")) {
+      descriptor = new String(in.readAllBytes(), StandardCharsets.UTF_8).replace(" cache=\"true\"", "");
+    }
+    POSTaggerFactory factory = new POSTaggerFactory(descriptor.getBytes(StandardCharsets.UTF_8), null, null);
+    POSModel model = POSTaggerME.train("eng",
+        new CollectionObjectStream<>(samples.subList(0, NUM_TRAINING_SENTENCES)), params, factory);
+    MaxentModel maxentModel = (MaxentModel) model.getArtifact(POSModel.POS_MODEL_ENTRY_NAME);
+
+    sequenceModel = switch (decoder) {
+      case "BeamSearch" -> new BeamSearch(POSTaggerME.DEFAULT_BEAM_SIZE, maxentModel);
+      case "PrimitiveBeamSearch" -> new PrimitiveBeamSearch(POSTaggerME.DEFAULT_BEAM_SIZE, maxentModel);
+      default -> new ViterbiSequenceClassificationModel(maxentModel,
+          model.getFactory().getPOSContextGenerator().getOutcomeHistoryOrder());
+    };
+    contextGenerator = model.getFactory().getPOSContextGenerator();
+    validator = model.getFactory().getSequenceValidator();
+
+  }
+
+  @Benchmark
+  public Sequence bestSequence() {
+    next = (next + 1) % testSamples.size();
+    return sequenceModel.bestSequence(testSamples.get(next).getSentence(), null,
+        contextGenerator, validator);
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import opennlp.tools.ml.maxent.GISModel;
+import opennlp.tools.ml.model.Context;
+import opennlp.tools.namefind.TokenNameFinderModel;
+
+/**
+ * A benchmark class to measure the load time of a model package which contains several
+ * sizeable artifacts, once deserialized on the loading thread and once concurrently.
+ */
+@State(Scope.Benchmark)
+public class ModelLoadBenchmark {
+
+  private static final int NUM_ARTIFACTS = 8;
+  private static final int NUM_PREDICATES = 20000;
+  private static final int NUM_OUTCOMES = 8;
+
+  @Param({"1", "4"})
+  private int threads;
+
+  private ForkJoinPool pool;
+  private byte[] modelPackage;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    Random random = new Random(42);
+
+    Map<String, Object> resources = new HashMap<>();
+    for (int i = 0; i < NUM_ARTIFACTS; i++) {
+      resources.put("resource-" + i + ".model", createModel(random));
+    }
+
+    TokenNameFinderModel model = new TokenNameFinderModel("eng", createModel(random), resources, null);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    model.serialize(out);
+    modelPackage = out.toByteArray();
+
+    if (threads > 1) {
+      pool = new ForkJoinPool(threads);
+      BaseModel.setLoaderExecutor(pool);
+    } else {
+      BaseModel.setLoaderExecutor(null);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    BaseModel.setLoaderExecutor(null);
+    if (pool != null) {
+      pool.shutdown();
+    }
+  }
+
+  private static GISModel createModel(Random random) {
+    String[] predLabels = new String[NUM_PREDICATES];
+    Context[] params = new Context[NUM_PREDICATES];
+    for (int pi = 0; pi < NUM_PREDICATES; pi++) {
+      predLabels[pi] = "pred=" + random.nextInt() + "=" + pi;
+      int[] outcomes = random.ints(0, NUM_OUTCOMES).distinct()
+          .limit(1 + random.nextInt(3)).sorted().toArray();
+      params[pi] = new Context(outcomes, random.doubles(outcomes.length, -1, 1).toArray());
+    }
+    String[] outcomeNames = {"other", "person-start", "person-cont", "location-start",
+        "location-cont", "organization-start", "organization-cont", "date-start"};
+    return new GISModel(params, predLabels, outcomeNames);
+  }
+
+  @Benchmark
+  public TokenNameFinderModel load() throws IOException {
+    return new TokenNameFinderModel(new ByteArrayInputStream(modelPackage));
+  }
+}
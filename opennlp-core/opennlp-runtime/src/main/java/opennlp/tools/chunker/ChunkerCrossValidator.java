@@ -18,6 +18,7 @@
 package opennlp.tools.chunker;
 
 import java.io.IOException;
+import java.util.List;
 
 import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.TrainingParameters;
@@ -54,6 +55,9 @@ public class ChunkerCrossValidator {
 
   /**
    * Starts the evaluation.
+   * <p>
+   * The folds are evaluated concurrently if {@link CrossValidationPartitioner#FOLD_THREADS_PARAM}
+   * is set in the training parameters, the listeners must then be thread-safe.
    *
    * @param samples The {@link ObjectStream} of {@link ChunkSample samples} to train and test with.
    * @param nFolds Number of folds. It must be greater than zero.
@@ -63,17 +67,21 @@ public class ChunkerCrossValidator {
   public void evaluate(ObjectStream<ChunkSample> samples, int nFolds) throws IOException {
     CrossValidationPartitioner<ChunkSample> partitioner = new CrossValidationPartitioner<>(samples, nFolds);
 
-    while (partitioner.hasNext()) {
+    List<FMeasure> results = partitioner.evaluateFolds(
+        CrossValidationPartitioner.getFoldThreads(params), trainingSampleStream -> {
 
-      CrossValidationPartitioner.TrainingSampleStream<ChunkSample> trainingSampleStream = partitioner.next();
-      ChunkerModel model = ChunkerME.train(languageCode, trainingSampleStream,
-          params, chunkerFactory);
+          ChunkerModel model = ChunkerME.train(languageCode, trainingSampleStream,
+              params, chunkerFactory);
 
-      // do testing
-      ChunkerEvaluator evaluator = new ChunkerEvaluator(new ChunkerME(model), listeners);
-      evaluator.evaluate(trainingSampleStream.getTestSampleStream());
+          // do testing
+          ChunkerEvaluator evaluator = new ChunkerEvaluator(new ChunkerME(model), listeners);
+          evaluator.evaluate(trainingSampleStream.getTestSampleStream());
 
-      fmeasure.mergeInto(evaluator.getFMeasure());
+          return evaluator.getFMeasure();
+        });
+
+    for (FMeasure result : results) {
+      fmeasure.mergeInto(result);
     }
   }
 
@@ -24,6 +24,7 @@ import java.util.Map;
 
 import opennlp.tools.ml.BeamSearch;
 import opennlp.tools.ml.EventTrainer;
+import opennlp.tools.ml.PrimitiveBeamSearch;
 import opennlp.tools.ml.Probabilistic;
 import opennlp.tools.ml.SequenceTrainer;
 import opennlp.tools.ml.TrainerFactory;
@@ -34,11 +35,13 @@ import opennlp.tools.ml.model.SequenceClassificationModel;
 import opennlp.tools.models.ModelType;
 import opennlp.tools.util.DownloadUtil;
 import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.ParallelEventStream;
 import opennlp.tools.util.Sequence;
 import opennlp.tools.util.SequenceValidator;
 import opennlp.tools.util.Span;
 import opennlp.tools.util.TokenTag;
 import opennlp.tools.util.TrainingParameters;
+import opennlp.tools.util.model.ModelUtil;
 
 /**
  * The class represents a maximum-entropy-based {@link Chunker}. A chunker can be used to
@@ -85,7 +88,7 @@ public class ChunkerME implements Chunker, Probabilistic {
       this.model = model.getChunkerSequenceModel();
     }
     else {
-      this.model = new BeamSearch(DEFAULT_BEAM_SIZE,
+      this.model = new PrimitiveBeamSearch(DEFAULT_BEAM_SIZE,
               model.getArtifact(ChunkerModel.CHUNKER_MODEL_ENTRY_NAME), 0);
     }
   }
@@ -161,13 +164,15 @@ public class ChunkerME implements Chunker, Probabilistic {
     int beamSize = mlParams.getIntParameter(BeamSearch.BEAM_SIZE_PARAMETER, ChunkerME.DEFAULT_BEAM_SIZE);
 
     Map<String, String> manifestInfoEntries = new HashMap<>();
+    ModelUtil.addSequenceDecoder(manifestInfoEntries, mlParams, factory.getContextGenerator());
 
     TrainerType trainerType = TrainerFactory.getTrainerType(mlParams);
     MaxentModel chunkerModel = null;
     SequenceClassificationModel seqChunkerModel = null;
 
     if (TrainerType.EVENT_MODEL_TRAINER.equals(trainerType)) {
-      ObjectStream<Event> es = new ChunkerEventStream(in, factory.getContextGenerator());
+      ObjectStream<Event> es = ParallelEventStream.create(mlParams, in,
+          s -> new ChunkerEventStream(s, factory.getContextGenerator()));
       EventTrainer<TrainingParameters> trainer =
               TrainerFactory.getEventTrainer(mlParams, manifestInfoEntries);
       chunkerModel = trainer.train(es);
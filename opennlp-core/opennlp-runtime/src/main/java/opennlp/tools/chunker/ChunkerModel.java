@@ -175,17 +175,9 @@ public class ChunkerModel extends BaseModel {
    */
   public SequenceClassificationModel getChunkerSequenceModel() {
 
-    Properties manifest = (Properties) artifactMap.get(MANIFEST_ENTRY);
-
     if (artifactMap.get(CHUNKER_MODEL_ENTRY_NAME) instanceof MaxentModel) {
-      String beamSizeString = manifest.getProperty(BeamSearch.BEAM_SIZE_PARAMETER);
-
-      int beamSize = ChunkerME.DEFAULT_BEAM_SIZE;
-      if (beamSizeString != null) {
-        beamSize = Integer.parseInt(beamSizeString);
-      }
-
-      return new BeamSearch(beamSize, (MaxentModel) artifactMap.get(CHUNKER_MODEL_ENTRY_NAME));
+      return createSequenceModel((MaxentModel) artifactMap.get(CHUNKER_MODEL_ENTRY_NAME),
+          ChunkerME.DEFAULT_BEAM_SIZE);
     }
     else if (artifactMap.get(CHUNKER_MODEL_ENTRY_NAME) instanceof SequenceClassificationModel) {
       return (SequenceClassificationModel) artifactMap.get(CHUNKER_MODEL_ENTRY_NAME);
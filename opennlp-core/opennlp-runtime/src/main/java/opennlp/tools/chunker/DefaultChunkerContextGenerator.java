@@ -147,4 +147,14 @@ public class DefaultChunkerContextGenerator implements ChunkerContextGenerator {
     String[] tags = TokenTag.extractTags(sequence);
     return getContext(index, token, tags, priorDecisions);
   }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The contexts use the two previous chunk tags.
+   */
+  @Override
+  public int getOutcomeHistoryOrder() {
+    return 2;
+  }
 }
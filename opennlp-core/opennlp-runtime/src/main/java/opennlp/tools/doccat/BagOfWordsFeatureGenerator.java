@@ -67,4 +67,9 @@ public class BagOfWordsFeatureGenerator implements FeatureGenerator {
 
     return bagOfWords;
   }
+
+  @Override
+  public String toString() {
+    return "BagOfWordsFeatureGenerator{useOnlyAllLetterTokens=" + useOnlyAllLetterTokens + "}";
+  }
 }
@@ -18,6 +18,7 @@
 package opennlp.tools.doccat;
 
 import java.io.IOException;
+import java.util.List;
 
 import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.TrainingParameters;
@@ -59,6 +60,9 @@ public class DoccatCrossValidator {
 
   /**
    * Starts the evaluation.
+   * <p>
+   * The folds are evaluated concurrently if {@link CrossValidationPartitioner#FOLD_THREADS_PARAM}
+   * is set in the training parameters, the listeners must then be thread-safe.
    *
    * @param samples The {@link ObjectStream} of {@link DocumentSample samples} to train and test with.
    * @param nFolds Number of folds. It must be greater than zero.
@@ -71,22 +75,22 @@ public class DoccatCrossValidator {
     CrossValidationPartitioner<DocumentSample> partitioner = new CrossValidationPartitioner<>(
         samples, nFolds);
 
-    while (partitioner.hasNext()) {
+    List<DocumentCategorizerEvaluator> evaluators = partitioner.evaluateFolds(
+        CrossValidationPartitioner.getFoldThreads(params), trainingSampleStream -> {
 
-      CrossValidationPartitioner.TrainingSampleStream<DocumentSample> trainingSampleStream = partitioner
-          .next();
+          DoccatModel model = DocumentCategorizerME.train(languageCode,
+              trainingSampleStream, params, factory);
 
-      DoccatModel model = DocumentCategorizerME.train(languageCode,
-          trainingSampleStream, params, factory);
+          DocumentCategorizerEvaluator evaluator = new DocumentCategorizerEvaluator(
+              new DocumentCategorizerME(model), listeners);
 
-      DocumentCategorizerEvaluator evaluator = new DocumentCategorizerEvaluator(
-          new DocumentCategorizerME(model), listeners);
-
-      evaluator.evaluate(trainingSampleStream.getTestSampleStream());
+          evaluator.evaluate(trainingSampleStream.getTestSampleStream());
+          return evaluator;
+        });
 
+    for (DocumentCategorizerEvaluator evaluator : evaluators) {
       documentAccuracy.add(evaluator.getAccuracy(),
           evaluator.getDocumentCount());
-
     }
   }
 
@@ -28,6 +28,7 @@ import java.util.TreeMap;
 
 import opennlp.tools.ml.EventTrainer;
 import opennlp.tools.ml.TrainerFactory;
+import opennlp.tools.ml.model.EventCache;
 import opennlp.tools.ml.model.MaxentModel;
 import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.TrainingParameters;
@@ -147,9 +148,23 @@ public class DocumentCategorizerME implements DocumentCategorizer {
     EventTrainer<TrainingParameters> trainer = TrainerFactory.getEventTrainer(
         mlParams, manifestInfoEntries);
 
-    MaxentModel model = trainer.train(
-        new DocumentCategorizerEventStream(samples, factory.getFeatureGenerators()));
+    MaxentModel model = trainer.train(EventCache.cache(mlParams, samples,
+        sample -> sample + "\t" + sample.getExtraInformation(), featurization(factory),
+        new DocumentCategorizerEventStream(samples, factory.getFeatureGenerators())));
 
     return new DoccatModel(lang, model, manifestInfoEntries, factory);
   }
+
+  /*
+   * Describes the generation of the training events for the event cache, the description
+   * of a feature generator is its toString, which has to include its configuration.
+   */
+  private static String featurization(DoccatFactory factory) {
+    StringBuilder featurization = new StringBuilder("doccat factory=")
+        .append(factory.getClass().getName());
+    for (FeatureGenerator generator : factory.getFeatureGenerators()) {
+      featurization.append(" features=").append(generator);
+    }
+    return featurization.toString();
+  }
 }
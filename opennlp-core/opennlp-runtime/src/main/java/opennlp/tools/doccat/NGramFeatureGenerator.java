@@ -86,4 +86,9 @@ public class NGramFeatureGenerator implements FeatureGenerator {
 
     return features;
   }
+
+  @Override
+  public String toString() {
+    return "NGramFeatureGenerator{minGram=" + minGram + ", maxGram=" + maxGram + "}";
+  }
 }
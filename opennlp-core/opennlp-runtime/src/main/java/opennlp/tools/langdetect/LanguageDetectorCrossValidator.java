@@ -18,6 +18,7 @@
 package opennlp.tools.langdetect;
 
 import java.io.IOException;
+import java.util.List;
 
 import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.TrainingParameters;
@@ -56,6 +57,9 @@ public class LanguageDetectorCrossValidator {
 
   /**
    * Starts the evaluation.
+   * <p>
+   * The folds are evaluated concurrently if {@link CrossValidationPartitioner#FOLD_THREADS_PARAM}
+   * is set in the training parameters, the listeners must then be thread-safe.
    *
    * @param samples The {@link ObjectStream} of {@link LanguageSample samples} to train and test with.
    * @param nFolds Number of folds. It must be greater than zero.
@@ -68,22 +72,22 @@ public class LanguageDetectorCrossValidator {
     CrossValidationPartitioner<LanguageSample> partitioner =
         new CrossValidationPartitioner<>(samples, nFolds);
 
-    while (partitioner.hasNext()) {
+    List<LanguageDetectorEvaluator> evaluators = partitioner.evaluateFolds(
+        CrossValidationPartitioner.getFoldThreads(params), trainingSampleStream -> {
 
-      CrossValidationPartitioner.TrainingSampleStream<LanguageSample> trainingSampleStream =
-          partitioner.next();
+          LanguageDetectorModel model = LanguageDetectorME.train(
+              trainingSampleStream, params, factory);
 
-      LanguageDetectorModel model = LanguageDetectorME.train(
-          trainingSampleStream, params, factory);
+          LanguageDetectorEvaluator evaluator = new LanguageDetectorEvaluator(
+              new LanguageDetectorME(model), listeners);
 
-      LanguageDetectorEvaluator evaluator = new LanguageDetectorEvaluator(
-          new LanguageDetectorME(model), listeners);
-
-      evaluator.evaluate(trainingSampleStream.getTestSampleStream());
+          evaluator.evaluate(trainingSampleStream.getTestSampleStream());
+          return evaluator;
+        });
 
+    for (LanguageDetectorEvaluator evaluator : evaluators) {
       documentAccuracy.add(evaluator.getAccuracy(),
           evaluator.getDocumentCount());
-
     }
   }
 
@@ -115,5 +115,14 @@ public class DefaultLemmatizerContextGenerator implements LemmatizerContextGener
 
     return features.toArray(new String[0]);
   }
-}
 
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The contexts use the previous lemma.
+   */
+  @Override
+  public int getOutcomeHistoryOrder() {
+    return 1;
+  }
+}
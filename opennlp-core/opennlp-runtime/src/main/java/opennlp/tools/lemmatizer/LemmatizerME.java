@@ -27,6 +27,7 @@ import java.util.Map;
 import opennlp.tools.ml.BeamSearch;
 import opennlp.tools.ml.EventModelSequenceTrainer;
 import opennlp.tools.ml.EventTrainer;
+import opennlp.tools.ml.PrimitiveBeamSearch;
 import opennlp.tools.ml.Probabilistic;
 import opennlp.tools.ml.SequenceTrainer;
 import opennlp.tools.ml.TrainerFactory;
@@ -39,6 +40,7 @@ import opennlp.tools.util.Sequence;
 import opennlp.tools.util.SequenceValidator;
 import opennlp.tools.util.StringUtil;
 import opennlp.tools.util.TrainingParameters;
+import opennlp.tools.util.model.ModelUtil;
 
 /**
  * A probabilistic {@link Lemmatizer} implementation.
@@ -91,7 +93,7 @@ public class LemmatizerME implements Lemmatizer, Probabilistic {
       this.model = model.getLemmatizerSequenceModel();
     }
     else {
-      this.model = new opennlp.tools.ml.BeamSearch(beamSize,
+      this.model = new PrimitiveBeamSearch(beamSize,
           (MaxentModel) model.getLemmatizerSequenceModel(), 0);
     }
   }
@@ -258,6 +260,7 @@ public class LemmatizerME implements Lemmatizer, Probabilistic {
 
     LemmatizerContextGenerator contextGenerator = factory.getContextGenerator();
     Map<String, String> manifestInfoEntries = new HashMap<>();
+    ModelUtil.addSequenceDecoder(manifestInfoEntries, params, contextGenerator);
     TrainerType trainerType = TrainerFactory.getTrainerType(params);
 
     MaxentModel lemmatizerModel = null;
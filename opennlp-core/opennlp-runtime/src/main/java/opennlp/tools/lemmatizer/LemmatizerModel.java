@@ -163,17 +163,9 @@ public class LemmatizerModel extends BaseModel {
    */
   public SequenceClassificationModel getLemmatizerSequenceModel() {
 
-    Properties manifest = (Properties) artifactMap.get(MANIFEST_ENTRY);
-
     if (artifactMap.get(LEMMATIZER_MODEL_ENTRY_NAME) instanceof MaxentModel) {
-      String beamSizeString = manifest.getProperty(BeamSearch.BEAM_SIZE_PARAMETER);
-
-      int beamSize = LemmatizerME.DEFAULT_BEAM_SIZE;
-      if (beamSizeString != null) {
-        beamSize = Integer.parseInt(beamSizeString);
-      }
-
-      return new BeamSearch(beamSize, (MaxentModel) artifactMap.get(LEMMATIZER_MODEL_ENTRY_NAME));
+      return createSequenceModel((MaxentModel) artifactMap.get(LEMMATIZER_MODEL_ENTRY_NAME),
+          LemmatizerME.DEFAULT_BEAM_SIZE);
     }
     else if (artifactMap.get(LEMMATIZER_MODEL_ENTRY_NAME) instanceof SequenceClassificationModel) {
       return (SequenceClassificationModel) artifactMap.get(LEMMATIZER_MODEL_ENTRY_NAME);
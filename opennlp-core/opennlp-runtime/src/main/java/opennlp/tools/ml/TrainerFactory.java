@@ -52,6 +52,9 @@ public class TrainerFactory {
 
     for (AlgorithmType tat : AlgorithmType.values()) {
       final String clazz = tat.getTrainerClazz();
+      if (clazz == null) {
+        continue;
+      }
       try {
         final Class<? extends Trainer<TrainingParameters>> c
             = (Class<? extends Trainer<TrainingParameters>>) Class.forName(clazz);
@@ -116,4 +116,15 @@ public class DefaultNameContextGenerator implements NameContextGenerator {
 
     return features.toArray(new String[0]);
   }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The contexts use the two previous outcomes, the feature generators
+   * of this package do not look at previous outcomes.
+   */
+  @Override
+  public int getOutcomeHistoryOrder() {
+    return 2;
+  }
 }
@@ -18,12 +18,15 @@
 package opennlp.tools.namefind;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -36,9 +39,11 @@ import opennlp.tools.ml.SequenceTrainer;
 import opennlp.tools.ml.TrainerFactory;
 import opennlp.tools.ml.TrainerFactory.TrainerType;
 import opennlp.tools.ml.model.Event;
+import opennlp.tools.ml.model.EventCache;
 import opennlp.tools.ml.model.MaxentModel;
 import opennlp.tools.ml.model.SequenceClassificationModel;
 import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.ParallelEventStream;
 import opennlp.tools.util.Parameters;
 import opennlp.tools.util.Sequence;
 import opennlp.tools.util.SequenceCodec;
@@ -47,6 +52,7 @@ import opennlp.tools.util.Span;
 import opennlp.tools.util.TrainingParameters;
 import opennlp.tools.util.featuregen.AdditionalContextFeatureGenerator;
 import opennlp.tools.util.featuregen.WindowFeatureGenerator;
+import opennlp.tools.util.model.ModelUtil;
 
 /**
  * A maximum-entropy-based {@link TokenNameFinder name finder} implementation.
@@ -227,6 +233,7 @@ public class NameFinderME implements TokenNameFinder, Probabilistic {
     int beamSize = params.getIntParameter(BeamSearch.BEAM_SIZE_PARAMETER, NameFinderME.DEFAULT_BEAM_SIZE);
 
     Map<String, String> manifestInfoEntries = new HashMap<>();
+    ModelUtil.addSequenceDecoder(manifestInfoEntries, params, factory.createContextGenerator());
 
     MaxentModel nameFinderModel = null;
     SequenceClassificationModel seqModel = null;
@@ -234,8 +241,13 @@ public class NameFinderME implements TokenNameFinder, Probabilistic {
     TrainerType trainerType = TrainerFactory.getTrainerType(params);
 
     if (TrainerType.EVENT_MODEL_TRAINER.equals(trainerType)) {
-      ObjectStream<Event> eventStream = new NameFinderEventStream(samples, type,
-              factory.createContextGenerator(), factory.createSequenceCodec());
+      // the resources are only digested if the cache is enabled
+      String featurization = params.getStringParameter(EventCache.CACHE_DIR_PARAM, null) != null
+          ? featurization(type, factory) : null;
+      ObjectStream<Event> eventStream = EventCache.cache(params, samples, NameFinderME::sampleKey,
+          featurization, ParallelEventStream.create(params, samples,
+              s -> new NameFinderEventStream(s, type, factory.createContextGenerator(),
+                  factory.createSequenceCodec()), NameSample::isClearAdaptiveDataSet));
 
       EventTrainer<TrainingParameters> trainer =
           TrainerFactory.getEventTrainer(params, manifestInfoEntries);
@@ -243,7 +255,8 @@ public class NameFinderME implements TokenNameFinder, Probabilistic {
     } // TODO: Maybe it is not a good idea, that these two don't use the context generator ?!
     // These also don't use the sequence codec ?!
     else if (TrainerType.EVENT_MODEL_SEQUENCE_TRAINER.equals(trainerType)) {
-      NameSampleSequenceStream ss = new NameSampleSequenceStream(samples, factory.createContextGenerator());
+      NameSampleSequenceStream ss =
+          new NameSampleSequenceStream(samples, factory::createContextGenerator, true, new BioCodec());
 
       EventModelSequenceTrainer<NameSample, TrainingParameters> trainer =
           TrainerFactory.getEventModelSequenceTrainer(params, manifestInfoEntries);
@@ -268,6 +281,37 @@ public class NameFinderME implements TokenNameFinder, Probabilistic {
     }
   }
 
+  /*
+   * Represents all data of a sample which is used by the feature generation for the event cache.
+   */
+  private static String sampleKey(NameSample sample) {
+    String[][] additionalContext = sample.getAdditionalContext();
+    return additionalContext != null
+        ? sample + "\t" + Arrays.deepToString(additionalContext) : sample.toString();
+  }
+
+  /*
+   * Describes the generation of the training events for the event cache, or returns null
+   * if a resource cannot be serialized to digest its content.
+   */
+  private static String featurization(String type, TokenNameFinderFactory factory) throws IOException {
+    byte[] featureGenerator = factory.getFeatureGenerator();
+    Map<String, Object> resources = factory.getResources();
+    String resourcesDigest = null;
+    if (resources != null) {
+      resourcesDigest = ModelUtil.digestResources(resources, factory.createArtifactSerializersMap());
+      if (resourcesDigest == null) {
+        return null;
+      }
+    }
+    return "namefinder type=" + type + " factory=" + factory.getClass().getName()
+        + " codec=" + factory.createSequenceCodec().getClass().getName()
+        + " resources=" + (resources != null ? new TreeMap<>(resources).keySet() : null)
+        + " resourcesDigest=" + resourcesDigest
+        + " features=" + (featureGenerator != null
+            ? new String(featureGenerator, StandardCharsets.UTF_8) : null);
+  }
+
   /**
    * Extracts the name type from the {@code outcome}.
    *
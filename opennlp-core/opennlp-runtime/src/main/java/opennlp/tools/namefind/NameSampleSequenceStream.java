@@ -19,12 +19,14 @@ package opennlp.tools.namefind;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.function.Supplier;
 
 import opennlp.tools.ml.model.Event;
 import opennlp.tools.ml.model.MaxentModel;
 import opennlp.tools.ml.model.Sequence;
 import opennlp.tools.ml.model.SequenceStream;
 import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.ObjectStreamUtils;
 import opennlp.tools.util.SequenceCodec;
 import opennlp.tools.util.featuregen.AdaptiveFeatureGenerator;
 
@@ -37,6 +39,8 @@ public class NameSampleSequenceStream implements SequenceStream<NameSample> {
   private final boolean useOutcomes;
   private final ObjectStream<NameSample> psi;
   private final SequenceCodec<String> seqCodec;
+  /** Creates the context generators of the worker streams, or {@code null}. */
+  private final Supplier<? extends NameContextGenerator> contextGenerators;
 
   /**
    * Initializes a {@link NameSampleSequenceStream} with given {@code psi} samples.
@@ -106,9 +110,32 @@ public class NameSampleSequenceStream implements SequenceStream<NameSample> {
    */
   public NameSampleSequenceStream(ObjectStream<NameSample> psi, NameContextGenerator pcg, boolean useOutcomes,
       SequenceCodec<String> seqCodec) {
+    this(psi, pcg, null, useOutcomes, seqCodec);
+  }
+
+  /**
+   * Initializes a {@link NameSampleSequenceStream} with given {@code psi} samples whose
+   * {@link #createWorkerStream() worker streams} use their own {@link NameContextGenerator}.
+   *
+   * @param psi The data stream of {@link NameSample samples}.
+   * @param contextGenerators Creates a {@link NameContextGenerator} for this stream and
+   *                          for each worker stream.
+   * @param useOutcomes Whether to use outcomes or not.
+   * @param seqCodec The {@link SequenceCodec} to use.
+   */
+  public NameSampleSequenceStream(ObjectStream<NameSample> psi,
+      Supplier<? extends NameContextGenerator> contextGenerators, boolean useOutcomes,
+      SequenceCodec<String> seqCodec) {
+    this(psi, contextGenerators.get(), contextGenerators, useOutcomes, seqCodec);
+  }
+
+  private NameSampleSequenceStream(ObjectStream<NameSample> psi, NameContextGenerator pcg,
+      Supplier<? extends NameContextGenerator> contextGenerators, boolean useOutcomes,
+      SequenceCodec<String> seqCodec) {
     this.psi = psi;
     this.useOutcomes = useOutcomes;
     this.pcg = pcg;
+    this.contextGenerators = contextGenerators;
     this.seqCodec = seqCodec;
   }
 
@@ -125,6 +152,22 @@ public class NameSampleSequenceStream implements SequenceStream<NameSample> {
     return events;
   }
 
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Worker streams are only created if this stream was created with a {@link Supplier}
+   * of context generators. The adaptive data of a worker stream only depends on the
+   * sequences of its worker.
+   */
+  @Override
+  public SequenceStream<NameSample> createWorkerStream() {
+    if (contextGenerators == null) {
+      return null;
+    }
+    return new NameSampleSequenceStream(ObjectStreamUtils.createObjectStream(), contextGenerators.get(),
+        contextGenerators, useOutcomes, seqCodec);
+  }
+
   @Override
   public Sequence<NameSample> read() throws IOException {
     NameSample sample = psi.read();
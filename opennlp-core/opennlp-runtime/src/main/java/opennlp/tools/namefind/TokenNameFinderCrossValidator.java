@@ -203,6 +203,9 @@ public class TokenNameFinderCrossValidator {
    * <p>
    * Note:
    * The name samples need to be grouped on a document basis.
+   * <p>
+   * The folds are evaluated concurrently if {@link CrossValidationPartitioner#FOLD_THREADS_PARAM}
+   * is set in the training parameters, the listeners must then be thread-safe.
    *
    * @param samples The {@link ObjectStream} of {@link NameSample samples} to train and test with.
    * @param nFolds Number of folds. It must be greater than zero.
@@ -214,28 +217,31 @@ public class TokenNameFinderCrossValidator {
     CrossValidationPartitioner<DocumentSample> partitioner = new CrossValidationPartitioner<>(
         new NameToDocumentSampleStream(samples), nFolds);
 
-    while (partitioner.hasNext()) {
+    List<FMeasure> results = partitioner.evaluateFolds(
+        CrossValidationPartitioner.getFoldThreads(params), trainingSampleStream -> {
 
-      CrossValidationPartitioner.TrainingSampleStream<DocumentSample> trainingSampleStream =
-          partitioner.next();
+          TokenNameFinderModel model;
+          if (factory != null) {
+            model = NameFinderME.train(languageCode, type,
+                new DocumentToNameSampleStream(trainingSampleStream), params, factory);
+          }
+          else {
+            model = NameFinderME.train(languageCode, type,
+                new DocumentToNameSampleStream(trainingSampleStream), params,
+                TokenNameFinderFactory.create(null, featureGeneratorBytes, resources, new BioCodec()));
+          }
 
-      TokenNameFinderModel model;
-      if (factory != null) {
-        model = NameFinderME.train(languageCode, type, new DocumentToNameSampleStream(trainingSampleStream),
-            params, factory);
-      }
-      else {
-        model = NameFinderME.train(languageCode, type, new DocumentToNameSampleStream(trainingSampleStream),
-            params, TokenNameFinderFactory.create(null, featureGeneratorBytes, resources, new BioCodec()));
-      }
+          // do testing
+          TokenNameFinderEvaluator evaluator = new TokenNameFinderEvaluator(
+              new NameFinderME(model), listeners);
 
-      // do testing
-      TokenNameFinderEvaluator evaluator = new TokenNameFinderEvaluator(
-          new NameFinderME(model), listeners);
+          evaluator.evaluate(new DocumentToNameSampleStream(trainingSampleStream.getTestSampleStream()));
 
-      evaluator.evaluate(new DocumentToNameSampleStream(trainingSampleStream.getTestSampleStream()));
+          return evaluator.getFMeasure();
+        });
 
-      fmeasure.mergeInto(evaluator.getFMeasure());
+    for (FMeasure result : results) {
+      fmeasure.mergeInto(result);
     }
   }
 
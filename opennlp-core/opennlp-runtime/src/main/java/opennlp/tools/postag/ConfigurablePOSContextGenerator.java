@@ -23,6 +23,8 @@ import java.util.Objects;
 
 import opennlp.tools.util.Cache;
 import opennlp.tools.util.featuregen.AdaptiveFeatureGenerator;
+import opennlp.tools.util.featuregen.AggregatedFeatureGenerator;
+import opennlp.tools.util.featuregen.CachedFeatureGenerator;
 
 /**
  * A configurable {@link POSContextGenerator context generator} for a {@link POSTagger}.
@@ -115,4 +117,31 @@ public class ConfigurablePOSContextGenerator implements POSContextGenerator {
     }
     return contexts;
   }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The feature generators are expected to use at most the two previous tags, like the
+   * {@link opennlp.tools.util.featuregen.PosTaggerFeatureGenerator}. No order is declared if
+   * they contain a {@link CachedFeatureGenerator}, it caches the features of a position
+   * regardless of the previous tags.
+   */
+  @Override
+  public int getOutcomeHistoryOrder() {
+    return containsCache(featureGenerator) ? -1 : 2;
+  }
+
+  private static boolean containsCache(AdaptiveFeatureGenerator generator) {
+    if (generator instanceof CachedFeatureGenerator) {
+      return true;
+    }
+    if (generator instanceof AggregatedFeatureGenerator aggregated) {
+      for (AdaptiveFeatureGenerator child : aggregated.getGenerators()) {
+        if (containsCache(child)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
 }
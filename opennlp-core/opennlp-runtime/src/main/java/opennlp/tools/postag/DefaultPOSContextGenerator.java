@@ -19,11 +19,12 @@
 package opennlp.tools.postag;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.regex.Pattern;
 
 import opennlp.tools.dictionary.Dictionary;
-import opennlp.tools.util.Cache;
+import opennlp.tools.util.ConcurrentCache;
 import opennlp.tools.util.StringList;
 
 /**
@@ -42,8 +43,7 @@ public class DefaultPOSContextGenerator implements POSContextGenerator {
   private static final Pattern hasCap = Pattern.compile("[A-Z]");
   private static final Pattern hasNum = Pattern.compile("[0-9]");
 
-  private Cache<String, String[]> contextsCache;
-  private Object wordsKey;
+  private final ConcurrentCache<List<String>, String[]> contextsCache;
 
   private final Dictionary dict;
 
@@ -60,16 +60,27 @@ public class DefaultPOSContextGenerator implements POSContextGenerator {
   /**
    * Initializes a {@link DefaultPOSContextGenerator} instance.
    *
-   * @param cacheSize The size of the {@link Cache} to set.
+   * @param cacheSize The size of the contexts cache to set.
    *                  Must be greater than {@code 0} to have an effect.
    * @param dict The {@link Dictionary} to be used.
    */
   public DefaultPOSContextGenerator(int cacheSize, Dictionary dict) {
-    this.dict = dict;
+    this(cacheSize > 0 ? new ConcurrentCache<>(cacheSize) : null, dict);
+  }
 
-    if (cacheSize > 0) {
-      contextsCache = new Cache<>(cacheSize);
-    }
+  /**
+   * Initializes a {@link DefaultPOSContextGenerator} instance which shares a contexts cache.
+   * The contexts are cached by the surrounding tokens and the previous tags, so the cache
+   * can be shared by all generators of the same model, also across threads.
+   *
+   * @param contextsCache The {@link ConcurrentCache} of the contexts, or {@code null}
+   *                      to disable caching.
+   * @param dict The {@link Dictionary} to be used.
+   */
+  public DefaultPOSContextGenerator(ConcurrentCache<List<String>, String[]> contextsCache,
+      Dictionary dict) {
+    this.dict = dict;
+    this.contextsCache = contextsCache;
   }
 
   protected static String[] getPrefixes(String lex) {
@@ -150,17 +161,13 @@ public class DefaultPOSContextGenerator implements POSContextGenerator {
     else {
       prev = SB; // Sentence Beginning
     }
-    String cacheKey = index + tagprev + tagprevprev;
+    // the contexts only depend on these values
+    List<String> cacheKey = null;
     if (contextsCache != null) {
-      if (wordsKey == tokens) {
-        String[] cachedContexts = contextsCache.get(cacheKey);
-        if (cachedContexts != null) {
-          return cachedContexts;
-        }
-      }
-      else {
-        contextsCache.clear();
-        wordsKey = tokens;
+      cacheKey = Arrays.asList(lex, prev, prevprev, next, nextnext, tagprev, tagprevprev);
+      String[] cachedContexts = contextsCache.get(cacheKey);
+      if (cachedContexts != null) {
+        return cachedContexts;
       }
     }
     List<String> e = new ArrayList<>();
@@ -219,4 +226,13 @@ public class DefaultPOSContextGenerator implements POSContextGenerator {
     return contexts;
   }
 
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The contexts use the two previous tags.
+   */
+  @Override
+  public int getOutcomeHistoryOrder() {
+    return 2;
+  }
 }
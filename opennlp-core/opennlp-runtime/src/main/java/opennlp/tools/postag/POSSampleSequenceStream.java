@@ -18,12 +18,14 @@
 package opennlp.tools.postag;
 
 import java.io.IOException;
+import java.util.function.Supplier;
 
 import opennlp.tools.ml.model.Event;
 import opennlp.tools.ml.model.MaxentModel;
 import opennlp.tools.ml.model.Sequence;
 import opennlp.tools.ml.model.SequenceStream;
 import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.ObjectStreamUtils;
 
 /**
  * A {@link SequenceStream} implementation encapsulating {@link POSSample samples}.
@@ -32,6 +34,8 @@ public class POSSampleSequenceStream implements SequenceStream<POSSample> {
 
   private final POSContextGenerator pcg;
   private final ObjectStream<POSSample> psi;
+  /** Creates the context generators of the worker streams, or {@code null}. */
+  private final Supplier<? extends POSContextGenerator> contextGenerators;
 
   /**
    * Creates a {@link POSSampleSequenceStream} with given {@code samples} using
@@ -51,13 +55,34 @@ public class POSSampleSequenceStream implements SequenceStream<POSSample> {
    * @param pcg A {@link POSContextGenerator} which shall be used.
    */
   public POSSampleSequenceStream(ObjectStream<POSSample> psi, POSContextGenerator pcg) {
+    this(psi, pcg, null);
+  }
+
+  /**
+   * Creates a {@link POSSampleSequenceStream} with given {@code samples} whose
+   * {@link #createWorkerStream() worker streams} use their own {@link POSContextGenerator}.
+   *
+   * @param psi The data stream of {@link POSSample samples}.
+   * @param contextGenerators Creates a {@link POSContextGenerator} for this stream and
+   *                          for each worker stream.
+   */
+  public POSSampleSequenceStream(ObjectStream<POSSample> psi,
+                                 Supplier<? extends POSContextGenerator> contextGenerators) {
+    this(psi, contextGenerators.get(), contextGenerators);
+  }
+
+  private POSSampleSequenceStream(ObjectStream<POSSample> psi, POSContextGenerator pcg,
+                                  Supplier<? extends POSContextGenerator> contextGenerators) {
     this.psi = psi;
     this.pcg = pcg;
+    this.contextGenerators = contextGenerators;
   }
 
   @Override
   public Event[] updateContext(Sequence<POSSample> pss, MaxentModel model) {
-    POSTagger tagger = new POSTaggerME(new POSModel("x-unspecified", model, null, new POSTaggerFactory()));
+    // the tags must not be mapped, they have to match the outcomes of the training data
+    POSTagger tagger = new POSTaggerME(new POSModel("x-unspecified", model, null, new POSTaggerFactory()),
+        POSTagFormat.CUSTOM);
     String[] sentence = pss.getSource().getSentence();
     Object[] ac = pss.getSource().getAdditionalContext();
     String[] tags = tagger.tag(pss.getSource().getSentence());
@@ -66,6 +91,21 @@ public class POSSampleSequenceStream implements SequenceStream<POSSample> {
     return events;
   }
 
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Worker streams are only created if this stream was created with a {@link Supplier}
+   * of context generators.
+   */
+  @Override
+  public SequenceStream<POSSample> createWorkerStream() {
+    if (contextGenerators == null) {
+      return null;
+    }
+    return new POSSampleSequenceStream(ObjectStreamUtils.createObjectStream(), contextGenerators.get(),
+        contextGenerators);
+  }
+
   @Override
   public Sequence<POSSample> read() throws IOException {
 
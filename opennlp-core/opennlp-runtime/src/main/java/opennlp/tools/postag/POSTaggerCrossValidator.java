@@ -19,6 +19,7 @@ package opennlp.tools.postag;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 
 import opennlp.tools.util.ObjectStream;
@@ -137,6 +138,10 @@ public class POSTaggerCrossValidator {
 
   /**
    * Starts the evaluation.
+   * <p>
+   * The folds are evaluated concurrently if {@link CrossValidationPartitioner#FOLD_THREADS_PARAM}
+   * is set in the training parameters, the listeners must then be thread-safe. If a tag dictionary
+   * is created from the training data of each fold, the folds are always evaluated one by one.
    *
    * @param samples The {@link ObjectStream} of {@link POSSample samples} to train and test with.
    * @param nFolds Number of folds. It must be greater than zero.
@@ -148,39 +153,18 @@ public class POSTaggerCrossValidator {
     CrossValidationPartitioner<POSSample> partitioner = new CrossValidationPartitioner<>(
         samples, nFolds);
 
-    while (partitioner.hasNext()) {
-
-      CrossValidationPartitioner.TrainingSampleStream<POSSample> trainingSampleStream = partitioner
-          .next();
-
-      if (this.tagDictionaryFile != null
-          && this.factory.getTagDictionary() == null) {
-        this.factory.setTagDictionary(this.factory
-            .createTagDictionary(tagDictionaryFile));
-      }
+    // The factory is shared by all folds, it can only be prepared once if it does not depend on the fold
+    int foldThreads = this.tagdicCutoff == null ? CrossValidationPartitioner.getFoldThreads(params) : 1;
+    if (foldThreads > 1) {
+      initFactory(null);
+    }
 
-      TagDictionary dict = null;
-      if (this.tagdicCutoff != null) {
-        dict = this.factory.getTagDictionary();
-        if (dict == null) {
-          dict = this.factory.createEmptyTagDictionary();
-        }
-        if (dict instanceof MutableTagDictionary) {
-          POSTaggerME.populatePOSDictionary(trainingSampleStream, (MutableTagDictionary)dict,
-              this.tagdicCutoff);
-        } else {
-          throw new IllegalArgumentException(
-              "Can't extend a TagDictionary that does not implement MutableTagDictionary.");
-        }
-        trainingSampleStream.reset();
-      }
+    List<POSEvaluator> evaluators = partitioner.evaluateFolds(foldThreads, trainingSampleStream -> {
 
-      if (this.factory == null) {
-        this.factory = POSTaggerFactory.create(this.factoryClassName, null, null);
+      if (foldThreads == 1) {
+        initFactory(trainingSampleStream);
       }
 
-      factory.init(featureGeneratorBytes, resources, dict);
-
       POSModel model = POSTaggerME.train(languageCode, trainingSampleStream,
           params, this.factory);
 
@@ -188,14 +172,51 @@ public class POSTaggerCrossValidator {
 
       evaluator.evaluate(trainingSampleStream.getTestSampleStream());
 
-      wordAccuracy.add(evaluator.getWordAccuracy(), evaluator.getWordCount());
-
       if (this.tagdicCutoff != null) {
         this.factory.setTagDictionary(null);
       }
+      return evaluator;
+    });
+
+    for (POSEvaluator evaluator : evaluators) {
+      wordAccuracy.add(evaluator.getWordAccuracy(), evaluator.getWordCount());
     }
   }
 
+  /**
+   * Initializes the factory for a fold, with a tag dictionary cutoff the tag dictionary is
+   * extended with the training data of the fold.
+   */
+  private void initFactory(ObjectStream<POSSample> trainingSampleStream) throws IOException {
+    if (this.tagDictionaryFile != null
+        && this.factory.getTagDictionary() == null) {
+      this.factory.setTagDictionary(this.factory
+          .createTagDictionary(tagDictionaryFile));
+    }
+
+    TagDictionary dict = null;
+    if (this.tagdicCutoff != null) {
+      dict = this.factory.getTagDictionary();
+      if (dict == null) {
+        dict = this.factory.createEmptyTagDictionary();
+      }
+      if (dict instanceof MutableTagDictionary) {
+        POSTaggerME.populatePOSDictionary(trainingSampleStream, (MutableTagDictionary)dict,
+            this.tagdicCutoff);
+      } else {
+        throw new IllegalArgumentException(
+            "Can't extend a TagDictionary that does not implement MutableTagDictionary.");
+      }
+      trainingSampleStream.reset();
+    }
+
+    if (this.factory == null) {
+      this.factory = POSTaggerFactory.create(this.factoryClassName, null, null);
+    }
+
+    factory.init(featureGeneratorBytes, resources, dict);
+  }
+
   /**
    * @return Retrieves the accuracy for all iterations.
    */
@@ -27,6 +27,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
@@ -34,6 +35,7 @@ import java.util.Set;
 import opennlp.tools.dictionary.Dictionary;
 import opennlp.tools.ml.model.AbstractModel;
 import opennlp.tools.util.BaseToolFactory;
+import opennlp.tools.util.ConcurrentCache;
 import opennlp.tools.util.InvalidFormatException;
 import opennlp.tools.util.SequenceValidator;
 import opennlp.tools.util.Version;
@@ -42,6 +44,7 @@ import opennlp.tools.util.featuregen.AdaptiveFeatureGenerator;
 import opennlp.tools.util.featuregen.AggregatedFeatureGenerator;
 import opennlp.tools.util.featuregen.GeneratorFactory;
 import opennlp.tools.util.model.ArtifactSerializer;
+import opennlp.tools.util.model.BaseModel;
 import opennlp.tools.util.model.UncloseableInputStream;
 
 /**
@@ -56,6 +59,7 @@ public class POSTaggerFactory extends BaseToolFactory {
   private byte[] featureGeneratorBytes;
   private Map<String, Object> resources;
   protected TagDictionary posDictionary;
+  private ConcurrentCache<List<String>, String[]> sharedContextsCache;
 
   /**
    * Initializes a {@link POSTaggerFactory} that provides the default implementation
@@ -284,7 +288,8 @@ public class POSTaggerFactory extends BaseToolFactory {
   }
 
   /**
-   * @param cacheSize Must be greater than or equal to {@code 0}.
+   * @param cacheSize Must be greater than or equal to {@code 0}. It is ignored if the generators
+   *                  of the model share a cache, see {@link BaseModel#SHARED_CACHE_SIZE_PROPERTY}.
    * @return The {@link POSContextGenerator} configured with the given {@code cacheSize}.
    */
   public POSContextGenerator getPOSContextGenerator(int cacheSize) {
@@ -296,6 +301,10 @@ public class POSTaggerFactory extends BaseToolFactory {
       Version v = Version.parse(version);
 
       if (v.getMajor() == 1 && v.getMinor() < 8) {
+        ConcurrentCache<List<String>, String[]> sharedCache = getSharedContextsCache();
+        if (sharedCache != null) {
+          return new DefaultPOSContextGenerator(sharedCache, getDictionary());
+        }
         return new DefaultPOSContextGenerator(cacheSize, getDictionary());
       }
     }
@@ -303,6 +312,20 @@ public class POSTaggerFactory extends BaseToolFactory {
     return new ConfigurablePOSContextGenerator(cacheSize, createFeatureGenerators());
   }
 
+  /**
+   * @return The contexts cache which all {@link DefaultPOSContextGenerator generators} of the
+   *         model share, or {@code null} if the {@link BaseModel#SHARED_CACHE_SIZE_PROPERTY} is not set.
+   */
+  private synchronized ConcurrentCache<List<String>, String[]> getSharedContextsCache() {
+    if (sharedContextsCache == null) {
+      int cacheSize = Integer.getInteger(BaseModel.SHARED_CACHE_SIZE_PROPERTY, 0);
+      if (cacheSize > 0) {
+        sharedContextsCache = new ConcurrentCache<>(cacheSize);
+      }
+    }
+    return sharedContextsCache;
+  }
+
   /**
    * @return The {@link SequenceValidator} used.
    */
@@ -18,12 +18,14 @@
 package opennlp.tools.postag;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.TreeMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
@@ -33,23 +35,28 @@ import opennlp.tools.dictionary.Dictionary;
 import opennlp.tools.ml.BeamSearch;
 import opennlp.tools.ml.EventModelSequenceTrainer;
 import opennlp.tools.ml.EventTrainer;
+import opennlp.tools.ml.PrimitiveBeamSearch;
 import opennlp.tools.ml.Probabilistic;
 import opennlp.tools.ml.SequenceTrainer;
 import opennlp.tools.ml.TrainerFactory;
 import opennlp.tools.ml.TrainerFactory.TrainerType;
+import opennlp.tools.ml.model.EvalScratch;
 import opennlp.tools.ml.model.Event;
+import opennlp.tools.ml.model.EventCache;
 import opennlp.tools.ml.model.MaxentModel;
 import opennlp.tools.ml.model.SequenceClassificationModel;
 import opennlp.tools.models.ModelType;
 import opennlp.tools.ngram.NGramModel;
 import opennlp.tools.util.DownloadUtil;
 import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.ParallelEventStream;
 import opennlp.tools.util.Sequence;
 import opennlp.tools.util.SequenceValidator;
 import opennlp.tools.util.StringList;
 import opennlp.tools.util.StringUtil;
 import opennlp.tools.util.TrainingParameters;
 import opennlp.tools.util.featuregen.StringPattern;
+import opennlp.tools.util.model.ModelUtil;
 
 /**
  * A {@link POSTagger part-of-speech tagger} implementation that uses maximum entropy.
@@ -96,6 +103,8 @@ public class POSTaggerME implements POSTagger, Probabilistic {
 
   private final POSTagFormat posTagFormat;
 
+  private final EvalScratch scratch = new EvalScratch();
+
   protected final POSTagFormatMapper posTagFormatMapper;
 
   /**
@@ -159,7 +168,7 @@ public class POSTaggerME implements POSTagger, Probabilistic {
     if (model.getPosSequenceModel() != null) {
       this.model = model.getPosSequenceModel();
     } else {
-      this.model = new BeamSearch(beamSize, model.getArtifact(POSModel.POS_MODEL_ENTRY_NAME), 0);
+      this.model = new PrimitiveBeamSearch(beamSize, model.getArtifact(POSModel.POS_MODEL_ENTRY_NAME), 0);
     }
 
     this.posTagFormatMapper = (format == POSTagFormat.CUSTOM)
@@ -269,12 +278,13 @@ public class POSTaggerME implements POSTagger, Probabilistic {
     if (posModel != null) {
 
       double[] probs = posModel.eval(cg.getContext(index, words.toArray(new String[0]),
-          tags.toArray(new String[0]), null));
+          tags.toArray(new String[0]), null), scratch);
 
-      String[] orderedTags = new String[probs.length];
-      for (int i = 0; i < probs.length; i++) {
+      int numOutcomes = posModel.getNumOutcomes();
+      String[] orderedTags = new String[numOutcomes];
+      for (int i = 0; i < numOutcomes; i++) {
         int max = 0;
-        for (int ti = 1; ti < probs.length; ti++) {
+        for (int ti = 1; ti < numOutcomes; ti++) {
           if (probs[ti] > probs[max]) {
             max = ti;
           }
@@ -314,17 +324,24 @@ public class POSTaggerME implements POSTagger, Probabilistic {
     final POSContextGenerator contextGenerator = posFactory.getPOSContextGenerator();
     final TrainerType trainerType = TrainerFactory.getTrainerType(mlParams);
     final Map<String, String> manifestInfoEntries = new HashMap<>();
+    ModelUtil.addSequenceDecoder(manifestInfoEntries, mlParams, contextGenerator);
 
     MaxentModel posModel = null;
     SequenceClassificationModel seqPosModel = null;
     if (TrainerType.EVENT_MODEL_TRAINER.equals(trainerType)) {
-      ObjectStream<Event> es = new POSSampleEventStream(samples, contextGenerator);
+      // the resources are only digested if the cache is enabled
+      String featurization = mlParams.getStringParameter(EventCache.CACHE_DIR_PARAM, null) != null
+          ? featurization(posFactory) : null;
+      ObjectStream<Event> es = EventCache.cache(mlParams, samples,
+          sample -> sample + "\t" + Arrays.deepToString(sample.getAdditionalContext()),
+          featurization, ParallelEventStream.create(mlParams, samples,
+              s -> new POSSampleEventStream(s, posFactory.getPOSContextGenerator())));
 
       EventTrainer<TrainingParameters> trainer =
           TrainerFactory.getEventTrainer(mlParams, manifestInfoEntries);
       posModel = trainer.train(es);
     } else if (TrainerType.EVENT_MODEL_SEQUENCE_TRAINER.equals(trainerType)) {
-      POSSampleSequenceStream ss = new POSSampleSequenceStream(samples, contextGenerator);
+      POSSampleSequenceStream ss = new POSSampleSequenceStream(samples, posFactory::getPOSContextGenerator);
       EventModelSequenceTrainer<POSSample, TrainingParameters> trainer =
           TrainerFactory.getEventModelSequenceTrainer(mlParams, manifestInfoEntries);
       posModel = trainer.train(ss);
@@ -347,6 +364,24 @@ public class POSTaggerME implements POSTagger, Probabilistic {
     }
   }
 
+  /*
+   * Describes the generation of the training events for the event cache, or returns null
+   * if a resource cannot be serialized to digest its content.
+   */
+  private static String featurization(POSTaggerFactory factory) throws IOException {
+    byte[] featureGenerator = factory.getFeatureGenerator();
+    Map<String, Object> resources = factory.getResources();
+    String resourcesDigest = ModelUtil.digestResources(resources, factory.createArtifactSerializersMap());
+    if (resourcesDigest == null) {
+      return null;
+    }
+    return "postagger factory=" + factory.getClass().getName()
+        + " resources=" + new TreeMap<>(resources).keySet()
+        + " resourcesDigest=" + resourcesDigest
+        + " features=" + (featureGenerator != null
+            ? new String(featureGenerator, StandardCharsets.UTF_8) : null);
+  }
+
   /**
    * Constructs an {@link Dictionary nGram dictionary} from an {@link ObjectStream} of samples.
    *
@@ -18,6 +18,7 @@
 package opennlp.tools.sentdetect;
 
 import java.io.IOException;
+import java.util.List;
 
 import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.TrainingParameters;
@@ -49,6 +50,9 @@ public class SDCrossValidator {
   
   /**
    * Starts the evaluation.
+   * <p>
+   * The folds are evaluated concurrently if {@link CrossValidationPartitioner#FOLD_THREADS_PARAM}
+   * is set in the training parameters, the listeners must then be thread-safe.
    *
    * @param samples
    *          the data to train and test
@@ -62,23 +66,25 @@ public class SDCrossValidator {
     CrossValidationPartitioner<SentenceSample> partitioner =
         new CrossValidationPartitioner<>(samples, nFolds);
 
-    while (partitioner.hasNext()) {
+    List<FMeasure> results = partitioner.evaluateFolds(
+        CrossValidationPartitioner.getFoldThreads(params), trainingSampleStream -> {
 
-      CrossValidationPartitioner.TrainingSampleStream<SentenceSample> trainingSampleStream =
-          partitioner.next();
+          SentenceModel model;
 
-      SentenceModel model;
+          model = SentenceDetectorME.train(languageCode, trainingSampleStream,
+              sdFactory, params);
 
-      model = SentenceDetectorME.train(languageCode, trainingSampleStream,
-          sdFactory, params);
+          // do testing
+          SentenceDetectorEvaluator evaluator = new SentenceDetectorEvaluator(
+              new SentenceDetectorME(model), listeners);
 
-      // do testing
-      SentenceDetectorEvaluator evaluator = new SentenceDetectorEvaluator(
-          new SentenceDetectorME(model), listeners);
+          evaluator.evaluate(trainingSampleStream.getTestSampleStream());
 
-      evaluator.evaluate(trainingSampleStream.getTestSampleStream());
+          return evaluator.getFMeasure();
+        });
 
-      fmeasure.mergeInto(evaluator.getFMeasure());
+    for (FMeasure result : results) {
+      fmeasure.mergeInto(result);
     }
   }
 
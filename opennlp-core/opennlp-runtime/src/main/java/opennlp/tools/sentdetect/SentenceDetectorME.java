@@ -30,12 +30,14 @@ import opennlp.tools.ml.ArrayMath;
 import opennlp.tools.ml.EventTrainer;
 import opennlp.tools.ml.Probabilistic;
 import opennlp.tools.ml.TrainerFactory;
+import opennlp.tools.ml.model.EvalScratch;
 import opennlp.tools.ml.model.Event;
 import opennlp.tools.ml.model.MaxentModel;
 import opennlp.tools.models.ModelType;
 import opennlp.tools.sentdetect.lang.Factory;
 import opennlp.tools.util.DownloadUtil;
 import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.ParallelEventStream;
 import opennlp.tools.util.Span;
 import opennlp.tools.util.StringList;
 import opennlp.tools.util.StringUtil;
@@ -84,6 +86,11 @@ public class SentenceDetectorME implements SentenceDetector, Probabilistic {
    */
   private final Dictionary abbDict;
 
+  /**
+   * Reusable buffers for the evaluation of the candidate positions.
+   */
+  private final EvalScratch scratch = new EvalScratch();
+
   protected final boolean useTokenEnd;
 
   /**
@@ -208,8 +215,10 @@ public class SentenceDetectorME implements SentenceDetector, Probabilistic {
       }
       if (positions.size() > 0 && cint < positions.get(positions.size() - 1)) continue;
 
-      double[] probs = model.eval(cgen.getContext(s, cint));
-      String bestOutcome = model.getBestOutcome(probs);
+      // the returned array belongs to scratch, it is valid until the next evaluation
+      double[] probs = model.eval(cgen.getContext(s, cint), scratch);
+      int best = ArrayMath.argmax(probs, 0, model.getNumOutcomes());
+      String bestOutcome = model.getOutcome(best);
 
       if (bestOutcome.equals(SPLIT) && isAcceptableBreak(s, index, cint)) {
         if (index != cint) {
@@ -219,7 +228,7 @@ public class SentenceDetectorME implements SentenceDetector, Probabilistic {
           else {
             positions.add(getFirstNonWS(s, cint + 1));
           }
-          sentProbs.add(probs[model.getIndex(bestOutcome)]);
+          sentProbs.add(probs[best]);
         }
 
         index = cint + 1;
@@ -370,8 +379,8 @@ public class SentenceDetectorME implements SentenceDetector, Probabilistic {
     Map<String, String> manifestInfoEntries = new HashMap<>();
 
     // TODO: Fix the EventStream to throw exceptions when training goes wrong
-    ObjectStream<Event> eventStream = new SDEventStream(samples,
-        sdFactory.getSDContextGenerator(), sdFactory.getEndOfSentenceScanner());
+    ObjectStream<Event> eventStream = ParallelEventStream.create(mlParams, samples,
+        s -> new SDEventStream(s, sdFactory.getSDContextGenerator(), sdFactory.getEndOfSentenceScanner()));
 
     EventTrainer<TrainingParameters> trainer = TrainerFactory.getEventTrainer(mlParams, manifestInfoEntries);
     MaxentModel sentModel = trainer.train(eventStream);
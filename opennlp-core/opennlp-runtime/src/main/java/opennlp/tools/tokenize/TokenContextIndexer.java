@@ -0,0 +1,232 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.tokenize;
+
+import java.util.Set;
+
+import opennlp.tools.ml.model.CompiledParameters;
+import opennlp.tools.util.StringUtil;
+
+/**
+ * Computes the features of {@link DefaultTokenContextGenerator} directly as predicate
+ * indices of {@link CompiledParameters}, without creating the predicate strings.
+ * <p>
+ * The indices of all constant predicates, and of the character predicates of ASCII
+ * chars, are looked up once. The {@code p=} and {@code s=} predicates of all split
+ * positions of a token are resolved with rolling hashes which are computed in one
+ * pass over the token, the remaining predicates by a lookup of a region of the token.
+ * <p>
+ * The produced indices are in the same order as the predicates of
+ * {@link DefaultTokenContextGenerator#getContext(String, int)}, so that a model
+ * sums them up in the same order and computes identical probabilities.
+ * <p>
+ * Instances keep per-token state and are not thread safe.
+ */
+final class TokenContextIndexer {
+
+  /**
+   * The maximum number of predicate indices of a single context.
+   */
+  static final int MAX_CONTEXT_LENGTH = 19;
+
+  private static final int P1 = 0;
+  private static final int P2 = 1;
+  private static final int F1 = 2;
+  private static final int F2 = 3;
+  private static final String[] KEYS = {"p1", "p2", "f1", "f2"};
+
+  private static final int ALPHA = 0;
+  private static final int CAPS = 1;
+  private static final int NUM = 2;
+  private static final int WS = 3;
+  private static final int EOS = 4;
+  private static final int QUOTE = 5;
+  private static final int LP = 6;
+  private static final int RP = 7;
+  private static final String[] CHAR_CLASSES =
+      {"_alpha", "_caps", "_num", "_ws", "_eos", "_quote", "_lp", "_rp"};
+
+  private static final String PREFIX = "p=";
+  private static final String SUFFIX = "s=";
+  private static final String P21 = "p21=";
+  private static final String P1F1 = "p1f1=";
+  private static final String F12 = "f12=";
+
+  private final CompiledParameters params;
+  private final Set<String> inducedAbbreviations;
+
+  /** The index of {@code key=c} per key for all ASCII chars. */
+  private final int[][] charPreds = new int[KEYS.length][128];
+  private final int[][] charClassPreds = new int[KEYS.length][CHAR_CLASSES.length];
+  private final String[] charKeys = new String[KEYS.length];
+  private final int[] charKeyHashes = new int[KEYS.length];
+  private final int p1Bok;
+  private final int p2Bok;
+  private final int f2Bok;
+  private final int cc;
+  private final int pabb;
+
+  private String token;
+  /** The hash of {@code "p=" + token.substring(0, i)} at {@code i}. */
+  private int[] prefixHashes = new int[32];
+  /** The hash of {@code "s=" + token.substring(i)} at {@code i}. */
+  private int[] suffixHashes = new int[32];
+
+  /**
+   * Initializes a {@link TokenContextIndexer}.
+   *
+   * @param params The {@link CompiledParameters} to resolve the predicates with.
+   * @param inducedAbbreviations The induced abbreviations of the context generator.
+   */
+  TokenContextIndexer(CompiledParameters params, Set<String> inducedAbbreviations) {
+    this.params = params;
+    this.inducedAbbreviations = inducedAbbreviations;
+
+    for (int k = 0; k < KEYS.length; k++) {
+      charKeys[k] = KEYS[k] + "=";
+      charKeyHashes[k] = charKeys[k].hashCode();
+      for (char c = 0; c < 128; c++) {
+        charPreds[k][c] = params.getPredicateIndex(charKeys[k] + c);
+      }
+      for (int cl = 0; cl < CHAR_CLASSES.length; cl++) {
+        charClassPreds[k][cl] = params.getPredicateIndex(KEYS[k] + CHAR_CLASSES[cl]);
+      }
+    }
+    p1Bok = params.getPredicateIndex("p1=bok");
+    p2Bok = params.getPredicateIndex("p2=bok");
+    f2Bok = params.getPredicateIndex("f2=bok");
+    cc = params.getPredicateIndex("cc");
+    pabb = params.getPredicateIndex("pabb");
+  }
+
+  /**
+   * Prepares the indexer for the split positions of a {@code token}.
+   *
+   * @param token The token to compute contexts for.
+   */
+  void setToken(String token) {
+    this.token = token;
+    int length = token.length();
+    if (prefixHashes.length <= length) {
+      prefixHashes = new int[length + 1];
+      suffixHashes = new int[length + 1];
+    }
+
+    prefixHashes[0] = PREFIX.hashCode();
+    for (int i = 0; i < length; i++) {
+      prefixHashes[i + 1] = 31 * prefixHashes[i] + token.charAt(i);
+    }
+
+    int tail = 0;
+    int power = 1;
+    suffixHashes[length] = SUFFIX.hashCode();
+    for (int i = length - 1; i >= 0; i--) {
+      tail += token.charAt(i) * power;
+      power *= 31;
+      suffixHashes[i] = SUFFIX.hashCode() * power + tail;
+    }
+  }
+
+  /**
+   * Computes the context of the current token at {@code index}.
+   *
+   * @param index The split position, must be smaller than the token length.
+   * @param predIndices The array to write the predicate indices to, must hold
+   *                    at least {@link #MAX_CONTEXT_LENGTH} elements.
+   * @return The number of predicate indices written to {@code predIndices}.
+   */
+  int getContext(int index, int[] predIndices) {
+    int length = token.length();
+    int n = 0;
+    predIndices[n++] = params.getPredicateIndex(prefixHashes[index], PREFIX, token, 0, index);
+    predIndices[n++] = params.getPredicateIndex(suffixHashes[index], SUFFIX, token, index, length);
+    if (index > 0) {
+      n = addCharPreds(P1, index - 1, predIndices, n);
+      if (index > 1) {
+        n = addCharPreds(P2, index - 2, predIndices, n);
+        predIndices[n++] = bigram(P21, index - 2);
+      }
+      else {
+        predIndices[n++] = p2Bok;
+      }
+      predIndices[n++] = bigram(P1F1, index - 1);
+    }
+    else {
+      predIndices[n++] = p1Bok;
+    }
+    n = addCharPreds(F1, index, predIndices, n);
+    if (index + 1 < length) {
+      n = addCharPreds(F2, index + 1, predIndices, n);
+      predIndices[n++] = bigram(F12, index);
+    }
+    else {
+      predIndices[n++] = f2Bok;
+    }
+    if (token.charAt(0) == '&' && token.charAt(length - 1) == ';') {
+      predIndices[n++] = cc;
+    }
+
+    if (index == length - 1 && inducedAbbreviations.contains(token)) {
+      predIndices[n++] = pabb;
+    }
+    return n;
+  }
+
+  private int bigram(String key, int start) {
+    int hash = 31 * (31 * key.hashCode() + token.charAt(start)) + token.charAt(start + 1);
+    return params.getPredicateIndex(hash, key, token, start, start + 2);
+  }
+
+  /*
+   * Mirrors DefaultTokenContextGenerator#addCharPreds.
+   */
+  private int addCharPreds(int key, int pos, int[] predIndices, int n) {
+    char c = token.charAt(pos);
+    predIndices[n++] = c < 128 ? charPreds[key][c]
+        : params.getPredicateIndex(31 * charKeyHashes[key] + c, charKeys[key], token, pos, pos + 1);
+
+    int[] classPreds = charClassPreds[key];
+    if (Character.isLetter(c)) {
+      predIndices[n++] = classPreds[ALPHA];
+      if (Character.isUpperCase(c)) {
+        predIndices[n++] = classPreds[CAPS];
+      }
+    }
+    else if (Character.isDigit(c)) {
+      predIndices[n++] = classPreds[NUM];
+    }
+    else if (StringUtil.isWhitespace(c)) {
+      predIndices[n++] = classPreds[WS];
+    }
+    else {
+      if (c == '.' || c == '?' || c == '!') {
+        predIndices[n++] = classPreds[EOS];
+      }
+      else if (c == '`' || c == '"' || c == '\'') {
+        predIndices[n++] = classPreds[QUOTE];
+      }
+      else if (c == '[' || c == '{' || c == '(') {
+        predIndices[n++] = classPreds[LP];
+      }
+      else if (c == ']' || c == '}' || c == ')') {
+        predIndices[n++] = classPreds[RP];
+      }
+    }
+    return n;
+  }
+}
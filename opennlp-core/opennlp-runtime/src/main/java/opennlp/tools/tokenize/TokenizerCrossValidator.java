@@ -18,6 +18,7 @@
 package opennlp.tools.tokenize;
 
 import java.io.IOException;
+import java.util.List;
 
 import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.TrainingParameters;
@@ -51,6 +52,9 @@ public class TokenizerCrossValidator {
 
   /**
    * Starts the evaluation.
+   * <p>
+   * The folds are evaluated concurrently if {@link CrossValidationPartitioner#FOLD_THREADS_PARAM}
+   * is set in the training parameters, the listeners must then be thread-safe.
    *
    * @param samples The {@link ObjectStream} of {@link TokenSample samples} to train and test with.
    * @param nFolds Number of folds. It must be greater than zero.
@@ -62,18 +66,20 @@ public class TokenizerCrossValidator {
     CrossValidationPartitioner<TokenSample> partitioner =
         new CrossValidationPartitioner<>(samples, nFolds);
 
-    while (partitioner.hasNext()) {
+    List<FMeasure> results = partitioner.evaluateFolds(
+        CrossValidationPartitioner.getFoldThreads(params), trainingSampleStream -> {
 
-      CrossValidationPartitioner.TrainingSampleStream<TokenSample> trainingSampleStream =
-          partitioner.next();
+          // Maybe throws IOException if temporary file handling fails ...
+          TokenizerModel model = TokenizerME.train(trainingSampleStream, this.factory, params);
 
-      // Maybe throws IOException if temporary file handling fails ...
-      TokenizerModel model = TokenizerME.train(trainingSampleStream, this.factory, params);
+          TokenizerEvaluator evaluator = new TokenizerEvaluator(new TokenizerME(model), listeners);
 
-      TokenizerEvaluator evaluator = new TokenizerEvaluator(new TokenizerME(model), listeners);
+          evaluator.evaluate(trainingSampleStream.getTestSampleStream());
+          return evaluator.getFMeasure();
+        });
 
-      evaluator.evaluate(trainingSampleStream.getTestSampleStream());
-      fmeasure.mergeInto(evaluator.getFMeasure());
+    for (FMeasure result : results) {
+      fmeasure.mergeInto(result);
     }
   }
 
@@ -29,11 +29,14 @@ import opennlp.tools.ml.ArrayMath;
 import opennlp.tools.ml.EventTrainer;
 import opennlp.tools.ml.Probabilistic;
 import opennlp.tools.ml.TrainerFactory;
+import opennlp.tools.ml.model.EvalScratch;
 import opennlp.tools.ml.model.Event;
+import opennlp.tools.ml.model.IndexedMaxentModel;
 import opennlp.tools.ml.model.MaxentModel;
 import opennlp.tools.models.ModelType;
 import opennlp.tools.util.DownloadUtil;
 import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.ParallelEventStream;
 import opennlp.tools.util.Span;
 import opennlp.tools.util.StringList;
 import opennlp.tools.util.TrainingParameters;
@@ -100,6 +103,12 @@ public class TokenizerME extends AbstractTokenizer implements Probabilistic {
    */
   private final TokenContextGenerator cg;
 
+  /*
+   * Computes the contexts of the default context generator as predicate indices,
+   * or {@code null} if the context generator or the model do not support that.
+   */
+  private final TokenContextIndexer indexer;
+
   /*
    * Optimization flag to skip alphanumeric tokens for further tokenization
    */
@@ -113,6 +122,11 @@ public class TokenizerME extends AbstractTokenizer implements Probabilistic {
 
   private final List<Span> newTokens;
 
+  /*
+   * Reusable buffers for the outcome probabilities of all split positions of a token.
+   */
+  private final EvalScratch scratch = new EvalScratch();
+
   /*
    * The {@link Dictionary abbreviation dictionary} if available (may be {@code null}).
    */
@@ -148,6 +162,7 @@ public class TokenizerME extends AbstractTokenizer implements Probabilistic {
     this.abbDict = abbDict;
     TokenizerFactory factory = model.getFactory();
     this.cg = factory.getContextGenerator();
+    this.indexer = createIndexer(this.model, cg);
     this.alphanumeric = factory.getAlphaNumericPattern();
     this.useAlphaNumericOptimization = factory.isUseAlphaNumericOptimization();
 
@@ -155,6 +170,19 @@ public class TokenizerME extends AbstractTokenizer implements Probabilistic {
     tokProbs = new ArrayList<>(50);
   }
 
+  /*
+   * Only the exact default context generator is mirrored by the indexer,
+   * subclasses may override its features.
+   */
+  private static TokenContextIndexer createIndexer(MaxentModel model, TokenContextGenerator cg) {
+    if (model instanceof IndexedMaxentModel indexedModel
+        && cg.getClass() == DefaultTokenContextGenerator.class) {
+      return new TokenContextIndexer(indexedModel.getParameters(),
+          ((DefaultTokenContextGenerator) cg).inducedAbbreviations);
+    }
+    return null;
+  }
+
   /**
    * {@inheritDoc}
    *
@@ -208,13 +236,35 @@ public class TokenizerME extends AbstractTokenizer implements Probabilistic {
         int start = s.getStart();
         int end = s.getEnd();
         final int origStart = s.getStart();
+        final int numOutcomes = model.getNumOutcomes();
+        double[] probs;
+        int[] predIndices = null;
+        if (indexer != null) {
+          indexer.setToken(tok);
+          probs = scratch.probs(numOutcomes);
+          predIndices = scratch.indices(TokenContextIndexer.MAX_CONTEXT_LENGTH);
+        } else {
+          // all candidate split positions are known up front, score them in one batch
+          String[][] contexts = new String[end - origStart - 1][];
+          for (int j = origStart + 1; j < end; j++) {
+            contexts[j - origStart - 1] = cg.getContext(tok, j - origStart);
+          }
+          probs = model.evalBatch(contexts, scratch.probs(contexts.length * numOutcomes));
+        }
+
         double tokenProb = 1.0;
         for (int j = origStart + 1; j < end; j++) {
-          double[] probs =
-              model.eval(cg.getContext(tok, j - origStart));
-          String best = model.getBestOutcome(probs);
-          tokenProb *= probs[model.getIndex(best)];
-          if (best.equals(TokenizerME.SPLIT)) {
+          int offset;
+          if (indexer != null) {
+            int length = indexer.getContext(j - origStart, predIndices);
+            ((IndexedMaxentModel) model).evalIndices(predIndices, length, probs);
+            offset = 0;
+          } else {
+            offset = (j - origStart - 1) * numOutcomes;
+          }
+          int best = ArrayMath.argmax(probs, offset, numOutcomes);
+          tokenProb *= probs[offset + best];
+          if (model.getOutcome(best).equals(TokenizerME.SPLIT)) {
             if (isAcceptableAbbreviation(tok)) {
               newTokens.add(new Span(start, end));
               tokProbs.add(tokenProb);
@@ -256,9 +306,9 @@ public class TokenizerME extends AbstractTokenizer implements Probabilistic {
 
     Map<String, String> manifestInfoEntries = new HashMap<>();
 
-    ObjectStream<Event> eventStream = new TokSpanEventStream(samples,
-        factory.isUseAlphaNumericOptimization(),
-        factory.getAlphaNumericPattern(), factory.getContextGenerator());
+    ObjectStream<Event> eventStream = ParallelEventStream.create(mlParams, samples,
+        s -> new TokSpanEventStream(s, factory.isUseAlphaNumericOptimization(),
+            factory.getAlphaNumericPattern(), factory.getContextGenerator()));
 
     EventTrainer<TrainingParameters> trainer = TrainerFactory.getEventTrainer(
         mlParams, manifestInfoEntries);
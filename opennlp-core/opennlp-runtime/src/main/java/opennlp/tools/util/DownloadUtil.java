@@ -47,6 +47,7 @@ import org.slf4j.LoggerFactory;
 import opennlp.tools.commons.Internal;
 import opennlp.tools.models.ModelType;
 import opennlp.tools.util.model.BaseModel;
+import opennlp.tools.util.model.ModelRegistry;
 
 /**
  * This class facilitates the downloading of pretrained OpenNLP models.
@@ -100,6 +101,9 @@ public class DownloadUtil {
 
   /**
    * Triggers a download for the specified {@link ModelType}.
+   * <p>
+   * The model instance is shared via the {@link ModelRegistry}, repeated calls return
+   * the same instance as long as it is in use.
    *
    * @param language  The ISO language code of the requested model.
    * @param modelType The {@link ModelType type} of model.
@@ -110,17 +114,45 @@ public class DownloadUtil {
    */
   public static <T extends BaseModel> T downloadModel(String language, ModelType modelType,
                                                       Class<T> type) throws IOException {
+    final URL url = getModelURL(language, modelType);
+    return ModelRegistry.getInstance().get(
+        registryKey(language, modelType, url), type, () -> downloadModel(url, type));
+  }
+
+  /**
+   * Triggers a download for the specified {@link ModelType} and leases the shared
+   * model instance from the {@link ModelRegistry}.
+   *
+   * @param language  The ISO language code of the requested model.
+   * @param modelType The {@link ModelType type} of model.
+   * @param type      The class of the resulting model.
+   * @param <T>       The generic type which is a subclass of {@link BaseModel}.
+   * @return A {@link ModelRegistry.Lease} of the model instance of type {@link T}.
+   * @throws IOException Thrown if IO errors occurred or the model is invalid.
+   */
+  public static <T extends BaseModel> ModelRegistry.Lease<T> acquireModel(
+      String language, ModelType modelType, Class<T> type) throws IOException {
+    final URL url = getModelURL(language, modelType);
+    return ModelRegistry.getInstance().acquire(
+        registryKey(language, modelType, url), type, () -> downloadModel(url, type));
+  }
 
+  private static URL getModelURL(String language, ModelType modelType) throws IOException {
     if (getAvailableModels().containsKey(language)) {
       final String url = getAvailableModels().get(language).get(modelType);
       if (url != null) {
-        return downloadModel(new URL(url), type);
+        return new URL(url);
       }
     }
 
     throw new IOException("There is no model available: " + language + " " + modelType.getName());
   }
 
+  private static ModelRegistry.Key registryKey(String language, ModelType modelType, URL url) {
+    // The URL of a released model contains its file name and version
+    return new ModelRegistry.Key(language, modelType, url.toString());
+  }
+
   /**
    * Downloads a model from a {@link URL}.
    * <p>
@@ -0,0 +1,317 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import opennlp.tools.ml.model.Event;
+
+/**
+ * An {@link AbstractEventStream} which generates the {@link Event events} of its samples
+ * on a pool of worker threads.
+ * <p>
+ * Every worker featurizes with its own {@link AbstractEventStream}, created via the provided
+ * factory, so stateful (e.g. adaptive) context generators are never shared between threads.
+ * The samples are handed to the workers in batches which only start at samples accepted by
+ * the {@code unitStart} predicate. Samples which depend on the state left behind by their
+ * predecessors, e.g. the sentences of one document, are thereby featurized by the same worker.
+ * A unit of more than {@code 1024} samples is featurized on the reading thread instead,
+ * so that a stream without unit starts is never read into memory at once.
+ * <p>
+ * The events are returned in the order of the samples, exactly as the sequential
+ * {@link AbstractEventStream} would return them, and at most a bounded number of batches are
+ * read ahead of the consumer.
+ *
+ * @param <T> The generic type representing samples.
+ */
+public class ParallelEventStream<T> extends AbstractEventStream<List<Event>> {
+
+  private static final Logger logger = LoggerFactory.getLogger(ParallelEventStream.class);
+
+  /**
+   * The number of threads which generate the training events.
+   */
+  public static final String THREADS_PARAM = "FeatureThreads";
+
+  public static final int THREADS_DEFAULT = 1;
+
+  static final int BATCH_SIZE = 64;
+
+  /** The maximal number of samples of a batch, longer units are featurized sequentially. */
+  static final int MAX_UNIT_SIZE = 16 * BATCH_SIZE;
+
+  /**
+   * Initializes a {@link ParallelEventStream}.
+   *
+   * @param samples The {@link ObjectStream samples} to generate events for.
+   * @param threads The number of worker threads. Must be greater than {@code 0}.
+   * @param eventStreams Creates the {@link AbstractEventStream} of a worker for the given
+   *                     samples. The samples of the worker streams are never read.
+   * @param unitStart Accepts the samples which do not depend on the featurization of
+   *                  the preceding samples.
+   * @throws IllegalArgumentException Thrown if {@code threads} is smaller than {@code 1}.
+   */
+  public ParallelEventStream(ObjectStream<T> samples, int threads,
+                             Function<ObjectStream<T>, ? extends AbstractEventStream<T>> eventStreams,
+                             Predicate<? super T> unitStart) {
+    super(new BatchStream<>(samples, threads, eventStreams, unitStart));
+  }
+
+  /**
+   * Initializes a {@link ParallelEventStream} for samples which are featurized independently
+   * of each other.
+   *
+   * @param samples The {@link ObjectStream samples} to generate events for.
+   * @param threads The number of worker threads. Must be greater than {@code 0}.
+   * @param eventStreams Creates the {@link AbstractEventStream} of a worker for the given
+   *                     samples. The samples of the worker streams are never read.
+   * @throws IllegalArgumentException Thrown if {@code threads} is smaller than {@code 1}.
+   */
+  public ParallelEventStream(ObjectStream<T> samples, int threads,
+                             Function<ObjectStream<T>, ? extends AbstractEventStream<T>> eventStreams) {
+    this(samples, threads, eventStreams, sample -> true);
+  }
+
+  @Override
+  protected Iterator<Event> createEvents(List<Event> batch) {
+    return batch.iterator();
+  }
+
+  /**
+   * Creates the event stream for training, which is a {@link ParallelEventStream} if
+   * more than one thread is configured via {@link #THREADS_PARAM}.
+   *
+   * @param params The training {@link Parameters}, may be {@code null}.
+   * @param samples The {@link ObjectStream samples} to generate events for.
+   * @param eventStreams Creates an {@link AbstractEventStream} for the given samples.
+   * @param unitStart Accepts the samples which do not depend on the featurization of
+   *                  the preceding samples.
+   * @param <T> The generic type representing samples.
+   * @return The {@link ObjectStream} of training {@link Event events}.
+   */
+  public static <T> ObjectStream<Event> create(Parameters params, ObjectStream<T> samples,
+      Function<ObjectStream<T>, ? extends AbstractEventStream<T>> eventStreams,
+      Predicate<? super T> unitStart) {
+    int threads = getThreads(params);
+    if (threads == 1) {
+      return eventStreams.apply(samples);
+    }
+    return new ParallelEventStream<>(samples, threads, eventStreams, unitStart);
+  }
+
+  /**
+   * Creates the event stream for training samples which are featurized independently
+   * of each other, see {@link #create(Parameters, ObjectStream, Function, Predicate)}.
+   *
+   * @param params The training {@link Parameters}, may be {@code null}.
+   * @param samples The {@link ObjectStream samples} to generate events for.
+   * @param eventStreams Creates an {@link AbstractEventStream} for the given samples.
+   * @param <T> The generic type representing samples.
+   * @return The {@link ObjectStream} of training {@link Event events}.
+   */
+  public static <T> ObjectStream<Event> create(Parameters params, ObjectStream<T> samples,
+      Function<ObjectStream<T>, ? extends AbstractEventStream<T>> eventStreams) {
+    return create(params, samples, eventStreams, sample -> true);
+  }
+
+  /**
+   * @param params The training {@link Parameters}, may be {@code null}.
+   * @return The number of threads which generate the training events, see {@link #THREADS_PARAM}.
+   */
+  public static int getThreads(Parameters params) {
+    return params != null ? params.getIntParameter(THREADS_PARAM, THREADS_DEFAULT) : THREADS_DEFAULT;
+  }
+
+  /**
+   * Reads the samples in batches and returns the events of each batch in order,
+   * while the batches read ahead are featurized by the workers.
+   */
+  private static final class BatchStream<T> implements ObjectStream<List<Event>> {
+
+    private final ObjectStream<T> samples;
+    private final int threads;
+    private final Function<ObjectStream<T>, ? extends AbstractEventStream<T>> eventStreams;
+    private final Predicate<? super T> unitStart;
+    private final int readAhead;
+
+    private final Deque<Future<List<Event>>> pending = new ArrayDeque<>();
+
+    private ExecutorService executor;
+    private ThreadLocal<AbstractEventStream<T>> workerStreams;
+    /** Featurizes the rest of a unit which exceeds the maximal batch size, or {@code null}. */
+    private AbstractEventStream<T> sequentialStream;
+    private T next;
+    private boolean exhausted;
+
+    private BatchStream(ObjectStream<T> samples, int threads,
+                        Function<ObjectStream<T>, ? extends AbstractEventStream<T>> eventStreams,
+                        Predicate<? super T> unitStart) {
+      if (threads < 1) {
+        throw new IllegalArgumentException("Number of threads must be 1 or larger, but is " + threads);
+      }
+      this.samples = samples;
+      this.threads = threads;
+      this.eventStreams = eventStreams;
+      this.unitStart = unitStart;
+      this.readAhead = 4 * threads;
+    }
+
+    @Override
+    public List<Event> read() throws IOException {
+      if (executor == null) {
+        if (exhausted) {
+          return null;
+        }
+        start();
+      }
+
+      try {
+        while (!exhausted && pending.size() < readAhead) {
+          submitBatch();
+        }
+      } catch (RuntimeException | Error e) {
+        // a unit which is featurized sequentially fails on this thread
+        stop();
+        throw e;
+      }
+
+      Future<List<Event>> batch = pending.poll();
+      if (batch == null) {
+        stop();
+        return null;
+      }
+
+      try {
+        return batch.get();
+      } catch (InterruptedException e) {
+        stop();
+        Thread.currentThread().interrupt();
+        throw new IOException("Interrupted while generating the events", e);
+      } catch (ExecutionException e) {
+        stop();
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException re) {
+          throw re;
+        } else if (cause instanceof Error error) {
+          throw error;
+        }
+        throw new IllegalStateException(cause);
+      }
+    }
+
+    /*
+     * Every pass over the samples starts with fresh threads, hence fresh worker streams,
+     * which ensures that the first batch, which might not begin at a unit start,
+     * is featurized without any state left over from a previous pass.
+     */
+    private void start() {
+      executor = Executors.newFixedThreadPool(threads, r -> {
+        Thread thread = new Thread(r, "opennlp-feature-generation");
+        thread.setDaemon(true);
+        return thread;
+      });
+      workerStreams = ThreadLocal.withInitial(this::createWorkerStream);
+    }
+
+    private AbstractEventStream<T> createWorkerStream() {
+      return eventStreams.apply(ObjectStreamUtils.createObjectStream(Collections.emptyList()));
+    }
+
+    private List<Event> featurize(AbstractEventStream<T> stream, List<T> batch) {
+      List<Event> events = new ArrayList<>();
+      for (T sample : batch) {
+        stream.createEvents(sample).forEachRemaining(events::add);
+      }
+      return events;
+    }
+
+    private void submitBatch() throws IOException {
+      List<T> batch = new ArrayList<>(BATCH_SIZE);
+      if (next == null) {
+        next = samples.read();
+      }
+      while (next != null && batch.size() < MAX_UNIT_SIZE
+          && (batch.size() < BATCH_SIZE || !unitStart.test(next))) {
+        batch.add(next);
+        next = samples.read();
+      }
+      exhausted = next == null;
+      boolean unitContinues = next != null && !unitStart.test(next);
+
+      if (sequentialStream == null && unitContinues) {
+        // the unit must not be split between workers, its remaining samples are read in batches
+        // and featurized in order on this thread, after the already submitted batches
+        logger.warn("A unit of samples exceeds {} samples, it is featurized sequentially", MAX_UNIT_SIZE);
+        sequentialStream = createWorkerStream();
+      }
+
+      if (sequentialStream != null) {
+        pending.add(CompletableFuture.completedFuture(featurize(sequentialStream, batch)));
+        if (!unitContinues) {
+          sequentialStream = null;
+        }
+      } else if (!batch.isEmpty()) {
+        ThreadLocal<AbstractEventStream<T>> streams = workerStreams;
+        pending.add(executor.submit(() -> featurize(streams.get(), batch)));
+      }
+    }
+
+    private void stop() {
+      if (executor != null) {
+        for (Future<List<Event>> batch : pending) {
+          batch.cancel(true);
+        }
+        pending.clear();
+        executor.shutdownNow();
+        executor = null;
+        workerStreams = null;
+        sequentialStream = null;
+      }
+    }
+
+    @Override
+    public void reset() throws IOException, UnsupportedOperationException {
+      stop();
+      next = null;
+      exhausted = false;
+      samples.reset();
+    }
+
+    @Override
+    public void close() throws IOException {
+      stop();
+      samples.close();
+    }
+  }
+}
@@ -19,11 +19,18 @@
 package opennlp.tools.util.eval;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import opennlp.tools.util.CollectionObjectStream;
 import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.Parameters;
 
 /**
  * Provides access to training and test partitions for n-fold cross validation.
@@ -38,9 +45,38 @@ import opennlp.tools.util.ObjectStream;
  * one partition and is used first for training and afterwards for testing.
  * The {@link TestSampleStream} can be obtained via the
  * {@link TrainingSampleStream#getTestSampleStream()} method.
+ * <p>
+ * Alternatively all folds can be trained and evaluated with
+ * {@link #evaluateFolds(int, FoldEvaluator)}, which runs several folds concurrently
+ * if more than one thread is requested.
  */
 public class CrossValidationPartitioner<E> {
 
+  /**
+   * The number of folds which are trained and evaluated concurrently.
+   */
+  public static final String FOLD_THREADS_PARAM = "FoldThreads";
+
+  public static final int FOLD_THREADS_DEFAULT = 1;
+
+  /**
+   * Trains and evaluates a single fold.
+   *
+   * @param <E> The generic type of samples.
+   * @param <R> The type of the evaluation result.
+   */
+  @FunctionalInterface
+  public interface FoldEvaluator<E, R> {
+
+    /**
+     * @param trainingSampleStream The {@link TrainingSampleStream} of the fold, its test samples
+     *                             are obtained via {@link TrainingSampleStream#getTestSampleStream()}.
+     * @return The evaluation result of the fold.
+     * @throws IOException Thrown if IO errors occurred.
+     */
+    R evaluate(TrainingSampleStream<E> trainingSampleStream) throws IOException;
+  }
+
   /**
    * The {@link TestSampleStream} iterates over all test elements.
    *
@@ -283,6 +319,92 @@ public class CrossValidationPartitioner<E> {
     }
   }
 
+  /**
+   * Trains and evaluates all folds.
+   * <p>
+   * With a single thread the folds are evaluated one after the other on the sample stream.
+   * With more threads the samples are read once into memory and shared by all folds, each
+   * fold then reads them through its own streams and up to {@code threads} folds are trained
+   * and evaluated concurrently. In this case the {@code evaluator}, e.g. its evaluation
+   * listeners, must be safe to use from several threads.
+   *
+   * @param threads The number of folds to evaluate concurrently. Must be greater than {@code 0}.
+   * @param evaluator The {@link FoldEvaluator} which trains and evaluates a fold.
+   * @param <R> The type of the evaluation result.
+   * @return The results of all folds, in the order of the folds. Merging them in this order
+   *         gives the same result regardless of the number of threads.
+   * @throws IOException Thrown if IO errors occurred.
+   * @throws IllegalStateException Thrown if partitions were already retrieved with {@link #next()}.
+   */
+  public <R> List<R> evaluateFolds(int threads, FoldEvaluator<E, R> evaluator) throws IOException {
+    if (threads < 1) {
+      throw new IllegalArgumentException("Number of threads must be 1 or larger, but is " + threads);
+    }
+    if (testIndex != 0) {
+      throw new IllegalStateException("The folds were already partially evaluated");
+    }
+
+    List<R> results = new ArrayList<>(numberOfPartitions);
+    if (threads == 1 || numberOfPartitions == 1) {
+      while (hasNext()) {
+        results.add(evaluator.evaluate(next()));
+      }
+      return results;
+    }
+
+    List<E> samples = new ArrayList<>();
+    sampleStream.reset();
+    E sample;
+    while ((sample = sampleStream.read()) != null) {
+      samples.add(sample);
+    }
+
+    int poolSize = StrictMath.min(threads, numberOfPartitions);
+    ExecutorService executor = Executors.newFixedThreadPool(poolSize, r -> {
+      Thread thread = new Thread(r, "opennlp-cv-fold");
+      thread.setDaemon(true);
+      return thread;
+    });
+    try {
+      List<Future<R>> futures = new ArrayList<>(numberOfPartitions);
+      for (int fold = 0; fold < numberOfPartitions; fold++) {
+        TrainingSampleStream<E> trainingSampleStream = new TrainingSampleStream<>(
+            new CollectionObjectStream<>(samples), numberOfPartitions, fold);
+        futures.add(executor.submit(() -> evaluator.evaluate(trainingSampleStream)));
+      }
+      testIndex = numberOfPartitions;
+
+      for (Future<R> future : futures) {
+        results.add(future.get());
+      }
+      return results;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while evaluating the folds", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException ioe) {
+        throw ioe;
+      } else if (cause instanceof RuntimeException re) {
+        throw re;
+      } else if (cause instanceof Error error) {
+        throw error;
+      }
+      throw new IllegalStateException(cause);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * @param params The training {@link Parameters}, may be {@code null}.
+   * @return The number of folds to evaluate concurrently, see {@link #FOLD_THREADS_PARAM}.
+   */
+  public static int getFoldThreads(Parameters params) {
+    return params != null ? params.getIntParameter(FOLD_THREADS_PARAM, FOLD_THREADS_DEFAULT)
+        : FOLD_THREADS_DEFAULT;
+  }
+
   @Override
   public String toString() {
     return "At partition" + (testIndex + 1) +
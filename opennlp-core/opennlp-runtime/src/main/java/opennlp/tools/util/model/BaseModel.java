@@ -19,6 +19,7 @@ package opennlp.tools.util.model;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -29,19 +30,33 @@ import java.io.ObjectOutputStream;
 import java.io.OutputStream;
 import java.io.Serial;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
 
+import opennlp.tools.ml.BeamSearch;
+import opennlp.tools.ml.PrimitiveBeamSearch;
+import opennlp.tools.ml.ViterbiSequenceClassificationModel;
+import opennlp.tools.ml.model.MaxentModel;
+import opennlp.tools.ml.model.SequenceClassificationModel;
 import opennlp.tools.util.BaseToolFactory;
+import opennlp.tools.util.ConcurrentCache;
 import opennlp.tools.util.InvalidFormatException;
 import opennlp.tools.util.Version;
 import opennlp.tools.util.ext.ExtensionLoader;
@@ -71,6 +86,29 @@ public abstract class BaseModel implements ArtifactProvider, Serializable {
 
   private static final String SERIALIZER_CLASS_NAME_PREFIX = "serializer-class-";
 
+  /**
+   * The system property which sets the number of threads used to deserialize the
+   * artifacts of a model package. The default {@code 1} deserializes all artifacts on
+   * the loading thread. Concurrent loading is opt-in since it requires thread-safe
+   * {@link ArtifactSerializer artifact serializers}; the threads are shared daemon threads.
+   */
+  public static final String LOADER_THREADS_PROPERTY = "opennlp.model.loader.threads";
+
+  /**
+   * The system property which sets the capacity of the caches which the sequence decoders
+   * and context generators of a model share across all threads, see
+   * {@link #createSequenceModel(MaxentModel, int)}. The default {@code 0} disables them.
+   */
+  public static final String SHARED_CACHE_SIZE_PROPERTY = "opennlp.model.cache.size";
+
+  /** Deserializes all artifacts on the loading thread. */
+  private static final Executor CALLER_RUNS = Runnable::run;
+
+  private static volatile Executor loaderExecutor;
+
+  /** Set while an artifact is deserialized, nested model packages are then loaded sequentially. */
+  private static final ThreadLocal<Boolean> LOADING_ARTIFACT = ThreadLocal.withInitial(() -> false);
+
   private Map<String, ArtifactSerializer<?>> artifactSerializers = new HashMap<>();
 
   protected Map<String, Object> artifactMap = new HashMap<>();
@@ -84,6 +122,8 @@ public abstract class BaseModel implements ArtifactProvider, Serializable {
 
   private boolean isLoadedFromSerialized;
 
+  private transient volatile ConcurrentCache<List<String>, double[]> sequenceCache;
+
   private BaseModel(String componentName, boolean isLoadedFromSerialized) {
     this.isLoadedFromSerialized = isLoadedFromSerialized;
 
@@ -230,51 +270,35 @@ public abstract class BaseModel implements ArtifactProvider, Serializable {
 
     createBaseArtifactSerializers(artifactSerializers);
 
-    if (!in.markSupported()) {
-      in = new BufferedInputStream(in);
-    }
-
-    // TODO: Discuss this solution, the buffering should
-    int MODEL_BUFFER_SIZE_LIMIT = Integer.MAX_VALUE;
-    in.mark(MODEL_BUFFER_SIZE_LIMIT);
+    // The model package can contain artifacts which are serialized with 3rd party
+    // serializers which are configured in the manifest file. To be able to load
+    // the model the manifest must be read first, and afterwards all the artifacts
+    // can be de-serialized.
 
+    // The ordering of artifacts in a zip package is not guaranteed. The package is read
+    // in a single pass, the other entries are kept as bytes until the manifest is known.
+    Map<String, byte[]> entries = new LinkedHashMap<>();
     try (final ZipInputStream zip = new ZipInputStream(in)) {
-
-      // The model package can contain artifacts which are serialized with 3rd party
-      // serializers which are configured in the manifest file. To be able to load
-      // the model the manifest must be read first, and afterwards all the artifacts
-      // can be de-serialized.
-
-      // The ordering of artifacts in a zip package is not guaranteed. The stream is first
-      // read until the manifest appears, reset, and read again to load all artifacts.
-
-      boolean isSearchingForManifest = true;
-
       ZipEntry entry;
-      while ((entry = zip.getNextEntry()) != null && isSearchingForManifest) {
-
-        if ("manifest.properties".equals(entry.getName())) {
-          // TODO: Probably better to use the serializer here directly!
+      while ((entry = zip.getNextEntry()) != null) {
+        if (MANIFEST_ENTRY.equals(entry.getName())) {
           ArtifactSerializer<?> factory = artifactSerializers.get("properties");
           artifactMap.put(entry.getName(), factory.create(zip));
-          isSearchingForManifest = false;
+        } else {
+          entries.put(entry.getName(), zip.readAllBytes());
         }
 
         zip.closeEntry();
       }
+    }
 
-      initializeFactory();
-
-      loadArtifactSerializers();
+    initializeFactory();
 
-      // The Input Stream should always be reset-able because if markSupport returns
-      // false it is wrapped before hand into an Buffered InputStream
-      in.reset();
+    loadArtifactSerializers();
 
-      finishLoadingArtifacts(in);
+    finishLoadingArtifacts(entries);
 
-      checkArtifactMap();
-    }
+    checkArtifactMap();
   }
 
   private void initializeFactory() throws InvalidFormatException {
@@ -314,46 +338,124 @@ public abstract class BaseModel implements ArtifactProvider, Serializable {
   }
 
   /**
-   * Finishes loading the artifacts now that it knows all serializers.
+   * Finishes loading the artifacts now that it knows all serializers. Independent
+   * artifacts are deserialized concurrently if enabled, see {@link #LOADER_THREADS_PROPERTY}
+   * and {@link #setLoaderExecutor(Executor)}.
    */
-  private void finishLoadingArtifacts(InputStream in)
-      throws IOException {
+  private void finishLoadingArtifacts(Map<String, byte[]> entries) throws IOException {
 
-    try (final ZipInputStream zip = new ZipInputStream(in)) {
-      Map<String, Object> artifactMap = new HashMap<>();
+    Map<String, ArtifactSerializer<?>> factories = new LinkedHashMap<>();
+    for (String entryName : entries.keySet()) {
+      String extension = getEntryExtension(entryName);
 
-      ZipEntry entry;
-      while ((entry = zip.getNextEntry()) != null ) {
+      ArtifactSerializer<?> factory = artifactSerializers.get(extension);
 
-        // Note: The manifest.properties file will be read here again,
-        // there should be no need to prevent that.
+      String artifactSerializerClazzName =
+              getManifestProperty(SERIALIZER_CLASS_NAME_PREFIX + entryName);
 
-        String entryName = entry.getName();
-        String extension = getEntryExtension(entryName);
+      if (artifactSerializerClazzName != null) {
+        factory = ExtensionLoader.instantiateExtension(
+                ArtifactSerializer.class, artifactSerializerClazzName);
+      }
 
-        ArtifactSerializer<?> factory = artifactSerializers.get(extension);
+      if (factory == null) {
+        throw new InvalidFormatException("Unknown artifact format: " + extension);
+      }
+      factories.put(entryName, factory);
+    }
 
-        String artifactSerializerClazzName =
-                getManifestProperty(SERIALIZER_CLASS_NAME_PREFIX + entryName);
+    Map<String, Object> artifactMap = new HashMap<>();
+    Executor executor = getLoaderExecutor();
+    if (executor == CALLER_RUNS || entries.size() < 2 || LOADING_ARTIFACT.get()) {
+      for (Entry<String, ArtifactSerializer<?>> factory : factories.entrySet()) {
+        artifactMap.put(factory.getKey(), createArtifact(factory.getValue(), entries.get(factory.getKey())));
+      }
+    } else {
+      Map<String, CompletableFuture<Object>> artifacts = new LinkedHashMap<>();
+      for (Entry<String, ArtifactSerializer<?>> factory : factories.entrySet()) {
+        byte[] bytes = entries.get(factory.getKey());
+        artifacts.put(factory.getKey(), CompletableFuture.supplyAsync(() -> {
+          try {
+            return createArtifact(factory.getValue(), bytes);
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        }, executor));
+      }
 
-        if (artifactSerializerClazzName != null) {
-          factory = ExtensionLoader.instantiateExtension(
-                  ArtifactSerializer.class, artifactSerializerClazzName);
+      for (Entry<String, CompletableFuture<Object>> artifact : artifacts.entrySet()) {
+        try {
+          artifactMap.put(artifact.getKey(), artifact.getValue().join());
+        } catch (CompletionException e) {
+          if (e.getCause() instanceof UncheckedIOException ioe) {
+            throw ioe.getCause();
+          } else if (e.getCause() instanceof RuntimeException re) {
+            throw re;
+          } else if (e.getCause() instanceof Error error) {
+            throw error;
+          }
+          throw e;
         }
+      }
+    }
 
-        if (factory != null) {
-          artifactMap.put(entryName, factory.create(zip));
-        } else {
-          throw new InvalidFormatException("Unknown artifact format: " + extension);
-        }
+    this.artifactMap.putAll(artifactMap);
 
-        zip.closeEntry();
-      }
+    finishedLoadingArtifacts = true;
+  }
+
+  private static Object createArtifact(ArtifactSerializer<?> factory, byte[] bytes)
+      throws IOException {
+    boolean nested = LOADING_ARTIFACT.get();
+    LOADING_ARTIFACT.set(true);
+    try {
+      return factory.create(new ByteArrayInputStream(bytes));
+    } finally {
+      LOADING_ARTIFACT.set(nested);
+    }
+  }
 
-      this.artifactMap.putAll(artifactMap);
+  /**
+   * Sets the {@link Executor} which deserializes the artifacts of model packages.
+   * <p>
+   * Artifacts which are part of another artifact, e.g. the models bundled in a
+   * parser model, are always deserialized on the thread of the enclosing artifact.
+   *
+   * @param executor The {@link Executor} to use, {@code null} to deserialize all
+   *                 artifacts on the loading thread.
+   */
+  public static void setLoaderExecutor(Executor executor) {
+    loaderExecutor = executor != null ? executor : CALLER_RUNS;
+  }
 
-      finishedLoadingArtifacts = true;
+  /**
+   * @return The {@link Executor} which deserializes artifacts, initialized from
+   *         {@link #LOADER_THREADS_PROPERTY} on first use.
+   */
+  private static Executor getLoaderExecutor() {
+    Executor executor = loaderExecutor;
+    if (executor == null) {
+      synchronized (BaseModel.class) {
+        if (loaderExecutor == null) {
+          int threads = Integer.getInteger(LOADER_THREADS_PROPERTY, 1);
+          loaderExecutor = threads > 1 ? createLoaderPool(threads) : CALLER_RUNS;
+        }
+        executor = loaderExecutor;
+      }
     }
+    return executor;
+  }
+
+  /**
+   * @return A pool of {@code threads} daemon threads, which never keeps the JVM alive.
+   */
+  private static Executor createLoaderPool(int threads) {
+    AtomicInteger count = new AtomicInteger();
+    return Executors.newFixedThreadPool(threads, task -> {
+      Thread thread = new Thread(task, "opennlp-model-loader-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
   }
 
   /**
@@ -522,7 +624,7 @@ public abstract class BaseModel implements ArtifactProvider, Serializable {
    * <p>
    *
    * @throws IllegalArgumentException Thrown if the artifacts are not valid.
-   * @throws IllegalStateException Thrown if {@link  BaseModel#finishLoadingArtifacts(InputStream)} was
+   * @throws IllegalStateException Thrown if {@link BaseModel#finishLoadingArtifacts(Map)} was
    *                               not called by a subclass.
    */
   protected void checkArtifactMap() {
@@ -553,6 +655,64 @@ public abstract class BaseModel implements ArtifactProvider, Serializable {
     manifest.setProperty(key, value);
   }
 
+  /**
+   * Creates the {@link SequenceClassificationModel} which decodes sequences with the
+   * given {@link MaxentModel}.
+   * <p>
+   * The decoder is selected by the {@link ViterbiSequenceClassificationModel#SEQUENCE_DECODER_PROPERTY}
+   * system property, or otherwise by the
+   * {@link ViterbiSequenceClassificationModel#SEQUENCE_DECODER_PARAMETER} manifest entry.
+   * The {@link ViterbiSequenceClassificationModel Viterbi decoder} is only used if the model declares
+   * its outcome history order, in all other cases a beam search is used. The beam searches
+   * share a cache of outcome probabilities if the {@link #SHARED_CACHE_SIZE_PROPERTY} is set.
+   *
+   * @param model The {@link MaxentModel} to decode sequences with.
+   * @param defaultBeamSize The beam size to use if the manifest does not specify one.
+   * @return The {@link SequenceClassificationModel} for {@code model}.
+   */
+  protected SequenceClassificationModel createSequenceModel(MaxentModel model, int defaultBeamSize) {
+    String decoder = System.getProperty(ViterbiSequenceClassificationModel.SEQUENCE_DECODER_PROPERTY,
+        getManifestProperty(ViterbiSequenceClassificationModel.SEQUENCE_DECODER_PARAMETER));
+
+    if (ViterbiSequenceClassificationModel.VITERBI_DECODER.equalsIgnoreCase(decoder)) {
+      String order = getManifestProperty(ViterbiSequenceClassificationModel.OUTCOME_HISTORY_ORDER_PARAMETER);
+      if (order != null) {
+        return new ViterbiSequenceClassificationModel(model, Integer.parseInt(order));
+      }
+    }
+
+    String beamSizeString = getManifestProperty(BeamSearch.BEAM_SIZE_PARAMETER);
+
+    int beamSize = defaultBeamSize;
+    if (beamSizeString != null) {
+      beamSize = Integer.parseInt(beamSizeString);
+    }
+
+    return new PrimitiveBeamSearch(beamSize, model, getSequenceCache());
+  }
+
+  /**
+   * @return The cache of outcome probabilities which all sequence decoders of this model
+   *         share, or {@code null} if the {@link #SHARED_CACHE_SIZE_PROPERTY} is not set.
+   */
+  private ConcurrentCache<List<String>, double[]> getSequenceCache() {
+    ConcurrentCache<List<String>, double[]> cache = sequenceCache;
+    if (cache == null) {
+      int cacheSize = Integer.getInteger(SHARED_CACHE_SIZE_PROPERTY, 0);
+      if (cacheSize <= 0) {
+        return null;
+      }
+      synchronized (this) {
+        cache = sequenceCache;
+        if (cache == null) {
+          cache = new ConcurrentCache<>(cacheSize);
+          sequenceCache = cache;
+        }
+      }
+    }
+    return cache;
+  }
+
   @Override
   public final String getLanguage() {
     return getManifestProperty(LANGUAGE_PROPERTY);
@@ -17,6 +17,7 @@
 
 package opennlp.tools.util.model;
 
+import java.io.BufferedInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -28,15 +29,26 @@ import opennlp.tools.ml.model.AbstractModel;
 import opennlp.tools.ml.model.BinaryFileDataReader;
 import opennlp.tools.ml.model.GenericModelReader;
 import opennlp.tools.ml.model.GenericModelWriter;
+import opennlp.tools.ml.model.QuantizedModelReader;
+import opennlp.tools.ml.model.QuantizedModelWriter;
+import opennlp.tools.ml.model.QuantizedParameters.Precision;
 
 /**
  * An {@link ArtifactSerializer} implementation for {@link AbstractModel models}.
+ * <p>
+ * Models backed by {@link opennlp.tools.ml.model.QuantizedParameters quantized parameters}
+ * are written in the format of {@link QuantizedModelWriter} and keep their reduced
+ * precision when they are loaded again.
  */
 public class GenericModelSerializer implements ArtifactSerializer<AbstractModel> {
 
   @Override
   public AbstractModel create(InputStream in) throws IOException {
-    return new GenericModelReader(new BinaryFileDataReader(in)).getModel();
+    BufferedInputStream data = new BufferedInputStream(in);
+    if (QuantizedModelReader.isQuantizedModel(data)) {
+      return QuantizedModelReader.read(data);
+    }
+    return new GenericModelReader(new BinaryFileDataReader(data)).getModel();
   }
 
   @Override
@@ -44,6 +56,12 @@ public class GenericModelSerializer implements ArtifactSerializer<AbstractModel>
     Objects.requireNonNull(artifact, "model parameter must not be null");
     Objects.requireNonNull(out, "out parameter must not be null");
 
+    Precision precision = QuantizedModelWriter.getPrecision(artifact);
+    if (precision != null) {
+      QuantizedModelWriter.write(artifact, precision, out);
+      return;
+    }
+
     GenericModelWriter modelWriter = new GenericModelWriter(artifact,
             new DataOutputStream(new OutputStream() {
               @Override
@@ -0,0 +1,291 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util.model;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import opennlp.tools.models.ModelType;
+
+/**
+ * A process-wide registry of shared {@link BaseModel model} instances.
+ * <p>
+ * Models are identified by a {@link Key}. Concurrent requests for the same key are
+ * deduplicated: the model is loaded once and all callers receive the same instance.
+ * A {@link Lease} keeps its model in the registry until it is {@link Lease#close() closed},
+ * after the last lease is closed the model is only retained as long as it is referenced
+ * elsewhere, for example by a tool instance which uses it.
+ * Models obtained via {@link #get(Key, Class, ModelLoader)} do not hold a lease.
+ * <p>
+ * Shared models must be treated as immutable.
+ * <p>
+ * Instances are safe for concurrent use.
+ */
+public final class ModelRegistry {
+
+  private static final ModelRegistry INSTANCE = new ModelRegistry();
+
+  /**
+   * Identifies a model in the {@link ModelRegistry}.
+   *
+   * @param language The ISO language code of the model. Must not be {@code null}.
+   * @param type The {@link ModelType} of the model. Must not be {@code null}.
+   * @param version A version or checksum which distinguishes different models of the
+   *                same language and type. Must not be {@code null}.
+   */
+  public record Key(String language, ModelType type, String version) {
+
+    public Key {
+      Objects.requireNonNull(language, "language must not be null");
+      Objects.requireNonNull(type, "type must not be null");
+      Objects.requireNonNull(version, "version must not be null");
+    }
+  }
+
+  /**
+   * Loads a model which is not yet present in the {@link ModelRegistry}.
+   *
+   * @param <T> The type of the model.
+   */
+  @FunctionalInterface
+  public interface ModelLoader<T extends BaseModel> {
+
+    /**
+     * @return The loaded model, must not be {@code null}.
+     * @throws IOException Thrown if IO errors occurred.
+     */
+    T load() throws IOException;
+  }
+
+  /**
+   * A reference to a shared model which keeps the model in the {@link ModelRegistry}
+   * until it is closed.
+   *
+   * @param <T> The type of the model.
+   */
+  public static final class Lease<T extends BaseModel> implements AutoCloseable {
+
+    private final ModelRegistry registry;
+    private final Entry entry;
+    private final T model;
+    private boolean closed;
+
+    private Lease(ModelRegistry registry, Entry entry, T model) {
+      this.registry = registry;
+      this.entry = entry;
+      this.model = model;
+    }
+
+    /**
+     * @return The shared model of this lease.
+     * @throws IllegalStateException Thrown if the lease was closed.
+     */
+    public T get() {
+      synchronized (registry) {
+        if (closed) {
+          throw new IllegalStateException("The lease was closed");
+        }
+      }
+      return model;
+    }
+
+    /**
+     * Releases this lease. Closing a lease more than once has no effect.
+     */
+    @Override
+    public void close() {
+      synchronized (registry) {
+        if (!closed) {
+          closed = true;
+          if (--entry.leases == 0) {
+            entry.retained = null;
+          }
+        }
+      }
+    }
+  }
+
+  private static final class Entry {
+    /** Completed once the model is loaded, {@code null} afterwards. */
+    private CompletableFuture<BaseModel> pending = new CompletableFuture<>();
+    private WeakReference<BaseModel> reference;
+    /** The thread which loads the model, {@code null} once it is loaded. */
+    private Thread loader;
+    /** Strong reference to the model while there are leases. */
+    private BaseModel retained;
+    private int leases;
+
+    private boolean isCleared() {
+      return pending == null && reference.get() == null;
+    }
+  }
+
+  private final Map<Key, Entry> entries = new HashMap<>();
+
+  /**
+   * Initializes an empty {@link ModelRegistry}. Usually the shared
+   * {@link #getInstance() instance} should be used instead.
+   */
+  public ModelRegistry() {
+  }
+
+  /**
+   * @return The process-wide {@link ModelRegistry}.
+   */
+  public static ModelRegistry getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Retrieves the shared model for the given {@link Key} and leases it.
+   * The model is loaded with {@code loader} if it is not present yet.
+   *
+   * @param key The {@link Key} of the model.
+   * @param type The class of the model.
+   * @param loader The {@link ModelLoader} which loads the model if necessary.
+   * @param <T> The type of the model.
+   * @return A {@link Lease} of the model, it must be closed once the model is not used anymore.
+   * @throws IOException Thrown if the model could not be loaded.
+   * @throws IllegalArgumentException Thrown if the registered model is not of the given type.
+   * @throws IllegalStateException Thrown if {@code loader} resolves the model it is loading.
+   */
+  public <T extends BaseModel> Lease<T> acquire(Key key, Class<T> type, ModelLoader<T> loader)
+      throws IOException {
+    Resolved resolved = resolve(key, loader, true);
+    if (!type.isInstance(resolved.model())) {
+      new Lease<>(this, resolved.entry(), resolved.model()).close();
+    }
+    return new Lease<>(this, resolved.entry(), cast(resolved.model(), type, key));
+  }
+
+  /**
+   * Retrieves the shared model for the given {@link Key} without leasing it.
+   * The model is loaded with {@code loader} if it is not present yet.
+   *
+   * @param key The {@link Key} of the model.
+   * @param type The class of the model.
+   * @param loader The {@link ModelLoader} which loads the model if necessary.
+   * @param <T> The type of the model.
+   * @return The shared model.
+   * @throws IOException Thrown if the model could not be loaded.
+   * @throws IllegalArgumentException Thrown if the registered model is not of the given type.
+   * @throws IllegalStateException Thrown if {@code loader} resolves the model it is loading.
+   */
+  public <T extends BaseModel> T get(Key key, Class<T> type, ModelLoader<T> loader)
+      throws IOException {
+    return cast(resolve(key, loader, false).model(), type, key);
+  }
+
+  /**
+   * @param key The {@link Key} of a model.
+   * @return {@code true} if the model is leased or still referenced elsewhere,
+   *         {@code false} otherwise.
+   */
+  public synchronized boolean contains(Key key) {
+    Entry entry = entries.get(key);
+    return entry != null && !entry.isCleared();
+  }
+
+  private record Resolved(Entry entry, BaseModel model) {
+  }
+
+  private Resolved resolve(Key key, ModelLoader<?> loader, boolean lease) throws IOException {
+    Objects.requireNonNull(key, "key must not be null");
+    Objects.requireNonNull(loader, "loader must not be null");
+
+    final Entry entry;
+    final CompletableFuture<BaseModel> pending;
+    boolean owner = false;
+    synchronized (this) {
+      entries.values().removeIf(Entry::isCleared);
+
+      Entry existing = entries.get(key);
+      if (existing != null && existing.pending == null) {
+        BaseModel model = existing.reference.get();
+        if (model != null) {
+          if (lease) {
+            existing.leases++;
+            existing.retained = model;
+          }
+          return new Resolved(existing, model);
+        }
+        // the model was collected after the cleared entries were removed
+        entries.remove(key, existing);
+        existing = null;
+      }
+
+      if (existing == null) {
+        existing = new Entry();
+        existing.loader = Thread.currentThread();
+        entries.put(key, existing);
+        owner = true;
+      } else if (existing.loader == Thread.currentThread()) {
+        throw new IllegalStateException("The loader of the model " + key + " resolves the model itself");
+      }
+      entry = existing;
+      pending = entry.pending;
+      if (lease) {
+        entry.leases++;
+      }
+    }
+
+    if (owner) {
+      try {
+        BaseModel model = Objects.requireNonNull(loader.load(), "loader must not return null");
+        synchronized (this) {
+          entry.reference = new WeakReference<>(model);
+          entry.pending = null;
+          entry.loader = null;
+          if (entry.leases > 0) {
+            entry.retained = model;
+          }
+        }
+        pending.complete(model);
+        return new Resolved(entry, model);
+      } catch (IOException | RuntimeException | Error e) {
+        synchronized (this) {
+          entries.remove(key, entry);
+        }
+        pending.completeExceptionally(e);
+        throw e;
+      }
+    }
+
+    try {
+      return new Resolved(entry, pending.join());
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof IOException ioe) {
+        throw new IOException("Failed to load the model " + key, ioe);
+      }
+      throw e;
+    }
+  }
+
+  private static <T extends BaseModel> T cast(BaseModel model, Class<T> type, Key key) {
+    if (!type.isInstance(model)) {
+      throw new IllegalArgumentException("The model " + key + " is a " +
+          model.getClass().getName() + ", not a " + type.getName());
+    }
+    return type.cast(model);
+  }
+}
@@ -22,18 +22,27 @@ import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.HexFormat;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeMap;
 
 import opennlp.tools.commons.Internal;
+import opennlp.tools.ml.ViterbiSequenceClassificationModel;
 import opennlp.tools.ml.model.AbstractModel;
 import opennlp.tools.ml.model.GenericModelWriter;
 import opennlp.tools.ml.model.MaxentModel;
+import opennlp.tools.util.BeamSearchContextGenerator;
 import opennlp.tools.util.Parameters;
 import opennlp.tools.util.TrainingParameters;
+import opennlp.tools.util.ext.ExtensionLoader;
 
 /**
  * Utility class for handling of {@link MaxentModel models}.
@@ -140,6 +149,31 @@ public final class ModelUtil {
     manifestInfoEntries.put(BaseModel.TRAINING_ITERATIONS_PROPERTY, Integer.toString(iterations));
   }
 
+  /**
+   * Adds the sequence decoder configuration to {@code manifestInfoEntries}. This records the
+   * outcome history order of {@code contextGenerator}, if it declares one, and the
+   * {@link ViterbiSequenceClassificationModel#SEQUENCE_DECODER_PARAMETER} if it is set in
+   * {@code params}.
+   *
+   * @param manifestInfoEntries A {@link Map} representing a {@code manifest.properties} config.
+   * @param params The {@link TrainingParameters} the model is trained with.
+   * @param contextGenerator The {@link BeamSearchContextGenerator} the model is trained with.
+   */
+  public static void addSequenceDecoder(Map<String, String> manifestInfoEntries,
+      TrainingParameters params, BeamSearchContextGenerator<?> contextGenerator) {
+    int order = contextGenerator.getOutcomeHistoryOrder();
+    if (order >= 0) {
+      manifestInfoEntries.put(ViterbiSequenceClassificationModel.OUTCOME_HISTORY_ORDER_PARAMETER,
+          Integer.toString(order));
+    }
+
+    String decoder = params.getStringParameter(
+        ViterbiSequenceClassificationModel.SEQUENCE_DECODER_PARAMETER, null);
+    if (decoder != null) {
+      manifestInfoEntries.put(ViterbiSequenceClassificationModel.SEQUENCE_DECODER_PARAMETER, decoder);
+    }
+  }
+
   /**
    * Creates the default {@link TrainingParameters} in case they are not provided.
    * <p>
@@ -157,4 +191,49 @@ public final class ModelUtil {
 
     return mlParams;
   }
+
+  /**
+   * Computes a digest of the content of the given resources, e.g. to detect that a resource
+   * of a feature generator changed.
+   * <p>
+   * <b>Note:</b>
+   * Do not use this method, internal use only!
+   *
+   * @param resources The resources, keyed by their names. Must not be {@code null}.
+   * @param serializers The {@link ArtifactSerializer serializers} of the resources, keyed by
+   *                    the extension of the resource names. Resources which are a
+   *                    {@link SerializableArtifact} are serialized with their own serializer.
+   * @return The hex encoded SHA-256 digest of the names and serialized resources,
+   *         or {@code null} if a resource has no serializer.
+   * @throws IOException Thrown if IO errors occurred during serialization.
+   */
+  @Internal
+  @SuppressWarnings("unchecked")
+  public static String digestResources(Map<String, Object> resources,
+                                       Map<String, ArtifactSerializer<?>> serializers) throws IOException {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+
+    OutputStream out = new DigestOutputStream(OutputStream.nullOutputStream(), digest);
+    for (Map.Entry<String, Object> resource : new TreeMap<>(resources).entrySet()) {
+      String name = resource.getKey();
+      ArtifactSerializer<Object> serializer =
+          (ArtifactSerializer<Object>) serializers.get(name.substring(name.lastIndexOf('.') + 1));
+      if (resource.getValue() instanceof SerializableArtifact artifact) {
+        serializer = ExtensionLoader.instantiateExtension(ArtifactSerializer.class,
+            artifact.getArtifactSerializerClass().getName());
+      }
+      if (serializer == null) {
+        return null;
+      }
+
+      digest.update(name.getBytes(StandardCharsets.UTF_8));
+      serializer.serialize(resource.getValue(), out);
+    }
+    return HexFormat.of().formatHex(digest.digest());
+  }
 }
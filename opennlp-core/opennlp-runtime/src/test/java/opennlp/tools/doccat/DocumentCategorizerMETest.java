@@ -18,12 +18,17 @@
 package opennlp.tools.doccat;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Set;
 import java.util.SortedMap;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import opennlp.tools.ml.model.EventCache;
 import opennlp.tools.util.InsufficientTrainingDataException;
 import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.ObjectStreamUtils;
@@ -64,6 +69,40 @@ public class DocumentCategorizerMETest {
     Assertions.assertEquals(1, cat.size());
   }
 
+  @Test
+  void testTrainingWithEventCache(@TempDir Path cacheDir) throws IOException {
+
+    ObjectStream<DocumentSample> samples = ObjectStreamUtils.createObjectStream(
+        new DocumentSample("1", new String[] {"a", "b", "c"}),
+        new DocumentSample("1", new String[] {"a", "b", "c", "1", "2"}),
+        new DocumentSample("0", new String[] {"x", "y", "z"}),
+        new DocumentSample("0", new String[] {"x", "y", "z", "5", "6"}));
+
+    TrainingParameters params = new TrainingParameters();
+    params.put(Parameters.ITERATIONS_PARAM, 100);
+    params.put(Parameters.CUTOFF_PARAM, 0);
+
+    DoccatModel expected = DocumentCategorizerME.train("x-unspecified", samples,
+        params, new DoccatFactory());
+
+    params.put(EventCache.CACHE_DIR_PARAM, cacheDir.toString());
+    samples.reset();
+    DoccatModel written = DocumentCategorizerME.train("x-unspecified", samples,
+        params, new DoccatFactory());
+    try (Stream<Path> files = Files.list(cacheDir)) {
+      Assertions.assertEquals(1, files.count());
+    }
+
+    samples.reset();
+    DoccatModel cached = DocumentCategorizerME.train("x-unspecified", samples,
+        params, new DoccatFactory());
+
+    String[] text = {"a", "y", "2"};
+    double[] probs = new DocumentCategorizerME(expected).categorize(text);
+    Assertions.assertArrayEquals(probs, new DocumentCategorizerME(written).categorize(text), 0d);
+    Assertions.assertArrayEquals(probs, new DocumentCategorizerME(cached).categorize(text), 0d);
+  }
+
   @Test
   void insufficientTestData() {
 
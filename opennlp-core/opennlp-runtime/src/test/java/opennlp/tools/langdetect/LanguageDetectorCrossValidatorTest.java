@@ -24,6 +24,7 @@ import org.junit.jupiter.api.Test;
 
 import opennlp.tools.util.Parameters;
 import opennlp.tools.util.TrainingParameters;
+import opennlp.tools.util.eval.CrossValidationPartitioner;
 
 public class LanguageDetectorCrossValidatorTest {
 
@@ -62,4 +63,38 @@ public class LanguageDetectorCrossValidatorTest {
     Assertions.assertEquals(0.98989898989899, cv.getDocumentAccuracy(), 0.01);
   }
 
+  @Test
+  void evaluateConcurrentFolds() throws Exception {
+
+    TrainingParameters params = new TrainingParameters();
+    params.put(Parameters.ITERATIONS_PARAM, 100);
+    params.put(Parameters.CUTOFF_PARAM, 5);
+    params.put("PrintMessages", false);
+
+    LanguageDetectorCrossValidator sequential = new LanguageDetectorCrossValidator(params,
+        new LanguageDetectorFactory());
+    sequential.evaluate(LanguageDetectorMETest.createSampleStream(), 3);
+
+    params.put(CrossValidationPartitioner.FOLD_THREADS_PARAM, 3);
+    final AtomicInteger evaluatedCount = new AtomicInteger();
+    LanguageDetectorCrossValidator concurrent = new LanguageDetectorCrossValidator(params,
+        new LanguageDetectorFactory(), new LanguageDetectorEvaluationMonitor() {
+          @Override
+          public void correctlyClassified(LanguageSample reference,
+                                          LanguageSample prediction) {
+            evaluatedCount.incrementAndGet();
+          }
+
+          @Override
+          public void misclassified(LanguageSample reference,
+                                    LanguageSample prediction) {
+            evaluatedCount.incrementAndGet();
+          }
+        });
+    concurrent.evaluate(LanguageDetectorMETest.createSampleStream(), 3);
+
+    Assertions.assertEquals(99, concurrent.getDocumentCount());
+    Assertions.assertEquals(99, evaluatedCount.get());
+    Assertions.assertEquals(sequential.getDocumentAccuracy(), concurrent.getDocumentAccuracy());
+  }
 }
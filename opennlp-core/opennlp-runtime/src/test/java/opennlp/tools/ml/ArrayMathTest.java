@@ -71,6 +71,12 @@ public class ArrayMathTest {
     Assertions.assertEquals(1.472216, ArrayMath.logSumOfExps(new double[] {-0.1, 0.2, -0.3, 0.4}), 0.001);
   }
 
+  @Test
+  public void testLogSumOfExpsException() {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> ArrayMath.logSumOfExps(null));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> ArrayMath.logSumOfExps(new double[] {}));
+  }
+
   @Test
   public void testMax() {
     Assertions.assertEquals(0, ArrayMath.max(new double[] {0}), 0);
@@ -99,6 +105,28 @@ public class ArrayMathTest {
     Assertions.assertEquals(2, ArrayMath.argmax(new double[] {100, 200, 300, -10, -20}));
   }
 
+  @Test
+  public void testSparseInnerProduct() {
+    double[] x = {1, 2, 3, 4, 5, 6};
+    Assertions.assertEquals(10, ArrayMath.sparseInnerProduct(x, 3, new int[] {0, 2}, null), 0);
+    Assertions.assertEquals(2.5, ArrayMath.sparseInnerProduct(x, 0,
+        new int[] {1, 0}, new float[] {0.5f, 1.5f}), 0);
+  }
+
+  @Test
+  public void testSoftmax() {
+    double[] x = {7, 0, 0, StrictMath.log(3), 7};
+    ArrayMath.softmax(x, 1, 3);
+    Assertions.assertArrayEquals(new double[] {7, 0.2, 0.2, 0.6, 7}, x, 1e-12);
+  }
+
+  @Test
+  public void testNormalizeExps() {
+    double[] x = {StrictMath.log(2), StrictMath.log(6)};
+    ArrayMath.normalizeExps(x, 0, 2);
+    Assertions.assertArrayEquals(new double[] {0.25, 0.75}, x, 1e-12);
+  }
+
   @Test
   public void testToDoubleArray() {
     Assertions.assertEquals(0, ArrayMath.toDoubleArray(Collections.emptyList()).length);
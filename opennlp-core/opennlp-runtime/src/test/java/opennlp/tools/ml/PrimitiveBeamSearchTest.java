@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import opennlp.tools.ml.maxent.GISModel;
+import opennlp.tools.ml.model.Context;
+import opennlp.tools.ml.model.MaxentModel;
+import opennlp.tools.ml.model.SequenceClassificationModel;
+import opennlp.tools.util.BeamSearchContextGenerator;
+import opennlp.tools.util.ConcurrentCache;
+import opennlp.tools.util.Sequence;
+import opennlp.tools.util.SequenceValidator;
+
+/**
+ * Tests that {@link PrimitiveBeamSearch} finds the same sequences as {@link BeamSearch}.
+ */
+public class PrimitiveBeamSearchTest {
+
+  private static final int NUM_WORDS = 20;
+  private static final String[] OUTCOMES = {"O", "B-A", "I-A", "B-B", "I-B", "B-C", "I-C"};
+
+  /** Uses the current word and the two previous outcomes. */
+  private static final BeamSearchContextGenerator<String> CONTEXT_GENERATOR =
+      (index, sequence, priorDecisions, additionalContext) -> new String[] {
+          "w=" + sequence[index],
+          "p1=" + (index > 0 ? priorDecisions[index - 1] : "BOS"),
+          "p2=" + (index > 1 ? priorDecisions[index - 2] : "BOS")};
+
+  /** An I- outcome must continue a B- or I- outcome of the same type. */
+  private static final SequenceValidator<String> VALIDATOR =
+      (i, inputSequence, outcomesSequence, outcome) -> {
+        if (!outcome.startsWith("I-")) {
+          return true;
+        }
+        return outcomesSequence.length > 0 &&
+            outcomesSequence[outcomesSequence.length - 1].endsWith(outcome.substring(1));
+      };
+
+  private static MaxentModel createModel(Random random) {
+    String[] predLabels = new String[NUM_WORDS + 2 * (OUTCOMES.length + 1)];
+    int pi = 0;
+    for (int w = 0; w < NUM_WORDS; w++) {
+      predLabels[pi++] = "w=" + w;
+    }
+    for (String prefix : new String[] {"p1=", "p2="}) {
+      predLabels[pi++] = prefix + "BOS";
+      for (String outcome : OUTCOMES) {
+        predLabels[pi++] = prefix + outcome;
+      }
+    }
+
+    Context[] params = new Context[predLabels.length];
+    int[] outcomes = new int[OUTCOMES.length];
+    for (int oi = 0; oi < outcomes.length; oi++) {
+      outcomes[oi] = oi;
+    }
+    for (int i = 0; i < params.length; i++) {
+      params[i] = new Context(outcomes, random.doubles(OUTCOMES.length, -2, 2).toArray());
+    }
+    return new GISModel(params, predLabels, OUTCOMES);
+  }
+
+  private static String[] createSequence(Random random) {
+    String[] sequence = new String[random.nextInt(25)];
+    for (int i = 0; i < sequence.length; i++) {
+      sequence[i] = Integer.toString(random.nextInt(NUM_WORDS));
+    }
+    return sequence;
+  }
+
+  private static void assertSequences(Sequence[] expected, Sequence[] actual) {
+    Assertions.assertEquals(expected.length, actual.length);
+    for (int i = 0; i < expected.length; i++) {
+      Assertions.assertEquals(expected[i].getOutcomes(), actual[i].getOutcomes());
+      Assertions.assertArrayEquals(expected[i].getProbs(), actual[i].getProbs(), 0d);
+      Assertions.assertEquals(expected[i].getScore(), actual[i].getScore(), 0d);
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 3, 10})
+  void testSameSequencesAsBeamSearch(int beamSize) {
+    Random random = new Random(beamSize);
+    MaxentModel model = createModel(random);
+
+    SequenceClassificationModel beamSearch = new BeamSearch(beamSize, model);
+    SequenceClassificationModel primitive = new PrimitiveBeamSearch(beamSize, model);
+
+    for (int n = 0; n < 200; n++) {
+      String[] sequence = createSequence(random);
+      int numSequences = 1 + random.nextInt(15);
+
+      assertSequences(beamSearch.bestSequences(numSequences, sequence, null, CONTEXT_GENERATOR, VALIDATOR),
+          primitive.bestSequences(numSequences, sequence, null, CONTEXT_GENERATOR, VALIDATOR));
+      assertSequences(beamSearch.bestSequences(numSequences, sequence, null, -3d, CONTEXT_GENERATOR,
+              VALIDATOR),
+          primitive.bestSequences(numSequences, sequence, null, -3d, CONTEXT_GENERATOR, VALIDATOR));
+
+      Sequence expected = beamSearch.bestSequence(sequence, null, CONTEXT_GENERATOR, VALIDATOR);
+      Sequence actual = primitive.bestSequence(sequence, null, CONTEXT_GENERATOR, VALIDATOR);
+      Assertions.assertEquals(expected.getOutcomes(), actual.getOutcomes());
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 3})
+  void testSameSequencesWithCache(int beamSize) {
+    Random random = new Random(42);
+    MaxentModel model = createModel(random);
+
+    SequenceClassificationModel beamSearch = new BeamSearch(beamSize, model, 100);
+    SequenceClassificationModel primitive = new PrimitiveBeamSearch(beamSize, model, 100);
+
+    for (int n = 0; n < 50; n++) {
+      String[] sequence = createSequence(random);
+      assertSequences(beamSearch.bestSequences(beamSize, sequence, null, CONTEXT_GENERATOR, VALIDATOR),
+          primitive.bestSequences(beamSize, sequence, null, CONTEXT_GENERATOR, VALIDATOR));
+    }
+  }
+
+  @Test
+  void testSharedCache() {
+    Random random = new Random(5);
+    MaxentModel model = createModel(random);
+    ConcurrentCache<List<String>, double[]> cache = new ConcurrentCache<>(1000);
+
+    SequenceClassificationModel beamSearch = new BeamSearch(3, model);
+    SequenceClassificationModel first = new PrimitiveBeamSearch(3, model, cache);
+    SequenceClassificationModel second = new BeamSearch(3, model, cache);
+
+    for (int n = 0; n < 50; n++) {
+      String[] sequence = createSequence(random);
+      Sequence[] expected = beamSearch.bestSequences(3, sequence, null, CONTEXT_GENERATOR, VALIDATOR);
+      assertSequences(expected, first.bestSequences(3, sequence, null, CONTEXT_GENERATOR, VALIDATOR));
+      assertSequences(expected, second.bestSequences(3, sequence, null, CONTEXT_GENERATOR, VALIDATOR));
+    }
+    Assertions.assertTrue(cache.getHitCount() > 0);
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 3})
+  void testNoValidSequence(int beamSize) {
+    MaxentModel model = createModel(new Random(7));
+    SequenceValidator<String> validator = (i, inputSequence, outcomesSequence, outcome) -> i < 2;
+    String[] sequence = {"1", "2", "3"};
+
+    Assertions.assertNull(new PrimitiveBeamSearch(beamSize, model)
+        .bestSequence(sequence, null, CONTEXT_GENERATOR, validator));
+    Assertions.assertEquals(0, new PrimitiveBeamSearch(beamSize, model)
+        .bestSequences(3, sequence, null, CONTEXT_GENERATOR, validator).length);
+  }
+}
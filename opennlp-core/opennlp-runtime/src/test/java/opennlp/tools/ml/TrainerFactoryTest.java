@@ -22,6 +22,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import opennlp.tools.ml.TrainerFactory.TrainerType;
+import opennlp.tools.ml.maxent.sgd.SGDTrainer;
 import opennlp.tools.ml.perceptron.SimplePerceptronSequenceTrainer;
 import opennlp.tools.monitoring.DefaultTrainingProgressMonitor;
 import opennlp.tools.monitoring.StopCriteria;
@@ -84,6 +85,15 @@ public class TrainerFactoryTest {
     Assertions.assertNotEquals(TrainerType.EVENT_MODEL_SEQUENCE_TRAINER, trainerType);
   }
 
+  @Test
+  void testGetSGDEventTrainer() {
+    mlParams.put(Parameters.ALGORITHM_PARAM, SGDTrainer.MAXENT_SGD_VALUE);
+
+    Assertions.assertTrue(TrainerFactory.isValid(mlParams));
+    Assertions.assertEquals(TrainerType.EVENT_MODEL_TRAINER, TrainerFactory.getTrainerType(mlParams));
+    assertInstanceOf(SGDTrainer.class, TrainerFactory.getEventTrainer(mlParams, null));
+  }
+
   @Test
   void testGetEventTrainerConfiguration() {
     mlParams.put(Parameters.ALGORITHM_PARAM, Parameters.ALGORITHM_DEFAULT_VALUE);
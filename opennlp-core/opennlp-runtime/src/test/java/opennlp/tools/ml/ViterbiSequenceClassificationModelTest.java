@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ml;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import opennlp.tools.ml.maxent.GISModel;
+import opennlp.tools.ml.model.Context;
+import opennlp.tools.ml.model.MaxentModel;
+import opennlp.tools.util.BeamSearchContextGenerator;
+import opennlp.tools.util.Sequence;
+import opennlp.tools.util.SequenceValidator;
+
+/**
+ * Tests that {@link ViterbiSequenceClassificationModel} finds the exact best sequences.
+ */
+public class ViterbiSequenceClassificationModelTest {
+
+  private static final int NUM_WORDS = 10;
+  private static final String[] OUTCOMES = {"O", "B-A", "I-A", "B-B", "I-B"};
+
+  /** An I- outcome must continue a B- or I- outcome of the same type. */
+  private static final SequenceValidator<String> VALIDATOR =
+      (i, inputSequence, outcomesSequence, outcome) -> {
+        if (!outcome.startsWith("I-")) {
+          return true;
+        }
+        return outcomesSequence.length > 0 &&
+            outcomesSequence[outcomesSequence.length - 1].endsWith(outcome.substring(1));
+      };
+
+  private static final SequenceValidator<String> ALL_VALID =
+      (i, inputSequence, outcomesSequence, outcome) -> true;
+
+  /** Uses the current word and the {@code order} previous outcomes. */
+  private static BeamSearchContextGenerator<String> createContextGenerator(int order) {
+    return (index, sequence, priorDecisions, additionalContext) -> {
+      String[] context = new String[order + 1];
+      context[0] = "w=" + sequence[index];
+      for (int o = 1; o <= order; o++) {
+        context[o] = "p" + o + "=" + (index >= o ? priorDecisions[index - o] : "BOS");
+      }
+      return context;
+    };
+  }
+
+  private static MaxentModel createModel(Random random, int order) {
+    List<String> predLabels = new ArrayList<>();
+    for (int w = 0; w < NUM_WORDS; w++) {
+      predLabels.add("w=" + w);
+    }
+    for (int o = 1; o <= order; o++) {
+      predLabels.add("p" + o + "=BOS");
+      for (String outcome : OUTCOMES) {
+        predLabels.add("p" + o + "=" + outcome);
+      }
+    }
+
+    Context[] params = new Context[predLabels.size()];
+    int[] outcomes = new int[OUTCOMES.length];
+    for (int oi = 0; oi < outcomes.length; oi++) {
+      outcomes[oi] = oi;
+    }
+    for (int i = 0; i < params.length; i++) {
+      params[i] = new Context(outcomes, random.doubles(OUTCOMES.length, -2, 2).toArray());
+    }
+    return new GISModel(params, predLabels.toArray(new String[0]), OUTCOMES);
+  }
+
+  private static String[] createSequence(Random random, int maxLength) {
+    String[] sequence = new String[1 + random.nextInt(maxLength)];
+    for (int i = 0; i < sequence.length; i++) {
+      sequence[i] = Integer.toString(random.nextInt(NUM_WORDS));
+    }
+    return sequence;
+  }
+
+  /**
+   * Scores all valid outcome sequences and returns them ordered by descending score.
+   */
+  private static List<Sequence> enumerate(MaxentModel model, String[] sequence,
+      BeamSearchContextGenerator<String> cg, SequenceValidator<String> validator) {
+    List<Sequence> sequences = new ArrayList<>();
+    sequences.add(new Sequence());
+    for (int i = 0; i < sequence.length; i++) {
+      List<Sequence> next = new ArrayList<>();
+      for (Sequence prefix : sequences) {
+        String[] outcomes = prefix.getOutcomes().toArray(new String[0]);
+        double[] probs = model.eval(cg.getContext(i, sequence, outcomes, null));
+        for (int y = 0; y < OUTCOMES.length; y++) {
+          if (validator.validSequence(i, sequence, outcomes, model.getOutcome(y))) {
+            next.add(new Sequence(prefix, model.getOutcome(y), probs[y]));
+          }
+        }
+      }
+      sequences = next;
+    }
+    sequences.sort(Comparator.comparingDouble(Sequence::getScore).reversed());
+    return sequences;
+  }
+
+  private static boolean isTied(List<Sequence> sequences, int index) {
+    double score = sequences.get(index).getScore();
+    return index > 0 && StrictMath.abs(sequences.get(index - 1).getScore() - score) < 1e-9 ||
+        index + 1 < sequences.size() && StrictMath.abs(sequences.get(index + 1).getScore() - score) < 1e-9;
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {0, 1, 2})
+  void testExactBestSequences(int order) {
+    Random random = new Random(order);
+    MaxentModel model = createModel(random, order);
+    BeamSearchContextGenerator<String> cg = createContextGenerator(order);
+    ViterbiSequenceClassificationModel viterbi = new ViterbiSequenceClassificationModel(model, order);
+
+    for (int n = 0; n < 50; n++) {
+      String[] sequence = createSequence(random, 6);
+      SequenceValidator<String> validator = n % 2 == 0 ? VALIDATOR : ALL_VALID;
+      List<Sequence> expected = enumerate(model, sequence, cg, validator);
+
+      int numSequences = 1 + random.nextInt(8);
+      Sequence[] actual = viterbi.bestSequences(numSequences, sequence, null, cg, validator);
+
+      Assertions.assertEquals(StrictMath.min(numSequences, expected.size()), actual.length);
+      for (int i = 0; i < actual.length; i++) {
+        Assertions.assertEquals(expected.get(i).getScore(), actual[i].getScore(), 1e-9);
+        Assertions.assertEquals(sequence.length, actual[i].getProbs().length);
+        // sequences with equal scores can be found in any order
+        if (!isTied(expected, i)) {
+          Assertions.assertEquals(expected.get(i).getOutcomes(), actual[i].getOutcomes());
+        }
+      }
+    }
+  }
+
+  @Test
+  void testAtLeastAsGoodAsBeamSearch() {
+    Random random = new Random(11);
+    MaxentModel model = createModel(random, 2);
+    BeamSearchContextGenerator<String> cg = createContextGenerator(2);
+    ViterbiSequenceClassificationModel viterbi = new ViterbiSequenceClassificationModel(model, 2);
+    BeamSearch beamSearch = new BeamSearch(2, model);
+
+    for (int n = 0; n < 100; n++) {
+      String[] sequence = createSequence(random, 30);
+      Assertions.assertTrue(viterbi.bestSequence(sequence, null, cg, VALIDATOR).getScore() >=
+          beamSearch.bestSequence(sequence, null, cg, VALIDATOR).getScore() - 1e-9);
+    }
+  }
+
+  @Test
+  void testValidatorMasksTransitions() {
+    MaxentModel model = createModel(new Random(3), 1);
+    BeamSearchContextGenerator<String> cg = createContextGenerator(1);
+    ViterbiSequenceClassificationModel viterbi = new ViterbiSequenceClassificationModel(model, 1);
+
+    String[] sequence = {"1", "2", "3", "4", "5", "6", "7"};
+    for (Sequence s : viterbi.bestSequences(20, sequence, null, cg, VALIDATOR)) {
+      String[] outcomes = s.getOutcomes().toArray(new String[0]);
+      for (int i = 0; i < outcomes.length; i++) {
+        Assertions.assertTrue(VALIDATOR.validSequence(i, sequence,
+            Arrays.copyOf(outcomes, i), outcomes[i]));
+      }
+    }
+  }
+
+  @Test
+  void testNoValidSequence() {
+    MaxentModel model = createModel(new Random(7), 1);
+    SequenceValidator<String> validator = (i, inputSequence, outcomesSequence, outcome) -> i < 2;
+    String[] sequence = {"1", "2", "3"};
+    ViterbiSequenceClassificationModel viterbi = new ViterbiSequenceClassificationModel(model, 1);
+
+    Assertions.assertNull(viterbi.bestSequence(sequence, null, createContextGenerator(1), validator));
+    Assertions.assertEquals(0,
+        viterbi.bestSequences(3, sequence, null, createContextGenerator(1), validator).length);
+  }
+
+  @Test
+  void testEmptySequence() {
+    ViterbiSequenceClassificationModel viterbi =
+        new ViterbiSequenceClassificationModel(createModel(new Random(1), 1), 1);
+    Sequence sequence = viterbi.bestSequence(new String[0], null, createContextGenerator(1), VALIDATOR);
+    Assertions.assertTrue(sequence.getOutcomes().isEmpty());
+  }
+
+  @Test
+  void testInvalidOrder() {
+    MaxentModel model = createModel(new Random(1), 1);
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> new ViterbiSequenceClassificationModel(model, -1));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> new ViterbiSequenceClassificationModel(model, 20));
+  }
+}
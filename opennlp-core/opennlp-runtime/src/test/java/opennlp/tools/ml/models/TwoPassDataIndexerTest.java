@@ -18,13 +18,18 @@
 package opennlp.tools.ml.models;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.Random;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import opennlp.tools.ml.model.AbstractDataIndexer;
 import opennlp.tools.ml.model.DataIndexer;
 import opennlp.tools.ml.model.Event;
+import opennlp.tools.ml.model.OnePassDataIndexer;
 import opennlp.tools.ml.model.SimpleEventStreamBuilder;
 import opennlp.tools.ml.model.TwoPassDataIndexer;
 import opennlp.tools.namefind.NameContextGenerator;
@@ -91,4 +96,38 @@ public class TwoPassDataIndexerTest {
     Assertions.assertEquals(5, indexer.getContexts().length);
 
   }
+
+  @Test
+  void testIndexWithExternalSort() throws IOException {
+    Random random = new Random(42);
+    List<Event> events = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      String[] context = new String[1 + random.nextInt(5)];
+      for (int j = 0; j < context.length; j++) {
+        context[j] = "f" + random.nextInt(40);
+      }
+      events.add(new Event("o" + random.nextInt(3), context));
+    }
+
+    for (boolean sort : new boolean[] {true, false}) {
+      TrainingParameters parameters = new TrainingParameters();
+      parameters.put(AbstractDataIndexer.SORT_PARAM, sort);
+      DataIndexer<TrainingParameters> inMemory = new OnePassDataIndexer();
+      inMemory.init(parameters, null);
+      inMemory.index(ObjectStreamUtils.createObjectStream(events));
+
+      // a tiny sort buffer writes a run per event and requires several merge passes
+      parameters.put(TwoPassDataIndexer.SORT_BUFFER_SIZE_PARAM, 1);
+      DataIndexer<TrainingParameters> external = new TwoPassDataIndexer();
+      external.init(parameters, null);
+      external.index(ObjectStreamUtils.createObjectStream(events));
+
+      Assertions.assertArrayEquals(inMemory.getContexts(), external.getContexts());
+      Assertions.assertArrayEquals(inMemory.getOutcomeList(), external.getOutcomeList());
+      Assertions.assertArrayEquals(inMemory.getNumTimesEventsSeen(), external.getNumTimesEventsSeen());
+      Assertions.assertArrayEquals(inMemory.getPredLabels(), external.getPredLabels());
+      Assertions.assertArrayEquals(inMemory.getOutcomeLabels(), external.getOutcomeLabels());
+      Assertions.assertEquals(2000, external.getNumEvents());
+    }
+  }
 }
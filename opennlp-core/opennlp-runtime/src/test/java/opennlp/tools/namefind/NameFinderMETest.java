@@ -18,21 +18,30 @@
 package opennlp.tools.namefind;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import opennlp.tools.dictionary.Dictionary;
+import opennlp.tools.ml.model.EventCache;
 import opennlp.tools.util.MockInputStreamFactory;
 import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.ObjectStreamUtils;
 import opennlp.tools.util.Parameters;
 import opennlp.tools.util.PlainTextByLineStream;
 import opennlp.tools.util.Span;
+import opennlp.tools.util.StringList;
 import opennlp.tools.util.TrainingParameters;
 import opennlp.tools.util.featuregen.BrownCluster;
 
@@ -123,6 +132,45 @@ public class NameFinderMETest extends AbstractNameFinderTest {
    * Train NamefinderME using AnnotatedSentencesWithTypes.txt with "person"
    * nameType and try the model in a sample text.
    */
+  private static long trainCached(ObjectStream<NameSample> samples, Path cacheDir,
+                                  Map<String, Object> resources) throws IOException {
+    TrainingParameters params = new TrainingParameters();
+    params.put(Parameters.ITERATIONS_PARAM, 5);
+    params.put(Parameters.CUTOFF_PARAM, 0);
+    params.put(EventCache.CACHE_DIR_PARAM, cacheDir.toString());
+
+    samples.reset();
+    NameFinderME.train("eng", null, samples, params,
+        TokenNameFinderFactory.create(null, null, resources, new BioCodec()));
+    try (Stream<Path> files = Files.list(cacheDir)) {
+      return files.count();
+    }
+  }
+
+  @Test
+  void testEventCacheKey(@TempDir Path cacheDir) throws IOException {
+    ObjectStream<NameSample> samples = ObjectStreamUtils.createObjectStream(
+        NameSample.parse("<START> Mike <END> lives in Berlin .", false),
+        NameSample.parse("He met <START> Anna <END> .", false));
+
+    Dictionary dictionary = new Dictionary();
+    dictionary.put(new StringList("Mike"));
+    Map<String, Object> resources = Map.of("names.dictionary", dictionary);
+    assertEquals(1, trainCached(samples, cacheDir, resources));
+    assertEquals(1, trainCached(samples, cacheDir, resources));
+
+    // the resource content changed, the cached events must not be reused
+    dictionary.put(new StringList("Anna"));
+    assertEquals(2, trainCached(samples, cacheDir, resources));
+
+    String[][] additionalContext = {{"a"}, {"b"}, {"c"}, {"d"}, {"e"}, {"f"}};
+    ObjectStream<NameSample> withContext = ObjectStreamUtils.createObjectStream(
+        new NameSample(null, new String[] {"Mike", "lives", "in", "Berlin", "."},
+            new Span[] {new Span(0, 1, DEFAULT)}, additionalContext, false),
+        NameSample.parse("He met <START> Anna <END> .", false));
+    assertEquals(3, trainCached(withContext, cacheDir, resources));
+  }
+
   @Test
   void testNameFinderWithTypes() throws Exception {
 
@@ -345,7 +393,8 @@ public class NameFinderMETest extends AbstractNameFinderTest {
 
     //Get the brown cluster bit-strings
     Map<String, Object> resources = new HashMap<>();
-    resources.put("brownCluster", new BrownCluster(getResourcAsStream("/opennlp/tools/namefind/sample-brown-cluster.txt"), 1L));
+    resources.put("brownCluster", new BrownCluster(
+        getResourcAsStream("/opennlp/tools/namefind/sample-brown-cluster.txt"), 1L));
 
     //Load the custom feature generator bytes
     byte[] customFeatureGenBytes = TokenNameFinderFactory.loadDefaultFeatureGeneratorBytes(
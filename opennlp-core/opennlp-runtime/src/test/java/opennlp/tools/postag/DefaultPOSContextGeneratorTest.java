@@ -33,6 +33,7 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import opennlp.tools.dictionary.Dictionary;
+import opennlp.tools.util.ConcurrentCache;
 import opennlp.tools.util.StringList;
 
 /**
@@ -125,6 +126,28 @@ public class DefaultPOSContextGeneratorTest {
         + " but actually was \n" + Arrays.toString(actual));
   }
 
+  @Test
+  void sharedCache() {
+    ConcurrentCache<List<String>, String[]> cache = new ConcurrentCache<>(100);
+    Dictionary dictionary = new Dictionary();
+    dictionary.put(new StringList("tokenC"));
+    DefaultPOSContextGenerator first = new DefaultPOSContextGenerator(cache, dictionary);
+    DefaultPOSContextGenerator second = new DefaultPOSContextGenerator(cache, dictionary);
+
+    for (int index = 0; index < tokens.length; index++) {
+      Assertions.assertArrayEquals(defaultPOSContextGenerator.getContext(index, tokens, tags),
+          first.getContext(index, tokens, tags));
+    }
+    Assertions.assertEquals(0, cache.getHitCount());
+
+    // another sentence with the same tokens and tags around an index reuses the contexts
+    Object[] otherTokens = {"tokenX", "tokenA", "tokenB", "tokenC", "tokenD"};
+    String[] otherTags = {"tagX", "tagA", "tagB", "tagC", "tagD"};
+    Assertions.assertSame(first.getContext(2, tokens, tags),
+        second.getContext(3, otherTokens, otherTags));
+    Assertions.assertEquals(2, cache.getHitCount());
+  }
+
   @Test
   void multithreading() {
     Callable<Void> matching = () -> {
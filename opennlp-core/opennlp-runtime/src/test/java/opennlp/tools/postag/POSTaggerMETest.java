@@ -18,20 +18,31 @@
 package opennlp.tools.postag;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import opennlp.tools.AbstractModelLoaderTest;
 import opennlp.tools.EnabledWhenCDNAvailable;
+import opennlp.tools.dictionary.Dictionary;
 import opennlp.tools.formats.ResourceAsStreamFactory;
+import opennlp.tools.ml.PrimitiveBeamSearch;
+import opennlp.tools.ml.ViterbiSequenceClassificationModel;
+import opennlp.tools.ml.model.EventCache;
 import opennlp.tools.util.InputStreamFactory;
 import opennlp.tools.util.InsufficientTrainingDataException;
 import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.Parameters;
 import opennlp.tools.util.PlainTextByLineStream;
+import opennlp.tools.util.Sequence;
+import opennlp.tools.util.StringList;
 import opennlp.tools.util.TrainingParameters;
 import opennlp.tools.util.model.ModelType;
 
@@ -143,6 +154,102 @@ public class POSTaggerMETest extends AbstractModelLoaderTest {
     Assertions.assertArrayEquals(expectedTags, tagger.tag(sentences));
   }
 
+  /**
+   * Trains a POSModel with the default features, but without the feature cache which
+   * prevents exact decoding.
+   */
+  private static POSModel trainUncachedPOSModel(TrainingParameters params) throws IOException {
+    String descriptor;
+    try (InputStream in = POSTaggerMETest.class.getResourceAsStream(
+        "/opennlp/tools/postag/pos-default-features.xml")) {
+      descriptor = new String(in.readAllBytes(), StandardCharsets.UTF_8).replace(" cache=\"true\"", "");
+    }
+    params.put(Parameters.ALGORITHM_PARAM, ModelType.MAXENT.toString());
+    params.put(Parameters.ITERATIONS_PARAM, 100);
+    params.put(Parameters.CUTOFF_PARAM, 5);
+
+    return POSTaggerME.train("eng", createSampleStream(), params,
+        new POSTaggerFactory(descriptor.getBytes(StandardCharsets.UTF_8), null, null));
+  }
+
+  @Test
+  void testPOSTaggerViterbiDecoder() throws IOException {
+    TrainingParameters params = new TrainingParameters();
+    params.put(ViterbiSequenceClassificationModel.SEQUENCE_DECODER_PARAMETER,
+        ViterbiSequenceClassificationModel.VITERBI_DECODER);
+
+    POSModel model = trainUncachedPOSModel(params);
+    Assertions.assertEquals("2",
+        model.getManifestProperty(ViterbiSequenceClassificationModel.OUTCOME_HISTORY_ORDER_PARAMETER));
+    Assertions.assertInstanceOf(ViterbiSequenceClassificationModel.class, model.getPosSequenceModel());
+
+    final String[] expected = {"DT", "NN", "VBD", "RB", "VBN", "IN", "DT", "NN", "."};
+    testPOSTagger(new POSTaggerME(model, POSTagFormat.PENN), sentence, expected);
+  }
+
+  @Test
+  void testSequenceDecoderSystemProperty() throws IOException {
+    POSModel model = trainUncachedPOSModel(new TrainingParameters());
+    Assertions.assertInstanceOf(PrimitiveBeamSearch.class, model.getPosSequenceModel());
+    Sequence beam = new POSTaggerME(model, POSTagFormat.PENN).topKSequences(sentence)[0];
+
+    // the cached default features do not declare an order, the beam search is used
+    POSModel cachedModel = trainPennFormatPOSModel(ModelType.MAXENT);
+
+    System.setProperty(ViterbiSequenceClassificationModel.SEQUENCE_DECODER_PROPERTY,
+        ViterbiSequenceClassificationModel.VITERBI_DECODER);
+    try {
+      Assertions.assertInstanceOf(ViterbiSequenceClassificationModel.class, model.getPosSequenceModel());
+      Assertions.assertInstanceOf(PrimitiveBeamSearch.class, cachedModel.getPosSequenceModel());
+
+      // the exact search finds a sequence which scores at least as high as the beam search one
+      Sequence viterbi = new POSTaggerME(model, POSTagFormat.PENN).topKSequences(sentence)[0];
+      Assertions.assertTrue(viterbi.getScore() >= beam.getScore() - 1e-9);
+    } finally {
+      System.clearProperty(ViterbiSequenceClassificationModel.SEQUENCE_DECODER_PROPERTY);
+    }
+  }
+
+  private static long trainCached(Path cacheDir, Map<String, Object> resources) throws IOException {
+    TrainingParameters params = new TrainingParameters();
+    params.put(Parameters.ALGORITHM_PARAM, ModelType.MAXENT.toString());
+    params.put(Parameters.ITERATIONS_PARAM, 5);
+    params.put(Parameters.CUTOFF_PARAM, 5);
+    params.put(EventCache.CACHE_DIR_PARAM, cacheDir.toString());
+
+    POSTaggerME.train("eng", createSampleStream(), params, new POSTaggerFactory(null, resources, null));
+    try (Stream<Path> files = Files.list(cacheDir)) {
+      return files.count();
+    }
+  }
+
+  @Test
+  void testEventCacheKey(@TempDir Path cacheDir) throws IOException {
+    Dictionary dictionary = new Dictionary();
+    dictionary.put(new StringList("driver"));
+    Map<String, Object> resources = Map.of("words.dictionary", dictionary);
+    Assertions.assertEquals(1, trainCached(cacheDir, resources));
+    Assertions.assertEquals(1, trainCached(cacheDir, resources));
+
+    // the resource content changed, the cached events must not be reused
+    dictionary.put(new StringList("accident"));
+    Assertions.assertEquals(2, trainCached(cacheDir, resources));
+  }
+
+  @Test
+  void testPOSTaggerPerceptronSequenceInParallel() throws IOException {
+    TrainingParameters params = new TrainingParameters();
+    params.put(Parameters.ALGORITHM_PARAM, ModelType.PERCEPTRON_SEQUENCE.toString());
+    params.put(Parameters.ITERATIONS_PARAM, 10);
+    params.put(Parameters.CUTOFF_PARAM, 5);
+    params.put(Parameters.THREADS_PARAM, 2);
+
+    POSModel model = POSTaggerME.train("eng", createSampleStream(), params, new POSTaggerFactory());
+
+    final String[] expected = {"DT", "NN", "VBD", "RB", "VBN", "IN", "DT", "NN", "."};
+    testPOSTagger(new POSTaggerME(model, POSTagFormat.PENN), sentence, expected);
+  }
+
   @Test
   void testBuildNGramDictionary() throws IOException {
     ObjectStream<POSSample> samples = createSampleStream();
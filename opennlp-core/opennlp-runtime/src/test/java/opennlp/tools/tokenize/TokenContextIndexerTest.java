@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.tokenize;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Set;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import opennlp.tools.ml.model.CompiledParameters;
+import opennlp.tools.ml.model.IndexedMaxentModel;
+
+/**
+ * Tests for the {@link TokenContextIndexer} class.
+ */
+public class TokenContextIndexerTest {
+
+  private static final String[] TOKENS = {"Mr.", "it's", "(1984),", "\"Hello!\"", "&amp;",
+      "Straße.", "naïve?", "ab", "year,"};
+
+  private static IndexedMaxentModel model;
+
+  @BeforeAll
+  static void trainModel() throws IOException {
+    model = (IndexedMaxentModel) TokenizerTestUtil.createMaxentTokenModel().getMaxentModel();
+  }
+
+  @Test
+  void testSameContextAsGenerator() {
+    Set<String> abbreviations = Set.of("Mr.");
+    DefaultTokenContextGenerator cg = new DefaultTokenContextGenerator(abbreviations);
+    CompiledParameters params = model.getParameters();
+    TokenContextIndexer indexer = new TokenContextIndexer(params, abbreviations);
+    int[] predIndices = new int[TokenContextIndexer.MAX_CONTEXT_LENGTH];
+
+    for (String token : TOKENS) {
+      indexer.setToken(token);
+      for (int i = 0; i < token.length(); i++) {
+        String[] context = cg.getContext(token, i);
+        int[] expected = new int[context.length];
+        for (int ci = 0; ci < context.length; ci++) {
+          expected[ci] = params.getPredicateIndex(context[ci]);
+        }
+
+        int length = indexer.getContext(i, predIndices);
+        Assertions.assertArrayEquals(expected, Arrays.copyOf(predIndices, length),
+            token + " at " + i);
+      }
+    }
+  }
+
+  @Test
+  void testSameProbabilities() {
+    DefaultTokenContextGenerator cg = new DefaultTokenContextGenerator();
+    TokenContextIndexer indexer = new TokenContextIndexer(model.getParameters(), Set.of());
+    int[] predIndices = new int[TokenContextIndexer.MAX_CONTEXT_LENGTH];
+    double[] probs = new double[model.getNumOutcomes()];
+
+    for (String token : TOKENS) {
+      indexer.setToken(token);
+      for (int i = 1; i < token.length(); i++) {
+        int length = indexer.getContext(i, predIndices);
+        Assertions.assertArrayEquals(model.eval(cg.getContext(token, i)),
+            model.evalIndices(predIndices, length, probs));
+      }
+    }
+  }
+}
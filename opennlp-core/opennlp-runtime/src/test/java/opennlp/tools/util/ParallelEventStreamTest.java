@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import opennlp.tools.ml.model.Event;
+import opennlp.tools.namefind.NameFinderEventStream;
+import opennlp.tools.namefind.NameSample;
+import opennlp.tools.namefind.NameSampleDataStream;
+import opennlp.tools.namefind.TokenNameFinderFactory;
+
+public class ParallelEventStreamTest {
+
+  private static final TokenNameFinderFactory FACTORY = new TokenNameFinderFactory();
+
+  private static List<NameSample> samples;
+
+  @BeforeAll
+  static void initSamples() throws IOException {
+    samples = new ArrayList<>();
+    // repeat the documents to get many batches with several documents each
+    for (int i = 0; i < 10; i++) {
+      try (ObjectStream<NameSample> sampleStream = new NameSampleDataStream(
+          new PlainTextByLineStream(new MockInputStreamFactory(
+              new File("opennlp/tools/namefind/AnnotatedSentences.txt")), StandardCharsets.ISO_8859_1))) {
+        NameSample sample;
+        while ((sample = sampleStream.read()) != null) {
+          samples.add(sample);
+        }
+      }
+    }
+  }
+
+  private static AbstractEventStream<NameSample> createEventStream(ObjectStream<NameSample> samples) {
+    return new NameFinderEventStream(samples, "default", FACTORY.createContextGenerator(),
+        FACTORY.createSequenceCodec());
+  }
+
+  private static List<String> readEvents(ObjectStream<Event> events) throws IOException {
+    List<String> result = new ArrayList<>();
+    Event event;
+    while ((event = events.read()) != null) {
+      result.add(event.toString());
+    }
+    return result;
+  }
+
+  @Test
+  void testSameEventsAsSequentialStream() throws IOException {
+    List<String> expected = readEvents(createEventStream(new CollectionObjectStream<>(samples)));
+
+    try (ObjectStream<Event> events = new ParallelEventStream<>(new CollectionObjectStream<>(samples), 4,
+        ParallelEventStreamTest::createEventStream, NameSample::isClearAdaptiveDataSet)) {
+      Assertions.assertEquals(expected, readEvents(events));
+      Assertions.assertNull(events.read());
+
+      events.reset();
+      Assertions.assertEquals(expected, readEvents(events));
+    }
+  }
+
+  @Test
+  void testStreamWithoutUnitStarts() throws IOException {
+    Assertions.assertTrue(samples.size() > ParallelEventStream.MAX_UNIT_SIZE);
+    List<String> expected = readEvents(createEventStream(new CollectionObjectStream<>(samples)));
+
+    // all samples form one unit, which exceeds the maximal batch size
+    try (ObjectStream<Event> events = new ParallelEventStream<>(new CollectionObjectStream<>(samples), 4,
+        ParallelEventStreamTest::createEventStream, sample -> false)) {
+      Assertions.assertEquals(expected, readEvents(events));
+
+      events.reset();
+      Assertions.assertEquals(expected, readEvents(events));
+    }
+  }
+
+  @Test
+  void testCreate() {
+    TrainingParameters params = new TrainingParameters();
+    ObjectStream<NameSample> sampleStream = new CollectionObjectStream<>(samples);
+
+    Assertions.assertInstanceOf(NameFinderEventStream.class, ParallelEventStream.create(params,
+        sampleStream, ParallelEventStreamTest::createEventStream));
+
+    params.put(ParallelEventStream.THREADS_PARAM, 2);
+    Assertions.assertInstanceOf(ParallelEventStream.class, ParallelEventStream.create(params,
+        sampleStream, ParallelEventStreamTest::createEventStream));
+  }
+
+  @Test
+  void testFeaturizationFailure() {
+    ObjectStream<Event> events = new ParallelEventStream<NameSample>(new CollectionObjectStream<>(samples), 2,
+        sampleStream -> new AbstractEventStream<>(sampleStream) {
+          @Override
+          protected Iterator<Event> createEvents(NameSample sample) {
+            throw new IllegalStateException("featurization failed");
+          }
+        });
+
+    IllegalStateException e = Assertions.assertThrows(IllegalStateException.class, events::read);
+    Assertions.assertEquals("featurization failed", e.getMessage());
+  }
+
+  @Test
+  void testInvalidThreads() {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new ParallelEventStream<>(
+        new CollectionObjectStream<>(samples), 0, ParallelEventStreamTest::createEventStream));
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import opennlp.tools.ml.maxent.GISModel;
+import opennlp.tools.ml.model.Context;
+import opennlp.tools.namefind.TokenNameFinderModel;
+
+/**
+ * Tests the loading of model packages by {@link BaseModel}.
+ */
+public class BaseModelTest {
+
+  @AfterEach
+  void resetExecutor() {
+    BaseModel.setLoaderExecutor(null);
+  }
+
+  private static GISModel createModel(int seed) {
+    String[] predLabels = new String[100];
+    Context[] params = new Context[predLabels.length];
+    for (int pi = 0; pi < predLabels.length; pi++) {
+      predLabels[pi] = "pred=" + pi;
+      params[pi] = new Context(new int[] {pi % 3}, new double[] {seed + pi / 100d});
+    }
+    return new GISModel(params, predLabels, new String[] {"other", "person-start", "person-cont"});
+  }
+
+  private static byte[] createModelPackage() throws IOException {
+    Map<String, Object> resources = new HashMap<>();
+    for (int i = 0; i < 6; i++) {
+      resources.put("resource-" + i + ".model", createModel(i));
+    }
+    TokenNameFinderModel model = new TokenNameFinderModel("eng", createModel(42), resources, null);
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    model.serialize(out);
+    return out.toByteArray();
+  }
+
+  private static void assertArtifacts(TokenNameFinderModel model) {
+    for (int i = 0; i < 6; i++) {
+      Assertions.assertEquals(createModel(i), model.getArtifact("resource-" + i + ".model"));
+    }
+    Assertions.assertEquals(createModel(42), model.getArtifact("nameFinder.model"));
+    Assertions.assertEquals("eng", model.getLanguage());
+  }
+
+  @Test
+  void testLoadConcurrently() throws IOException {
+    byte[] modelPackage = createModelPackage();
+
+    ExecutorService executor = Executors.newFixedThreadPool(3);
+    try {
+      BaseModel.setLoaderExecutor(executor);
+      assertArtifacts(new TokenNameFinderModel(new ByteArrayInputStream(modelPackage)));
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  void testLoadOnCallerThread() throws IOException {
+    BaseModel.setLoaderExecutor(null);
+    assertArtifacts(new TokenNameFinderModel(new ByteArrayInputStream(createModelPackage())));
+  }
+
+  @Test
+  void testBrokenArtifact() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (ZipOutputStream zip = new ZipOutputStream(out);
+         ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(createModelPackage()))) {
+      ZipEntry entry;
+      while ((entry = in.getNextEntry()) != null) {
+        zip.putNextEntry(new ZipEntry(entry.getName()));
+        in.transferTo(zip);
+        zip.closeEntry();
+      }
+      zip.putNextEntry(new ZipEntry("broken.model"));
+      zip.write(new byte[] {1, 2, 3});
+      zip.closeEntry();
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(3);
+    try {
+      BaseModel.setLoaderExecutor(executor);
+      Assertions.assertThrows(IOException.class,
+          () -> new TokenNameFinderModel(new ByteArrayInputStream(out.toByteArray())));
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
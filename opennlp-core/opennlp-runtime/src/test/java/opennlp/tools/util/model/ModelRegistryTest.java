@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util.model;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import opennlp.tools.ml.maxent.GISModel;
+import opennlp.tools.ml.model.Context;
+import opennlp.tools.models.ModelType;
+import opennlp.tools.namefind.TokenNameFinderModel;
+import opennlp.tools.tokenize.TokenizerModel;
+
+/**
+ * Tests for {@link ModelRegistry}.
+ */
+public class ModelRegistryTest {
+
+  private static final ModelRegistry.Key KEY =
+      new ModelRegistry.Key("en", ModelType.NAME_FINDER, "1.0");
+
+  private final AtomicInteger loads = new AtomicInteger();
+
+  private TokenNameFinderModel createModel() {
+    loads.incrementAndGet();
+    GISModel model = new GISModel(new Context[] {new Context(new int[] {1}, new double[] {1})},
+        new String[] {"pred"}, new String[] {"other", "person-start", "person-cont"});
+    return new TokenNameFinderModel("en", model, null, null);
+  }
+
+  @Test
+  void testConcurrentLoadsAreDeduplicated() throws Exception {
+    ModelRegistry registry = new ModelRegistry();
+    CompletableFuture<Void> loading = new CompletableFuture<>();
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<ModelRegistry.Lease<TokenNameFinderModel>>> leases = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        leases.add(executor.submit(() -> registry.acquire(KEY, TokenNameFinderModel.class, () -> {
+          loading.join();
+          return createModel();
+        })));
+      }
+      loading.complete(null);
+
+      TokenNameFinderModel first = leases.get(0).get().get();
+      for (Future<ModelRegistry.Lease<TokenNameFinderModel>> lease : leases) {
+        Assertions.assertSame(first, lease.get().get());
+        lease.get().close();
+      }
+      Assertions.assertEquals(1, loads.get());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  void testSharedInstance() throws IOException {
+    ModelRegistry registry = new ModelRegistry();
+    TokenNameFinderModel model = registry.get(KEY, TokenNameFinderModel.class, this::createModel);
+
+    try (ModelRegistry.Lease<TokenNameFinderModel> lease =
+             registry.acquire(KEY, TokenNameFinderModel.class, this::createModel)) {
+      Assertions.assertSame(model, lease.get());
+    }
+    Assertions.assertSame(model, registry.get(KEY, TokenNameFinderModel.class, this::createModel));
+    Assertions.assertNotSame(model, registry.get(new ModelRegistry.Key("en", ModelType.NAME_FINDER, "2.0"),
+        TokenNameFinderModel.class, this::createModel));
+    Assertions.assertEquals(2, loads.get());
+  }
+
+  private void acquireAndClose(ModelRegistry registry) throws IOException {
+    ModelRegistry.Lease<TokenNameFinderModel> first =
+        registry.acquire(KEY, TokenNameFinderModel.class, this::createModel);
+    ModelRegistry.Lease<TokenNameFinderModel> second =
+        registry.acquire(KEY, TokenNameFinderModel.class, this::createModel);
+
+    first.close();
+    first.close();
+    Assertions.assertThrows(IllegalStateException.class, first::get);
+    Assertions.assertNotNull(second.get());
+    second.close();
+  }
+
+  @Test
+  void testReleaseAfterLastLease() throws IOException, InterruptedException {
+    ModelRegistry registry = new ModelRegistry();
+    acquireAndClose(registry);
+    Assertions.assertEquals(1, loads.get());
+
+    for (int i = 0; i < 50 && registry.contains(KEY); i++) {
+      System.gc();
+      Thread.sleep(10);
+    }
+    Assertions.assertFalse(registry.contains(KEY));
+
+    registry.acquire(KEY, TokenNameFinderModel.class, this::createModel).close();
+    Assertions.assertEquals(2, loads.get());
+  }
+
+  @Test
+  void testFailedLoadIsNotCached() throws IOException {
+    ModelRegistry registry = new ModelRegistry();
+    Assertions.assertThrows(IOException.class, () -> registry.get(KEY, TokenNameFinderModel.class,
+        () -> {
+          throw new IOException("broken");
+        }));
+    Assertions.assertFalse(registry.contains(KEY));
+    Assertions.assertNotNull(registry.get(KEY, TokenNameFinderModel.class, this::createModel));
+  }
+
+  @Test
+  void testRecursiveLoad() throws IOException {
+    ModelRegistry registry = new ModelRegistry();
+    Assertions.assertThrows(IllegalStateException.class, () -> registry.get(KEY, TokenNameFinderModel.class,
+        () -> registry.get(KEY, TokenNameFinderModel.class, this::createModel)));
+    Assertions.assertFalse(registry.contains(KEY));
+    Assertions.assertNotNull(registry.get(KEY, TokenNameFinderModel.class, this::createModel));
+  }
+
+  @Test
+  void testTypeMismatch() throws IOException {
+    ModelRegistry registry = new ModelRegistry();
+    try (ModelRegistry.Lease<TokenNameFinderModel> lease =
+             registry.acquire(KEY, TokenNameFinderModel.class, this::createModel)) {
+      Assertions.assertThrows(IllegalArgumentException.class,
+          () -> registry.acquire(KEY, TokenizerModel.class, () -> null));
+      Assertions.assertNotNull(lease.get());
+    }
+  }
+}
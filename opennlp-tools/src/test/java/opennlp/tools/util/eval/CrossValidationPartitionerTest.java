@@ -202,6 +202,50 @@ public class CrossValidationPartitionerTest {
     }
   }
 
+  private static List<String> evaluateFolds(int threads) throws IOException {
+    List<String> data = new LinkedList<>();
+    for (int i = 1; i <= 10; i++) {
+      data.add(String.format("%02d", i));
+    }
+
+    CrossValidationPartitioner<String> partitioner = new CrossValidationPartitioner<>(data, 3);
+    return partitioner.evaluateFolds(threads, trainingSampleStream -> {
+      StringBuilder fold = new StringBuilder();
+      String sample;
+      while ((sample = trainingSampleStream.read()) != null) {
+        fold.append(sample).append(' ');
+      }
+      fold.append('|');
+      ObjectStream<String> testSampleStream = trainingSampleStream.getTestSampleStream();
+      while ((sample = testSampleStream.read()) != null) {
+        fold.append(' ').append(sample);
+      }
+      return fold.toString();
+    });
+  }
+
+  @Test
+  void testEvaluateFolds() throws IOException {
+    List<String> folds = evaluateFolds(1);
+    Assertions.assertEquals(List.of(
+        "02 03 05 06 08 09 | 01 04 07 10",
+        "01 03 04 06 07 09 10 | 02 05 08",
+        "01 02 04 05 07 08 10 | 03 06 09"), folds);
+
+    // the concurrently evaluated folds are the same and in the same order
+    Assertions.assertEquals(folds, evaluateFolds(3));
+    Assertions.assertEquals(folds, evaluateFolds(2));
+  }
+
+  @Test
+  void testEvaluateFoldsFailure() {
+    CrossValidationPartitioner<String> partitioner =
+        new CrossValidationPartitioner<>(List.of("01", "02", "03"), 3);
+    Assertions.assertThrows(IOException.class, () -> partitioner.evaluateFolds(3, trainingSampleStream -> {
+      throw new IOException("fold failed");
+    }));
+  }
+
   @Test
   void testToString() {
     Collection<String> emptyCollection = Collections.emptySet();